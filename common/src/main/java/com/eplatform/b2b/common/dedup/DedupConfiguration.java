@@ -0,0 +1,24 @@
+package com.eplatform.b2b.common.dedup;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Consumer-side dedup; services with a database {@code @Import} it from their Kafka
+ * configuration. Registers this package with JPA like
+ * {@link com.eplatform.b2b.common.outbox.OutboxConfiguration}. The purge runs through
+ * {@code @Scheduled}, so the service needs {@code @EnableScheduling}.
+ */
+@Configuration(proxyBeanMethods = false)
+@AutoConfigurationPackage(basePackageClasses = ProcessedEvent.class)
+public class DedupConfiguration {
+
+    @Bean
+    public ProcessedEventStore processedEventStore(ProcessedEventRepository repository,
+                                                   @Value("${dedup.cache-size:100000}") int cacheSize,
+                                                   @Value("${dedup.retention-ms:604800000}") long retentionMs) {
+        return new ProcessedEventStore(repository, cacheSize, retentionMs);
+    }
+}
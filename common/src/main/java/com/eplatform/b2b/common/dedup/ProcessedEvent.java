@@ -0,0 +1,79 @@
+package com.eplatform.b2b.common.dedup;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Marker row for an event a consumer has already applied, keyed by
+ * (topic, orderId, eventType).
+ */
+@Entity
+@IdClass(ProcessedEvent.Key.class)
+@Table(name = "processed_events", indexes = {
+    @Index(name = "ix_processed_events_processed_at", columnList = "processedAt")
+})
+public class ProcessedEvent {
+
+    public static class Key implements Serializable {
+        private String topic;
+        private String orderId;
+        private String eventType;
+
+        protected Key() {}
+
+        public Key(String topic, String orderId, String eventType) {
+            this.topic = topic;
+            this.orderId = orderId;
+            this.eventType = eventType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return topic.equals(other.topic) && orderId.equals(other.orderId) && eventType.equals(other.eventType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(topic, orderId, eventType);
+        }
+    }
+
+    @Id
+    @Column(length = 100)
+    private String topic;
+
+    @Id
+    @Column(length = 100)
+    private String orderId;
+
+    @Id
+    @Column(length = 100)
+    private String eventType;
+
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+
+    protected ProcessedEvent() {}
+
+    public ProcessedEvent(Key key, LocalDateTime processedAt) {
+        this.topic = key.topic;
+        this.orderId = key.orderId;
+        this.eventType = key.eventType;
+        this.processedAt = processedAt;
+    }
+
+    public String getTopic() { return topic; }
+    public String getOrderId() { return orderId; }
+    public String getEventType() { return eventType; }
+    public LocalDateTime getProcessedAt() { return processedAt; }
+}
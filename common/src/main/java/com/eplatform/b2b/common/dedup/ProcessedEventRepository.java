@@ -0,0 +1,15 @@
+package com.eplatform.b2b.common.dedup;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, ProcessedEvent.Key> {
+
+    @Modifying
+    @Query("DELETE FROM ProcessedEvent e WHERE e.processedAt < :threshold")
+    int deleteProcessedBefore(@Param("threshold") LocalDateTime threshold);
+}
@@ -0,0 +1,88 @@
+package com.eplatform.b2b.common.dedup;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers which events a consumer has applied so redeliveries (e.g. after a
+ * consumer-group rebalance) are dropped before any business transaction starts.
+ * Recent keys are answered from an in-memory LRU; older ones from the
+ * {@code processed_events} table, created by {@code db/migration/processed_events.sql}.
+ */
+@Slf4j
+public class ProcessedEventStore {
+
+    private final ProcessedEventRepository repository;
+    private final long retentionMs;
+    private final Map<ProcessedEvent.Key, Boolean> recent;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProcessedEventStore(ProcessedEventRepository repository, int cacheSize, long retentionMs) {
+        this.repository = repository;
+        this.retentionMs = retentionMs;
+        this.recent = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ProcessedEvent.Key, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public boolean isDuplicate(String topic, String orderId, String eventType) {
+        ProcessedEvent.Key key = new ProcessedEvent.Key(topic, orderId, eventType);
+        synchronized (recent) {
+            if (recent.get(key) != null) {
+                return true;
+            }
+        }
+        if (repository.existsById(key)) {
+            remember(key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records the event in the caller's transaction, so it is only marked processed
+     * if the work it triggered commits. A concurrent duplicate fails on the primary key.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markProcessed(String topic, String orderId, String eventType) {
+        ProcessedEvent.Key key = new ProcessedEvent.Key(topic, orderId, eventType);
+        entityManager.persist(new ProcessedEvent(key, LocalDateTime.now()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(key);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${dedup.purge-interval-ms:3600000}")
+    @Transactional
+    public void purge() {
+        int deleted = repository.deleteProcessedBefore(LocalDateTime.now().minus(retentionMs, ChronoUnit.MILLIS));
+        if (deleted > 0) {
+            log.info("Purged {} processed-event markers", deleted);
+        }
+    }
+
+    private void remember(ProcessedEvent.Key key) {
+        synchronized (recent) {
+            recent.put(key, Boolean.TRUE);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.eplatform.b2b.common.dto;
+
+/**
+ * Outcome of one line of a bulk order upload.
+ *
+ * @param line 1-based line number in the upload
+ * @param orderId set when the order was created
+ * @param error set when the line was rejected; the order was not created
+ */
+public record BulkOrderResultDto(
+    long line,
+    String orderId,
+    String status,
+    String error
+) {}
@@ -0,0 +1,14 @@
+package com.eplatform.b2b.common.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record OrderDetailsDto(
+    String orderId,
+    String status,
+    long totalAmountCents,
+    String currency,
+    String paymentTransactionId,
+    Instant createdAt,
+    List<OrderItemDto> items
+) {}
@@ -0,0 +1,13 @@
+package com.eplatform.b2b.common.dto;
+
+import java.util.List;
+
+/**
+ * One page of orders, oldest first.
+ *
+ * @param next pass as {@code after} to read the following page; null when this page was the last one
+ */
+public record OrderPageDto(
+    List<OrderSummaryDto> orders,
+    String next
+) {}
@@ -0,0 +1,12 @@
+package com.eplatform.b2b.common.dto;
+
+import java.time.Instant;
+
+public record OrderSummaryDto(
+    String orderId,
+    String status,
+    long totalAmountCents,
+    String currency,
+    String paymentTransactionId,
+    Instant createdAt
+) {}
@@ -4,7 +4,16 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
 
+/**
+ * @param buyerId optional; orders of buyers on net terms are charged in periodic
+ *     settlement batches instead of one by one
+ */
 public record PlaceOrderRequestDto(
     @NotEmpty List<OrderItemDto> items,
-    @NotNull String currency
-) {}
+    @NotNull String currency,
+    String buyerId
+) {
+  public PlaceOrderRequestDto(List<OrderItemDto> items, String currency) {
+    this(items, currency, null);
+  }
+}
@@ -3,6 +3,15 @@ package com.eplatform.b2b.common.dto;
 import jakarta.validation.constraints.NotEmpty;
 import java.util.List;
 
+/**
+ * @param orderId optional; when set the reservation is recorded under it, so a retried
+ *     request is not reserved twice and the reservation can be released by order
+ */
 public record ReserveRequestDto(
-    @NotEmpty List<ReserveItemDto> items
-) {}
+    @NotEmpty List<ReserveItemDto> items,
+    String orderId
+) {
+  public ReserveRequestDto(List<ReserveItemDto> items) {
+    this(items, null);
+  }
+}
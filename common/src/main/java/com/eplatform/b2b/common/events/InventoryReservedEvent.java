@@ -1,5 +1,16 @@
 package com.eplatform.b2b.common.events;
 
+/**
+ * Stock is held for the order; carries the order total so payment can charge it, and the
+ * buyer when the order has one.
+ */
 public record InventoryReservedEvent(
-    String orderId
-) {}
+    String orderId,
+    long totalAmountCents,
+    String currency,
+    String buyerId
+) {
+  public InventoryReservedEvent(String orderId, long totalAmountCents, String currency) {
+    this(orderId, totalAmountCents, currency, null);
+  }
+}
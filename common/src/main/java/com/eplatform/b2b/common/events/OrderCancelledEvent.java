@@ -0,0 +1,7 @@
+package com.eplatform.b2b.common.events;
+
+/** The order will not complete; services holding stock or money for it release them. */
+public record OrderCancelledEvent(
+  String orderId,
+  String reason
+) {}
@@ -3,9 +3,15 @@ package com.eplatform.b2b.common.events;
 import com.eplatform.b2b.common.dto.ReserveItemDto;
 import java.util.List;
 
+/** @param buyerId optional; identifies the buyer account for settlement on net terms */
 public record OrderPlacedEvent(
     String orderId,
     List<ReserveItemDto> items,
     long totalAmountCents,
-    String currency
-) {}
+    String currency,
+    String buyerId
+) {
+  public OrderPlacedEvent(String orderId, List<ReserveItemDto> items, long totalAmountCents, String currency) {
+    this(orderId, items, totalAmountCents, currency, null);
+  }
+}
@@ -0,0 +1,12 @@
+package com.eplatform.b2b.common.events;
+
+/**
+ * The order was charged after it had already failed or timed out; payment refunds the
+ * transaction. Carries the order total, which is what the late charge took.
+ */
+public record OrderRefundRequestedEvent(
+    String orderId,
+    String transactionId,
+    long amountCents,
+    String reason
+) {}
@@ -0,0 +1,16 @@
+package com.eplatform.b2b.common.messaging;
+
+/**
+ * Service-specific follow-up to a dead-lettered record, e.g. failing the order it belongs
+ * to so it does not stay pending. Beans of this type are called by {@link DeadLetterHandler}.
+ */
+@FunctionalInterface
+public interface DeadLetterAction {
+
+    /**
+     * @param topic the topic the record was consumed from, without the DLT suffix
+     * @param payload the deserialized record value
+     * @param reason the message of the exception that exhausted the retries, if known
+     */
+    void onDeadLetter(String topic, Object payload, String reason);
+}
@@ -0,0 +1,40 @@
+package com.eplatform.b2b.common.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Receives records that exhausted their retries (see {@link ListenerRetryConfiguration}).
+ * They stay on the DLT for replay once the cause is fixed; the service's
+ * {@link DeadLetterAction}s run after the record is counted and logged.
+ */
+@Slf4j
+public class DeadLetterHandler {
+
+    private final MeterRegistry meterRegistry;
+    private final List<DeadLetterAction> actions;
+
+    public DeadLetterHandler(MeterRegistry meterRegistry, List<DeadLetterAction> actions) {
+        this.meterRegistry = meterRegistry;
+        this.actions = List.copyOf(actions);
+    }
+
+    public void onDeadLetter(@Payload Object payload,
+                             @Header(KafkaHeaders.RECEIVED_TOPIC) String dltTopic,
+                             @Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) byte[] error) {
+        String topic = dltTopic.endsWith("-dlt") ? dltTopic.substring(0, dltTopic.length() - 4) : dltTopic;
+        String reason = error != null ? new String(error, StandardCharsets.UTF_8) : null;
+        meterRegistry.counter("kafka.listener.dead_letters", "topic", topic).increment();
+        log.error("Dead-lettered {} record {}: {}", topic, payload, reason);
+
+        for (DeadLetterAction action : actions) {
+            action.onDeadLetter(topic, payload, reason);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.eplatform.b2b.common.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The one way services put events on Kafka. Every send is tracked until the broker
+ * acknowledges it: at most {@code maxInFlight} sends are outstanding, and callers
+ * block for up to {@code maxBlockMs} for a slot instead of piling records into the
+ * producer buffer. Failures are logged and counted here, so fire-and-forget callers
+ * no longer lose them silently; callers that must know the outcome use the future.
+ *
+ * <p>Meters, tagged by topic: {@code events.publish.latency} (histogram, send to ack),
+ * {@code events.publish.failures}, and the {@code events.publish.in_flight} gauge. The
+ * in-flight cap is shared by all topics.
+ * Producer tuning lives in {@link EventPublisherConfiguration}.
+ */
+@Slf4j
+public class EventPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxInFlight;
+    private final long maxBlockMs;
+    private final Semaphore permits;
+    private final Map<String, Timer> latencyByTopic = new ConcurrentHashMap<>();
+    private final Map<String, Counter> failuresByTopic = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inFlightByTopic = new ConcurrentHashMap<>();
+
+    public EventPublisher(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry,
+                          int maxInFlight, long maxBlockMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = maxInFlight;
+        this.maxBlockMs = maxBlockMs;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Sends {@code event} keyed by {@code key}. The future completes when the broker
+     * acknowledged the record, or exceptionally when the send failed.
+     *
+     * @throws IllegalStateException if no in-flight slot frees up within {@code maxBlockMs}
+     */
+    public CompletableFuture<SendResult<String, Object>> publish(String topic, String key, Object event) {
+        return track(topic, key, () -> kafkaTemplate.send(topic, key, event));
+    }
+
+    /** As {@link #publish(String, String, Object)}, for records that carry headers. */
+    public CompletableFuture<SendResult<String, Object>> publish(ProducerRecord<String, Object> record) {
+        return track(record.topic(), record.key(), () -> kafkaTemplate.send(record));
+    }
+
+    public int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    /**
+     * Waits until every outstanding send completed.
+     *
+     * @return false if sends were still outstanding after {@code timeout}
+     */
+    public boolean awaitInFlight(Duration timeout) {
+        kafkaTemplate.flush();
+        try {
+            if (!permits.tryAcquire(maxInFlight, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+            permits.release(maxInFlight);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Gives outstanding sends up to {@code maxBlockMs} to complete before the producer closes. */
+    public void close() {
+        if (!awaitInFlight(Duration.ofMillis(maxBlockMs))) {
+            log.warn("Closing with {} sends still in flight", inFlight());
+        }
+    }
+
+    private CompletableFuture<SendResult<String, Object>> track(
+            String topic, String key, Supplier<CompletableFuture<SendResult<String, Object>>> sender) {
+        acquire(topic);
+        AtomicInteger topicInFlight = inFlight(topic);
+        topicInFlight.incrementAndGet();
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> send;
+        try {
+            send = sender.get();
+        } catch (RuntimeException ex) {
+            topicInFlight.decrementAndGet();
+            permits.release();
+            failures(topic).increment();
+            throw ex;
+        }
+        return send.whenComplete((result, ex) -> {
+            topicInFlight.decrementAndGet();
+            permits.release();
+            if (ex != null) {
+                failures(topic).increment();
+                log.error("Failed to publish {} for key {}", topic, key, ex);
+            } else {
+                latency(topic).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private void acquire(String topic) {
+        try {
+            if (permits.tryAcquire(maxBlockMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        failures(topic).increment();
+        throw new IllegalStateException("Publishing to " + topic + " blocked: " + maxInFlight
+            + " sends already in flight");
+    }
+
+    private Timer latency(String topic) {
+        return latencyByTopic.computeIfAbsent(topic, t -> Timer.builder("events.publish.latency")
+            .description("Time from send to broker acknowledgement")
+            .tag("topic", t)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    private AtomicInteger inFlight(String topic) {
+        return inFlightByTopic.computeIfAbsent(topic, t -> {
+            AtomicInteger count = new AtomicInteger();
+            Gauge.builder("events.publish.in_flight", count, AtomicInteger::get)
+                .description("Sends waiting for a broker acknowledgement")
+                .tag("topic", t)
+                .register(meterRegistry);
+            return count;
+        });
+    }
+
+    private Counter failures(String topic) {
+        return failuresByTopic.computeIfAbsent(topic, t -> Counter.builder("events.publish.failures")
+            .tag("topic", t)
+            .register(meterRegistry));
+    }
+}
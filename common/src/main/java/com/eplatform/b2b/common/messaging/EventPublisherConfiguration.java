@@ -0,0 +1,51 @@
+package com.eplatform.b2b.common.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared producer setup; services {@code @Import} it from their Kafka configuration.
+ * Events are small and sent in bursts (outbox batches, listener fan-out), so a few
+ * milliseconds of linger and larger batches buy much better compression at a cost
+ * that is invisible next to the consumer side. Idempotence keeps broker-side retries
+ * from duplicating or reordering records within a partition.
+ */
+@Configuration(proxyBeanMethods = false)
+public class EventPublisherConfiguration {
+
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer eventProducerTuning(
+            @Value("${events.publisher.linger-ms:10}") int lingerMs,
+            @Value("${events.publisher.batch-size:65536}") int batchSize,
+            @Value("${events.publisher.compression:zstd}") String compression,
+            @Value("${events.publisher.idempotence:true}") boolean idempotence) {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configs.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configs.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        configs.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        if (idempotence) {
+            // Required by idempotence; up to 5 in-flight requests per connection still keep order
+            configs.put(ProducerConfig.ACKS_CONFIG, "all");
+            configs.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        }
+        return factory -> factory.updateConfigs(configs);
+    }
+
+    @Bean
+    public EventPublisher eventPublisher(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${events.publisher.max-in-flight:1000}") int maxInFlight,
+            @Value("${events.publisher.max-block-ms:10000}") long maxBlockMs) {
+        return new EventPublisher(kafkaTemplate, meterRegistry, maxInFlight, maxBlockMs);
+    }
+}
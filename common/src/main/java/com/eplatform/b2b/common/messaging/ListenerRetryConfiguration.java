@@ -0,0 +1,69 @@
+package com.eplatform.b2b.common.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+
+/**
+ * Non-blocking listener retries; services {@code @Import} it next to
+ * {@link EventPublisherConfiguration} and declare a {@link ListenerRetryTopics} bean
+ * naming their topics and fatal exceptions. Failed records are re-published to
+ * {@code <topic>-retry-N} topics and consumed again after an exponential backoff, then
+ * parked on {@code <topic>-dlt} and handed to {@link DeadLetterHandler}. The retry topics
+ * have their own consumers, so a failing record never blocks its main partition.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ListenerRetryConfiguration {
+
+    @Bean
+    public RetryTopicConfiguration retryTopicConfiguration(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            ListenerRetryTopics retryTopics,
+            @Value("${listener.retry.attempts:4}") int attempts,
+            @Value("${listener.retry.initial-interval-ms:1000}") long initialIntervalMs,
+            @Value("${listener.retry.multiplier:2.0}") double multiplier,
+            @Value("${listener.retry.max-interval-ms:30000}") long maxIntervalMs,
+            @Value("${listener.retry.auto-create-topics:true}") boolean autoCreateTopics) {
+        RetryTopicConfigurationBuilder builder = RetryTopicConfigurationBuilder.newInstance()
+            .includeTopics(retryTopics.topics())
+            .maxAttempts(attempts)
+            .exponentialBackoff(initialIntervalMs, multiplier, maxIntervalMs)
+            .suffixTopicsWithIndexValues()
+            .autoCreateTopics(autoCreateTopics, 3, (short) 1)
+            .dltHandlerMethod("deadLetterHandler", "onDeadLetter");
+        if (!retryTopics.fatalExceptions().isEmpty()) {
+            builder.notRetryOn(retryTopics.fatalExceptions());
+        }
+        return builder.create(kafkaTemplate);
+    }
+
+    @Bean
+    public DeadLetterHandler deadLetterHandler(MeterRegistry meterRegistry,
+                                               ObjectProvider<DeadLetterAction> actions) {
+        return new DeadLetterHandler(meterRegistry, actions.orderedStream().toList());
+    }
+
+    /** Counts deliveries from retry topics; picked up by the auto-configured container factory. */
+    @Bean
+    public RecordInterceptor<Object, Object> retryMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new RecordInterceptor<>() {
+            @Override
+            public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> record,
+                                                            Consumer<Object, Object> consumer) {
+                int retry = record.topic().lastIndexOf("-retry");
+                if (retry > 0) {
+                    meterRegistry.counter("kafka.listener.retries", "topic", record.topic().substring(0, retry)).increment();
+                }
+                return record;
+            }
+        };
+    }
+}
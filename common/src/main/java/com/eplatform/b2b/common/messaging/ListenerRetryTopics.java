@@ -0,0 +1,31 @@
+package com.eplatform.b2b.common.messaging;
+
+import java.util.List;
+
+/**
+ * What a service retries through {@link ListenerRetryConfiguration}: the topics whose
+ * listeners get retry topics and a DLT, and the exceptions that go straight to the DLT.
+ */
+public record ListenerRetryTopics(List<String> topics, List<Class<? extends Throwable>> fatalExceptions) {
+
+  public ListenerRetryTopics {
+    topics = List.copyOf(topics);
+    fatalExceptions = List.copyOf(fatalExceptions);
+  }
+
+  public static ListenerRetryTopics of(List<String> topics) {
+    return new ListenerRetryTopics(topics, List.of());
+  }
+
+  /** True if the exception or one of its causes should go to the DLT without retrying. */
+  public boolean isFatal(Throwable ex) {
+    for (Throwable t = ex; t != null; t = t.getCause()) {
+      for (Class<? extends Throwable> fatal : fatalExceptions) {
+        if (fatal.isInstance(t)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
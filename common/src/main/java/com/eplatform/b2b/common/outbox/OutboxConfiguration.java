@@ -0,0 +1,40 @@
+package com.eplatform.b2b.common.outbox;
+
+import com.eplatform.b2b.common.messaging.EventPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Transactional outbox; services with a database {@code @Import} it next to
+ * {@link com.eplatform.b2b.common.messaging.EventPublisherConfiguration}. Registers this
+ * package with JPA so {@link OutboxEvent} and {@link OutboxRepository} are picked up
+ * alongside the service's own entities. The relay polls through {@code @Scheduled},
+ * so the service needs {@code @EnableScheduling}.
+ */
+@Configuration(proxyBeanMethods = false)
+@AutoConfigurationPackage(basePackageClasses = OutboxEvent.class)
+public class OutboxConfiguration {
+
+    @Bean
+    public OutboxRelay outboxRelay(OutboxRepository outboxRepository,
+                                   EventPublisher eventPublisher,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${outbox.relay.batch-size:500}") int batchSize,
+                                   @Value("${outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs) {
+        return new OutboxRelay(outboxRepository, eventPublisher, objectMapper, transactionManager,
+            meterRegistry, batchSize, sendTimeoutMs);
+    }
+
+    @Bean
+    public OutboxPublisher outboxPublisher(OutboxRepository outboxRepository, ObjectMapper objectMapper,
+                                           OutboxRelay relay) {
+        return new OutboxPublisher(outboxRepository, objectMapper, relay);
+    }
+}
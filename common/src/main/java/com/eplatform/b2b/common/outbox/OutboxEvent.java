@@ -0,0 +1,78 @@
+package com.eplatform.b2b.common.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event written in the same transaction as the state change it describes and
+ * published to Kafka later by {@link OutboxRelay}. The table is created by
+ * {@code db/migration/outbox_events.sql}.
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    // Pooled sequence so a batch of orders writes its events as one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 100)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String messageKey;
+
+    @Column(nullable = false)
+    private String payloadType;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    // Set while a relay is publishing the row; other relays skip it until then
+    private LocalDateTime claimedUntil;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    protected OutboxEvent() {}
+
+    public OutboxEvent(String topic, String messageKey, String payloadType, String payload) {
+        this.topic = topic;
+        this.messageKey = messageKey;
+        this.payloadType = payloadType;
+        this.payload = payload;
+    }
+
+    public Long getId() { return id; }
+    public String getTopic() { return topic; }
+    public String getMessageKey() { return messageKey; }
+    public String getPayloadType() { return payloadType; }
+    public String getPayload() { return payload; }
+    public OutboxStatus getStatus() { return status; }
+    public LocalDateTime getClaimedUntil() { return claimedUntil; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    void claim(LocalDateTime until) {
+        this.claimedUntil = until;
+    }
+
+    void markFailed() {
+        this.status = OutboxStatus.FAILED;
+        this.claimedUntil = null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.eplatform.b2b.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Records events in the outbox table instead of sending them to Kafka directly,
+ * so the request path only pays for one local INSERT and events share the fate
+ * of the surrounding transaction.
+ */
+public class OutboxPublisher {
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final OutboxRelay relay;
+
+    public OutboxPublisher(OutboxRepository outboxRepository, ObjectMapper objectMapper, OutboxRelay relay) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.relay = relay;
+    }
+
+    /** Publishes when the current transaction commits; nothing is published on rollback. */
+    @Transactional
+    public void publish(String topic, String key, Object event) {
+        outboxRepository.save(new OutboxEvent(topic, key, event.getClass().getName(), toJson(event)));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                relay.wakeUp();
+            }
+        });
+    }
+
+    /** Publishes even if the caller's transaction rolls back, e.g. for rejection events. */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void publishIndependently(String topic, String key, Object event) {
+        publish(topic, key, event);
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Cannot serialize outbox event " + event.getClass().getName(), ex);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.eplatform.b2b.common.outbox;
+
+import com.eplatform.b2b.common.messaging.EventPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the outbox table to Kafka in large batches. Runs on a single background
+ * thread, woken after each committing outbox write and by a fallback poll that
+ * picks up rows written by other replicas or left over after a failure.
+ *
+ * <p>A batch is claimed in a short transaction: rows are locked with SKIP LOCKED and
+ * stamped with a claim that outlives the send timeout, so other replicas skip them.
+ * The batch is published with no transaction or connection held and deleted once
+ * Kafka acknowledged all of it; on failure the claim is dropped so the next poll
+ * retries it, and a relay that dies mid-batch leaves rows that are claimed again when
+ * the claim runs out. Delivery is at-least-once across replicas.
+ *
+ * <p>A row that cannot be turned back into its event would block the queue forever;
+ * it is marked {@link OutboxStatus#FAILED}, logged and counted in
+ * {@code outbox.events.failed}, and stays in the table for inspection.
+ */
+@Slf4j
+public class OutboxRelay {
+    private final OutboxRepository outboxRepository;
+    private final EventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final Counter failedEvents;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean drainPending = new AtomicBoolean();
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       EventPublisher eventPublisher,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       int batchSize,
+                       long sendTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.failedEvents = Counter.builder("outbox.events.failed")
+            .description("Outbox rows that could not be deserialized and were set aside")
+            .register(meterRegistry);
+    }
+
+    /** Schedules a drain unless one is already queued; cheap enough to call after every commit. */
+    public void wakeUp() {
+        if (drainPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                drainPending.set(false);
+                drain();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:1000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /** Publishes until the outbox is empty or a batch fails; runs on the relay thread. */
+    void drain() {
+        try {
+            int published;
+            do {
+                published = publishBatch();
+            } while (published == batchSize);
+        } catch (Exception ex) {
+            log.error("Outbox relay failed, rows stay queued for the next poll", ex);
+        }
+    }
+
+    private int publishBatch() {
+        Claim claim = transactionTemplate.execute(status -> claimNextBatch());
+        if (claim == null || claim.size() == 0) {
+            return 0;
+        }
+        if (claim.events().isEmpty()) {
+            return claim.size();
+        }
+        List<Long> ids = claim.events().stream().map(ClaimedEvent::id).toList();
+        List<CompletableFuture<?>> sends = new ArrayList<>(ids.size());
+        try {
+            for (ClaimedEvent event : claim.events()) {
+                sends.add(eventPublisher.publish(event.topic(), event.key(), event.payload()));
+            }
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            outboxRepository.releaseClaims(ids);
+            throw new IllegalStateException("Interrupted while publishing outbox batch", ex);
+        } catch (Exception ex) {
+            outboxRepository.releaseClaims(ids);
+            throw new IllegalStateException("Failed to publish outbox batch of " + ids.size(), ex);
+        }
+        outboxRepository.deleteAllByIdInBatch(ids);
+        log.debug("Published {} outbox events", ids.size());
+        return claim.size();
+    }
+
+    private Claim claimNextBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxRepository.lockNextBatch(now, PageRequest.of(0, batchSize));
+        // Claimed past the send timeout, so a slow but successful publish is not sent twice
+        LocalDateTime claimedUntil = now.plus(Duration.ofMillis(2 * sendTimeoutMs));
+        List<ClaimedEvent> events = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            Object payload = toEvent(event);
+            if (payload == null) {
+                event.markFailed();
+                failedEvents.increment();
+            } else {
+                event.claim(claimedUntil);
+                events.add(new ClaimedEvent(event.getId(), event.getTopic(), event.getMessageKey(), payload));
+            }
+        }
+        return new Claim(batch.size(), events);
+    }
+
+    private Object toEvent(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+        } catch (Exception ex) {
+            log.error("Setting aside outbox event {} for topic {}: cannot deserialize {}",
+                event.getId(), event.getTopic(), event.getPayloadType(), ex);
+            return null;
+        }
+    }
+
+    private record ClaimedEvent(Long id, String topic, String key, Object payload) {}
+
+    /** The rows locked by one claim; {@code size} includes those set aside as failed. */
+    private record Claim(int size, List<ClaimedEvent> events) {}
+}
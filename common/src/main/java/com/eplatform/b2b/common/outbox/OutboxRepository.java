@@ -0,0 +1,31 @@
+package com.eplatform.b2b.common.outbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Lock timeout -2 is SKIP LOCKED, so concurrent relays claim disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = com.eplatform.b2b.common.outbox.OutboxStatus.PENDING " +
+           "AND (e.claimedUntil IS NULL OR e.claimedUntil < :now) ORDER BY e.id")
+    List<OutboxEvent> lockNextBatch(@Param("now") LocalDateTime now, Pageable page);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = null WHERE e.id IN :ids")
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+}
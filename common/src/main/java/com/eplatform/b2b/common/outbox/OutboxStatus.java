@@ -0,0 +1,7 @@
+package com.eplatform.b2b.common.outbox;
+
+public enum OutboxStatus {
+    PENDING,
+    // The row cannot be turned back into its event; kept for inspection, never published
+    FAILED
+}
@@ -0,0 +1,236 @@
+package com.eplatform.b2b.common.serialization;
+
+import com.eplatform.b2b.common.dto.ReserveItemDto;
+import com.eplatform.b2b.common.events.InventoryRejectedEvent;
+import com.eplatform.b2b.common.events.InventoryReservedEvent;
+import com.eplatform.b2b.common.events.OrderCancelledEvent;
+import com.eplatform.b2b.common.events.OrderPlacedEvent;
+import com.eplatform.b2b.common.events.OrderRefundRequestedEvent;
+import com.eplatform.b2b.common.events.PaymentFailedEvent;
+import com.eplatform.b2b.common.events.PaymentSucceededEvent;
+import com.eplatform.b2b.common.events.proto.InventoryRejected;
+import com.eplatform.b2b.common.events.proto.InventoryReserved;
+import com.eplatform.b2b.common.events.proto.OrderCancelled;
+import com.eplatform.b2b.common.events.proto.OrderPlaced;
+import com.eplatform.b2b.common.events.proto.OrderRefundRequested;
+import com.eplatform.b2b.common.events.proto.PaymentFailed;
+import com.eplatform.b2b.common.events.proto.PaymentSucceeded;
+import com.eplatform.b2b.common.events.proto.ReserveItem;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Maps the event records to their protobuf messages in {@code events.proto} and back.
+ * The records stay the types listeners and services work with; the messages only
+ * exist on the wire. Nullable strings are {@code optional} fields so null survives
+ * the round trip.
+ */
+public final class EventCodec {
+
+    private record Mapping<E, M extends Message>(Class<E> type,
+                                                 Descriptor descriptor,
+                                                 Function<E, M> toMessage,
+                                                 Decoder<E> decoder) {
+
+        byte[] encode(Object event) {
+            return toMessage.apply(type.cast(event)).toByteArray();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Decoder<E> {
+        E decode(byte[] data, int offset, int length) throws InvalidProtocolBufferException;
+    }
+
+    private static final Map<Class<?>, Mapping<?, ?>> BY_TYPE = new LinkedHashMap<>();
+    private static final Map<String, Mapping<?, ?>> BY_SUBJECT = new LinkedHashMap<>();
+
+    static {
+        register(new Mapping<>(OrderPlacedEvent.class, OrderPlaced.getDescriptor(),
+            EventCodec::toMessage,
+            (data, offset, length) -> fromMessage(OrderPlaced.parser().parseFrom(data, offset, length))));
+        register(new Mapping<>(InventoryReservedEvent.class, InventoryReserved.getDescriptor(),
+            EventCodec::toMessage,
+            (data, offset, length) -> fromMessage(InventoryReserved.parser().parseFrom(data, offset, length))));
+        register(new Mapping<>(InventoryRejectedEvent.class, InventoryRejected.getDescriptor(),
+            EventCodec::toMessage,
+            (data, offset, length) -> fromMessage(InventoryRejected.parser().parseFrom(data, offset, length))));
+        register(new Mapping<>(PaymentSucceededEvent.class, PaymentSucceeded.getDescriptor(),
+            EventCodec::toMessage,
+            (data, offset, length) -> fromMessage(PaymentSucceeded.parser().parseFrom(data, offset, length))));
+        register(new Mapping<>(PaymentFailedEvent.class, PaymentFailed.getDescriptor(),
+            EventCodec::toMessage,
+            (data, offset, length) -> fromMessage(PaymentFailed.parser().parseFrom(data, offset, length))));
+        register(new Mapping<>(OrderCancelledEvent.class, OrderCancelled.getDescriptor(),
+            EventCodec::toMessage,
+            (data, offset, length) -> fromMessage(OrderCancelled.parser().parseFrom(data, offset, length))));
+        register(new Mapping<>(OrderRefundRequestedEvent.class, OrderRefundRequested.getDescriptor(),
+            EventCodec::toMessage,
+            (data, offset, length) -> fromMessage(OrderRefundRequested.parser().parseFrom(data, offset, length))));
+    }
+
+    private EventCodec() {
+    }
+
+    private static void register(Mapping<?, ?> mapping) {
+        BY_TYPE.put(mapping.type(), mapping);
+        BY_SUBJECT.put(mapping.descriptor().getFullName(), mapping);
+    }
+
+    public static boolean supports(Class<?> type) {
+        return BY_TYPE.containsKey(type);
+    }
+
+    /** The message descriptor for an event type; its full name is the registry subject. */
+    public static Descriptor descriptor(Class<?> type) {
+        Mapping<?, ?> mapping = BY_TYPE.get(type);
+        if (mapping == null) {
+            throw new IllegalArgumentException("No protobuf mapping for " + type.getName());
+        }
+        return mapping.descriptor();
+    }
+
+    public static Collection<Descriptor> descriptors() {
+        return BY_TYPE.values().stream().<Descriptor>map(Mapping::descriptor).toList();
+    }
+
+    public static byte[] encode(Object event) {
+        Mapping<?, ?> mapping = BY_TYPE.get(event.getClass());
+        if (mapping == null) {
+            throw new IllegalArgumentException("No protobuf mapping for " + event.getClass().getName());
+        }
+        return mapping.encode(event);
+    }
+
+    public static Object decode(String subject, byte[] data, int offset, int length)
+            throws InvalidProtocolBufferException {
+        Mapping<?, ?> mapping = BY_SUBJECT.get(subject);
+        if (mapping == null) {
+            throw new IllegalArgumentException("No event type for schema subject " + subject);
+        }
+        return mapping.decoder().decode(data, offset, length);
+    }
+
+    private static OrderPlaced toMessage(OrderPlacedEvent event) {
+        OrderPlaced.Builder builder = OrderPlaced.newBuilder()
+            .setOrderId(event.orderId())
+            .setTotalAmountCents(event.totalAmountCents());
+        if (event.currency() != null) {
+            builder.setCurrency(event.currency());
+        }
+        if (event.buyerId() != null) {
+            builder.setBuyerId(event.buyerId());
+        }
+        if (event.items() != null) {
+            for (ReserveItemDto item : event.items()) {
+                builder.addItems(ReserveItem.newBuilder().setSku(item.sku()).setQuantity(item.quantity()));
+            }
+        }
+        return builder.build();
+    }
+
+    private static OrderPlacedEvent fromMessage(OrderPlaced message) {
+        List<ReserveItemDto> items = message.getItemsList().stream()
+            .map(item -> new ReserveItemDto(item.getSku(), item.getQuantity()))
+            .toList();
+        return new OrderPlacedEvent(message.getOrderId(), items, message.getTotalAmountCents(),
+            message.hasCurrency() ? message.getCurrency() : null,
+            message.hasBuyerId() ? message.getBuyerId() : null);
+    }
+
+    private static InventoryReserved toMessage(InventoryReservedEvent event) {
+        InventoryReserved.Builder builder = InventoryReserved.newBuilder()
+            .setOrderId(event.orderId())
+            .setTotalAmountCents(event.totalAmountCents());
+        if (event.currency() != null) {
+            builder.setCurrency(event.currency());
+        }
+        if (event.buyerId() != null) {
+            builder.setBuyerId(event.buyerId());
+        }
+        return builder.build();
+    }
+
+    private static InventoryReservedEvent fromMessage(InventoryReserved message) {
+        return new InventoryReservedEvent(message.getOrderId(), message.getTotalAmountCents(),
+            message.hasCurrency() ? message.getCurrency() : null,
+            message.hasBuyerId() ? message.getBuyerId() : null);
+    }
+
+    private static InventoryRejected toMessage(InventoryRejectedEvent event) {
+        InventoryRejected.Builder builder = InventoryRejected.newBuilder().setOrderId(event.orderId());
+        if (event.failedSkus() != null) {
+            builder.setFailedSkus(event.failedSkus());
+        }
+        if (event.reason() != null) {
+            builder.setReason(event.reason());
+        }
+        return builder.build();
+    }
+
+    private static InventoryRejectedEvent fromMessage(InventoryRejected message) {
+        return new InventoryRejectedEvent(message.getOrderId(),
+            message.hasFailedSkus() ? message.getFailedSkus() : null,
+            message.hasReason() ? message.getReason() : null);
+    }
+
+    private static PaymentSucceeded toMessage(PaymentSucceededEvent event) {
+        PaymentSucceeded.Builder builder = PaymentSucceeded.newBuilder().setOrderId(event.orderId());
+        if (event.transactionId() != null) {
+            builder.setTransactionId(event.transactionId());
+        }
+        return builder.build();
+    }
+
+    private static PaymentSucceededEvent fromMessage(PaymentSucceeded message) {
+        return new PaymentSucceededEvent(message.getOrderId(),
+            message.hasTransactionId() ? message.getTransactionId() : null);
+    }
+
+    private static PaymentFailed toMessage(PaymentFailedEvent event) {
+        PaymentFailed.Builder builder = PaymentFailed.newBuilder().setOrderId(event.orderId());
+        if (event.reason() != null) {
+            builder.setReason(event.reason());
+        }
+        return builder.build();
+    }
+
+    private static PaymentFailedEvent fromMessage(PaymentFailed message) {
+        return new PaymentFailedEvent(message.getOrderId(), message.hasReason() ? message.getReason() : null);
+    }
+
+    private static OrderCancelled toMessage(OrderCancelledEvent event) {
+        OrderCancelled.Builder builder = OrderCancelled.newBuilder().setOrderId(event.orderId());
+        if (event.reason() != null) {
+            builder.setReason(event.reason());
+        }
+        return builder.build();
+    }
+
+    private static OrderCancelledEvent fromMessage(OrderCancelled message) {
+        return new OrderCancelledEvent(message.getOrderId(), message.hasReason() ? message.getReason() : null);
+    }
+
+    private static OrderRefundRequested toMessage(OrderRefundRequestedEvent event) {
+        OrderRefundRequested.Builder builder = OrderRefundRequested.newBuilder()
+            .setOrderId(event.orderId())
+            .setTransactionId(event.transactionId())
+            .setAmountCents(event.amountCents());
+        if (event.reason() != null) {
+            builder.setReason(event.reason());
+        }
+        return builder.build();
+    }
+
+    private static OrderRefundRequestedEvent fromMessage(OrderRefundRequested message) {
+        return new OrderRefundRequestedEvent(message.getOrderId(), message.getTransactionId(),
+            message.getAmountCents(), message.hasReason() ? message.getReason() : null);
+    }
+}
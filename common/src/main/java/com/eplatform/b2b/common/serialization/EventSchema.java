@@ -0,0 +1,82 @@
+package com.eplatform.b2b.common.serialization;
+
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A registered schema version: the field layout of a root message and of every
+ * message it references, keyed by full message name. This is all the compatibility
+ * check needs, so it is what the registry stores.
+ */
+public record EventSchema(int id, String subject, int version, Map<String, List<Field>> messages) {
+
+    public record Field(int number, String name, String type, boolean repeated) {}
+
+    /** The unregistered schema of a message; id and version are 0. */
+    public static EventSchema of(Descriptor root) {
+        Map<String, List<Field>> messages = new LinkedHashMap<>();
+        collect(root, messages);
+        return new EventSchema(0, root.getFullName(), 0, messages);
+    }
+
+    public EventSchema withVersion(int id, int version) {
+        return new EventSchema(id, subject, version, messages);
+    }
+
+    /**
+     * The id of this layout: the first four bytes of a SHA-256 over the subject and the
+     * field layout, never 0. Every service derives the same id for the same layout, so ids
+     * do not depend on which registry directory a service writes to.
+     */
+    public int layoutId() {
+        StringBuilder canonical = new StringBuilder(subject);
+        messages.forEach((name, fields) -> {
+            canonical.append('|').append(name);
+            for (Field field : fields) {
+                canonical.append(';').append(field.number()).append(':').append(field.name())
+                    .append(':').append(field.type()).append(':').append(field.repeated());
+            }
+        });
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            int id = ByteBuffer.wrap(digest, 0, 4).getInt() & Integer.MAX_VALUE;
+            return id != 0 ? id : 1;
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /** Same field layout, ignoring id and version. */
+    public boolean sameLayout(EventSchema other) {
+        return subject.equals(other.subject) && messages.equals(other.messages);
+    }
+
+    private static void collect(Descriptor descriptor, Map<String, List<Field>> messages) {
+        if (messages.containsKey(descriptor.getFullName())) {
+            return;
+        }
+        List<Field> fields = new ArrayList<>();
+        messages.put(descriptor.getFullName(), fields);
+        for (FieldDescriptor field : descriptor.getFields()) {
+            String type = switch (field.getJavaType()) {
+                case MESSAGE -> "message:" + field.getMessageType().getFullName();
+                case ENUM -> "enum:" + field.getEnumType().getFullName();
+                default -> field.getType().name();
+            };
+            fields.add(new Field(field.getNumber(), field.getName(), type, field.isRepeated()));
+            if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+                collect(field.getMessageType(), messages);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.eplatform.b2b.common.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.protobuf.Descriptors.Descriptor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Local stand-in for a schema registry: one JSON file per schema version under
+ * {@code <dir>/<subject>/v<version>.json}. The id of a schema is derived from its
+ * subject and field layout ({@link EventSchema#layoutId()}), so it is global across
+ * subjects and every service computes the same id for the same layout, whether or not
+ * the services share a directory. Registration takes a file lock so concurrent
+ * producers on one directory do not write the same version twice.
+ *
+ * <p>A schema is only registered if it is compatible with every earlier version of
+ * its subject (see {@link SchemaCompatibility}).
+ */
+public final class FileSchemaRegistry {
+
+    private static final Map<Path, FileSchemaRegistry> INSTANCES = new ConcurrentHashMap<>();
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Path dir;
+    private final Map<Integer, EventSchema> byId = new ConcurrentHashMap<>();
+
+    private FileSchemaRegistry(Path dir) {
+        this.dir = dir;
+    }
+
+    /** One instance per directory, so serializers in the same JVM share the lock and the cache. */
+    public static FileSchemaRegistry forDirectory(Path dir) {
+        return INSTANCES.computeIfAbsent(dir.toAbsolutePath().normalize(), FileSchemaRegistry::new);
+    }
+
+    /**
+     * Returns the registered version with the same layout as {@code descriptor}, or
+     * registers it as the next version of its subject.
+     *
+     * @throws IllegalStateException if the layout breaks compatibility with an earlier version
+     */
+    public synchronized EventSchema register(Descriptor descriptor) {
+        EventSchema candidate = EventSchema.of(descriptor);
+        try {
+            Files.createDirectories(dir);
+            try (FileChannel channel = FileChannel.open(dir.resolve(".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                List<EventSchema> versions = versions(candidate.subject());
+                for (EventSchema existing : versions) {
+                    if (existing.sameLayout(candidate)) {
+                        byId.put(existing.id(), existing);
+                        return existing;
+                    }
+                }
+                List<String> violations = SchemaCompatibility.checkAll(versions, candidate);
+                if (!violations.isEmpty()) {
+                    throw new IllegalStateException("Schema for " + candidate.subject()
+                        + " is incompatible with registered versions: " + violations);
+                }
+                int id = candidate.layoutId();
+                for (EventSchema existing : loadAll()) {
+                    if (existing.id() == id) {
+                        throw new IllegalStateException("Schema id " + id + " of " + candidate.subject()
+                            + " is already taken by " + existing.subject() + " v" + existing.version());
+                    }
+                }
+                EventSchema registered = candidate.withVersion(id, versions.size() + 1);
+                write(registered);
+                byId.put(registered.id(), registered);
+                return registered;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to register schema " + candidate.subject() + " in " + dir, ex);
+        }
+    }
+
+    /** The schema with the given id; re-reads the directory once on a miss, since another process may have added it. */
+    public EventSchema lookup(int id) {
+        EventSchema schema = byId.get(id);
+        if (schema == null) {
+            for (EventSchema loaded : loadAll()) {
+                byId.putIfAbsent(loaded.id(), loaded);
+            }
+            schema = byId.get(id);
+        }
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown schema id " + id + " in " + dir);
+        }
+        return schema;
+    }
+
+    /** Registered versions of a subject, oldest first. */
+    public List<EventSchema> versions(String subject) {
+        Path subjectDir = dir.resolve(subject);
+        if (!Files.isDirectory(subjectDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(subjectDir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".json"))
+                .map(FileSchemaRegistry::read)
+                .sorted(Comparator.comparingInt(EventSchema::version))
+                .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to list schemas of " + subject + " in " + dir, ex);
+        }
+    }
+
+    private List<EventSchema> loadAll() {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        List<EventSchema> all = new ArrayList<>();
+        try (Stream<Path> subjects = Files.list(dir)) {
+            subjects.filter(Files::isDirectory)
+                .forEach(subject -> all.addAll(versions(subject.getFileName().toString())));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read schema registry " + dir, ex);
+        }
+        return all;
+    }
+
+    private void write(EventSchema schema) throws IOException {
+        Path subjectDir = Files.createDirectories(dir.resolve(schema.subject()));
+        Path target = subjectDir.resolve("v" + schema.version() + ".json");
+        // Readers never see a half-written file
+        Path tmp = Files.createTempFile(subjectDir, "v" + schema.version(), ".tmp");
+        MAPPER.writeValue(tmp.toFile(), schema);
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static EventSchema read(Path file) {
+        try {
+            return MAPPER.readValue(file.toFile(), EventSchema.class);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read schema " + file, ex);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.eplatform.b2b.common.serialization;
+
+import com.google.protobuf.Descriptors.Descriptor;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads records written by {@link ProtobufEventSerializer}, resolving the event type
+ * from the schema id: first among the layouts this service was built with, then in the
+ * registry directory, then from the {@value ProtobufEventSerializer#SUBJECT_HEADER}
+ * header for a layout this service has not seen. Anything else, such as JSON records produced before the switch,
+ * goes to {@link JsonDeserializer}, so consumers can be upgraded ahead of producers.
+ */
+public class ProtobufEventDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> fallback = new JsonDeserializer<>();
+    private final Map<Integer, String> localSubjects = new HashMap<>();
+    private FileSchemaRegistry registry;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        registry = FileSchemaRegistry.forDirectory(ProtobufEventSerializer.registryDir(configs));
+        for (Descriptor descriptor : EventCodec.descriptors()) {
+            EventSchema schema = EventSchema.of(descriptor);
+            localSubjects.put(schema.layoutId(), schema.subject());
+        }
+        fallback.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length < ProtobufEventSerializer.HEADER_SIZE || data[0] != ProtobufEventSerializer.MAGIC) {
+            return headers != null ? fallback.deserialize(topic, headers, data) : fallback.deserialize(topic, data);
+        }
+        int schemaId = ByteBuffer.wrap(data, 1, 4).getInt();
+        try {
+            return EventCodec.decode(subject(schemaId, headers), data, ProtobufEventSerializer.HEADER_SIZE,
+                data.length - ProtobufEventSerializer.HEADER_SIZE);
+        } catch (Exception ex) {
+            throw new SerializationException("Failed to deserialize schema id " + schemaId
+                + " from topic " + topic, ex);
+        }
+    }
+
+    private String subject(int schemaId, Headers headers) {
+        String subject = localSubjects.get(schemaId);
+        if (subject != null) {
+            return subject;
+        }
+        try {
+            return registry.lookup(schemaId).subject();
+        } catch (IllegalArgumentException unknown) {
+            Header header = headers != null ? headers.lastHeader(ProtobufEventSerializer.SUBJECT_HEADER) : null;
+            if (header == null) {
+                throw unknown;
+            }
+            return new String(header.value(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public void close() {
+        fallback.close();
+    }
+}
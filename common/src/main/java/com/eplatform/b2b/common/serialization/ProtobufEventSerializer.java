@@ -0,0 +1,82 @@
+package com.eplatform.b2b.common.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes the event records as {@code [magic 0x0][schema id, 4 bytes][protobuf]}.
+ * The schema id replaces the {@code __TypeId__} class-name header; the subject also
+ * goes out in a {@value #SUBJECT_HEADER} header, so a consumer that has never seen the
+ * producer's layout can still decode the record. Values without a
+ * protobuf mapping fall back to {@link JsonSerializer}, configured from the same
+ * {@code spring.json.*} properties.
+ */
+public class ProtobufEventSerializer implements Serializer<Object> {
+
+    public static final String REGISTRY_DIR_CONFIG = "schema.registry.dir";
+    public static final String SUBJECT_HEADER = "schema.subject";
+    static final byte MAGIC = 0x0;
+    static final int HEADER_SIZE = 5;
+
+    private final Map<Class<?>, EventSchema> schemas = new ConcurrentHashMap<>();
+    private final JsonSerializer<Object> fallback = new JsonSerializer<>();
+    private FileSchemaRegistry registry;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        registry = FileSchemaRegistry.forDirectory(registryDir(configs));
+        fallback.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (!EventCodec.supports(data.getClass())) {
+            return fallback.serialize(topic, headers, data);
+        }
+        try {
+            EventSchema schema = schemas.computeIfAbsent(data.getClass(),
+                type -> registry.register(EventCodec.descriptor(type)));
+            byte[] payload = EventCodec.encode(data);
+            if (headers != null) {
+                headers.remove(SUBJECT_HEADER);
+                headers.add(SUBJECT_HEADER, schema.subject().getBytes(StandardCharsets.UTF_8));
+            }
+            return ByteBuffer.allocate(HEADER_SIZE + payload.length)
+                .put(MAGIC)
+                .putInt(schema.id())
+                .put(payload)
+                .array();
+        } catch (RuntimeException ex) {
+            throw new SerializationException("Failed to serialize " + data.getClass().getSimpleName()
+                + " for topic " + topic, ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        fallback.close();
+    }
+
+    static Path registryDir(Map<String, ?> configs) {
+        Object dir = configs.get(REGISTRY_DIR_CONFIG);
+        return dir != null
+            ? Path.of(dir.toString())
+            : Path.of(System.getProperty("user.home"), ".eplatform", "schema-registry");
+    }
+}
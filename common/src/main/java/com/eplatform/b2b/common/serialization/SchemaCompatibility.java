@@ -0,0 +1,67 @@
+package com.eplatform.b2b.common.serialization;
+
+import com.google.protobuf.Descriptors.Descriptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full transitive compatibility for protobuf schemas: a field number that appears in
+ * two versions of a message must have the same type and cardinality in both. Adding
+ * and removing fields is allowed; changing a type, or reusing the number of a removed
+ * field for something else, is not, because old readers or old records would decode
+ * it as the wrong thing.
+ *
+ * <p>{@link #checkRegistry} checks the compiled {@code events.proto} against a registry
+ * directory; before a release run
+ * {@code mvn -pl common test -Dtest=SchemaCompatibilityTest -Dschema.registry.dir=<dir>}.
+ */
+public final class SchemaCompatibility {
+
+    private SchemaCompatibility() {
+    }
+
+    /** Violations of {@code candidate} against one earlier version; empty when compatible. */
+    public static List<String> check(EventSchema previous, EventSchema candidate) {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, List<EventSchema.Field>> message : candidate.messages().entrySet()) {
+            List<EventSchema.Field> before = previous.messages().get(message.getKey());
+            if (before == null) {
+                continue;
+            }
+            for (EventSchema.Field field : message.getValue()) {
+                for (EventSchema.Field old : before) {
+                    if (old.number() != field.number()) {
+                        continue;
+                    }
+                    if (!old.type().equals(field.type()) || old.repeated() != field.repeated()) {
+                        violations.add(String.format("%s field %d: %s%s %s (v%d) became %s%s %s",
+                            message.getKey(), field.number(),
+                            old.repeated() ? "repeated " : "", old.type(), old.name(), previous.version(),
+                            field.repeated() ? "repeated " : "", field.type(), field.name()));
+                    }
+                }
+            }
+        }
+        return violations;
+    }
+
+    /** Violations of {@code candidate} against every registered version of its subject. */
+    public static List<String> checkAll(List<EventSchema> versions, EventSchema candidate) {
+        List<String> violations = new ArrayList<>();
+        for (EventSchema previous : versions) {
+            violations.addAll(check(previous, candidate));
+        }
+        return violations;
+    }
+
+    /** Violations of every compiled event schema against the versions in the registry; empty when compatible. */
+    public static List<String> checkRegistry(FileSchemaRegistry registry) {
+        List<String> violations = new ArrayList<>();
+        for (Descriptor descriptor : EventCodec.descriptors()) {
+            violations.addAll(checkAll(registry.versions(descriptor.getFullName()), EventSchema.of(descriptor)));
+        }
+        return violations;
+    }
+}
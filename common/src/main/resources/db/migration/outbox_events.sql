@@ -0,0 +1,34 @@
+-- Outbox table of OutboxConfiguration. Run against the schema of every service that
+-- imports it (inventory, order) before starting a release with ddl-auto: validate.
+-- Safe to re-run.
+--
+-- Inventory created outbox_events with an identity id before the outbox moved to
+-- common; the id now comes from outbox_events_seq, which starts past the existing rows.
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id            bigint       PRIMARY KEY,
+    topic         varchar(255) NOT NULL,
+    message_key   varchar(255),
+    payload_type  varchar(255) NOT NULL,
+    payload       text         NOT NULL,
+    status        varchar(16)  NOT NULL DEFAULT 'PENDING',
+    claimed_until timestamp(6),
+    created_at    timestamp(6)
+);
+
+-- Tables created before the relay claimed batches and set unreadable rows aside
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS status varchar(16) NOT NULL DEFAULT 'PENDING';
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS claimed_until timestamp(6);
+
+ALTER TABLE outbox_events ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+DO $$
+DECLARE
+    start_id bigint;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_class WHERE relkind = 'S' AND relname = 'outbox_events_seq'
+                   AND relnamespace = current_schema()::regnamespace) THEN
+        SELECT coalesce(max(id), 0) + 1 INTO start_id FROM outbox_events;
+        EXECUTE format('CREATE SEQUENCE outbox_events_seq START WITH %s INCREMENT BY 100', start_id);
+    END IF;
+END $$;
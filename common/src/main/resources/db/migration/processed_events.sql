@@ -0,0 +1,14 @@
+-- Dedup markers of DedupConfiguration. Run against the schema of every service that
+-- imports it (inventory, order) before starting a release with ddl-auto: validate.
+-- Safe to re-run.
+
+CREATE TABLE IF NOT EXISTS processed_events (
+    topic        varchar(100) NOT NULL,
+    order_id     varchar(100) NOT NULL,
+    event_type   varchar(100) NOT NULL,
+    processed_at timestamp(6) NOT NULL,
+    PRIMARY KEY (topic, order_id, event_type)
+);
+
+-- Walked by the retention purge
+CREATE INDEX IF NOT EXISTS ix_processed_events_processed_at ON processed_events (processed_at);
@@ -0,0 +1,61 @@
+package com.eplatform.b2b.common.dedup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProcessedEventStoreTest {
+
+    private ProcessedEventRepository repository;
+    private ProcessedEventStore store;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProcessedEventRepository.class);
+        store = new ProcessedEventStore(repository, 2, 60_000);
+    }
+
+    @Test
+    void isDuplicate_ShouldAnswerRepeatsFromCache() {
+        // Given - already recorded in the table
+        when(repository.existsById(any())).thenReturn(true);
+
+        // When
+        boolean first = store.isDuplicate("payment.succeeded", "ORDER-1", "PaymentSucceededEvent");
+        boolean second = store.isDuplicate("payment.succeeded", "ORDER-1", "PaymentSucceededEvent");
+
+        // Then - the second check never reaches the database
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        verify(repository, times(1)).existsById(any());
+    }
+
+    @Test
+    void isDuplicate_ShouldFallBackToTableForEvictedKeys() {
+        // Given - a cache of two entries
+        when(repository.existsById(any())).thenReturn(true);
+        store.isDuplicate("payment.succeeded", "ORDER-1", "PaymentSucceededEvent");
+        store.isDuplicate("payment.succeeded", "ORDER-2", "PaymentSucceededEvent");
+        store.isDuplicate("payment.succeeded", "ORDER-3", "PaymentSucceededEvent");
+
+        // When - ORDER-1 is the least recently used and has been evicted
+        store.isDuplicate("payment.succeeded", "ORDER-1", "PaymentSucceededEvent");
+
+        // Then
+        verify(repository, times(2)).existsById(new ProcessedEvent.Key("payment.succeeded", "ORDER-1", "PaymentSucceededEvent"));
+    }
+
+    @Test
+    void isDuplicate_ShouldNotCacheUnseenEvents() {
+        // Given
+        when(repository.existsById(any())).thenReturn(false);
+
+        // Then - the key stays unknown until the event is marked processed
+        assertThat(store.isDuplicate("payment.failed", "ORDER-1", "PaymentFailedEvent")).isFalse();
+        assertThat(store.isDuplicate("payment.failed", "ORDER-1", "PaymentFailedEvent")).isFalse();
+        verify(repository, times(2)).existsById(any());
+    }
+}
@@ -0,0 +1,62 @@
+package com.eplatform.b2b.common.messaging;
+
+import com.eplatform.b2b.common.events.PaymentSucceededEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DeadLetterHandlerTest {
+
+    private DeadLetterAction action;
+    private SimpleMeterRegistry meterRegistry;
+    private DeadLetterHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        action = mock(DeadLetterAction.class);
+        meterRegistry = new SimpleMeterRegistry();
+        handler = new DeadLetterHandler(meterRegistry, List.of(action));
+    }
+
+    @Test
+    void onDeadLetter_ShouldCountPerSourceTopicAndRunActions() {
+        // Given
+        PaymentSucceededEvent event = new PaymentSucceededEvent("ORDER-1", "TX-1");
+
+        // When
+        handler.onDeadLetter(event, "payment.succeeded-dlt", "lock timeout".getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        verify(action).onDeadLetter("payment.succeeded", event, "lock timeout");
+        assertThat(meterRegistry.counter("kafka.listener.dead_letters", "topic", "payment.succeeded").count()).isEqualTo(1);
+    }
+
+    @Test
+    void onDeadLetter_ShouldPassNullReason_WhenExceptionHeaderMissing() {
+        // Given
+        PaymentSucceededEvent event = new PaymentSucceededEvent("ORDER-1", "TX-1");
+
+        // When
+        handler.onDeadLetter(event, "payment.succeeded-dlt", null);
+
+        // Then
+        verify(action).onDeadLetter("payment.succeeded", event, null);
+    }
+
+    @Test
+    void isFatal_ShouldMatchCauses() {
+        // Given
+        ListenerRetryTopics retryTopics = new ListenerRetryTopics(List.of("order.placed"),
+            List.of(IllegalStateException.class));
+
+        // Then
+        assertThat(retryTopics.isFatal(new RuntimeException(new IllegalStateException("closed")))).isTrue();
+        assertThat(retryTopics.isFatal(new RuntimeException("timeout"))).isFalse();
+    }
+}
@@ -0,0 +1,82 @@
+package com.eplatform.b2b.common.messaging;
+
+import com.eplatform.b2b.common.events.PaymentSucceededEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EventPublisherTest {
+
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private EventPublisher publisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new EventPublisher(kafkaTemplate, meterRegistry, 2, 50);
+    }
+
+    @Test
+    void publish_ShouldRecordLatencyPerTopicOnAck() {
+        // Given
+        CompletableFuture<SendResult<String, Object>> ack = new CompletableFuture<>();
+        when(kafkaTemplate.send(eq("payment.succeeded"), eq("ORDER-1"), any())).thenReturn(ack);
+
+        // When
+        publisher.publish("payment.succeeded", "ORDER-1", new PaymentSucceededEvent("ORDER-1", "TX-1"));
+
+        // Then - in flight until the broker acknowledges
+        assertThat(publisher.inFlight()).isEqualTo(1);
+        assertThat(meterRegistry.get("events.publish.in_flight").tag("topic", "payment.succeeded").gauge().value())
+            .isEqualTo(1);
+        ack.complete(null);
+        assertThat(publisher.inFlight()).isZero();
+        assertThat(meterRegistry.get("events.publish.in_flight").tag("topic", "payment.succeeded").gauge().value())
+            .isZero();
+        assertThat(meterRegistry.get("events.publish.latency").tag("topic", "payment.succeeded").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void publish_ShouldCountFailedSends() {
+        // Given
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        // When
+        CompletableFuture<?> send = publisher.publish("payment.failed", "ORDER-1", "payload");
+
+        // Then
+        assertThat(send).isCompletedExceptionally();
+        assertThat(publisher.inFlight()).isZero();
+        assertThat(meterRegistry.get("events.publish.failures").tag("topic", "payment.failed").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void publish_ShouldRejectWhenInFlightLimitStaysReached() {
+        // Given - two sends that are never acknowledged fill both slots
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+        publisher.publish("order.placed", "ORDER-1", "payload");
+        publisher.publish("order.placed", "ORDER-2", "payload");
+
+        // Then
+        assertThatThrownBy(() -> publisher.publish("order.placed", "ORDER-3", "payload"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("2 sends already in flight");
+        assertThat(publisher.awaitInFlight(Duration.ofMillis(10))).isFalse();
+        verify(kafkaTemplate, times(2)).send(anyString(), anyString(), any());
+    }
+}
@@ -0,0 +1,103 @@
+package com.eplatform.b2b.common.outbox;
+
+import com.eplatform.b2b.common.events.PaymentSucceededEvent;
+import com.eplatform.b2b.common.messaging.EventPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private OutboxRepository outboxRepository;
+    private EventPublisher eventPublisher;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OutboxRepository.class);
+        eventPublisher = mock(EventPublisher.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(outboxRepository, eventPublisher, new ObjectMapper(), transactionManager,
+            meterRegistry, 2, 1000);
+    }
+
+    @Test
+    void drain_ShouldPublishAndDeleteEachBatchOnceAcknowledged() {
+        // Given - a full batch followed by a partial one
+        List<OutboxEvent> first = List.of(event(1L, "ORDER-1"), event(2L, "ORDER-2"));
+        List<OutboxEvent> second = List.of(event(3L, "ORDER-3"));
+        when(outboxRepository.lockNextBatch(any(), any(Pageable.class))).thenReturn(first, second);
+        when(eventPublisher.publish(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        relay.drain();
+
+        // Then
+        verify(eventPublisher).publish("payment.succeeded", "ORDER-1", new PaymentSucceededEvent("ORDER-1", "TX-1"));
+        verify(eventPublisher, times(3)).publish(eq("payment.succeeded"), anyString(), any());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(outboxRepository, times(2)).lockNextBatch(any(), any(Pageable.class));
+        // Only the claims run in a transaction; the sends happen after it committed
+        verify(transactionManager, times(2)).commit(any());
+        assertThat(first).allSatisfy(event -> assertThat(event.getClaimedUntil()).isNotNull());
+    }
+
+    @Test
+    void drain_ShouldKeepRowsQueued_WhenSendFails() {
+        // Given
+        when(outboxRepository.lockNextBatch(any(), any(Pageable.class))).thenReturn(List.of(event(1L, "ORDER-1")));
+        when(eventPublisher.publish(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        // When
+        relay.drain();
+
+        // Then - the claim is dropped, the rows stay for the next poll
+        verify(outboxRepository, never()).deleteAllByIdInBatch(anyIterable());
+        verify(outboxRepository).releaseClaims(List.of(1L));
+    }
+
+    @Test
+    void drain_ShouldSetAsideUnreadableRowWithoutBlockingTheQueue() {
+        // Given
+        OutboxEvent unreadable = new OutboxEvent("payment.succeeded", "ORDER-1", "com.example.Missing", "{}");
+        ReflectionTestUtils.setField(unreadable, "id", 1L);
+        OutboxEvent readable = event(2L, "ORDER-2");
+        when(outboxRepository.lockNextBatch(any(), any(Pageable.class))).thenReturn(List.of(unreadable, readable), List.of());
+        when(eventPublisher.publish(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        relay.drain();
+
+        // Then
+        verify(eventPublisher).publish(eq("payment.succeeded"), eq("ORDER-2"), any());
+        verify(eventPublisher, never()).publish(anyString(), eq("ORDER-1"), any());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(2L));
+        assertThat(unreadable.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(meterRegistry.counter("outbox.events.failed").count()).isEqualTo(1);
+    }
+
+    private static OutboxEvent event(Long id, String orderId) {
+        OutboxEvent event = new OutboxEvent("payment.succeeded", orderId, PaymentSucceededEvent.class.getName(),
+            "{\"orderId\":\"" + orderId + "\",\"transactionId\":\"TX-1\"}");
+        ReflectionTestUtils.setField(event, "id", id);
+        return event;
+    }
+}
@@ -0,0 +1,129 @@
+package com.eplatform.b2b.common.serialization;
+
+import com.eplatform.b2b.common.dto.ReserveItemDto;
+import com.eplatform.b2b.common.events.InventoryRejectedEvent;
+import com.eplatform.b2b.common.events.OrderPlacedEvent;
+import com.eplatform.b2b.common.events.PaymentSucceededEvent;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Payload size and ser/de throughput of the protobuf path against the JSON path with
+ * type headers. Not part of the regular build (surefire only picks up *Test); run with
+ * {@code mvn test -Dtest=EventSerializationBenchmark} and read the table on stdout.
+ */
+class EventSerializationBenchmark {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    private static final Map<String, Object> EVENTS = Map.of(
+        "order.placed", new OrderPlacedEvent("ORD-7f3c2a9e-5d1b-4c8e-9a6f-2b4d8e1c3a5f",
+            IntStream.range(0, 5).mapToObj(i -> new ReserveItemDto("SKU-" + (10_000 + i), i + 1)).toList(),
+            249_900, "USD"),
+        "payment.succeeded", new PaymentSucceededEvent("ORD-7f3c2a9e-5d1b-4c8e-9a6f-2b4d8e1c3a5f",
+            "TX-4e8b1d2c-9f3a-4b7e-8c1d-5a6f2e9b3c4d"),
+        "inventory.rejected", new InventoryRejectedEvent("ORD-7f3c2a9e-5d1b-4c8e-9a6f-2b4d8e1c3a5f",
+            "SKU-10001,SKU-10003", "INSUFFICIENT_STOCK"));
+
+    @TempDir
+    Path registryDir;
+
+    private Serializer<Object> jsonSerializer;
+    private Deserializer<Object> jsonDeserializer;
+    private Serializer<Object> protoSerializer;
+    private Deserializer<Object> protoDeserializer;
+
+    @BeforeEach
+    void setUp() {
+        // Same settings the services use today
+        Map<String, Object> configs = Map.of(
+            "spring.json.trusted.packages", "com.eplatform.b2b.*",
+            "spring.json.use.type.headers", true,
+            ProtobufEventSerializer.REGISTRY_DIR_CONFIG, registryDir.toString());
+        jsonSerializer = new JsonSerializer<>();
+        jsonSerializer.configure(configs, false);
+        jsonDeserializer = new JsonDeserializer<>();
+        jsonDeserializer.configure(configs, false);
+        protoSerializer = new ProtobufEventSerializer();
+        protoSerializer.configure(configs, false);
+        protoDeserializer = new ProtobufEventDeserializer();
+        protoDeserializer.configure(configs, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jsonSerializer.close();
+        jsonDeserializer.close();
+        protoSerializer.close();
+        protoDeserializer.close();
+    }
+
+    @Test
+    void compareJsonAndProtobuf() {
+        System.out.printf("%-20s %-6s %8s %8s %14s %14s%n",
+            "topic", "codec", "payload", "headers", "ser ops/s", "de ops/s");
+        for (Map.Entry<String, Object> entry : EVENTS.entrySet()) {
+            Result json = run(entry.getKey(), entry.getValue(), jsonSerializer, jsonDeserializer);
+            Result proto = run(entry.getKey(), entry.getValue(), protoSerializer, protoDeserializer);
+            json.print(entry.getKey(), "json");
+            proto.print(entry.getKey(), "proto");
+
+            assertThat(proto.payloadBytes + proto.headerBytes).isLessThan(json.payloadBytes + json.headerBytes);
+        }
+    }
+
+    private static Result run(String topic, Object event, Serializer<Object> serializer,
+                              Deserializer<Object> deserializer) {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] bytes = serializer.serialize(topic, headers, event);
+        Header[] written = headers.toArray();
+        assertThat(deserializer.deserialize(topic, new RecordHeaders(written), bytes)).isEqualTo(event);
+        int headerBytes = 0;
+        for (Header header : written) {
+            headerBytes += header.key().length() + header.value().length;
+        }
+
+        // JsonDeserializer strips the type headers it reads, so every call gets a fresh copy
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += serializer.serialize(topic, new RecordHeaders(), event).length;
+            sink += deserializer.deserialize(topic, new RecordHeaders(written), bytes).hashCode();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += serializer.serialize(topic, new RecordHeaders(), event).length;
+        }
+        long serNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += deserializer.deserialize(topic, new RecordHeaders(written), bytes).hashCode();
+        }
+        long deNanos = System.nanoTime() - start;
+        assertThat(sink).isNotZero();
+
+        return new Result(bytes.length, headerBytes, ITERATIONS * 1e9 / serNanos, ITERATIONS * 1e9 / deNanos);
+    }
+
+    private record Result(int payloadBytes, int headerBytes, double serOpsPerSec, double deOpsPerSec) {
+
+        void print(String topic, String codec) {
+            System.out.printf("%-20s %-6s %8d %8d %14.0f %14.0f%n",
+                topic, codec, payloadBytes, headerBytes, serOpsPerSec, deOpsPerSec);
+        }
+    }
+}
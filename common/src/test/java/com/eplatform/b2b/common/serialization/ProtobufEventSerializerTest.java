@@ -0,0 +1,129 @@
+package com.eplatform.b2b.common.serialization;
+
+import com.eplatform.b2b.common.dto.ReserveItemDto;
+import com.eplatform.b2b.common.events.InventoryRejectedEvent;
+import com.eplatform.b2b.common.events.OrderCancelledEvent;
+import com.eplatform.b2b.common.events.OrderRefundRequestedEvent;
+import com.eplatform.b2b.common.events.OrderPlacedEvent;
+import com.eplatform.b2b.common.events.PaymentSucceededEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ProtobufEventSerializerTest {
+
+    @TempDir
+    Path registryDir;
+
+    private ProtobufEventSerializer serializer;
+    private ProtobufEventDeserializer deserializer;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Object> configs = Map.of(
+            ProtobufEventSerializer.REGISTRY_DIR_CONFIG, registryDir.toString(),
+            "spring.json.trusted.packages", "com.eplatform.b2b.*");
+        serializer = new ProtobufEventSerializer();
+        serializer.configure(configs, false);
+        deserializer = new ProtobufEventDeserializer();
+        deserializer.configure(configs, false);
+    }
+
+    @Test
+    void roundTrip_ShouldRestoreEventsIncludingNulls() {
+        // Given
+        OrderPlacedEvent placed = new OrderPlacedEvent("ORDER-1",
+            List.of(new ReserveItemDto("SKU-A", 2), new ReserveItemDto("SKU-B", 1)), 12_500, "USD", "BUYER-1");
+        InventoryRejectedEvent rejected = new InventoryRejectedEvent("ORDER-2", "SKU-A", null);
+        OrderCancelledEvent cancelled = new OrderCancelledEvent("ORDER-3", null);
+        OrderRefundRequestedEvent refund = new OrderRefundRequestedEvent("ORDER-4", "TX-4", 2_000, null);
+
+        // When
+        byte[] placedBytes = serializer.serialize("order.placed", new RecordHeaders(), placed);
+        byte[] rejectedBytes = serializer.serialize("inventory.rejected", new RecordHeaders(), rejected);
+        byte[] cancelledBytes = serializer.serialize("order.cancelled", new RecordHeaders(), cancelled);
+        byte[] refundBytes = serializer.serialize("order.refund-requested", new RecordHeaders(), refund);
+
+        // Then
+        assertThat(placedBytes[0]).isEqualTo((byte) 0);
+        assertThat(deserializer.deserialize("order.placed", new RecordHeaders(), placedBytes)).isEqualTo(placed);
+        assertThat(deserializer.deserialize("inventory.rejected", new RecordHeaders(), rejectedBytes)).isEqualTo(rejected);
+        assertThat(deserializer.deserialize("order.cancelled", new RecordHeaders(), cancelledBytes)).isEqualTo(cancelled);
+        assertThat(deserializer.deserialize("order.refund-requested", new RecordHeaders(), refundBytes)).isEqualTo(refund);
+    }
+
+    @Test
+    void serialize_ShouldRegisterEachSchemaOnce() {
+        // Given - a second producer on the same registry
+        ProtobufEventSerializer other = new ProtobufEventSerializer();
+        other.configure(Map.of(ProtobufEventSerializer.REGISTRY_DIR_CONFIG, registryDir.toString()), false);
+
+        // When
+        byte[] first = serializer.serialize("payment.succeeded", new PaymentSucceededEvent("ORDER-1", "TX-1"));
+        byte[] second = other.serialize("payment.succeeded", new PaymentSucceededEvent("ORDER-2", "TX-2"));
+
+        // Then
+        FileSchemaRegistry registry = FileSchemaRegistry.forDirectory(registryDir);
+        assertThat(registry.versions(EventCodec.descriptor(PaymentSucceededEvent.class).getFullName()))
+            .hasSize(1);
+        assertThat(Arrays.copyOfRange(first, 0, 5)).isEqualTo(Arrays.copyOfRange(second, 0, 5));
+    }
+
+    @Test
+    void serialize_ShouldAgreeOnIds_WhenServicesUseSeparateRegistries(@TempDir Path otherDir) {
+        // Given - a producer and a consumer that do not share a registry directory
+        Map<String, Object> otherConfigs = Map.of(ProtobufEventSerializer.REGISTRY_DIR_CONFIG, otherDir.toString());
+        ProtobufEventSerializer other = new ProtobufEventSerializer();
+        other.configure(otherConfigs, false);
+        ProtobufEventDeserializer otherDeserializer = new ProtobufEventDeserializer();
+        otherDeserializer.configure(otherConfigs, false);
+        serializer.serialize("order.cancelled", new OrderCancelledEvent("ORDER-0", null));
+        PaymentSucceededEvent event = new PaymentSucceededEvent("ORDER-1", "TX-1");
+
+        // When
+        byte[] first = serializer.serialize("payment.succeeded", event);
+        byte[] second = other.serialize("payment.succeeded", event);
+
+        // Then
+        assertThat(Arrays.copyOfRange(first, 0, 5)).isEqualTo(Arrays.copyOfRange(second, 0, 5));
+        assertThat(otherDeserializer.deserialize("payment.succeeded", first)).isEqualTo(event);
+    }
+
+    @Test
+    void deserialize_ShouldUseSubjectHeader_WhenLayoutUnknown() {
+        // Given - a record from a producer with a layout this service has never registered
+        PaymentSucceededEvent event = new PaymentSucceededEvent("ORDER-1", "TX-1");
+        RecordHeaders headers = new RecordHeaders();
+        byte[] bytes = serializer.serialize("payment.succeeded", headers, event);
+        ByteBuffer.wrap(bytes, 1, 4).putInt(12345);
+
+        // Then
+        assertThat(deserializer.deserialize("payment.succeeded", headers, bytes)).isEqualTo(event);
+        assertThatThrownBy(() -> deserializer.deserialize("payment.succeeded", new RecordHeaders(), bytes))
+            .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void deserialize_ShouldFallBackToJsonForRecordsWrittenBeforeTheSwitch() {
+        // Given - a record written by the JSON serializer with type headers
+        PaymentSucceededEvent event = new PaymentSucceededEvent("ORDER-1", "TX-1");
+        RecordHeaders headers = new RecordHeaders();
+        try (JsonSerializer<Object> json = new JsonSerializer<>()) {
+            byte[] bytes = json.serialize("payment.succeeded", headers, event);
+
+            // Then
+            assertThat(deserializer.deserialize("payment.succeeded", headers, bytes)).isEqualTo(event);
+        }
+    }
+}
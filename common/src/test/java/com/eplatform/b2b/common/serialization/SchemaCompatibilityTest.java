@@ -0,0 +1,84 @@
+package com.eplatform.b2b.common.serialization;
+
+import com.eplatform.b2b.common.events.OrderPlacedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SchemaCompatibilityTest {
+
+    private static final String ROOT = "com.eplatform.b2b.common.events.proto.OrderPlaced";
+
+    private final EventSchema current = EventSchema.of(EventCodec.descriptor(OrderPlacedEvent.class))
+        .withVersion(1, 1);
+
+    @Test
+    void check_ShouldAcceptAddedAndRemovedFields() {
+        // Given - currency dropped, a new field 6 added
+        EventSchema next = edit(fields -> {
+            fields.removeIf(f -> f.number() == 4);
+            fields.add(new EventSchema.Field(6, "placed_at", "INT64", false));
+        });
+
+        // Then
+        assertThat(SchemaCompatibility.check(current, next)).isEmpty();
+    }
+
+    @Test
+    void check_ShouldRejectTypeChangeAndNumberReuse() {
+        // Given - total changed to a string, and currency's number reused for a repeated field
+        EventSchema next = edit(fields -> {
+            fields.replaceAll(f -> switch (f.number()) {
+                case 3 -> new EventSchema.Field(3, "total_amount_cents", "STRING", false);
+                case 4 -> new EventSchema.Field(4, "tags", "STRING", true);
+                default -> f;
+            });
+        });
+
+        // Then
+        assertThat(SchemaCompatibility.check(current, next))
+            .hasSize(2)
+            .anySatisfy(v -> assertThat(v).contains("field 3").contains("INT64").contains("STRING"))
+            .anySatisfy(v -> assertThat(v).contains("field 4").contains("repeated STRING tags"));
+    }
+
+    @Test
+    void check_ShouldRejectChangesInNestedMessages() {
+        // Given - ReserveItem.quantity widened to int64
+        Map<String, List<EventSchema.Field>> messages = new LinkedHashMap<>(current.messages());
+        messages.put("com.eplatform.b2b.common.events.proto.ReserveItem", List.of(
+            new EventSchema.Field(1, "sku", "STRING", false),
+            new EventSchema.Field(2, "quantity", "INT64", false)));
+
+        // Then
+        assertThat(SchemaCompatibility.check(current, new EventSchema(0, ROOT, 0, messages)))
+            .singleElement()
+            .satisfies(v -> assertThat(v).startsWith("com.eplatform.b2b.common.events.proto.ReserveItem field 2"));
+    }
+
+    @Test
+    void checkRegistry_ShouldAcceptCompiledSchemas() {
+        // Given - the registry to release against, e.g. a copy of production's
+        String dir = System.getProperty("schema.registry.dir");
+        assumeTrue(dir != null, "schema.registry.dir not set");
+
+        // Then
+        assertThat(SchemaCompatibility.checkRegistry(FileSchemaRegistry.forDirectory(Path.of(dir)))).isEmpty();
+    }
+
+    private EventSchema edit(Consumer<List<EventSchema.Field>> change) {
+        Map<String, List<EventSchema.Field>> messages = new LinkedHashMap<>(current.messages());
+        List<EventSchema.Field> fields = new ArrayList<>(messages.get(ROOT));
+        change.accept(fields);
+        messages.put(ROOT, fields);
+        return new EventSchema(0, ROOT, 0, messages);
+    }
+}
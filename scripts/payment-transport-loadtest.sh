@@ -0,0 +1,80 @@
+#!/bin/bash
+
+# Load test comparing payment charges over HTTP/1.1 + JSON (the Feign path) with gRPC
+# against a running payment-service. Reports client-side latency from each tool and the
+# payment-service CPU time spent per call.
+# Usage: ./scripts/payment-transport-loadtest.sh [requests] [concurrency]
+#
+# Needs hey (https://github.com/rakyll/hey) and ghz (https://ghz.sh). Every call charges
+# the same order, so after the first one the simulator answers from its idempotency
+# cache and the numbers are transport and serialization cost, not gateway latency.
+
+set -e
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[1;34m'
+NC='\033[0m' # No Color
+
+REQUESTS=${1:-20000}
+CONCURRENCY=${2:-50}
+HTTP_URL="http://localhost:8130/api/v1/payments/charge"
+GRPC_ADDRESS="localhost:9090"
+PROTO="common/src/main/proto/payment.proto"
+
+for tool in hey ghz; do
+    if ! command -v $tool &> /dev/null; then
+        echo -e "${RED}❌ $tool not found${NC}"
+        exit 1
+    fi
+done
+
+# payment-service PID as written by dev-start.sh, or the running java process
+PID=$(cat pids/services/payment-service.pid 2>/dev/null || pgrep -f 'payment-service' | head -1)
+if [ -z "$PID" ] || [ ! -d "/proc/$PID" ]; then
+    echo -e "${RED}❌ payment-service is not running${NC}"
+    exit 1
+fi
+CLK_TCK=$(getconf CLK_TCK)
+
+# utime + stime of the payment-service process, in clock ticks
+cpu_ticks() {
+    awk '{ print $14 + $15 }' "/proc/$PID/stat"
+}
+
+report_cpu() {
+    local label=$1
+    local ticks=$2
+    local per_call_us=$(( ticks * 1000000 / CLK_TCK / REQUESTS ))
+    echo -e "${GREEN}✅ $label: payment-service CPU $(( ticks * 1000 / CLK_TCK )) ms total, ${per_call_us} µs per call${NC}"
+}
+
+echo -e "${BLUE}💳 Payment transport load test: $REQUESTS calls, concurrency $CONCURRENCY${NC}"
+
+echo -e "\n${YELLOW}🔥 Warming up both paths...${NC}"
+hey -n 2000 -c "$CONCURRENCY" -m POST -T application/json \
+    -d '{"orderId":"LOADTEST-HTTP","amountCents":1000,"currency":"USD"}' "$HTTP_URL" > /dev/null
+ghz --insecure --proto "$PROTO" --call com.eplatform.b2b.payment.proto.PaymentService/Charge \
+    -n 2000 -c "$CONCURRENCY" \
+    -d '{"order_id":"LOADTEST-GRPC","amount_cents":1000,"currency":"USD"}' "$GRPC_ADDRESS" > /dev/null
+
+echo -e "\n${YELLOW}🌐 HTTP/JSON${NC}"
+START=$(cpu_ticks)
+hey -n "$REQUESTS" -c "$CONCURRENCY" -m POST -T application/json \
+    -d '{"orderId":"LOADTEST-HTTP","amountCents":1000,"currency":"USD"}' "$HTTP_URL" \
+    | grep -E 'Requests/sec|Average|50%|90%|99%|\[2'
+HTTP_TICKS=$(( $(cpu_ticks) - START ))
+
+echo -e "\n${YELLOW}⚡ gRPC${NC}"
+START=$(cpu_ticks)
+ghz --insecure --proto "$PROTO" --call com.eplatform.b2b.payment.proto.PaymentService/Charge \
+    -n "$REQUESTS" -c "$CONCURRENCY" \
+    -d '{"order_id":"LOADTEST-GRPC","amount_cents":1000,"currency":"USD"}' "$GRPC_ADDRESS" \
+    | grep -E 'Requests/sec|Average|50 %|90 %|99 %|\[OK\]'
+GRPC_TICKS=$(( $(cpu_ticks) - START ))
+
+echo ""
+report_cpu "HTTP/JSON" "$HTTP_TICKS"
+report_cpu "gRPC" "$GRPC_TICKS"
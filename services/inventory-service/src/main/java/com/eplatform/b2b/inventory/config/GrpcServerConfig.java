@@ -0,0 +1,16 @@
+package com.eplatform.b2b.inventory.config;
+
+import java.util.concurrent.Executors;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GrpcServerConfig {
+
+  /** Unary calls block on the database; run each on its own virtual thread. */
+  @Bean
+  public GrpcServerConfigurer virtualThreadExecutor() {
+    return serverBuilder -> serverBuilder.executor(Executors.newVirtualThreadPerTaskExecutor());
+  }
+}
@@ -1,9 +1,138 @@
 package com.eplatform.b2b.inventory.config;
 
+import com.eplatform.b2b.common.dedup.DedupConfiguration;
+import com.eplatform.b2b.common.messaging.EventPublisherConfiguration;
+import com.eplatform.b2b.common.messaging.ListenerRetryConfiguration;
+import com.eplatform.b2b.common.messaging.ListenerRetryTopics;
+import com.eplatform.b2b.common.outbox.OutboxConfiguration;
+import com.eplatform.b2b.inventory.exception.InsufficientStockException;
+import com.eplatform.b2b.inventory.exception.InvalidReservationStateException;
+import com.eplatform.b2b.inventory.messaging.KeyOrderedDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ContainerCustomizer;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.AcknowledgingConsumerAwareMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableKafka
+@Import({EventPublisherConfiguration.class, ListenerRetryConfiguration.class, OutboxConfiguration.class,
+    DedupConfiguration.class})
 public class KafkaConfig {
+
+  /**
+   * Business rejections are final; retrying them only delays the DLT. Only domain types are
+   * listed: infrastructure failures surface as generic exceptions and must be retried.
+   */
+  private static final List<Class<? extends Throwable>> FATAL_EXCEPTIONS =
+      List.of(InsufficientStockException.class, InvalidReservationStateException.class);
+
+  private static final List<String> KEY_ORDERED_TOPICS = List.of("order.placed", "order.cancelled", "payment.succeeded", "payment.failed");
+
+  /**
+   * Container factory for the batch order.placed listener. The broker holds each
+   * fetch for up to {@code linger-ms} until {@code min-bytes} are available, so
+   * polls fill up under load without delaying a quiet topic by more than the linger.
+   *
+   * <p>Retry topics do not apply to batch listeners, so an order the listener fails on
+   * is retried in place with the {@code listener.retry} backoff and then published to
+   * {@code order.placed-dlt}, the topic the record mode dead-letters to.
+   */
+  @Bean
+  @ConditionalOnProperty(name = "inventory.order-placed.batch.enabled", havingValue = "true")
+  public ConcurrentKafkaListenerContainerFactory<Object, Object> batchListenerContainerFactory(
+      ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+      KafkaProperties kafkaProperties,
+      @Value("${inventory.order-placed.batch.max-size:200}") int maxSize,
+      @Value("${inventory.order-placed.batch.linger-ms:50}") int lingerMs,
+      @Value("${inventory.order-placed.batch.min-bytes:16384}") int minBytes,
+      @Value("${listener.retry.attempts:4}") int attempts,
+      @Value("${listener.retry.initial-interval-ms:1000}") long initialIntervalMs,
+      @Value("${listener.retry.multiplier:2.0}") double multiplier,
+      @Value("${listener.retry.max-interval-ms:30000}") long maxIntervalMs,
+      KafkaTemplate<String, Object> kafkaTemplate,
+      MeterRegistry meterRegistry) {
+    Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+    props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxSize);
+    props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, lingerMs);
+    props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, minBytes);
+
+    DefaultKafkaConsumerFactory<Object, Object> consumerFactory = new DefaultKafkaConsumerFactory<>(props);
+    // Same client metrics (records-lag etc.) as the auto-configured consumer factory
+    consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+
+    ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    configurer.configure(factory, consumerFactory);
+    factory.setBatchListener(true);
+
+    ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(attempts - 1);
+    backOff.setInitialInterval(initialIntervalMs);
+    backOff.setMultiplier(multiplier);
+    backOff.setMaxInterval(maxIntervalMs);
+    DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+        (record, ex) -> new TopicPartition(record.topic() + "-dlt", -1));
+    factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, backOff));
+    return factory;
+  }
+
+  /**
+   * order.placed is left out of the retry topics in batch mode, whose container
+   * factory retries and dead-letters failed orders itself. With the parallel consumer enabled, records are retried in
+   * their order's lane instead and only the DLT endpoints see traffic.
+   */
+  @Bean
+  public ListenerRetryTopics listenerRetryTopics(
+      @Value("${inventory.order-placed.batch.enabled:false}") boolean batchOrderPlaced) {
+    List<String> topics = new ArrayList<>(List.of("order.cancelled", "payment.succeeded", "payment.failed"));
+    if (!batchOrderPlaced) {
+      topics.add("order.placed");
+    }
+    return new ListenerRetryTopics(topics, FATAL_EXCEPTIONS);
+  }
+
+  /**
+   * Hands the order.placed, order.cancelled and payment.* record listeners to the key-ordered
+   * dispatcher. Offsets are acknowledged per record and committed in order by the
+   * container (async acks); retry and DLT container endpoints are left as they are.
+   */
+  @Bean
+  @ConditionalOnProperty(name = "inventory.parallel-consumer.enabled", havingValue = "true")
+  public ContainerCustomizer<Object, Object, ConcurrentMessageListenerContainer<Object, Object>> keyOrderedContainerCustomizer(
+      KeyOrderedDispatcher dispatcher) {
+    return container -> {
+      ContainerProperties props = container.getContainerProperties();
+      if (props.getTopics() == null || !KEY_ORDERED_TOPICS.containsAll(List.of(props.getTopics()))
+          || !(props.getMessageListener() instanceof AcknowledgingConsumerAwareMessageListener<?, ?> listener)) {
+        return;
+      }
+      props.setAckMode(ContainerProperties.AckMode.MANUAL);
+      props.setAsyncAcks(true);
+      props.setConsumerRebalanceListener(dispatcher.drainOnRevoke());
+      @SuppressWarnings("unchecked")
+      AcknowledgingConsumerAwareMessageListener<Object, Object> delegate =
+          (AcknowledgingConsumerAwareMessageListener<Object, Object>) listener;
+      container.setupMessageListener(dispatcher.wrap(container, delegate));
+    };
+  }
 }
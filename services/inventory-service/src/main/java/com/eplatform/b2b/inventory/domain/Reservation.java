@@ -1,17 +1,27 @@
 package com.eplatform.b2b.inventory.domain;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+    @Index(name = "ix_reservations_status_created", columnList = "status, createdAt")
+})
 public class Reservation {
 
     @Id
@@ -24,13 +34,53 @@ public class Reservation {
     @Enumerated(EnumType.STRING)
     private ReservationStatus status;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(columnDefinition = "json")
+    // Loaded for up to 500 reservations per query when a sweep chunk touches them
+    @ElementCollection
+    @CollectionTable(name = "reservation_items",
+        joinColumns = @JoinColumn(name = "reservation_id"),
+        indexes = {
+            @Index(name = "ix_reservation_items_reservation", columnList = "reservation_id"),
+            @Index(name = "ix_reservation_items_sku", columnList = "sku, reservation_id")
+        })
+    @BatchSize(size = 500)
     private List<ReservationItem> items;
 
+    // The json column the previous release reads and writes. Kept in step with items for
+    // one release so both releases can run side by side; dropped with the column
+    // (see db/migration/reservation_items.sql)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "items", columnDefinition = "json")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private List<Map<String, Object>> legacyItems;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    private LocalDateTime expiresAt;
+
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    // Lines never change after the insert, so writing them on persist keeps the column current
+    @PrePersist
+    void writeLegacyItems() {
+        legacyItems = items == null ? null : items.stream()
+            .<Map<String, Object>>map(item -> Map.of("sku", item.getSku(), "quantity", item.getQuantity()))
+            .toList();
+    }
+
+    // A reservation written by the previous release only has the json lines
+    @PostLoad
+    void readLegacyItems() {
+        if (legacyItems != null && !legacyItems.isEmpty() && (items == null || items.isEmpty())) {
+            List<ReservationItem> lines = new ArrayList<>(legacyItems.size());
+            for (Map<String, Object> line : legacyItems) {
+                lines.add(new ReservationItem((String) line.get("sku"), ((Number) line.get("quantity")).intValue()));
+            }
+            items = lines;
+        }
+    }
 }
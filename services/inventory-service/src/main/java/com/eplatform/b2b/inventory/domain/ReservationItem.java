@@ -1,5 +1,7 @@
 package com.eplatform.b2b.inventory.domain;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -7,7 +9,11 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Embeddable
 public class ReservationItem {
+    @Column(nullable = false)
     private String sku;
+
+    @Column(nullable = false)
     private int quantity;
 }
@@ -1,7 +1,21 @@
 package com.eplatform.b2b.inventory.exception;
 
+import java.util.List;
+
 public class InsufficientStockException extends RuntimeException {
+    private final List<String> skus;
+
     public InsufficientStockException(String message) {
+        this(message, List.of());
+    }
+
+    public InsufficientStockException(String message, List<String> skus) {
         super(message);
+        this.skus = List.copyOf(skus);
+    }
+
+    /** The SKUs that were short, when known. */
+    public List<String> getSkus() {
+        return skus;
     }
 }
@@ -0,0 +1,12 @@
+package com.eplatform.b2b.inventory.exception;
+
+/**
+ * The reservation is not in the status the operation needs, e.g. a payment outcome for an
+ * order whose reservation was already cancelled. Final: retrying does not change it.
+ */
+public class InvalidReservationStateException extends RuntimeException {
+
+    public InvalidReservationStateException(String message) {
+        super(message);
+    }
+}
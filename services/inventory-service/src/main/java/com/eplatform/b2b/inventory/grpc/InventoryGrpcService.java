@@ -0,0 +1,206 @@
+package com.eplatform.b2b.inventory.grpc;
+
+import com.eplatform.b2b.common.dto.ReserveItemDto;
+import com.eplatform.b2b.common.dto.ReserveRequestDto;
+import com.eplatform.b2b.common.dto.ReserveResponseDto;
+import com.eplatform.b2b.inventory.exception.InsufficientStockException;
+import com.eplatform.b2b.inventory.proto.ConfirmResponse;
+import com.eplatform.b2b.inventory.proto.InventoryServiceGrpc;
+import com.eplatform.b2b.inventory.proto.OrderRef;
+import com.eplatform.b2b.inventory.proto.ReleaseResponse;
+import com.eplatform.b2b.inventory.proto.ReserveRequest;
+import com.eplatform.b2b.inventory.proto.ReserveResult;
+import com.eplatform.b2b.inventory.service.InventoryApplicationService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * gRPC front of the synchronous reservation API, same semantics as
+ * {@code InventoryController}: a reserve is all-or-nothing, idempotent per order, and
+ * short stock is a result rather than an error.
+ */
+@Slf4j
+@GrpcService
+public class InventoryGrpcService extends InventoryServiceGrpc.InventoryServiceImplBase {
+
+  private final InventoryApplicationService service;
+  private final int streamMaxInFlight;
+  private final ExecutorService streamReservations = Executors.newVirtualThreadPerTaskExecutor();
+
+  public InventoryGrpcService(InventoryApplicationService service,
+                              @Value("${inventory.grpc.reserve-stream.max-in-flight:32}") int streamMaxInFlight) {
+    this.service = service;
+    this.streamMaxInFlight = streamMaxInFlight;
+  }
+
+  @Override
+  public void reserve(ReserveRequest request, StreamObserver<ReserveResult> responseObserver) {
+    String invalid = invalid(request);
+    if (invalid != null) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(invalid).asRuntimeException());
+      return;
+    }
+    responseObserver.onNext(reserve(request));
+    responseObserver.onCompleted();
+  }
+
+  @Override
+  public void release(OrderRef request, StreamObserver<ReleaseResponse> responseObserver) {
+    if (request.getOrderId().isBlank()) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("order_id is required").asRuntimeException());
+      return;
+    }
+    service.release(request.getOrderId());
+    responseObserver.onNext(ReleaseResponse.getDefaultInstance());
+    responseObserver.onCompleted();
+  }
+
+  @Override
+  public void confirm(OrderRef request, StreamObserver<ConfirmResponse> responseObserver) {
+    if (request.getOrderId().isBlank()) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("order_id is required").asRuntimeException());
+      return;
+    }
+    responseObserver.onNext(ConfirmResponse.newBuilder().setConfirmed(service.confirm(request.getOrderId())).build());
+    responseObserver.onCompleted();
+  }
+
+  /**
+   * Reserves requests as they arrive, each in its own transaction on a virtual thread,
+   * and streams the results back in completion order. Flow control is manual: at most
+   * {@code reserve-stream.max-in-flight} requests are taken from the client at a time,
+   * and no more are taken while the client is not reading results, so a fast producer
+   * is slowed down by HTTP/2 flow control instead of queueing in memory here.
+   */
+  @Override
+  public StreamObserver<ReserveRequest> reserveStream(StreamObserver<ReserveResult> responseObserver) {
+    ReserveStream stream = new ReserveStream((ServerCallStreamObserver<ReserveResult>) responseObserver);
+    stream.start();
+    return stream;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    streamReservations.shutdownNow();
+  }
+
+  private ReserveResult reserve(ReserveRequest request) {
+    ReserveResult.Builder result = ReserveResult.newBuilder().setOrderId(request.getOrderId());
+    try {
+      ReserveResponseDto response = service.reserve(new ReserveRequestDto(
+          request.getItemsList().stream().map(i -> new ReserveItemDto(i.getSku(), i.getQuantity())).toList(),
+          request.getOrderId()));
+      return result.setSuccess(response.success()).addAllFailedSkus(response.failedSkus()).build();
+    } catch (InsufficientStockException ex) {
+      return result.setSuccess(false).addAllFailedSkus(ex.getSkus()).build();
+    }
+  }
+
+  private static String invalid(ReserveRequest request) {
+    if (request.getOrderId().isBlank() || request.getItemsCount() == 0) {
+      return "order_id and items are required";
+    }
+    return request.getItemsList().stream().anyMatch(i -> i.getSku().isBlank() || i.getQuantity() <= 0)
+        ? "every item needs a sku and a positive quantity"
+        : null;
+  }
+
+  /** Per-stream state; every field is guarded by {@code this}. */
+  private final class ReserveStream implements StreamObserver<ReserveRequest> {
+
+    private final ServerCallStreamObserver<ReserveResult> out;
+    private int inFlight;
+    /** Requests owed to the client for results sent while it was not ready. */
+    private int owed;
+    private boolean halfClosed;
+    private boolean done;
+
+    ReserveStream(ServerCallStreamObserver<ReserveResult> out) {
+      this.out = out;
+    }
+
+    void start() {
+      out.disableAutoRequest();
+      out.setOnReadyHandler(this::onReady);
+      out.setOnCancelHandler(() -> {
+        synchronized (this) {
+          done = true;
+        }
+      });
+      out.request(streamMaxInFlight);
+    }
+
+    @Override
+    public synchronized void onNext(ReserveRequest request) {
+      if (done) {
+        return;
+      }
+      inFlight++;
+      String invalid = invalid(request);
+      if (invalid != null) {
+        sent(ReserveResult.newBuilder().setOrderId(request.getOrderId()).setError(invalid).build());
+        return;
+      }
+      streamReservations.execute(() -> sent(reserveOrError(request)));
+    }
+
+    @Override
+    public synchronized void onError(Throwable t) {
+      // Reservations already running complete on their own; they are idempotent per order
+      log.debug("Reserve stream aborted by client with {} in flight", inFlight, t);
+      done = true;
+    }
+
+    @Override
+    public synchronized void onCompleted() {
+      halfClosed = true;
+      completeIfDrained();
+    }
+
+    private ReserveResult reserveOrError(ReserveRequest request) {
+      try {
+        return reserve(request);
+      } catch (RuntimeException ex) {
+        log.warn("Stream reservation failed for order {}", request.getOrderId(), ex);
+        return ReserveResult.newBuilder().setOrderId(request.getOrderId()).setError(String.valueOf(ex.getMessage()))
+            .build();
+      }
+    }
+
+    private synchronized void sent(ReserveResult result) {
+      inFlight--;
+      if (done) {
+        return;
+      }
+      out.onNext(result);
+      if (out.isReady()) {
+        out.request(1);
+      } else {
+        owed++;
+      }
+      completeIfDrained();
+    }
+
+    private synchronized void onReady() {
+      if (!done && owed > 0) {
+        out.request(owed);
+        owed = 0;
+      }
+    }
+
+    private void completeIfDrained() {
+      if (halfClosed && inFlight == 0 && !done) {
+        done = true;
+        out.onCompleted();
+      }
+    }
+  }
+}
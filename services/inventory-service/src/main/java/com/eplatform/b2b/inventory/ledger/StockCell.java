@@ -0,0 +1,39 @@
+package com.eplatform.b2b.inventory.ledger;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory counters for a single SKU. All access goes through the cell lock;
+ * multi-SKU operations acquire cells in SKU order to avoid deadlocks.
+ */
+final class StockCell {
+    final String sku;
+    final ReentrantLock lock = new ReentrantLock();
+
+    int available;
+    int reserved;
+
+    // Committed changes not yet written back to product_stock
+    int pendingAvailable;
+    int pendingReserved;
+
+    StockCell(String sku, int available, int reserved) {
+        this.sku = sku;
+        this.available = available;
+        this.reserved = reserved;
+    }
+
+    boolean canApply(int[] delta) {
+        return available + delta[0] >= 0 && reserved + delta[1] >= 0;
+    }
+
+    /** Moves the counters unless either would go negative; the caller holds the lock. */
+    boolean apply(int availableDelta, int reservedDelta) {
+        if (available + availableDelta < 0 || reserved + reservedDelta < 0) {
+            return false;
+        }
+        available += availableDelta;
+        reserved += reservedDelta;
+        return true;
+    }
+}
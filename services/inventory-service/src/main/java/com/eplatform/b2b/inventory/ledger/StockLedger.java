@@ -0,0 +1,281 @@
+package com.eplatform.b2b.inventory.ledger;
+
+import com.eplatform.b2b.inventory.domain.ProductStock;
+import com.eplatform.b2b.inventory.repo.ProductStockRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Optional in-process stock ledger in front of {@link ProductStockRepository}.
+ *
+ * <p>Reserve/release/confirm decisions for tracked SKUs are taken against per-SKU
+ * in-memory cells instead of a row lock on {@code product_stock}. Committed changes
+ * are accumulated as net deltas and written back asynchronously in batches.
+ * Callers use the JPQL path only when the ledger is disabled; when it is enabled every
+ * change goes through it, and a SKU it does not hold yet is loaded on first use. A SKU
+ * without a stock row has nothing to reserve or release and fails like a short one.
+ *
+ * <p>The ledger assumes this instance is the only writer for the SKUs it tracks.
+ */
+@Slf4j
+@Component
+public class StockLedger {
+
+    private enum Op {
+        RESERVE(true),
+        TRY_RESERVE(true),
+        CONFIRM(false),
+        RELEASE(false),
+        RESTOCK(false);
+
+        final boolean allOrNothing;
+
+        Op(boolean allOrNothing) {
+            this.allOrNothing = allOrNothing;
+        }
+    }
+
+    private final ProductStockRepository stockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final boolean preload;
+    private final int flushBatchSize;
+    private final Map<String, StockCell> cells = new ConcurrentHashMap<>();
+
+    public StockLedger(ProductStockRepository stockRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${inventory.ledger.enabled:false}") boolean enabled,
+                       @Value("${inventory.ledger.preload:true}") boolean preload,
+                       @Value("${inventory.ledger.flush-batch-size:500}") int flushBatchSize) {
+        this.stockRepository = stockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.preload = preload;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled || !preload) {
+            return;
+        }
+        for (ProductStock stock : stockRepository.findAll()) {
+            cells.putIfAbsent(stock.getSku(), new StockCell(stock.getSku(), stock.getAvailable(), stock.getReserved()));
+        }
+        log.info("Stock ledger warmed with {} SKUs", cells.size());
+    }
+
+    /** Moves stock from available to reserved; all-or-nothing. Returns the SKUs that could not be reserved. */
+    public List<String> reserve(Map<String, Integer> quantities) {
+        return apply(quantities, Op.RESERVE);
+    }
+
+    /** Takes stock out of available without holding it as reserved; all-or-nothing. */
+    public List<String> tryReserve(Map<String, Integer> quantities) {
+        return apply(quantities, Op.TRY_RESERVE);
+    }
+
+    /** Removes reserved stock for confirmed orders. Returns the SKUs with insufficient reserved stock. */
+    public List<String> confirm(Map<String, Integer> quantities) {
+        return apply(quantities, Op.CONFIRM);
+    }
+
+    /** Returns reserved stock to available. Returns the SKUs with insufficient reserved stock. */
+    public List<String> release(Map<String, Integer> quantities) {
+        return apply(quantities, Op.RELEASE);
+    }
+
+    /** Puts stock taken by {@link #tryReserve} back into available. */
+    public List<String> restock(Map<String, Integer> quantities) {
+        return apply(quantities, Op.RESTOCK);
+    }
+
+    /** Sums line quantities per SKU so repeated lines of one request hit a cell once. */
+    public static <T> Map<String, Integer> quantitiesBySku(Collection<T> items, Function<T, String> sku,
+                                                           ToIntFunction<T> quantity) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (T item : items) {
+            quantities.merge(sku.apply(item), quantity.applyAsInt(item), Integer::sum);
+        }
+        return quantities;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.ledger.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        List<StockCell> dirty = new ArrayList<>();
+        List<int[]> deltas = new ArrayList<>();
+        for (StockCell cell : cells.values()) {
+            cell.lock.lock();
+            try {
+                if (cell.pendingAvailable != 0 || cell.pendingReserved != 0) {
+                    dirty.add(cell);
+                    deltas.add(new int[] {cell.pendingAvailable, cell.pendingReserved});
+                    cell.pendingAvailable = 0;
+                    cell.pendingReserved = 0;
+                }
+            } finally {
+                cell.lock.unlock();
+            }
+        }
+
+        for (int from = 0; from < dirty.size(); from += flushBatchSize) {
+            int to = Math.min(from + flushBatchSize, dirty.size());
+            List<StockCell> batch = dirty.subList(from, to);
+            List<int[]> batchDeltas = deltas.subList(from, to);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        int[] delta = batchDeltas.get(i);
+                        int updated = stockRepository.applyDelta(batch.get(i).sku, delta[0], delta[1]);
+                        if (updated == 0) {
+                            log.warn("Stock row missing while flushing ledger delta for SKU: {}", batch.get(i).sku);
+                        }
+                    }
+                });
+            } catch (Exception ex) {
+                log.error("Failed to flush stock ledger batch of {} SKUs, will retry", batch.size(), ex);
+                for (int i = 0; i < batch.size(); i++) {
+                    addPending(batch.get(i), batchDeltas.get(i)[0], batchDeltas.get(i)[1]);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private List<String> apply(Map<String, Integer> quantities, Op op) {
+        if (!enabled) {
+            throw new IllegalStateException("Stock ledger is disabled");
+        }
+        load(quantities.keySet());
+        // Sorted acquisition order keeps concurrent multi-SKU requests deadlock free
+        TreeMap<String, Integer> sorted = new TreeMap<>(quantities);
+        List<StockCell> locked = new ArrayList<>(sorted.size());
+        List<String> failed = new ArrayList<>();
+        Map<StockCell, int[]> applied = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Integer> entry : sorted.entrySet()) {
+                StockCell cell = cells.get(entry.getKey());
+                if (cell == null) {
+                    failed.add(entry.getKey());
+                    continue;
+                }
+                cell.lock.lock();
+                locked.add(cell);
+                if (!cell.canApply(delta(entry.getValue(), op))) {
+                    failed.add(entry.getKey());
+                }
+            }
+            if (op.allOrNothing && !failed.isEmpty()) {
+                return failed;
+            }
+            for (StockCell cell : locked) {
+                int[] delta = delta(sorted.get(cell.sku), op);
+                if (cell.apply(delta[0], delta[1])) {
+                    applied.put(cell, delta);
+                }
+            }
+        } finally {
+            for (StockCell cell : locked) {
+                cell.lock.unlock();
+            }
+        }
+        recordOnCompletion(applied);
+        return failed;
+    }
+
+    /** Loads the SKUs the ledger does not hold yet from {@code product_stock}; SKUs without a row are left out. */
+    private void load(Collection<String> skus) {
+        for (String sku : skus) {
+            if (!cells.containsKey(sku)) {
+                stockRepository.findBySku(sku).ifPresent(stock ->
+                    cells.putIfAbsent(sku, new StockCell(sku, stock.getAvailable(), stock.getReserved())));
+            }
+        }
+    }
+
+    private static int[] delta(int qty, Op op) {
+        return switch (op) {
+            case RESERVE -> new int[] {-qty, qty};
+            case TRY_RESERVE -> new int[] {-qty, 0};
+            case CONFIRM -> new int[] {0, -qty};
+            case RELEASE -> new int[] {qty, -qty};
+            case RESTOCK -> new int[] {qty, 0};
+        };
+    }
+
+    /**
+     * Counters move immediately so concurrent requests see the decision, but the
+     * write-behind delta is only queued once the surrounding transaction commits.
+     * On rollback the counters are restored.
+     */
+    private void recordOnCompletion(Map<StockCell, int[]> applied) {
+        if (applied.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applied.forEach((cell, delta) -> addPending(cell, delta[0], delta[1]));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    applied.forEach((cell, delta) -> addPending(cell, delta[0], delta[1]));
+                } else {
+                    applied.forEach((cell, delta) -> revert(cell, delta[0], delta[1]));
+                }
+            }
+        });
+    }
+
+    private static void addPending(StockCell cell, int availableDelta, int reservedDelta) {
+        cell.lock.lock();
+        try {
+            cell.pendingAvailable += availableDelta;
+            cell.pendingReserved += reservedDelta;
+        } finally {
+            cell.lock.unlock();
+        }
+    }
+
+    private static void revert(StockCell cell, int availableDelta, int reservedDelta) {
+        cell.lock.lock();
+        try {
+            if (!cell.apply(-availableDelta, -reservedDelta)) {
+                log.error("Cannot revert ledger delta for SKU {}: counters would go negative", cell.sku);
+            }
+        } finally {
+            cell.lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.eplatform.b2b.inventory.messaging;
+
+import com.eplatform.b2b.common.messaging.ListenerRetryTopics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AcknowledgingConsumerAwareMessageListener;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves record processing off the consumer thread onto virtual threads. Records
+ * with the same key (the orderId) run one after another in the order they were
+ * dispatched, whatever topic they came from, so an order.cancelled never overtakes
+ * the order.placed of its order; records of different orders run concurrently, so
+ * one slow statement only holds up its own order instead of the whole partition.
+ *
+ * <p>Each record is acknowledged when it completes. Containers run with async acks,
+ * so offsets are only committed once every earlier record of the partition is done.
+ * Failures are retried in the record's own lane with the {@code listener.retry}
+ * backoff and then published to {@code <topic>-dlt}, as is a record whose backoff is
+ * interrupted. A record waiting out its backoff holds up its lane but does not count
+ * as in flight, so other orders keep flowing.
+ *
+ * <p>The consumer thread never blocks: at {@code max-in-flight} the containers are
+ * paused, so their polls return nothing and keep the consumers in the group, and
+ * they are resumed once half of that has completed. Records of a poll already
+ * under way are still dispatched, so the limit can be overshot by one poll.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.parallel-consumer.enabled", havingValue = "true")
+public class KeyOrderedDispatcher {
+
+    /** Handed to listeners; the dispatcher acknowledges once the record is done, in offset order. */
+    private static final Acknowledgment LANE_ACK = () -> { };
+
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    // A key is present while a worker is draining its queue; guarded by itself
+    private final Map<String, Deque<Runnable>> lanes = new HashMap<>();
+    private final Map<TopicPartition, AtomicInteger> inFlightByPartition = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // In flight and not waiting out a backoff; drives pause and resume
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final List<MessageListenerContainer> containers = new CopyOnWriteArrayList<>();
+    private final int maxInFlight;
+    /** Guarded by containers. */
+    private boolean paused;
+    private final DeadLetterPublishingRecoverer deadLetters;
+    private final MeterRegistry meterRegistry;
+    private final ListenerRetryTopics retryTopics;
+    private final int attempts;
+    private final long initialIntervalMs;
+    private final double multiplier;
+    private final long maxIntervalMs;
+    private final long drainTimeoutMs;
+
+    public KeyOrderedDispatcher(KafkaTemplate<String, Object> kafkaTemplate,
+                                MeterRegistry meterRegistry,
+                                ListenerRetryTopics retryTopics,
+                                @Value("${inventory.parallel-consumer.max-in-flight:256}") int maxInFlight,
+                                @Value("${inventory.parallel-consumer.drain-timeout-ms:30000}") long drainTimeoutMs,
+                                @Value("${listener.retry.attempts:4}") int attempts,
+                                @Value("${listener.retry.initial-interval-ms:1000}") long initialIntervalMs,
+                                @Value("${listener.retry.multiplier:2.0}") double multiplier,
+                                @Value("${listener.retry.max-interval-ms:30000}") long maxIntervalMs) {
+        this.maxInFlight = maxInFlight;
+        this.deadLetters = new DeadLetterPublishingRecoverer(kafkaTemplate,
+            (record, ex) -> new TopicPartition(record.topic() + "-dlt", -1));
+        this.meterRegistry = meterRegistry;
+        this.retryTopics = retryTopics;
+        this.drainTimeoutMs = drainTimeoutMs;
+        this.attempts = attempts;
+        this.initialIntervalMs = initialIntervalMs;
+        this.multiplier = multiplier;
+        this.maxIntervalMs = maxIntervalMs;
+
+        Gauge.builder("inventory.consumer.in_flight", inFlight, AtomicInteger::get)
+            .description("Records handed to workers and not yet acknowledged")
+            .register(meterRegistry);
+        Gauge.builder("inventory.consumer.queue_depth", queued, AtomicInteger::get)
+            .description("Records waiting behind an earlier record of the same order")
+            .register(meterRegistry);
+        Gauge.builder("inventory.consumer.active_keys", lanes, l -> {
+            synchronized (l) {
+                return l.size();
+            }
+        }).register(meterRegistry);
+    }
+
+    /**
+     * Wraps the record listener of a container, which must use AckMode.MANUAL with async
+     * acks; the container is paused and resumed with the others as records pile up.
+     */
+    public AcknowledgingMessageListener<Object, Object> wrap(MessageListenerContainer container,
+                                                             AcknowledgingConsumerAwareMessageListener<Object, Object> delegate) {
+        containers.add(container);
+        return (record, ack) -> dispatch(record, ack, delegate);
+    }
+
+    /** Holds a revoke until the revoked partitions' records are done, so their offsets are committed. */
+    public ConsumerAwareRebalanceListener drainOnRevoke() {
+        return new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                awaitDrained(partitions);
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.close();
+    }
+
+    private void dispatch(ConsumerRecord<Object, Object> record, Acknowledgment ack,
+                          AcknowledgingConsumerAwareMessageListener<Object, Object> delegate) {
+        acquire();
+        AtomicInteger partitionInFlight = inFlightByPartition.computeIfAbsent(
+            new TopicPartition(record.topic(), record.partition()), tp -> new AtomicInteger());
+        partitionInFlight.incrementAndGet();
+        inFlight.incrementAndGet();
+        Runnable task = () -> {
+            try {
+                process(record, ack, delegate);
+            } finally {
+                partitionInFlight.decrementAndGet();
+                inFlight.decrementAndGet();
+            }
+        };
+
+        if (record.key() == null) {
+            workers.execute(task);
+            return;
+        }
+        String key = record.key().toString();
+        boolean idle;
+        synchronized (lanes) {
+            Deque<Runnable> lane = lanes.get(key);
+            idle = lane == null;
+            if (idle) {
+                lane = new ArrayDeque<>();
+                lanes.put(key, lane);
+            }
+            lane.addLast(task);
+            queued.incrementAndGet();
+        }
+        if (idle) {
+            workers.execute(() -> drain(key));
+        }
+    }
+
+    private void drain(String key) {
+        while (true) {
+            Runnable task;
+            synchronized (lanes) {
+                Deque<Runnable> lane = lanes.get(key);
+                task = lane.pollFirst();
+                if (task == null) {
+                    lanes.remove(key);
+                    return;
+                }
+                queued.decrementAndGet();
+            }
+            task.run();
+        }
+    }
+
+    /** Runs the record counted as active in {@link #dispatch}, and releases it on every path. */
+    private void process(ConsumerRecord<Object, Object> record, Acknowledgment ack,
+                         AcknowledgingConsumerAwareMessageListener<Object, Object> delegate) {
+        boolean countedActive = true;
+        try {
+            long backoffMs = initialIntervalMs;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    // The consumer is not thread-safe and stays on the container thread
+                    delegate.onMessage(record, LANE_ACK, null);
+                    ack.acknowledge();
+                    return;
+                } catch (Exception ex) {
+                    if (attempt >= attempts || retryTopics.isFatal(ex)) {
+                        deadLetter(record, ack, ex);
+                        return;
+                    }
+                    meterRegistry.counter("kafka.listener.retries", "topic", record.topic()).increment();
+                    log.warn("Attempt {} for {}-{}@{} failed, retrying in {} ms: {}", attempt, record.topic(),
+                        record.partition(), record.offset(), backoffMs, ex.getMessage());
+                    // A record waiting out its backoff does not count against max-in-flight
+                    release();
+                    countedActive = false;
+                    try {
+                        Thread.sleep(backoffMs);
+                        acquire();
+                        countedActive = true;
+                    } catch (InterruptedException ie) {
+                        // Publish with the flag cleared so the send is not interrupted too
+                        deadLetter(record, ack, ex);
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    backoffMs = Math.min((long) (backoffMs * multiplier), maxIntervalMs);
+                }
+            }
+        } finally {
+            if (countedActive) {
+                release();
+            }
+        }
+    }
+
+    private void acquire() {
+        if (active.incrementAndGet() >= maxInFlight) {
+            synchronized (containers) {
+                if (!paused && active.get() >= maxInFlight) {
+                    paused = true;
+                    log.debug("{} records in flight, pausing consumers", active.get());
+                    containers.forEach(MessageListenerContainer::pause);
+                }
+            }
+        }
+    }
+
+    private void release() {
+        if (active.decrementAndGet() <= maxInFlight / 2) {
+            synchronized (containers) {
+                if (paused && active.get() <= maxInFlight / 2) {
+                    paused = false;
+                    containers.forEach(MessageListenerContainer::resume);
+                }
+            }
+        }
+    }
+
+    private void deadLetter(ConsumerRecord<Object, Object> record, Acknowledgment ack, Exception ex) {
+        try {
+            deadLetters.accept(record, ex);
+            ack.acknowledge();
+        } catch (Exception publishFailure) {
+            // Left unacknowledged: the partition's commits stop here and the record is redelivered after a restart
+            log.error("Failed to dead-letter {}-{}@{}", record.topic(), record.partition(), record.offset(),
+                publishFailure);
+        }
+    }
+
+    private void awaitDrained(Collection<TopicPartition> partitions) {
+        long deadline = System.currentTimeMillis() + drainTimeoutMs;
+        for (TopicPartition partition : partitions) {
+            AtomicInteger pending = inFlightByPartition.get(partition);
+            while (pending != null && pending.get() > 0) {
+                if (System.currentTimeMillis() > deadline) {
+                    log.warn("Gave up waiting for {} in-flight records of {} on revoke", pending.get(), partition);
+                    break;
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.eplatform.b2b.inventory.messaging;
+
+import com.eplatform.b2b.common.events.OrderCancelledEvent;
+import com.eplatform.b2b.common.dedup.ProcessedEventStore;
+import com.eplatform.b2b.inventory.service.InventoryReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Compensation from the order saga: stock held for a cancelled order goes back on sale. */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderCancelledListener {
+    private final InventoryReservationService reservationService;
+    private final ProcessedEventStore processedEvents;
+    private final TransactionTemplate transactionTemplate;
+
+    @KafkaListener(topics = "order.cancelled")
+    public void onOrderCancelled(@Payload OrderCancelledEvent event) {
+        String eventType = event.getClass().getSimpleName();
+        if (processedEvents.isDuplicate("order.cancelled", event.orderId(), eventType)) {
+            log.debug("Skipping duplicate order.cancelled for order: {}", event.orderId());
+            return;
+        }
+        log.info("Processing order.cancelled for order: {}", event.orderId());
+        transactionTemplate.executeWithoutResult(status -> {
+            reservationService.cancelReservationIfPresent(event.orderId(), "Order cancelled: " + event.reason());
+            processedEvents.markProcessed("order.cancelled", event.orderId(), eventType);
+        });
+    }
+}
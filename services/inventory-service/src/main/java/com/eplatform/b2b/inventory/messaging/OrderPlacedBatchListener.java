@@ -0,0 +1,104 @@
+package com.eplatform.b2b.inventory.messaging;
+
+import com.eplatform.b2b.common.events.OrderPlacedEvent;
+import com.eplatform.b2b.common.messaging.DeadLetterHandler;
+import com.eplatform.b2b.inventory.exception.InsufficientStockException;
+import com.eplatform.b2b.inventory.service.InventoryReservationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch mode for order.placed: a whole poll is reserved in one transaction with the
+ * SKU quantities of all orders coalesced. If the batch cannot be reserved as a
+ * whole, each order is retried on its own so one short SKU only rejects its order.
+ *
+ * <p>Any other failure of an order is thrown back to the container, which commits the
+ * orders before it, retries from it with backoff and finally parks it on
+ * {@code order.placed-dlt} (see {@code KafkaConfig}); the DLT is consumed here and
+ * handed to the {@link DeadLetterHandler}, as the retry topics do in record mode.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.order-placed.batch.enabled", havingValue = "true")
+public class OrderPlacedBatchListener {
+
+  private final InventoryReservationService reservationService;
+  private final DeadLetterHandler deadLetterHandler;
+  private final DistributionSummary batchSize;
+  private final Counter fallbacks;
+  private final Timer batchTimer;
+
+  public OrderPlacedBatchListener(InventoryReservationService reservationService,
+                                  DeadLetterHandler deadLetterHandler,
+                                  MeterRegistry meterRegistry) {
+    this.reservationService = reservationService;
+    this.deadLetterHandler = deadLetterHandler;
+    this.batchSize = DistributionSummary.builder("inventory.order_placed.batch.size")
+        .description("Orders per order.placed poll")
+        .register(meterRegistry);
+    this.fallbacks = Counter.builder("inventory.order_placed.batch.fallbacks")
+        .description("Batches reserved order by order after the batch reservation failed")
+        .register(meterRegistry);
+    this.batchTimer = Timer.builder("inventory.order_placed.batch.duration")
+        .register(meterRegistry);
+  }
+
+  @KafkaListener(topics = "order.placed", containerFactory = "batchListenerContainerFactory")
+  public void onOrderPlacedBatch(@Payload List<OrderPlacedEvent> events) {
+    // A redelivered order may appear twice in one poll; keep the first and its position
+    Map<String, Integer> firstIndex = new LinkedHashMap<>();
+    for (int i = 0; i < events.size(); i++) {
+      firstIndex.putIfAbsent(events.get(i).orderId(), i);
+    }
+    List<OrderPlacedEvent> batch = firstIndex.values().stream().map(events::get).toList();
+    log.info("Received order.placed batch of {} orders", batch.size());
+    batchSize.record(batch.size());
+
+    batchTimer.record(() -> {
+      try {
+        reservationService.createReservations(batch);
+      } catch (Exception ex) {
+        log.warn("Batch reservation of {} orders failed, falling back to per-order: {}", batch.size(), ex.getMessage());
+        fallbacks.increment();
+        firstIndex.values().forEach(index -> reserveSingle(events.get(index), index));
+      }
+    });
+  }
+
+  @KafkaListener(topics = "order.placed-dlt")
+  public void onDeadLetter(@Payload Object payload,
+                           @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                           @Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) byte[] error) {
+    deadLetterHandler.onDeadLetter(payload, topic, error);
+  }
+
+  private void reserveSingle(OrderPlacedEvent event, int index) {
+    try {
+      reservationService.createReservation(event);
+    } catch (InsufficientStockException ex) {
+      // Rejection already published by the reservation service; nothing to retry
+      log.info("Rejected order.placed {}: {}", event.orderId(), ex.getMessage());
+    } catch (RuntimeException ex) {
+      if (reservationService.hasReservation(event.orderId())) {
+        // A concurrent delivery of the same order won the unique constraint; it published the outcome
+        log.info("Order {} was reserved by another delivery, skipping", event.orderId());
+        return;
+      }
+      throw new BatchListenerFailedException("Failed to process order.placed " + event.orderId(), ex, index);
+    }
+  }
+}
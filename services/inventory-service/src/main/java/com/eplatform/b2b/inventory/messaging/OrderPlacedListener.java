@@ -1,36 +1,33 @@
 package com.eplatform.b2b.inventory.messaging;
 
-import com.eplatform.b2b.common.dto.ReserveRequestDto;
 import com.eplatform.b2b.common.events.OrderPlacedEvent;
-import com.eplatform.b2b.inventory.service.InventoryApplicationService;
+import com.eplatform.b2b.inventory.exception.InsufficientStockException;
 import com.eplatform.b2b.inventory.service.InventoryReservationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.order-placed.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class OrderPlacedListener {
 
-  private final InventoryApplicationService service;
   private final InventoryReservationService reservationService;
-  private final KafkaTemplate<String, Object> kafkaTemplate;
 
   @KafkaListener(topics = "order.placed")
   public void onOrderPlaced(@Payload OrderPlacedEvent event) {
     try {
       log.info("Received order.placed: {}", event.orderId());
-      String result = reservationService.createReservation(event.orderId(), event.items());
+      String result = reservationService.createReservation(event);
       log.debug("Reservation created for order: {}", result);
-    } catch (Exception ex) {
-      log.error("Failed to process order.placed: " + event.orderId(), ex);
-      kafkaTemplate.send("inventory.rejected", event.orderId(),
-          new com.eplatform.b2b.common.events.InventoryRejectedEvent(event.orderId(),
-              "PROCESSING_ERROR", ex.getMessage()));
+    } catch (InsufficientStockException ex) {
+      // Rejection already published by the reservation service; nothing to retry
+      log.info("Rejected order.placed {}: {}", event.orderId(), ex.getMessage());
     }
+    // Anything else is retried through order.placed-retry-N and rejected from the DLT
   }
 }
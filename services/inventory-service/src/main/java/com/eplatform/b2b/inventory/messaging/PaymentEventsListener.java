@@ -2,38 +2,50 @@ package com.eplatform.b2b.inventory.messaging;
 
 import com.eplatform.b2b.common.events.PaymentFailedEvent;
 import com.eplatform.b2b.common.events.PaymentSucceededEvent;
+import com.eplatform.b2b.common.dedup.ProcessedEventStore;
 import com.eplatform.b2b.inventory.service.InventoryReservationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class PaymentEventsListener {
     private final InventoryReservationService reservationService;
+    private final ProcessedEventStore processedEvents;
+    private final TransactionTemplate transactionTemplate;
 
     @KafkaListener(topics = "payment.succeeded")
     public void onPaymentSucceeded(@Payload PaymentSucceededEvent event) {
-        try {
-            log.info("Processing payment.succeeded for order: {}", event.orderId());
-            reservationService.confirmReservation(event.orderId());
-        } catch (Exception ex) {
-            log.error("Failed to confirm reservation: " + event.orderId(), ex);
-            // Consider sending to a dead-letter queue for manual intervention
+        String eventType = event.getClass().getSimpleName();
+        if (processedEvents.isDuplicate("payment.succeeded", event.orderId(), eventType)) {
+            log.debug("Skipping duplicate payment.succeeded for order: {}", event.orderId());
+            return;
         }
+        // Failures propagate to the retry topics and finally payment.succeeded-dlt
+        log.info("Processing payment.succeeded for order: {}", event.orderId());
+        transactionTemplate.executeWithoutResult(status -> {
+            reservationService.confirmReservation(event.orderId());
+            processedEvents.markProcessed("payment.succeeded", event.orderId(), eventType);
+        });
     }
 
     @KafkaListener(topics = "payment.failed")
     public void onPaymentFailed(@Payload PaymentFailedEvent event) {
-        try {
-            log.info("Processing payment.failed for order: {}", event.orderId());
+        String eventType = event.getClass().getSimpleName();
+        if (processedEvents.isDuplicate("payment.failed", event.orderId(), eventType)) {
+            log.debug("Skipping duplicate payment.failed for order: {}", event.orderId());
+            return;
+        }
+        log.info("Processing payment.failed for order: {}", event.orderId());
+        transactionTemplate.executeWithoutResult(status -> {
             reservationService.cancelReservation(event.orderId(),
                 "Payment failed: " + event.reason());
-        } catch (Exception ex) {
-            log.error("Failed to cancel reservation: " + event.orderId(), ex);
-        }
+            processedEvents.markProcessed("payment.failed", event.orderId(), eventType);
+        });
     }
 }
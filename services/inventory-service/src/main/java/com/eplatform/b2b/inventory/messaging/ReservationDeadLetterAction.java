@@ -0,0 +1,25 @@
+package com.eplatform.b2b.inventory.messaging;
+
+import com.eplatform.b2b.common.events.InventoryRejectedEvent;
+import com.eplatform.b2b.common.events.OrderPlacedEvent;
+import com.eplatform.b2b.common.messaging.DeadLetterAction;
+import com.eplatform.b2b.common.outbox.OutboxPublisher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * An order that could not be reserved is rejected so the order does not stay pending.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationDeadLetterAction implements DeadLetterAction {
+    private final OutboxPublisher outbox;
+
+    @Override
+    public void onDeadLetter(String topic, Object payload, String reason) {
+        if (payload instanceof OrderPlacedEvent event) {
+            outbox.publish("inventory.rejected", event.orderId(),
+                new InventoryRejectedEvent(event.orderId(), "PROCESSING_ERROR", reason));
+        }
+    }
+}
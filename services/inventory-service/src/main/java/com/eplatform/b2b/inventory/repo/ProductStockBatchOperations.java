@@ -0,0 +1,32 @@
+package com.eplatform.b2b.inventory.repo;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-SKU stock updates issued as a single statement per request.
+ */
+public interface ProductStockBatchOperations {
+
+  /**
+   * Conditionally takes {@code qty} out of available for every SKU, moving it to
+   * reserved when {@code holdAsReserved} is set. Rows are locked in SKU order.
+   *
+   * @return the SKUs that were updated; any SKU missing from the result had
+   *     insufficient stock or no row, and the caller is expected to roll back
+   */
+  Set<String> lockStockBatch(Map<String, Integer> quantities, boolean holdAsReserved);
+
+  /**
+   * Returns reserved stock to available for every SKU with enough reserved stock.
+   *
+   * @return the SKUs that were released
+   */
+  Set<String> releaseStockBatch(Map<String, Integer> quantities);
+
+  /**
+   * Creates empty stock rows for the given SKUs, ignoring SKUs that already have one.
+   */
+  void insertMissing(Collection<String> skus);
+}
@@ -0,0 +1,133 @@
+package com.eplatform.b2b.inventory.repo;
+
+import com.eplatform.b2b.inventory.domain.ProductStock;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+class ProductStockBatchOperationsImpl implements ProductStockBatchOperations {
+
+  private final JdbcTemplate jdbcTemplate;
+  private volatile Boolean postgres;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  ProductStockBatchOperationsImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public Set<String> lockStockBatch(Map<String, Integer> quantities, boolean holdAsReserved) {
+    return updateBatch(quantities,
+        "available = p.available - r.qty" + (holdAsReserved ? ", reserved = p.reserved + r.qty" : ""),
+        "p.available >= r.qty",
+        "p.available = p.available - :qty" + (holdAsReserved ? ", p.reserved = p.reserved + :qty" : ""),
+        "p.available >= :qty");
+  }
+
+  @Override
+  public Set<String> releaseStockBatch(Map<String, Integer> quantities) {
+    return updateBatch(quantities,
+        "available = p.available + r.qty, reserved = p.reserved - r.qty",
+        "p.reserved >= r.qty",
+        "p.available = p.available + :qty, p.reserved = p.reserved - :qty",
+        "p.reserved >= :qty");
+  }
+
+  @Override
+  public void insertMissing(Collection<String> skus) {
+    if (skus.isEmpty()) {
+      return;
+    }
+    if (isPostgres()) {
+      String values = String.join(", ", Collections.nCopies(skus.size(), "(?, 0, 0, 0)"));
+      jdbcTemplate.update("INSERT INTO product_stock (sku, available, reserved, version) VALUES " + values
+          + " ON CONFLICT (sku) DO NOTHING", skus.toArray());
+      return;
+    }
+    for (String sku : skus) {
+      Long existing = entityManager.createQuery("SELECT count(p) FROM ProductStock p WHERE p.sku = :sku", Long.class)
+          .setParameter("sku", sku)
+          .getSingleResult();
+      if (existing == 0) {
+        entityManager.persist(new ProductStock(sku, 0));
+      }
+    }
+  }
+
+  private Set<String> updateBatch(Map<String, Integer> quantities, String sqlSet, String sqlCondition,
+                                  String jpqlSet, String jpqlCondition) {
+    if (quantities.isEmpty()) {
+      return Set.of();
+    }
+    TreeMap<String, Integer> sorted = new TreeMap<>(quantities);
+    return isPostgres()
+        ? updateWithValuesJoin(sorted, sqlSet, sqlCondition)
+        : updateOneByOne(sorted, jpqlSet, jpqlCondition);
+  }
+
+  /**
+   * UPDATE ... FROM (VALUES ...) with the target rows locked up front in SKU order,
+   * so concurrent multi-SKU updates queue instead of deadlocking.
+   */
+  private Set<String> updateWithValuesJoin(TreeMap<String, Integer> sorted, String set, String condition) {
+    StringBuilder values = new StringBuilder();
+    List<Object> args = new ArrayList<>(sorted.size() * 2);
+    for (Map.Entry<String, Integer> entry : sorted.entrySet()) {
+      if (!args.isEmpty()) {
+        values.append(", ");
+      }
+      values.append("(CAST(? AS varchar), CAST(? AS integer))");
+      args.add(entry.getKey());
+      args.add(entry.getValue());
+    }
+    String sql = "WITH req(sku, qty) AS (VALUES " + values + "), "
+        + "locked AS (SELECT p.id FROM product_stock p JOIN req r ON r.sku = p.sku ORDER BY p.sku FOR UPDATE OF p) "
+        + "UPDATE product_stock p SET " + set
+        + " FROM req r WHERE p.sku = r.sku AND p.id IN (SELECT id FROM locked) AND " + condition
+        + " RETURNING p.sku";
+    return new HashSet<>(jdbcTemplate.queryForList(sql, String.class, args.toArray()));
+  }
+
+  // Databases without UPDATE ... FROM (H2 in tests) keep the per-SKU statements
+  private Set<String> updateOneByOne(TreeMap<String, Integer> sorted, String set, String condition) {
+    String jpql = "UPDATE ProductStock p SET " + set + " WHERE p.sku = :sku AND " + condition;
+    Set<String> updated = new HashSet<>();
+    for (Map.Entry<String, Integer> entry : sorted.entrySet()) {
+      int rows = entityManager.createQuery(jpql)
+          .setParameter("sku", entry.getKey())
+          .setParameter("qty", entry.getValue())
+          .executeUpdate();
+      if (rows == 1) {
+        updated.add(entry.getKey());
+      }
+    }
+    return updated;
+  }
+
+  private boolean isPostgres() {
+    Boolean result = postgres;
+    if (result == null) {
+      try {
+        String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+            metaData -> metaData.getDatabaseProductName());
+        result = "PostgreSQL".equalsIgnoreCase(product);
+      } catch (Exception ex) {
+        result = false;
+      }
+      postgres = result;
+    }
+    return result;
+  }
+}
@@ -1,6 +1,7 @@
 package com.eplatform.b2b.inventory.repo;
 
 import com.eplatform.b2b.inventory.domain.ProductStock;
+import java.util.List;
 import java.util.Optional;
 
 import jakarta.persistence.LockModeType;
@@ -11,10 +12,13 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
-public interface ProductStockRepository extends JpaRepository<ProductStock, Long> {
+public interface ProductStockRepository extends JpaRepository<ProductStock, Long>, ProductStockBatchOperations {
 
   Optional<ProductStock> findBySku(String sku);
 
+  @Query("SELECT p.sku FROM ProductStock p")
+  List<String> findAllSkus();
+
   @Modifying
   @Transactional
   @Query("update ProductStock p set p.available = p.available - :qty where p.sku = :sku and p.available >= :qty")
@@ -40,4 +44,12 @@ public interface ProductStockRepository extends JpaRepository<ProductStock, Long
          "p.reserved = p.reserved - :qty " +
          "WHERE p.sku = :sku AND p.reserved >= :qty")
   int releaseStock(@Param("sku") String sku, @Param("qty") int qty);
+
+  // Write-behind path for the in-memory stock ledger
+  @Modifying
+  @Query("UPDATE ProductStock p SET p.available = p.available + :availableDelta, " +
+         "p.reserved = p.reserved + :reservedDelta " +
+         "WHERE p.sku = :sku")
+  int applyDelta(@Param("sku") String sku, @Param("availableDelta") int availableDelta,
+                 @Param("reservedDelta") int reservedDelta);
 }
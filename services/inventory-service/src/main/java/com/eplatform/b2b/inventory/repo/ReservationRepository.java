@@ -2,18 +2,42 @@ package com.eplatform.b2b.inventory.repo;
 
 import com.eplatform.b2b.inventory.domain.Reservation;
 import com.eplatform.b2b.inventory.domain.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    interface ReservationDeadline {
+        String getOrderId();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getExpiresAt();
+    }
+
+    interface SkuQuantity {
+        String getSku();
+        Long getQuantity();
+    }
+
     Optional<Reservation> findByOrderId(String orderId);
 
+    boolean existsByOrderId(String orderId);
+
+    /** The given orders that already have a reservation, in any status. */
+    @Query("SELECT r.orderId FROM Reservation r WHERE r.orderId IN :orderIds")
+    List<String> findExistingOrderIds(@Param("orderIds") Collection<String> orderIds);
+
     @Modifying
     @Query("UPDATE Reservation r SET r.status = 'CONFIRMED' WHERE r.orderId = :orderId")
     int confirmReservation(@Param("orderId") String orderId);
@@ -23,4 +47,43 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     int cancelReservation(@Param("orderId") String orderId);
 
     List<Reservation> findByStatusAndCreatedAtBefore(ReservationStatus status, LocalDateTime threshold);
+
+    /**
+     * Next page of reservations created before the threshold, keyset-paged on
+     * (createdAt, id) over ix_reservations_status_created, which
+     * {@code db/migration/reservations_status_created.sql} creates. Rows locked by another
+     * replica's sweep are skipped (lock timeout -2 is SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM Reservation r WHERE r.status = :status AND r.createdAt < :threshold " +
+           "AND (r.createdAt > :afterCreatedAt OR (r.createdAt = :afterCreatedAt AND r.id > :afterId)) " +
+           "ORDER BY r.createdAt, r.id")
+    List<Reservation> lockPageCreatedBefore(@Param("status") ReservationStatus status,
+                                            @Param("threshold") LocalDateTime threshold,
+                                            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                            @Param("afterId") Long afterId,
+                                            Pageable page);
+
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :to, r.updatedAt = :now WHERE r.id IN :ids AND r.status = :from")
+    int transitionStatus(@Param("ids") Collection<Long> ids, @Param("from") ReservationStatus from,
+                         @Param("to") ReservationStatus to, @Param("now") LocalDateTime now);
+
+    @Query("SELECT r.orderId AS orderId, r.createdAt AS createdAt, r.expiresAt AS expiresAt " +
+           "FROM Reservation r WHERE r.status = :status")
+    List<ReservationDeadline> findDeadlinesByStatus(@Param("status") ReservationStatus status);
+
+    /** Locks the given orders' reservations that are still in the status, skipping rows locked elsewhere. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM Reservation r WHERE r.orderId IN :orderIds AND r.status = :status ORDER BY r.id")
+    List<Reservation> lockByOrderIdsAndStatus(@Param("orderIds") Collection<String> orderIds,
+                                              @Param("status") ReservationStatus status);
+
+    /** Reserved quantity per SKU across all reservations in the status; walks ix_reservation_items_sku. */
+    @Query("SELECT i.sku AS sku, SUM(i.quantity) AS quantity FROM Reservation r JOIN r.items i " +
+           "WHERE i.sku IN :skus AND r.status = :status GROUP BY i.sku")
+    List<SkuQuantity> sumQuantityBySku(@Param("skus") Collection<String> skus,
+                                       @Param("status") ReservationStatus status);
 }
@@ -3,20 +3,29 @@ package com.eplatform.b2b.inventory.scheduler;
 import com.eplatform.b2b.inventory.service.InventoryReservationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
+/**
+ * Safety-net sweep for reservations no {@link ReservationExpiryTimer} is holding,
+ * e.g. ones created by an instance that has since stopped.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ReservationCleanupScheduler {
     private final InventoryReservationService reservationService;
 
-    @Scheduled(fixedRate = 300000) // Run every 5 minutes
+    @Value("${inventory.reservation.expiry.ttl-ms:1800000}")
+    private long ttlMs;
+
+    @Scheduled(fixedDelayString = "${inventory.reservation.expiry.sweep-interval-ms:3600000}")
     public void cleanupExpiredReservations() {
-        LocalDateTime threshold = LocalDateTime.now().minusMinutes(30); // 30 minutes timeout
+        LocalDateTime threshold = LocalDateTime.now().minus(ttlMs, ChronoUnit.MILLIS);
         log.info("Cleaning up expired reservations before {}", threshold);
 
         reservationService.cancelExpiredReservations(threshold);
@@ -0,0 +1,136 @@
+package com.eplatform.b2b.inventory.scheduler;
+
+import com.eplatform.b2b.inventory.domain.ReservationStatus;
+import com.eplatform.b2b.inventory.repo.ReservationRepository;
+import com.eplatform.b2b.inventory.service.InventoryReservationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires the expiry of each PENDING reservation at its own deadline instead of
+ * waiting for the periodic sweep. Deadlines live in a {@link TimingWheel} that is
+ * rebuilt from the PENDING rows on startup; a single ticker thread advances it and
+ * cancels whatever came due in chunks.
+ *
+ * <p>Timers are local to the instance that created the reservation (or loaded it on
+ * startup). {@link ReservationCleanupScheduler} remains as a slow safety net for
+ * reservations whose instance went away.
+ */
+@Slf4j
+@Component
+public class ReservationExpiryTimer {
+
+    private final ReservationRepository reservationRepository;
+    private final InventoryReservationService reservationService;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final long tickMs;
+    private final int chunkSize;
+    private final TimingWheel wheel;
+    private final List<String> overdue = new ArrayList<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "reservation-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReservationExpiryTimer(ReservationRepository reservationRepository,
+                                  @Lazy InventoryReservationService reservationService,
+                                  @Value("${inventory.reservation.expiry.timer.enabled:true}") boolean enabled,
+                                  @Value("${inventory.reservation.expiry.ttl-ms:1800000}") long ttlMs,
+                                  @Value("${inventory.reservation.expiry.timer.tick-ms:1000}") long tickMs,
+                                  @Value("${inventory.reservation.expiry.timer.wheel-size:512}") int wheelSize,
+                                  @Value("${inventory.reservation.expiry.chunk-size:500}") int chunkSize) {
+        this.reservationRepository = reservationRepository;
+        this.reservationService = reservationService;
+        this.enabled = enabled;
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.tickMs = tickMs;
+        this.chunkSize = chunkSize;
+        this.wheel = new TimingWheel(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    /** Deadline of a reservation created at the given time. */
+    public LocalDateTime expiresAt(LocalDateTime createdAt) {
+        return createdAt.plus(ttl);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        List<ReservationRepository.ReservationDeadline> pending =
+            reservationRepository.findDeadlinesByStatus(ReservationStatus.PENDING);
+        for (ReservationRepository.ReservationDeadline deadline : pending) {
+            schedule(deadline.getOrderId(), deadline.getExpiresAt() != null
+                ? deadline.getExpiresAt() : expiresAt(deadline.getCreatedAt()));
+        }
+        log.info("Reservation expiry timer rebuilt with {} pending reservations", pending.size());
+        ticker.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void schedule(String orderId, LocalDateTime deadline) {
+        if (!enabled) {
+            return;
+        }
+        long deadlineMs = deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (wheel) {
+            if (!wheel.schedule(orderId, deadlineMs)) {
+                overdue.add(orderId);
+            }
+        }
+    }
+
+    public void cancel(String orderId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (wheel) {
+            wheel.cancel(orderId);
+        }
+    }
+
+    public int size() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    void tick() {
+        List<String> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+            due.addAll(overdue);
+            overdue.clear();
+        }
+        for (int from = 0; from < due.size(); from += chunkSize) {
+            List<String> chunk = due.subList(from, Math.min(from + chunkSize, due.size()));
+            try {
+                reservationService.expireReservations(chunk);
+            } catch (Exception ex) {
+                // Left to the cleanup sweep rather than retried on every tick
+                log.error("Failed to expire {} reservations", chunk.size(), ex);
+            }
+        }
+    }
+}
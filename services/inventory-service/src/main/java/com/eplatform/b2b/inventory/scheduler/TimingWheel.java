@@ -0,0 +1,139 @@
+package com.eplatform.b2b.inventory.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by string ids. Scheduling, cancelling and expiring
+ * a timer are O(1); deadlines beyond the range of a wheel go to a coarser overflow
+ * wheel and cascade down as the clock reaches them. A timer never fires before its
+ * deadline and at most one tick after it.
+ *
+ * <p>Not thread-safe; callers serialize access.
+ */
+public final class TimingWheel {
+
+    private static final class Timer {
+        final String id;
+        final long deadlineMs;
+        boolean cancelled;
+
+        Timer(String id, long deadlineMs) {
+            this.id = id;
+            this.deadlineMs = deadlineMs;
+        }
+    }
+
+    private static final class Level {
+        final long tickMs;
+        final long intervalMs;
+        final List<Deque<Timer>> buckets;
+        long currentTimeMs;
+        Level overflow;
+
+        Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.intervalMs = tickMs * wheelSize;
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayDeque<>());
+            }
+            this.currentTimeMs = startMs - (startMs % tickMs);
+        }
+
+        Deque<Timer> bucketFor(long timeMs) {
+            return buckets.get((int) ((timeMs / tickMs) % buckets.size()));
+        }
+    }
+
+    private final int wheelSize;
+    private final Level root;
+    private final Map<String, Timer> timers = new HashMap<>();
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.wheelSize = wheelSize;
+        this.root = new Level(tickMs, wheelSize, startMs);
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    /**
+     * Schedules a timer, replacing any previous one with the same id.
+     *
+     * @return false if the deadline is already behind the wheel's clock; the caller fires it
+     */
+    public boolean schedule(String id, long deadlineMs) {
+        cancel(id);
+        Timer timer = new Timer(id, deadlineMs);
+        if (!place(timer)) {
+            return false;
+        }
+        timers.put(id, timer);
+        return true;
+    }
+
+    public void cancel(String id) {
+        Timer timer = timers.remove(id);
+        if (timer != null) {
+            // Stays in its bucket and is skipped when the bucket is drained
+            timer.cancelled = true;
+        }
+    }
+
+    /** Advances the clock to {@code nowMs} and returns the ids whose deadline has passed. */
+    public List<String> advance(long nowMs) {
+        List<String> expired = new ArrayList<>();
+        while (root.currentTimeMs + root.tickMs <= nowMs) {
+            Deque<Timer> bucket = root.bucketFor(root.currentTimeMs);
+            root.currentTimeMs += root.tickMs;
+            for (Timer timer; (timer = bucket.pollFirst()) != null; ) {
+                if (!timer.cancelled) {
+                    timers.remove(timer.id);
+                    expired.add(timer.id);
+                }
+            }
+            cascade(root.overflow, root.currentTimeMs, expired);
+        }
+        return expired;
+    }
+
+    /** Moves the timers of every overflow bucket the clock has entered down into the finer wheels. */
+    private void cascade(Level level, long nowMs, List<String> expired) {
+        if (level == null) {
+            return;
+        }
+        while (level.currentTimeMs + level.tickMs <= nowMs) {
+            level.currentTimeMs += level.tickMs;
+            Deque<Timer> bucket = level.bucketFor(level.currentTimeMs);
+            for (int n = bucket.size(); n > 0; n--) {
+                Timer timer = bucket.pollFirst();
+                if (!timer.cancelled && !place(timer)) {
+                    timers.remove(timer.id);
+                    expired.add(timer.id);
+                }
+            }
+            cascade(level.overflow, level.currentTimeMs, expired);
+        }
+    }
+
+    private boolean place(Timer timer) {
+        if (timer.deadlineMs < root.currentTimeMs) {
+            return false;
+        }
+        Level level = root;
+        while (timer.deadlineMs >= level.currentTimeMs + level.intervalMs) {
+            if (level.overflow == null) {
+                level.overflow = new Level(level.intervalMs, wheelSize, level.currentTimeMs);
+            }
+            level = level.overflow;
+        }
+        level.bucketFor(timer.deadlineMs).addLast(timer);
+        return true;
+    }
+}
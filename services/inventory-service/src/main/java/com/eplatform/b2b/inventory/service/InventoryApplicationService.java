@@ -3,15 +3,20 @@ package com.eplatform.b2b.inventory.service;
 import com.eplatform.b2b.common.dto.ReserveItemDto;
 import com.eplatform.b2b.common.dto.ReserveRequestDto;
 import com.eplatform.b2b.common.dto.ReserveResponseDto;
-import com.eplatform.b2b.inventory.domain.ProductStock;
 import com.eplatform.b2b.inventory.domain.Reservation;
 import com.eplatform.b2b.inventory.domain.ReservationItem;
 import com.eplatform.b2b.inventory.domain.ReservationStatus;
 import com.eplatform.b2b.inventory.exception.InsufficientStockException;
+import com.eplatform.b2b.inventory.ledger.StockLedger;
 import com.eplatform.b2b.inventory.repo.ProductStockRepository;
 import com.eplatform.b2b.inventory.repo.ReservationRepository;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,32 +26,53 @@ public class InventoryApplicationService {
 
   private final ProductStockRepository repo;
   private final ReservationRepository reservationRepository;
+  private final StockLedger stockLedger;
+  private final KnownSkuRegistry knownSkus;
+  private final InventoryReservationService reservations;
 
-  public InventoryApplicationService(ProductStockRepository repo, ReservationRepository reservationRepository) {
+  public InventoryApplicationService(ProductStockRepository repo, ReservationRepository reservationRepository,
+                                     StockLedger stockLedger, KnownSkuRegistry knownSkus,
+                                     InventoryReservationService reservations) {
     this.repo = repo;
     this.reservationRepository = reservationRepository;
+    this.stockLedger = stockLedger;
+    this.knownSkus = knownSkus;
+    this.reservations = reservations;
   }
 
   @Transactional
   public ReserveResponseDto reserve(ReserveRequestDto request) {
+    if (request.orderId() != null) {
+      Optional<Reservation> existing = reservationRepository.findByOrderId(request.orderId());
+      if (existing.isPresent()) {
+        // A retry of a reservation that went through, or a reserve arriving after its release
+        boolean held = existing.get().getStatus() == ReservationStatus.CONFIRMED;
+        return new ReserveResponseDto(held, held ? List.of() : List.of("RELEASED"));
+      }
+    }
     // Ensure all-or-nothing: if any SKU fails, throw to rollback the transaction
     List<String> failed = new ArrayList<>();
-    for (ReserveItemDto item : request.items()) {
-      // Ensure SKU row exists; create with 0 if missing
-      repo.findBySku(item.sku()).orElseGet(() -> repo.save(new ProductStock(item.sku(), 0)));
-      int updated = repo.tryReserve(item.sku(), item.quantity());
-      if (updated != 1) {
-        failed.add(item.sku());
+    Map<String, Integer> quantities = StockLedger.quantitiesBySku(request.items(), ReserveItemDto::sku, ReserveItemDto::quantity);
+    if (stockLedger.isEnabled()) {
+      failed.addAll(stockLedger.tryReserve(quantities));
+    } else {
+      // Ensure SKU rows exist; only SKUs never seen before cost an extra upsert
+      List<String> unknown = knownSkus.unknown(quantities.keySet());
+      if (!unknown.isEmpty()) {
+        repo.insertMissing(unknown);
+        knownSkus.markKnown(unknown);
       }
+      Set<String> reserved = repo.lockStockBatch(quantities, false);
+      quantities.keySet().stream().filter(sku -> !reserved.contains(sku)).forEach(failed::add);
     }
     if (!failed.isEmpty()) {
-      throw new InsufficientStockException("Insufficient stock for: " + String.join(",", failed));
+      throw new InsufficientStockException("Insufficient stock for: " + String.join(",", failed), failed);
     }
 
     // Create a reservation entry with CONFIRMED status for the reserved items
     Reservation reservation = new Reservation();
     // For integration tests that don't pass an orderId, we can synthesize one
-    reservation.setOrderId("RES-" + System.currentTimeMillis());
+    reservation.setOrderId(request.orderId() != null ? request.orderId() : "RES-" + System.currentTimeMillis());
     reservation.setStatus(ReservationStatus.CONFIRMED);
     List<ReservationItem> items = request.items().stream()
         .map(i -> new ReservationItem(i.sku(), i.quantity()))
@@ -56,4 +82,69 @@ public class InventoryApplicationService {
 
     return new ReserveResponseDto(true, List.of());
   }
+
+  /**
+   * Compensates a synchronous {@link #reserve} of the order: the stock goes back to
+   * available and the reservation is cancelled. Idempotent. When the reserve has not
+   * arrived yet (the caller timed out on it), a cancelled reservation is recorded so
+   * a late reserve for the order is refused instead of holding stock forever.
+   */
+  @Transactional
+  public void release(String orderId) {
+    Optional<Reservation> existing = reservationRepository.findByOrderId(orderId);
+    if (existing.isEmpty()) {
+      Reservation tombstone = new Reservation();
+      tombstone.setOrderId(orderId);
+      tombstone.setStatus(ReservationStatus.CANCELLED);
+      tombstone.setItems(new ArrayList<>());
+      reservationRepository.save(tombstone);
+      return;
+    }
+    Reservation reservation = existing.get();
+    if (reservation.getStatus() != ReservationStatus.CONFIRMED) {
+      return;
+    }
+    Map<String, Integer> quantities = StockLedger.quantitiesBySku(reservation.getItems(),
+        ReservationItem::getSku, ReservationItem::getQuantity);
+    if (stockLedger.isEnabled()) {
+      stockLedger.restock(quantities);
+    } else {
+      quantities.forEach((sku, qty) -> repo.applyDelta(sku, qty, 0));
+    }
+    reservation.setStatus(ReservationStatus.CANCELLED);
+  }
+
+  /**
+   * Confirms the order's reservation. A PENDING one from the async pipeline is confirmed
+   * as in {@link InventoryReservationService#confirmReservation}; one that is already
+   * confirmed, which includes every synchronous {@link #reserve}, is left as is.
+   *
+   * @return false when the order has no reservation or it was cancelled or expired
+   */
+  @Transactional
+  public boolean confirm(String orderId) {
+    Optional<Reservation> existing = reservationRepository.findByOrderId(orderId);
+    if (existing.isEmpty()) {
+      return false;
+    }
+    return switch (existing.get().getStatus()) {
+      case PENDING -> {
+        reservations.confirmReservation(orderId);
+        yield true;
+      }
+      case CONFIRMED -> true;
+      default -> false;
+    };
+  }
+
+  /** Quantity held by PENDING reservations for each requested SKU (0 when none). */
+  @Transactional(readOnly = true)
+  public Map<String, Long> pendingReserved(Collection<String> skus) {
+    Map<String, Long> totals = new LinkedHashMap<>();
+    skus.forEach(sku -> totals.put(sku, 0L));
+    for (ReservationRepository.SkuQuantity row : reservationRepository.sumQuantityBySku(skus, ReservationStatus.PENDING)) {
+      totals.put(row.getSku(), row.getQuantity());
+    }
+    return totals;
+  }
 }
@@ -3,73 +3,137 @@ package com.eplatform.b2b.inventory.service;
 import com.eplatform.b2b.common.dto.ReserveItemDto;
 import com.eplatform.b2b.common.events.InventoryReservedEvent;
 import com.eplatform.b2b.common.events.InventoryRejectedEvent;
+import com.eplatform.b2b.common.events.OrderPlacedEvent;
 import com.eplatform.b2b.inventory.domain.Reservation;
 import com.eplatform.b2b.inventory.domain.ReservationItem;
 import com.eplatform.b2b.inventory.domain.ReservationStatus;
 import com.eplatform.b2b.inventory.exception.InsufficientStockException;
+import com.eplatform.b2b.inventory.exception.InvalidReservationStateException;
+import com.eplatform.b2b.inventory.ledger.StockLedger;
+import com.eplatform.b2b.common.outbox.OutboxPublisher;
 import com.eplatform.b2b.inventory.repo.ProductStockRepository;
 import com.eplatform.b2b.inventory.repo.ReservationRepository;
+import com.eplatform.b2b.inventory.scheduler.ReservationExpiryTimer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class InventoryReservationService {
+    // Lower bound for the first keyset page of the expiry sweep
+    private static final LocalDateTime SWEEP_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final ProductStockRepository stockRepository;
     private final ReservationRepository reservationRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxPublisher outbox;
+    private final StockLedger stockLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final ReservationExpiryTimer expiryTimer;
+
+    @Value("${inventory.reservation.expiry.chunk-size:500}")
+    private int expiryChunkSize;
 
+    /**
+     * Reserves the order's items; the inventory.reserved event carries the order total on to payment.
+     * A redelivered order that already has a reservation is skipped: its inventory.reserved or
+     * inventory.rejected went out with the first delivery.
+     */
     @Transactional
-    public String createReservation(String orderId, List<ReserveItemDto> items) {
+    public String createReservation(OrderPlacedEvent event) {
+        String orderId = event.orderId();
+        List<ReserveItemDto> items = event.items();
+        if (reservationRepository.existsByOrderId(orderId)) {
+            log.info("Order {} already has a reservation, skipping redelivered order.placed", orderId);
+            return orderId;
+        }
         try {
             log.info("Creating reservation for order: {}", orderId);
 
             // 1. Check and lock stock for all items
-            for (ReserveItemDto item : items) {
-                int updated = stockRepository.lockStock(item.sku(), item.quantity());
-                if (updated == 0) {
-                    // Stock insufficient - release any previously locked stock
-                    releasePreviouslyLockedStock(items, item.sku());
-                    throw new InsufficientStockException("Insufficient stock for SKU: " + item.sku());
-                }
-                log.debug("Locked {} units of SKU: {}", item.quantity(), item.sku());
-            }
+            lockStock(StockLedger.quantitiesBySku(items, ReserveItemDto::sku, ReserveItemDto::quantity), orderId);
 
             // 2. Create reservation record
-            List<ReservationItem> reservationItems = items.stream()
-                .map(i -> new ReservationItem(i.sku(), i.quantity()))
-                .collect(Collectors.toList());
-
-            Reservation reservation = new Reservation();
-            reservation.setOrderId(orderId);
-            reservation.setStatus(ReservationStatus.PENDING);
-            reservation.setItems(reservationItems);
-
+            Reservation reservation = newPendingReservation(orderId, items);
             reservationRepository.save(reservation);
+            afterCommit(() -> expiryTimer.schedule(orderId, reservation.getExpiresAt()));
             log.info("Created reservation for order: {}", orderId);
 
             // 3. Publish event
-            kafkaTemplate.send("inventory.reserved", orderId,
-                new InventoryReservedEvent(orderId));
+            outbox.publish("inventory.reserved", orderId,
+                new InventoryReservedEvent(orderId, event.totalAmountCents(), event.currency(), event.buyerId()));
 
             return orderId;
 
-        } catch (Exception e) {
-            log.error("Failed to create reservation for order: " + orderId, e);
-            kafkaTemplate.send("inventory.rejected", orderId,
+        } catch (InsufficientStockException e) {
+            log.warn("Rejecting reservation for order: {} - {}", orderId, e.getMessage());
+            // Written in its own transaction so it survives the rollback of this one
+            outbox.publishIndependently("inventory.rejected", orderId,
                 new InventoryRejectedEvent(orderId, "RESERVATION_FAILED", e.getMessage()));
             throw e;
         }
     }
 
+    /**
+     * Reserves a whole poll of orders in one transaction, locking the summed SKU
+     * quantities once. Throws if any SKU is short so the caller can fall back to
+     * per-order reservations. Orders that already have a reservation are skipped, as in
+     * {@link #createReservation(OrderPlacedEvent)}.
+     *
+     * @return the orders reserved by this call
+     */
+    @Transactional
+    public List<String> createReservations(List<OrderPlacedEvent> batch) {
+        Set<String> existing = Set.copyOf(reservationRepository.findExistingOrderIds(
+            batch.stream().map(OrderPlacedEvent::orderId).collect(Collectors.toList())));
+        List<OrderPlacedEvent> events = batch.stream()
+            .filter(event -> !existing.contains(event.orderId()))
+            .collect(Collectors.toList());
+        if (!existing.isEmpty()) {
+            log.info("Skipping {} redelivered orders that already have a reservation", existing.size());
+        }
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        List<ReserveItemDto> allItems = events.stream()
+            .flatMap(event -> event.items().stream())
+            .collect(Collectors.toList());
+        lockStock(StockLedger.quantitiesBySku(allItems, ReserveItemDto::sku, ReserveItemDto::quantity),
+            events.size() + " orders");
+
+        List<Reservation> reservations = events.stream()
+            .map(event -> newPendingReservation(event.orderId(), event.items()))
+            .collect(Collectors.toList());
+        reservationRepository.saveAll(reservations);
+        afterCommit(() -> reservations.forEach(r -> expiryTimer.schedule(r.getOrderId(), r.getExpiresAt())));
+        log.info("Created {} reservations in one batch", events.size());
+
+        for (OrderPlacedEvent event : events) {
+            outbox.publish("inventory.reserved", event.orderId(),
+                new InventoryReservedEvent(event.orderId(), event.totalAmountCents(), event.currency(), event.buyerId()));
+        }
+        return events.stream().map(OrderPlacedEvent::orderId).collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasReservation(String orderId) {
+        return reservationRepository.existsByOrderId(orderId);
+    }
+
     @Transactional
     public void confirmReservation(String orderId) {
         log.info("Confirming reservation for order: {}", orderId);
@@ -77,21 +141,32 @@ public class InventoryReservationService {
             .orElseThrow(() -> new RuntimeException("Reservation not found: " + orderId));
 
         if (reservation.getStatus() != ReservationStatus.PENDING) {
-            throw new IllegalStateException("Invalid reservation status: " + reservation.getStatus());
+            throw new InvalidReservationStateException("Invalid reservation status: " + reservation.getStatus());
         }
 
         // Update stock - move from reserved to unavailable
-        for (ReservationItem item : reservation.getItems()) {
-            int updated = stockRepository.confirmReservation(item.getSku(), item.getQuantity());
-            if (updated == 0) {
-                log.error("Failed to confirm reservation for SKU: {} - insufficient reserved stock", item.getSku());
-                throw new RuntimeException("Insufficient reserved stock for SKU: " + item.getSku());
+        Map<String, Integer> quantities = StockLedger.quantitiesBySku(reservation.getItems(),
+            ReservationItem::getSku, ReservationItem::getQuantity);
+        if (stockLedger.isEnabled()) {
+            List<String> failed = stockLedger.confirm(quantities);
+            if (!failed.isEmpty()) {
+                log.error("Failed to confirm reservation for SKUs: {} - insufficient reserved stock", failed);
+                throw new RuntimeException("Insufficient reserved stock for SKU: " + String.join(",", failed));
+            }
+        } else {
+            for (ReservationItem item : reservation.getItems()) {
+                int updated = stockRepository.confirmReservation(item.getSku(), item.getQuantity());
+                if (updated == 0) {
+                    log.error("Failed to confirm reservation for SKU: {} - insufficient reserved stock", item.getSku());
+                    throw new RuntimeException("Insufficient reserved stock for SKU: " + item.getSku());
+                }
             }
         }
 
         // Update reservation status
         reservation.setStatus(ReservationStatus.CONFIRMED);
         reservationRepository.save(reservation);
+        afterCommit(() -> expiryTimer.cancel(orderId));
         log.info("Confirmed reservation for order: {}", orderId);
     }
 
@@ -107,48 +182,186 @@ public class InventoryReservationService {
         }
 
         // Release stock back to available
-        for (ReservationItem item : reservation.getItems()) {
-            int updated = stockRepository.releaseStock(item.getSku(), item.getQuantity());
-            if (updated == 0) {
-                log.warn("Failed to release stock for SKU: {} - insufficient reserved stock", item.getSku());
-            }
-        }
+        releaseStock(StockLedger.quantitiesBySku(reservation.getItems(),
+            ReservationItem::getSku, ReservationItem::getQuantity));
 
         // Update status
         reservation.setStatus(ReservationStatus.CANCELLED);
         reservationRepository.save(reservation);
+        afterCommit(() -> expiryTimer.cancel(orderId));
         log.info("Cancelled reservation for order: {}", orderId);
     }
 
+    /**
+     * Cancels the order's reservation if inventory has one; an order cancelled before its
+     * order.placed was processed has none, and a later one is cleaned up by the expiry timer.
+     *
+     * @return false if there was no reservation
+     */
     @Transactional
-    public void cancelExpiredReservations(LocalDateTime threshold) {
-        List<Reservation> expired = reservationRepository
-            .findByStatusAndCreatedAtBefore(ReservationStatus.PENDING, threshold);
-
-        for (Reservation reservation : expired) {
-            try {
-                cancelReservation(reservation.getOrderId(), "Reservation expired");
-            } catch (Exception ex) {
-                log.error("Failed to cancel expired reservation: " + reservation.getOrderId(), ex);
+    public boolean cancelReservationIfPresent(String orderId, String reason) {
+        if (reservationRepository.findByOrderId(orderId).isEmpty()) {
+            log.info("No reservation to cancel for order: {}", orderId);
+            return false;
+        }
+        cancelReservation(orderId, reason);
+        return true;
+    }
+
+    /**
+     * Cancels expired PENDING reservations chunk by chunk, each chunk in its own
+     * transaction: rows are locked with SKIP LOCKED so replicas sweep disjoint
+     * chunks, stock is released with one batch UPDATE and statuses are flipped
+     * with one bulk UPDATE.
+     *
+     * @return the number of reservations cancelled
+     */
+    public int cancelExpiredReservations(LocalDateTime threshold) {
+        LocalDateTime afterCreatedAt = SWEEP_START;
+        long afterId = 0L;
+        int cancelled = 0;
+        while (true) {
+            LocalDateTime cursorCreatedAt = afterCreatedAt;
+            long cursorId = afterId;
+            SweepChunk chunk = transactionTemplate.execute(status ->
+                cancelExpiredChunk(threshold, cursorCreatedAt, cursorId));
+            if (chunk == null || chunk.size() == 0) {
+                break;
+            }
+            cancelled += chunk.cancelled();
+            afterCreatedAt = chunk.lastCreatedAt();
+            afterId = chunk.lastId();
+            if (chunk.size() < expiryChunkSize) {
+                break;
             }
         }
+        if (cancelled > 0) {
+            log.info("Cancelled {} expired reservations created before {}", cancelled, threshold);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Cancels the reservations whose expiry timer fired. Reservations confirmed,
+     * cancelled or being expired by another instance in the meantime are skipped.
+     *
+     * @return the number of reservations cancelled
+     */
+    @Transactional
+    public int expireReservations(Collection<String> orderIds) {
+        List<Reservation> due = reservationRepository.lockByOrderIdsAndStatus(orderIds, ReservationStatus.PENDING);
+        int cancelled = cancelPending(due);
+        if (cancelled > 0) {
+            log.info("Expired {} reservations", cancelled);
+        }
+        return cancelled;
+    }
+
+    private SweepChunk cancelExpiredChunk(LocalDateTime threshold, LocalDateTime afterCreatedAt, long afterId) {
+        List<Reservation> chunk = reservationRepository.lockPageCreatedBefore(ReservationStatus.PENDING, threshold,
+            afterCreatedAt, afterId, PageRequest.of(0, expiryChunkSize));
+        if (chunk.isEmpty()) {
+            return new SweepChunk(0, 0, null, null);
+        }
+
+        int cancelled = cancelPending(chunk);
+        Reservation last = chunk.get(chunk.size() - 1);
+        return new SweepChunk(chunk.size(), cancelled, last.getCreatedAt(), last.getId());
+    }
+
+    /** Releases the stock of locked PENDING reservations with one batch UPDATE and flips their status in bulk. */
+    private int cancelPending(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return 0;
+        }
+        List<ReservationItem> items = reservations.stream()
+            .filter(r -> r.getItems() != null)
+            .flatMap(r -> r.getItems().stream())
+            .collect(Collectors.toList());
+        releaseStock(StockLedger.quantitiesBySku(items, ReservationItem::getSku, ReservationItem::getQuantity));
+
+        List<Long> ids = reservations.stream().map(Reservation::getId).collect(Collectors.toList());
+        List<String> orderIds = reservations.stream().map(Reservation::getOrderId).collect(Collectors.toList());
+        afterCommit(() -> orderIds.forEach(expiryTimer::cancel));
+        return reservationRepository.transitionStatus(ids, ReservationStatus.PENDING,
+            ReservationStatus.CANCELLED, LocalDateTime.now());
     }
 
     /**
-     * Releases stock that was previously locked in the same transaction
-     * Used when a subsequent item fails stock check
+     * Locks the summed quantities through the stock ledger when it is enabled, otherwise
+     * with a single JPQL or batch UPDATE. Throws on any shortage.
      */
-    private void releasePreviouslyLockedStock(List<ReserveItemDto> items, String failedSku) {
-        // Find items that come before the failed SKU in the list
-        boolean shouldRelease = false;
-        for (ReserveItemDto item : items) {
-            if (shouldRelease) {
-                stockRepository.releaseStock(item.sku(), item.quantity());
-                log.debug("Released previously locked stock for SKU: {}", item.sku());
+    private void lockStock(Map<String, Integer> quantities, String orderId) {
+        if (stockLedger.isEnabled()) {
+            List<String> failed = stockLedger.reserve(quantities);
+            if (!failed.isEmpty()) {
+                throw new InsufficientStockException("Insufficient stock for SKU: " + String.join(",", failed));
             }
-            if (item.sku().equals(failedSku)) {
-                shouldRelease = true;
+            log.debug("Locked {} SKUs in stock ledger for order: {}", quantities.size(), orderId);
+        } else if (quantities.size() == 1) {
+            Map.Entry<String, Integer> item = quantities.entrySet().iterator().next();
+            int updated = stockRepository.lockStock(item.getKey(), item.getValue());
+            if (updated == 0) {
+                throw new InsufficientStockException("Insufficient stock for SKU: " + item.getKey());
+            }
+            log.debug("Locked {} units of SKU: {}", item.getValue(), item.getKey());
+        } else {
+            // One statement for all lines; partial updates are undone by the rollback
+            Set<String> locked = stockRepository.lockStockBatch(quantities, true);
+            List<String> failed = quantities.keySet().stream()
+                .filter(sku -> !locked.contains(sku))
+                .collect(Collectors.toList());
+            if (!failed.isEmpty()) {
+                throw new InsufficientStockException("Insufficient stock for SKU: " + String.join(",", failed));
             }
+            log.debug("Locked {} SKUs in one batch for order: {}", locked.size(), orderId);
         }
     }
+
+    private void releaseStock(Map<String, Integer> quantities) {
+        if (stockLedger.isEnabled()) {
+            for (String sku : stockLedger.release(quantities)) {
+                log.warn("Failed to release stock for SKU: {} - insufficient reserved stock", sku);
+            }
+        } else if (quantities.size() == 1) {
+            Map.Entry<String, Integer> item = quantities.entrySet().iterator().next();
+            if (stockRepository.releaseStock(item.getKey(), item.getValue()) == 0) {
+                log.warn("Failed to release stock for SKU: {} - insufficient reserved stock", item.getKey());
+            }
+        } else if (!quantities.isEmpty()) {
+            Set<String> released = stockRepository.releaseStockBatch(quantities);
+            quantities.keySet().stream()
+                .filter(sku -> !released.contains(sku))
+                .forEach(sku -> log.warn("Failed to release stock for SKU: {} - insufficient reserved stock", sku));
+        }
+    }
+
+    private Reservation newPendingReservation(String orderId, List<ReserveItemDto> items) {
+        List<ReservationItem> reservationItems = items.stream()
+            .map(i -> new ReservationItem(i.sku(), i.quantity()))
+            .collect(Collectors.toList());
+
+        Reservation reservation = new Reservation();
+        reservation.setOrderId(orderId);
+        reservation.setStatus(ReservationStatus.PENDING);
+        reservation.setItems(reservationItems);
+        reservation.setExpiresAt(expiryTimer.expiresAt(LocalDateTime.now()));
+        return reservation;
+    }
+
+    /** Runs the action once the surrounding transaction commits, or right away outside one. */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record SweepChunk(int size, int cancelled, LocalDateTime lastCreatedAt, Long lastId) {}
 }
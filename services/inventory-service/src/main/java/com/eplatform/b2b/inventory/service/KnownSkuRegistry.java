@@ -0,0 +1,57 @@
+package com.eplatform.b2b.inventory.service;
+
+import com.eplatform.b2b.inventory.repo.ProductStockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SKUs known to have a {@code product_stock} row. Lets the reserve path skip the
+ * existence lookup for known SKUs and only upsert the unknown ones.
+ *
+ * <p>Rows are never deleted in normal operation; a stale entry only means the
+ * reservation fails with insufficient stock, exactly as for a zero-stock row.
+ */
+@Slf4j
+@Component
+public class KnownSkuRegistry {
+    private final ProductStockRepository stockRepository;
+    private final Set<String> known = ConcurrentHashMap.newKeySet();
+
+    public KnownSkuRegistry(ProductStockRepository stockRepository) {
+        this.stockRepository = stockRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        known.addAll(stockRepository.findAllSkus());
+        log.info("Known SKU registry warmed with {} SKUs", known.size());
+    }
+
+    public List<String> unknown(Collection<String> skus) {
+        return skus.stream().filter(sku -> !known.contains(sku)).toList();
+    }
+
+    /** Records SKUs as known once the transaction that inserted their rows commits. */
+    public void markKnown(Collection<String> skus) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            known.addAll(skus);
+            return;
+        }
+        List<String> inserted = List.copyOf(skus);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                known.addAll(inserted);
+            }
+        });
+    }
+}
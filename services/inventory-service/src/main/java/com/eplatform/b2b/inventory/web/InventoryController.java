@@ -4,10 +4,15 @@ import com.eplatform.b2b.common.dto.ReserveRequestDto;
 import com.eplatform.b2b.common.dto.ReserveResponseDto;
 import com.eplatform.b2b.inventory.service.InventoryApplicationService;
 import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -23,4 +28,16 @@ public class InventoryController {
   public ResponseEntity<ReserveResponseDto> reserve(@Valid @RequestBody ReserveRequestDto request) {
     return ResponseEntity.ok(service.reserve(request));
   }
+
+  /** Releases what {@code /reserve} took for the order; safe to repeat. */
+  @PostMapping("/reservations/{orderId}/release")
+  public ResponseEntity<Void> release(@PathVariable("orderId") String orderId) {
+    service.release(orderId);
+    return ResponseEntity.noContent().build();
+  }
+
+  @GetMapping("/reservations/pending")
+  public ResponseEntity<Map<String, Long>> pendingReserved(@RequestParam("sku") List<String> skus) {
+    return ResponseEntity.ok(service.pendingReserved(skus));
+  }
 }
@@ -0,0 +1,36 @@
+-- Moves reservation lines out of the reservations.items json column into
+-- reservation_items. Run with psql against the inventory schema before starting a
+-- release that maps Reservation.items as a collection table (prod runs with
+-- ddl-auto: validate). Safe to re-run: reservations already copied are skipped.
+--
+-- Rolling deploys: that release keeps writing the json column next to reservation_items
+-- and falls back to the json lines of reservations that have no rows, so it can run
+-- next to the previous release. Once the previous release is gone, run this file again
+-- to copy what it wrote in the meantime; the column is dropped one release later.
+
+ALTER TABLE reservations ADD COLUMN IF NOT EXISTS expires_at timestamp(6);
+
+CREATE TABLE IF NOT EXISTS reservation_items (
+    reservation_id bigint       NOT NULL REFERENCES reservations (id),
+    sku            varchar(255) NOT NULL,
+    quantity       integer      NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_reservation_items_reservation ON reservation_items (reservation_id);
+CREATE INDEX IF NOT EXISTS ix_reservation_items_sku ON reservation_items (sku, reservation_id);
+
+-- Copy in id ranges so a large table is not rewritten in one transaction. Each range is
+-- its own statement (psql's \gexec), so under autocommit every range commits as it goes
+-- and inside an outer transaction they simply run in it.
+SELECT format(
+    'INSERT INTO reservation_items (reservation_id, sku, quantity) '
+    'SELECT r.id, line ->> ''sku'', (line ->> ''quantity'')::integer '
+    'FROM reservations r CROSS JOIN LATERAL json_array_elements(r.items::json) AS line '
+    'WHERE r.id > %s AND r.id <= %s AND r.items IS NOT NULL '
+    'AND NOT EXISTS (SELECT 1 FROM reservation_items i WHERE i.reservation_id = r.id)',
+    from_id, from_id + 10000)
+FROM generate_series(0, (SELECT coalesce(max(id), 0) FROM reservations), 10000) AS from_id
+\gexec
+
+-- One release after the one that stopped reading it:
+-- ALTER TABLE reservations DROP COLUMN items;
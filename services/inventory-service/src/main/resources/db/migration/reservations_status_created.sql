@@ -0,0 +1,8 @@
+-- Index behind the keyset-paged expiry sweep (ReservationRepository.lockPageCreatedBefore),
+-- declared on Reservation but never created where ddl-auto is validate. Run against the
+-- inventory schema before starting a release that sweeps in chunks. Safe to re-run.
+--
+-- CONCURRENTLY keeps reservations writable while the index builds; it cannot run inside
+-- a transaction block, so run this file on its own (psql -f in autocommit mode).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_reservations_status_created ON reservations (status, created_at);
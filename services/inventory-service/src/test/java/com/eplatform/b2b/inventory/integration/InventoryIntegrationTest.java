@@ -2,16 +2,22 @@ package com.eplatform.b2b.inventory.integration;
 
 import com.eplatform.b2b.common.dto.ReserveItemDto;
 import com.eplatform.b2b.common.dto.ReserveRequestDto;
+import com.eplatform.b2b.common.events.OrderPlacedEvent;
 import com.eplatform.b2b.inventory.InventoryServiceApplication;
 import com.eplatform.b2b.inventory.config.TestKafkaConfig;
 import com.eplatform.b2b.inventory.domain.ProductStock;
 import com.eplatform.b2b.inventory.domain.Reservation;
+import com.eplatform.b2b.inventory.domain.ReservationItem;
 import com.eplatform.b2b.inventory.domain.ReservationStatus;
 import com.eplatform.b2b.inventory.repo.ProductStockRepository;
 import com.eplatform.b2b.inventory.repo.ReservationRepository;
+import com.eplatform.b2b.inventory.service.InventoryReservationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +31,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -38,6 +45,8 @@ class InventoryIntegrationTest {
     @Autowired
     private ReservationRepository reservationRepository;
     @Autowired
+    private InventoryReservationService reservationService;
+    @Autowired
     private TestRestTemplate restTemplate;
 
     @LocalServerPort
@@ -46,6 +55,9 @@ class InventoryIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private ProductStock testStock;
 
     @BeforeEach
@@ -112,9 +124,113 @@ class InventoryIntegrationTest {
         assertThat(reservations).isEmpty();
     }
 
+    @Test
+    void shouldRejectUnknownSkuWithoutLeavingStockRow() throws Exception {
+        // Given
+        List<ReserveItemDto> items = List.of(new ReserveItemDto("NEW-SKU", 1));
+        ReserveRequestDto request = new ReserveRequestDto(items);
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+            "http://localhost:" + port + "/api/v1/inventory/reserve",
+            HttpMethod.POST,
+            new HttpEntity<>(request, createJsonHeaders()),
+            String.class
+        );
+
+        // Then - nothing to reserve yet, but the row is rolled back together with the request
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(productStockRepository.findBySku("NEW-SKU")).isEmpty();
+    }
+
+    @Test
+    void shouldReleaseStockOfExpiredReservations() {
+        // Given - two pending reservations holding 3 units
+        reservationService.createReservation(order("ORDER-EXP-1", new ReserveItemDto("TEST-SKU", 1)));
+        reservationService.createReservation(order("ORDER-EXP-2", new ReserveItemDto("TEST-SKU", 2)));
+
+        // When
+        int cancelled = reservationService.cancelExpiredReservations(LocalDateTime.now().plusMinutes(1));
+
+        // Then
+        assertThat(cancelled).isEqualTo(2);
+        assertThat(reservationRepository.findAll())
+            .extracting(Reservation::getStatus)
+            .containsOnly(ReservationStatus.CANCELLED);
+        ProductStock stock = productStockRepository.findBySku("TEST-SKU").orElseThrow();
+        assertThat(stock.getAvailable()).isEqualTo(10);
+        assertThat(stock.getReserved()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldReleaseReservationOfOrderAndRefuseLateReserve() {
+        // Given
+        String base = "http://localhost:" + port + "/api/v1/inventory";
+        List<ReserveItemDto> items = List.of(new ReserveItemDto("TEST-SKU", 3));
+        restTemplate.postForEntity(base + "/reserve", new ReserveRequestDto(items, "ORDER-SYNC-1"), String.class);
+
+        // When - released twice, and a release for an order whose reserve has not arrived yet
+        restTemplate.postForEntity(base + "/reservations/ORDER-SYNC-1/release", null, Void.class);
+        ResponseEntity<Void> again = restTemplate.postForEntity(base + "/reservations/ORDER-SYNC-1/release",
+            null, Void.class);
+        restTemplate.postForEntity(base + "/reservations/ORDER-SYNC-2/release", null, Void.class);
+        ResponseEntity<Map> late = restTemplate.postForEntity(base + "/reserve",
+            new ReserveRequestDto(items, "ORDER-SYNC-2"), Map.class);
+
+        // Then
+        assertThat(again.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(productStockRepository.findBySku("TEST-SKU").orElseThrow().getAvailable()).isEqualTo(10);
+        assertThat(reservationRepository.findByOrderId("ORDER-SYNC-1").orElseThrow().getStatus())
+            .isEqualTo(ReservationStatus.CANCELLED);
+        assertThat(late.getBody()).containsEntry("success", false);
+    }
+
+    @Test
+    void shouldReportPendingReservedQuantityPerSku() {
+        // Given - two pending reservations and one confirmed one
+        productStockRepository.save(new ProductStock("OTHER-SKU", 10));
+        reservationService.createReservation(order("ORDER-PEND-1",
+            new ReserveItemDto("TEST-SKU", 1), new ReserveItemDto("OTHER-SKU", 4)));
+        reservationService.createReservation(order("ORDER-PEND-2", new ReserveItemDto("TEST-SKU", 2)));
+        reservationService.createReservation(order("ORDER-PEND-3", new ReserveItemDto("TEST-SKU", 5)));
+        reservationService.confirmReservation("ORDER-PEND-3");
+
+        // When
+        ResponseEntity<Map> response = restTemplate.getForEntity(
+            "http://localhost:" + port + "/api/v1/inventory/reservations/pending?sku=TEST-SKU&sku=OTHER-SKU&sku=NONE",
+            Map.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsEntry("TEST-SKU", 3).containsEntry("OTHER-SKU", 4)
+            .containsEntry("NONE", 0);
+    }
+
+    @Test
+    void shouldKeepJsonLinesReadableByBothReleases() {
+        // Given - one reservation written by this release and one by the previous release
+        reservationService.createReservation(order("ORDER-NEW", new ReserveItemDto("TEST-SKU", 1)));
+        jdbcTemplate.update("INSERT INTO reservations (orderId, status, items) VALUES (?, 'PENDING', ? FORMAT JSON)",
+            "ORDER-OLD", "[{\"sku\":\"TEST-SKU\",\"quantity\":2}]");
+
+        // When
+        String json = jdbcTemplate.queryForObject(
+            "SELECT CAST(items AS VARCHAR) FROM reservations WHERE orderId = 'ORDER-NEW'", String.class);
+        Reservation old = reservationRepository.findByOrderId("ORDER-OLD").orElseThrow();
+
+        // Then
+        assertThat(json).contains("\"sku\":\"TEST-SKU\"").contains("\"quantity\":1");
+        assertThat(old.getItems()).extracting(ReservationItem::getSku, ReservationItem::getQuantity)
+            .containsExactly(tuple("TEST-SKU", 2));
+    }
+
     private HttpHeaders createJsonHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         return headers;
     }
+
+    private static OrderPlacedEvent order(String orderId, ReserveItemDto... items) {
+        return new OrderPlacedEvent(orderId, List.of(items), 1000L, "USD");
+    }
 }
@@ -0,0 +1,121 @@
+package com.eplatform.b2b.inventory.unit;
+
+import com.eplatform.b2b.common.dto.ReserveRequestDto;
+import com.eplatform.b2b.common.dto.ReserveResponseDto;
+import com.eplatform.b2b.inventory.exception.InsufficientStockException;
+import com.eplatform.b2b.inventory.grpc.InventoryGrpcService;
+import com.eplatform.b2b.inventory.proto.InventoryServiceGrpc;
+import com.eplatform.b2b.inventory.proto.ReserveItem;
+import com.eplatform.b2b.inventory.proto.ReserveRequest;
+import com.eplatform.b2b.inventory.proto.ReserveResult;
+import com.eplatform.b2b.inventory.service.InventoryApplicationService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InventoryGrpcServiceTest {
+
+    private InventoryApplicationService service;
+    private InventoryGrpcService grpcService;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = mock(InventoryApplicationService.class);
+        grpcService = new InventoryGrpcService(service, 2);
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).addService(grpcService).build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+        grpcService.shutdown();
+    }
+
+    @Test
+    void reserveStream_ShouldAnswerEveryRequestAndComplete() throws Exception {
+        // Given - ORDER-3 is short of stock
+        when(service.reserve(any(ReserveRequestDto.class))).thenAnswer(invocation -> {
+            ReserveRequestDto request = invocation.getArgument(0);
+            if (request.orderId().equals("ORDER-3")) {
+                throw new InsufficientStockException("Insufficient stock for: SKU-A", List.of("SKU-A"));
+            }
+            return new ReserveResponseDto(true, List.of());
+        });
+        Map<String, ReserveResult> results = new ConcurrentHashMap<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+
+        // When - more requests than the in-flight window of 2
+        StreamObserver<ReserveRequest> requests = InventoryServiceGrpc.newStub(channel)
+            .reserveStream(new StreamObserver<>() {
+                @Override
+                public void onNext(ReserveResult value) {
+                    results.put(value.getOrderId(), value);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    completed.completeExceptionally(t);
+                }
+
+                @Override
+                public void onCompleted() {
+                    completed.complete(null);
+                }
+            });
+        for (int i = 1; i <= 5; i++) {
+            requests.onNext(request("ORDER-" + i));
+        }
+        requests.onCompleted();
+        completed.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(results).hasSize(5);
+        assertThat(results.get("ORDER-1").getSuccess()).isTrue();
+        assertThat(results.get("ORDER-3").getSuccess()).isFalse();
+        assertThat(results.get("ORDER-3").getFailedSkusList()).containsExactly("SKU-A");
+        verify(service, times(5)).reserve(any(ReserveRequestDto.class));
+    }
+
+    @Test
+    void reserve_ShouldRejectRequestWithoutOrderId() {
+        // When & Then
+        assertThatThrownBy(() ->
+            InventoryServiceGrpc.newBlockingStub(channel).reserve(ReserveRequest.newBuilder()
+                .addItems(ReserveItem.newBuilder().setSku("SKU-A").setQuantity(1))
+                .build()))
+            .isInstanceOf(StatusRuntimeException.class)
+            .extracting(ex -> ((StatusRuntimeException) ex).getStatus().getCode())
+            .isEqualTo(Status.Code.INVALID_ARGUMENT);
+
+        verify(service, never()).reserve(any(ReserveRequestDto.class));
+    }
+
+    private static ReserveRequest request(String orderId) {
+        return ReserveRequest.newBuilder()
+            .setOrderId(orderId)
+            .addItems(ReserveItem.newBuilder().setSku("SKU-A").setQuantity(1))
+            .build();
+    }
+}
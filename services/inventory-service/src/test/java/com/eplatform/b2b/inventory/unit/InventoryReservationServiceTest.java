@@ -1,6 +1,7 @@
 package com.eplatform.b2b.inventory.unit;
 
 import com.eplatform.b2b.common.dto.ReserveItemDto;
+import com.eplatform.b2b.common.events.OrderPlacedEvent;
 import com.eplatform.b2b.inventory.InventoryServiceApplication;
 import com.eplatform.b2b.inventory.config.TestKafkaConfig;
 import com.eplatform.b2b.inventory.domain.ProductStock;
@@ -8,6 +9,7 @@ import com.eplatform.b2b.inventory.domain.Reservation;
 import com.eplatform.b2b.inventory.domain.ReservationItem;
 import com.eplatform.b2b.inventory.domain.ReservationStatus;
 import com.eplatform.b2b.inventory.exception.InsufficientStockException;
+import com.eplatform.b2b.inventory.exception.InvalidReservationStateException;
 import com.eplatform.b2b.inventory.repo.ProductStockRepository;
 import com.eplatform.b2b.inventory.repo.ReservationRepository;
 import com.eplatform.b2b.inventory.service.InventoryReservationService;
@@ -22,7 +24,9 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
@@ -74,7 +78,8 @@ class InventoryReservationServiceTest {
             .thenReturn(savedReservation);
 
         // When
-        String result = reservationService.createReservation("ORDER-123", testItems);
+        String result = reservationService.createReservation(
+            new OrderPlacedEvent("ORDER-123", testItems, 1000L, "USD"));
 
         // Then
         assertThat(result).isEqualTo("ORDER-123");
@@ -92,13 +97,106 @@ class InventoryReservationServiceTest {
 
         // When & Then
         assertThatThrownBy(() ->
-            reservationService.createReservation("ORDER-123", testItems))
+            reservationService.createReservation(new OrderPlacedEvent("ORDER-123", testItems, 1000L, "USD")))
             .isInstanceOf(InsufficientStockException.class)
             .hasMessageContaining("Insufficient stock for SKU: TEST-SKU");
 
         verify(stockRepository).lockStock("TEST-SKU", 2);
     }
 
+    @Test
+    void createReservation_ShouldLockAllSkusInOneBatch_WhenMultipleLines() {
+        // Given
+        List<ReserveItemDto> items = List.of(
+            new ReserveItemDto("SKU-A", 1),
+            new ReserveItemDto("SKU-B", 2),
+            new ReserveItemDto("SKU-A", 3)
+        );
+        when(stockRepository.lockStockBatch(anyMap(), eq(true)))
+            .thenReturn(Set.of("SKU-A", "SKU-B"));
+
+        // When
+        reservationService.createReservation(new OrderPlacedEvent("ORDER-123", items, 1000L, "USD"));
+
+        // Then - duplicate lines are merged and no per-SKU statements are issued
+        verify(stockRepository).lockStockBatch(Map.of("SKU-A", 4, "SKU-B", 2), true);
+        verify(stockRepository, never()).lockStock(anyString(), anyInt());
+        verify(reservationRepository).save(any(Reservation.class));
+    }
+
+    @Test
+    void createReservation_ShouldFail_WhenAnySkuInBatchIsShort() {
+        // Given
+        List<ReserveItemDto> items = List.of(
+            new ReserveItemDto("SKU-A", 1),
+            new ReserveItemDto("SKU-B", 2)
+        );
+        when(stockRepository.lockStockBatch(anyMap(), eq(true)))
+            .thenReturn(Set.of("SKU-A"));
+
+        // When & Then
+        assertThatThrownBy(() ->
+            reservationService.createReservation(new OrderPlacedEvent("ORDER-123", items, 1000L, "USD")))
+            .isInstanceOf(InsufficientStockException.class)
+            .hasMessageContaining("SKU-B");
+
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    void createReservations_ShouldCoalesceSkuQuantitiesAcrossOrders() {
+        // Given
+        List<OrderPlacedEvent> events = List.of(
+            new OrderPlacedEvent("ORDER-1", List.of(new ReserveItemDto("SKU-A", 1)), 100L, "USD"),
+            new OrderPlacedEvent("ORDER-2", List.of(new ReserveItemDto("SKU-A", 2), new ReserveItemDto("SKU-B", 1)), 300L, "USD")
+        );
+        when(stockRepository.lockStockBatch(anyMap(), eq(true)))
+            .thenReturn(Set.of("SKU-A", "SKU-B"));
+
+        // When
+        List<String> reserved = reservationService.createReservations(events);
+
+        // Then
+        assertThat(reserved).containsExactly("ORDER-1", "ORDER-2");
+        verify(stockRepository).lockStockBatch(Map.of("SKU-A", 3, "SKU-B", 1), true);
+        verify(reservationRepository).saveAll(anyList());
+    }
+
+    @Test
+    void createReservation_ShouldSkipRedelivery_WhenOrderAlreadyReserved() {
+        // Given
+        when(reservationRepository.existsByOrderId("ORDER-123")).thenReturn(true);
+
+        // When
+        String result = reservationService.createReservation(
+            new OrderPlacedEvent("ORDER-123", testItems, 100L, "USD"));
+
+        // Then - no second lock, row or event
+        assertThat(result).isEqualTo("ORDER-123");
+        verify(stockRepository, never()).lockStock(anyString(), anyInt());
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    void createReservations_ShouldSkipOrdersAlreadyReserved() {
+        // Given - ORDER-1 was reserved by an earlier poll
+        List<OrderPlacedEvent> events = List.of(
+            new OrderPlacedEvent("ORDER-1", List.of(new ReserveItemDto("SKU-A", 1)), 100L, "USD"),
+            new OrderPlacedEvent("ORDER-2", List.of(new ReserveItemDto("SKU-A", 2), new ReserveItemDto("SKU-B", 1)), 300L, "USD")
+        );
+        when(reservationRepository.findExistingOrderIds(List.of("ORDER-1", "ORDER-2")))
+            .thenReturn(List.of("ORDER-1"));
+        when(stockRepository.lockStockBatch(anyMap(), eq(true)))
+            .thenReturn(Set.of("SKU-A", "SKU-B"));
+
+        // When
+        List<String> reserved = reservationService.createReservations(events);
+
+        // Then
+        assertThat(reserved).containsExactly("ORDER-2");
+        verify(stockRepository).lockStockBatch(Map.of("SKU-A", 2, "SKU-B", 1), true);
+    }
+
     @Test
     void confirmReservation_ShouldSucceed_WhenReservationExists() {
         // Given
@@ -121,6 +219,20 @@ class InventoryReservationServiceTest {
         assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
     }
 
+    @Test
+    void confirmReservation_ShouldFailForGood_WhenReservationCancelled() {
+        // Given
+        Reservation reservation = new Reservation();
+        reservation.setOrderId("ORDER-123");
+        reservation.setStatus(ReservationStatus.CANCELLED);
+        when(reservationRepository.findByOrderId("ORDER-123")).thenReturn(Optional.of(reservation));
+
+        // When / Then - a domain type, so the listener sends it to the DLT without retrying
+        assertThatThrownBy(() -> reservationService.confirmReservation("ORDER-123"))
+            .isInstanceOf(InvalidReservationStateException.class);
+        verify(stockRepository, never()).confirmReservation(anyString(), anyInt());
+    }
+
     @Test
     void cancelReservation_ShouldReleaseStock_WhenReservationPending() {
         // Given
@@ -143,24 +255,49 @@ class InventoryReservationServiceTest {
         assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.CANCELLED);
     }
 
+    @Test
+    void cancelReservationIfPresent_ShouldDoNothing_WhenOrderHasNoReservation() {
+        // Given - order cancelled before its order.placed was processed
+        when(reservationRepository.findByOrderId("ORDER-404"))
+            .thenReturn(Optional.empty());
+
+        // When
+        boolean cancelled = reservationService.cancelReservationIfPresent("ORDER-404", "Order cancelled: TIMEOUT");
+
+        // Then
+        assertThat(cancelled).isFalse();
+        verify(stockRepository, never()).releaseStock(anyString(), anyInt());
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
     @Test
     void cancelExpiredReservations_ShouldCancelOldReservations() {
         // Given
         LocalDateTime threshold = LocalDateTime.now().minusMinutes(30);
-        List<Reservation> expiredReservations = List.of(
-            createTestReservation("ORDER-1", ReservationStatus.PENDING),
-            createTestReservation("ORDER-2", ReservationStatus.PENDING)
-        );
+        Reservation first = createTestReservation("ORDER-1", ReservationStatus.PENDING);
+        first.setId(1L);
+        first.setItems(List.of(new ReservationItem("TEST-SKU", 2)));
+        Reservation second = createTestReservation("ORDER-2", ReservationStatus.PENDING);
+        second.setId(2L);
+        second.setItems(List.of(new ReservationItem("TEST-SKU", 1), new ReservationItem("OTHER-SKU", 4)));
 
-        when(reservationRepository.findByStatusAndCreatedAtBefore(ReservationStatus.PENDING, threshold))
-            .thenReturn(expiredReservations);
+        when(reservationRepository.lockPageCreatedBefore(eq(ReservationStatus.PENDING), eq(threshold), any(), anyLong(), any()))
+            .thenReturn(List.of(first, second));
+        when(stockRepository.releaseStockBatch(anyMap()))
+            .thenReturn(Set.of("TEST-SKU", "OTHER-SKU"));
+        when(reservationRepository.transitionStatus(anyCollection(), eq(ReservationStatus.PENDING),
+            eq(ReservationStatus.CANCELLED), any()))
+            .thenReturn(2);
 
         // When
-        reservationService.cancelExpiredReservations(threshold);
+        int cancelled = reservationService.cancelExpiredReservations(threshold);
 
-        // Then
-        verify(reservationRepository).findByStatusAndCreatedAtBefore(ReservationStatus.PENDING, threshold);
-        // Should attempt to cancel each reservation
+        // Then - one release and one status update for the whole chunk
+        assertThat(cancelled).isEqualTo(2);
+        verify(stockRepository).releaseStockBatch(Map.of("TEST-SKU", 3, "OTHER-SKU", 4));
+        verify(reservationRepository).transitionStatus(eq(List.of(1L, 2L)), eq(ReservationStatus.PENDING),
+            eq(ReservationStatus.CANCELLED), any());
+        verify(reservationRepository, never()).findByOrderId(anyString());
     }
 
     private Reservation createTestReservation(String orderId, ReservationStatus status) {
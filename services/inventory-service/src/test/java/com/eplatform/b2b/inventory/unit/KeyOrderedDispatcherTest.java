@@ -0,0 +1,220 @@
+package com.eplatform.b2b.inventory.unit;
+
+import com.eplatform.b2b.common.messaging.ListenerRetryTopics;
+import com.eplatform.b2b.inventory.exception.InsufficientStockException;
+import com.eplatform.b2b.inventory.messaging.KeyOrderedDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class KeyOrderedDispatcherTest {
+
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private MessageListenerContainer container;
+    private KeyOrderedDispatcher dispatcher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        meterRegistry = new SimpleMeterRegistry();
+        container = mock(MessageListenerContainer.class);
+        dispatcher = new KeyOrderedDispatcher(kafkaTemplate, meterRegistry,
+            new ListenerRetryTopics(List.of("order.placed"), List.of(InsufficientStockException.class)), 16, 1000, 3, 1, 2.0, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatch_ShouldKeepOrderPerKeyAndRunOtherKeysConcurrently() throws Exception {
+        // Given - the first record of ORDER-A blocks until released
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherOrderDone = new CountDownLatch(1);
+        List<String> processed = new CopyOnWriteArrayList<>();
+        AcknowledgingMessageListener<Object, Object> listener = dispatcher.wrap(container, (record, ack, consumer) -> {
+            if (record.offset() == 0) {
+                await(release);
+            }
+            processed.add(record.key() + "@" + record.offset());
+            if ("ORDER-B".equals(record.key())) {
+                otherOrderDone.countDown();
+            }
+        });
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        // When
+        listener.onMessage(record("ORDER-A", 0), ack);
+        listener.onMessage(record("ORDER-A", 1), ack);
+        listener.onMessage(record("ORDER-B", 2), ack);
+
+        // Then - ORDER-B is not held up by ORDER-A, and ORDER-A stays in offset order
+        assertThat(otherOrderDone.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(processed).containsExactly("ORDER-B@2");
+        assertThat(meterRegistry.get("inventory.consumer.queue_depth").gauge().value()).isEqualTo(1.0);
+
+        release.countDown();
+        verify(ack, timeout(5000).times(3)).acknowledge();
+        assertThat(processed).containsExactly("ORDER-B@2", "ORDER-A@0", "ORDER-A@1");
+        assertThat(meterRegistry.get("inventory.consumer.in_flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void dispatch_ShouldKeepOrderPerKeyAcrossTopics() throws Exception {
+        // Given - the order.placed of ORDER-A is still being processed
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> processed = new CopyOnWriteArrayList<>();
+        AcknowledgingMessageListener<Object, Object> listener = dispatcher.wrap(container, (record, ack, consumer) -> {
+            if (record.topic().equals("order.placed")) {
+                await(release);
+            }
+            processed.add(record.topic());
+        });
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        // When
+        listener.onMessage(record("ORDER-A", 0), ack);
+        listener.onMessage(new ConsumerRecord<>("order.cancelled", 0, 0, "ORDER-A", "payload"), ack);
+
+        // Then - the cancellation waits for the reservation it undoes
+        verify(ack, after(200).never()).acknowledge();
+        release.countDown();
+        verify(ack, timeout(5000).times(2)).acknowledge();
+        assertThat(processed).containsExactly("order.placed", "order.cancelled");
+    }
+
+    @Test
+    void dispatch_ShouldPauseContainersInsteadOfBlocking_WhenMaxInFlightReached() throws Exception {
+        // Given - two records allowed in flight, both of them stuck
+        KeyOrderedDispatcher small = new KeyOrderedDispatcher(kafkaTemplate, meterRegistry,
+            new ListenerRetryTopics(List.of("order.placed"), List.of()), 2, 1000, 3, 1, 2.0, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        AcknowledgingMessageListener<Object, Object> listener = small.wrap(container, (record, ack, consumer) ->
+            await(release));
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        // When - a third record of the same poll still gets through without blocking the caller
+        listener.onMessage(record("ORDER-A", 0), ack);
+        listener.onMessage(record("ORDER-B", 1), ack);
+        listener.onMessage(record("ORDER-C", 2), ack);
+
+        // Then
+        verify(container).pause();
+        verify(container, never()).resume();
+        release.countDown();
+        verify(ack, timeout(5000).times(3)).acknowledge();
+        verify(container, timeout(5000)).resume();
+        small.shutdown();
+    }
+
+    @Test
+    void dispatch_ShouldRetryThenDeadLetter() {
+        // Given
+        AcknowledgingMessageListener<Object, Object> listener = dispatcher.wrap(container, (record, ack, consumer) -> {
+            throw new IllegalArgumentException("lock timeout");
+        });
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        // When
+        listener.onMessage(record("ORDER-A", 0), ack);
+
+        // Then - three attempts, then the record goes to the DLT and is acknowledged
+        verify(ack, timeout(5000)).acknowledge();
+        verify(kafkaTemplate).send(argThat((ProducerRecord<String, Object> r) -> r.topic().equals("order.placed-dlt")));
+        assertThat(meterRegistry.counter("kafka.listener.retries", "topic", "order.placed").count()).isEqualTo(2);
+    }
+
+    @Test
+    void dispatch_ShouldNotRetryBusinessRejections() {
+        // Given
+        AcknowledgingMessageListener<Object, Object> listener = dispatcher.wrap(container, (record, ack, consumer) -> {
+            throw new InsufficientStockException("Insufficient stock for SKU: SKU-A");
+        });
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        // When
+        listener.onMessage(record("ORDER-A", 0), ack);
+
+        // Then
+        verify(ack, timeout(5000)).acknowledge();
+        assertThat(meterRegistry.find("kafka.listener.retries").counter()).isNull();
+    }
+
+    @Test
+    void dispatch_ShouldReleasePermitDuringBackoff() throws Exception {
+        // Given - one permit, and ORDER-A fails once with a long backoff
+        KeyOrderedDispatcher single = new KeyOrderedDispatcher(kafkaTemplate, meterRegistry,
+            new ListenerRetryTopics(List.of("order.placed"), List.of()), 1, 1000, 3, 60_000, 2.0, 60_000);
+        CountDownLatch otherOrderDone = new CountDownLatch(1);
+        AcknowledgingMessageListener<Object, Object> listener = single.wrap(container, (record, ack, consumer) -> {
+            if ("ORDER-A".equals(record.key())) {
+                throw new IllegalArgumentException("lock timeout");
+            }
+            otherOrderDone.countDown();
+        });
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        // When
+        listener.onMessage(record("ORDER-A", 0), ack);
+        verify(ack, after(200).never()).acknowledge();
+        listener.onMessage(record("ORDER-B", 1), ack);
+
+        // Then - ORDER-B gets the permit while ORDER-A backs off
+        assertThat(otherOrderDone.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(ack, timeout(5000)).acknowledge();
+    }
+
+    @Test
+    void dispatch_ShouldDeadLetter_WhenBackoffInterrupted() throws Exception {
+        // Given - a backoff far longer than the test
+        KeyOrderedDispatcher slow = new KeyOrderedDispatcher(kafkaTemplate, meterRegistry,
+            new ListenerRetryTopics(List.of("order.placed"), List.of()), 16, 1000, 3, 60_000, 2.0, 60_000);
+        CompletableFuture<Thread> worker = new CompletableFuture<>();
+        AcknowledgingMessageListener<Object, Object> listener = slow.wrap(container, (record, ack, consumer) -> {
+            worker.complete(Thread.currentThread());
+            throw new IllegalArgumentException("lock timeout");
+        });
+        Acknowledgment ack = mock(Acknowledgment.class);
+        listener.onMessage(record("ORDER-A", 0), ack);
+
+        // When
+        worker.get(5, TimeUnit.SECONDS).interrupt();
+
+        // Then - the record is not left unacknowledged in its lane
+        verify(ack, timeout(5000)).acknowledge();
+        verify(kafkaTemplate).send(argThat((ProducerRecord<String, Object> r) -> r.topic().equals("order.placed-dlt")));
+    }
+
+    private static ConsumerRecord<Object, Object> record(String key, long offset) {
+        return new ConsumerRecord<>("order.placed", 0, offset, key, "payload");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
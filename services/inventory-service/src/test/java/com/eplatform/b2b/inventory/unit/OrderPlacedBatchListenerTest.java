@@ -0,0 +1,61 @@
+package com.eplatform.b2b.inventory.unit;
+
+import com.eplatform.b2b.common.dto.ReserveItemDto;
+import com.eplatform.b2b.common.events.OrderPlacedEvent;
+import com.eplatform.b2b.common.messaging.DeadLetterHandler;
+import com.eplatform.b2b.inventory.exception.InsufficientStockException;
+import com.eplatform.b2b.inventory.messaging.OrderPlacedBatchListener;
+import com.eplatform.b2b.inventory.service.InventoryReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OrderPlacedBatchListenerTest {
+
+    private InventoryReservationService reservationService;
+    private OrderPlacedBatchListener listener;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = mock(InventoryReservationService.class);
+        listener = new OrderPlacedBatchListener(reservationService, mock(DeadLetterHandler.class), new SimpleMeterRegistry());
+        when(reservationService.createReservations(anyList())).thenThrow(new InsufficientStockException("short"));
+    }
+
+    @Test
+    void onOrderPlacedBatch_ShouldRejectOnlyTheShortOrder() {
+        // Given
+        when(reservationService.createReservation(order("ORDER-1"))).thenThrow(new InsufficientStockException("short"));
+
+        // When
+        listener.onOrderPlacedBatch(List.of(order("ORDER-1"), order("ORDER-2")));
+
+        // Then
+        verify(reservationService).createReservation(order("ORDER-2"));
+    }
+
+    @Test
+    void onOrderPlacedBatch_ShouldHandTransientFailureToContainer() {
+        // Given - the redelivered ORDER-1 is dropped, so ORDER-2 is the third record
+        when(reservationService.createReservation(order("ORDER-2"))).thenThrow(new QueryTimeoutException("lock wait"));
+
+        // When / Then
+        assertThatThrownBy(() -> listener.onOrderPlacedBatch(List.of(order("ORDER-1"), order("ORDER-1"), order("ORDER-2"),
+            order("ORDER-3"))))
+            .isInstanceOfSatisfying(BatchListenerFailedException.class, ex -> assertThat(ex.getIndex()).isEqualTo(2))
+            .hasCauseInstanceOf(QueryTimeoutException.class);
+        verify(reservationService, never()).createReservation(order("ORDER-3"));
+    }
+
+    private static OrderPlacedEvent order(String orderId) {
+        return new OrderPlacedEvent(orderId, List.of(new ReserveItemDto("SKU-A", 1)), 1000L, "USD");
+    }
+}
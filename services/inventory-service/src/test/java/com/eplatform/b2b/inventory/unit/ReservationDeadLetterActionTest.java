@@ -0,0 +1,49 @@
+package com.eplatform.b2b.inventory.unit;
+
+import com.eplatform.b2b.common.dto.ReserveItemDto;
+import com.eplatform.b2b.common.events.InventoryRejectedEvent;
+import com.eplatform.b2b.common.events.OrderPlacedEvent;
+import com.eplatform.b2b.common.events.PaymentSucceededEvent;
+import com.eplatform.b2b.common.outbox.OutboxPublisher;
+import com.eplatform.b2b.inventory.messaging.ReservationDeadLetterAction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReservationDeadLetterActionTest {
+
+    private OutboxPublisher outbox;
+    private ReservationDeadLetterAction action;
+
+    @BeforeEach
+    void setUp() {
+        outbox = mock(OutboxPublisher.class);
+        action = new ReservationDeadLetterAction(outbox);
+    }
+
+    @Test
+    void onDeadLetter_ShouldRejectOrderThatCouldNotBeReserved() {
+        // Given
+        OrderPlacedEvent event = new OrderPlacedEvent("ORDER-1", List.of(new ReserveItemDto("SKU-A", 1)), 100, "USD");
+
+        // When
+        action.onDeadLetter("order.placed", event, "lock timeout");
+
+        // Then
+        verify(outbox).publish("inventory.rejected", "ORDER-1",
+            new InventoryRejectedEvent("ORDER-1", "PROCESSING_ERROR", "lock timeout"));
+    }
+
+    @Test
+    void onDeadLetter_ShouldIgnoreOtherEvents() {
+        // When
+        action.onDeadLetter("payment.succeeded", new PaymentSucceededEvent("ORDER-1", "TX-1"), null);
+
+        // Then
+        verify(outbox, never()).publish(anyString(), anyString(), any());
+    }
+}
@@ -0,0 +1,109 @@
+package com.eplatform.b2b.inventory.unit;
+
+import com.eplatform.b2b.inventory.domain.ProductStock;
+import com.eplatform.b2b.inventory.ledger.StockLedger;
+import com.eplatform.b2b.inventory.repo.ProductStockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StockLedgerTest {
+
+    private ProductStockRepository stockRepository;
+    private StockLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        stockRepository = mock(ProductStockRepository.class);
+        when(stockRepository.findAll()).thenReturn(List.of(
+            new ProductStock("SKU-A", 10),
+            new ProductStock("SKU-B", 3)
+        ));
+        when(stockRepository.applyDelta(anyString(), anyInt(), anyInt())).thenReturn(1);
+        ledger = new StockLedger(stockRepository, mock(PlatformTransactionManager.class), true, true, 500);
+        ledger.warmUp();
+    }
+
+    @Test
+    void reserve_ShouldBeAllOrNothing() {
+        // When - SKU-B only has 3 available
+        List<String> failed = ledger.reserve(Map.of("SKU-A", 2, "SKU-B", 5));
+
+        // Then - nothing is flushed because nothing was reserved
+        assertThat(failed).containsExactly("SKU-B");
+        ledger.flush();
+        verify(stockRepository, never()).applyDelta(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void flush_ShouldWriteNetDeltas() {
+        // Given
+        ledger.reserve(Map.of("SKU-A", 4));
+        ledger.reserve(Map.of("SKU-A", 1));
+        ledger.release(Map.of("SKU-A", 2));
+
+        // When
+        ledger.flush();
+
+        // Then - three operations collapse into a single UPDATE
+        verify(stockRepository).applyDelta("SKU-A", -3, 3);
+        ledger.flush();
+        verifyNoMoreInteractions(ignoreStubs(stockRepository));
+    }
+
+    @Test
+    void reserve_ShouldRejectOnceLedgerIsExhausted() {
+        assertThat(ledger.reserve(Map.of("SKU-B", 3))).isEmpty();
+        assertThat(ledger.reserve(Map.of("SKU-B", 1))).containsExactly("SKU-B");
+    }
+
+    @Test
+    void confirm_ShouldFail_WhenNothingReserved() {
+        assertThat(ledger.confirm(Map.of("SKU-A", 1))).containsExactly("SKU-A");
+    }
+
+    @Test
+    void reserve_ShouldLoadSku_WhenNotPreloaded() {
+        // Given - a SKU added to product_stock after warm-up
+        when(stockRepository.findBySku("SKU-C")).thenReturn(Optional.of(new ProductStock("SKU-C", 5)));
+
+        // When
+        List<String> failed = ledger.reserve(Map.of("SKU-A", 1, "SKU-C", 2));
+
+        // Then - both SKUs are served by the ledger, none by a direct UPDATE
+        assertThat(failed).isEmpty();
+        ledger.flush();
+        verify(stockRepository).applyDelta("SKU-A", -1, 1);
+        verify(stockRepository).applyDelta("SKU-C", -2, 2);
+        verify(stockRepository, never()).lockStock(anyString(), anyInt());
+    }
+
+    @Test
+    void reserve_ShouldFail_WhenSkuHasNoStockRow() {
+        when(stockRepository.findBySku("UNKNOWN")).thenReturn(Optional.empty());
+
+        assertThat(ledger.reserve(Map.of("SKU-A", 1, "UNKNOWN", 1))).containsExactly("UNKNOWN");
+    }
+
+    @Test
+    void release_ShouldNeverDriveCountersNegative() {
+        // Given
+        ledger.reserve(Map.of("SKU-B", 2));
+
+        // When - more than is reserved
+        List<String> failed = ledger.release(Map.of("SKU-B", 3));
+
+        // Then - the 2 reserved units can still be confirmed, the rest is untouched
+        assertThat(failed).containsExactly("SKU-B");
+        assertThat(ledger.confirm(Map.of("SKU-B", 2))).isEmpty();
+        assertThat(ledger.reserve(Map.of("SKU-B", 2))).containsExactly("SKU-B");
+    }
+}
@@ -0,0 +1,94 @@
+package com.eplatform.b2b.inventory.unit;
+
+import com.eplatform.b2b.inventory.scheduler.TimingWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private TimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        // 10 ms ticks, 8 buckets: 80 ms on the first level, 640 ms on the second
+        wheel = new TimingWheel(10, 8, START);
+    }
+
+    @Test
+    void advance_ShouldFireTimerWithinOneTickAfterDeadline() {
+        // Given
+        wheel.schedule("ORDER-1", START + 35);
+
+        // Then
+        assertThat(wheel.advance(START + 30)).isEmpty();
+        assertThat(wheel.advance(START + 40)).containsExactly("ORDER-1");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_ShouldCascadeTimersFromOverflowWheels() {
+        // Given - deadlines on the first, second and third level
+        wheel.schedule("NEAR", START + 50);
+        wheel.schedule("MID", START + 500);
+        wheel.schedule("FAR", START + 3_000);
+
+        // When - the clock moves one tick at a time
+        List<String> fired = new ArrayList<>();
+        List<Long> firedAt = new ArrayList<>();
+        for (long now = START; now <= START + 4_000; now += 10) {
+            for (String id : wheel.advance(now)) {
+                fired.add(id);
+                firedAt.add(now);
+            }
+        }
+
+        // Then
+        assertThat(fired).containsExactly("NEAR", "MID", "FAR");
+        assertThat(firedAt).containsExactly(START + 60, START + 510, START + 3_010);
+    }
+
+    @Test
+    void cancel_ShouldSuppressTimer() {
+        // Given
+        wheel.schedule("ORDER-1", START + 20);
+        wheel.schedule("ORDER-2", START + 700);
+
+        // When
+        wheel.cancel("ORDER-1");
+        wheel.cancel("ORDER-2");
+
+        // Then
+        assertThat(wheel.advance(START + 1_000)).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void schedule_ShouldRejectDeadlineAlreadyPassed() {
+        // Given
+        wheel.advance(START + 100);
+
+        // Then - the caller fires it instead
+        assertThat(wheel.schedule("LATE", START + 50)).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_ShouldCatchUpAfterLongPause() {
+        // Given
+        wheel.schedule("ORDER-1", START + 100);
+        wheel.schedule("ORDER-2", START + 2_000);
+
+        // When - one advance covering both deadlines
+        List<String> fired = wheel.advance(START + 5_000);
+
+        // Then
+        assertThat(fired).containsExactlyInAnyOrder("ORDER-1", "ORDER-2");
+    }
+}
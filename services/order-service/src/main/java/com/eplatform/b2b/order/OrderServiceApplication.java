@@ -3,9 +3,11 @@ package com.eplatform.b2b.order;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = "com.eplatform.b2b.order.client")
+@EnableScheduling
 public class OrderServiceApplication {
   public static void main(String[] args) {
     SpringApplication.run(OrderServiceApplication.class, args);
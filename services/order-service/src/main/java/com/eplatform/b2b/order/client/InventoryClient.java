@@ -3,6 +3,7 @@ package com.eplatform.b2b.order.client;
 import com.eplatform.b2b.common.dto.ReserveRequestDto;
 import com.eplatform.b2b.common.dto.ReserveResponseDto;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
@@ -11,4 +12,7 @@ public interface InventoryClient {
 
   @PostMapping("/api/v1/inventory/reserve")
   ReserveResponseDto reserve(@RequestBody ReserveRequestDto request);
+
+  @PostMapping("/api/v1/inventory/reservations/{orderId}/release")
+  void release(@PathVariable("orderId") String orderId);
 }
@@ -3,12 +3,26 @@ package com.eplatform.b2b.order.client;
 import com.eplatform.b2b.common.dto.PaymentChargeRequestDto;
 import com.eplatform.b2b.common.dto.PaymentChargeResponseDto;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
-@FeignClient(name = "payment-service")
+/**
+ * Payment API as used by order placement. This Feign binding is JSON over HTTP; with
+ * {@code order.payment.transport=grpc} {@link PaymentGrpcClient} is injected instead.
+ */
+@FeignClient(name = "payment-service", primary = false)
 public interface PaymentClient {
 
   @PostMapping("/api/v1/payments/charge")
   PaymentChargeResponseDto charge(@RequestBody PaymentChargeRequestDto request);
+
+  @PostMapping("/api/v1/payments/authorize")
+  PaymentChargeResponseDto authorize(@RequestBody PaymentChargeRequestDto request);
+
+  @PostMapping("/api/v1/payments/authorizations/{orderId}/capture")
+  PaymentChargeResponseDto capture(@PathVariable("orderId") String orderId);
+
+  @PostMapping("/api/v1/payments/authorizations/{orderId}/void")
+  PaymentChargeResponseDto voidAuthorization(@PathVariable("orderId") String orderId);
 }
@@ -0,0 +1,83 @@
+package com.eplatform.b2b.order.client;
+
+import com.eplatform.b2b.common.dto.PaymentChargeRequestDto;
+import com.eplatform.b2b.common.dto.PaymentChargeResponseDto;
+import com.eplatform.b2b.payment.proto.AuthorizationRef;
+import com.eplatform.b2b.payment.proto.ChargeRequest;
+import com.eplatform.b2b.payment.proto.PaymentResult;
+import com.eplatform.b2b.payment.proto.PaymentServiceGrpc;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.StatusRuntimeException;
+import java.util.concurrent.TimeUnit;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link PaymentClient} over gRPC. The stub uses the one channel the starter keeps per
+ * client name, so calls are multiplexed over a long-lived HTTP/2 connection instead of a
+ * pooled HTTP/1.1 connection per request.
+ *
+ * <p>Every call carries a deadline of {@code order.placement.remote-timeout-ms}, the time
+ * placement waits for a step, so payment-service drops work nobody waits for. A call made
+ * in a {@link Context} with a sooner deadline, such as one serving a gRPC request, sends
+ * that one instead. A missed deadline or an unreachable service throws {@link StatusRuntimeException}, which
+ * placement treats as an unknown outcome and compensates.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "order.payment.transport", havingValue = "grpc", matchIfMissing = true)
+public class PaymentGrpcClient implements PaymentClient {
+
+  @GrpcClient("payment-service")
+  private PaymentServiceGrpc.PaymentServiceBlockingStub blockingStub;
+
+  private final long deadlineMs;
+
+  public PaymentGrpcClient(@Value("${order.placement.remote-timeout-ms:5000}") long deadlineMs) {
+    this.deadlineMs = deadlineMs;
+  }
+
+  @Override
+  public PaymentChargeResponseDto charge(PaymentChargeRequestDto request) {
+    return toDto(blocking().charge(toRequest(request)));
+  }
+
+  @Override
+  public PaymentChargeResponseDto authorize(PaymentChargeRequestDto request) {
+    return toDto(blocking().authorize(toRequest(request)));
+  }
+
+  @Override
+  public PaymentChargeResponseDto capture(String orderId) {
+    return toDto(blocking().capture(AuthorizationRef.newBuilder().setOrderId(orderId).build()));
+  }
+
+  @Override
+  public PaymentChargeResponseDto voidAuthorization(String orderId) {
+    return toDto(blocking().voidAuthorization(AuthorizationRef.newBuilder().setOrderId(orderId).build()));
+  }
+
+  private PaymentServiceGrpc.PaymentServiceBlockingStub blocking() {
+    Deadline deadline = Deadline.after(deadlineMs, TimeUnit.MILLISECONDS);
+    Deadline inherited = Context.current().getDeadline();
+    return blockingStub.withDeadline(inherited == null ? deadline : inherited.minimum(deadline));
+  }
+
+  private static ChargeRequest toRequest(PaymentChargeRequestDto request) {
+    return ChargeRequest.newBuilder()
+        .setOrderId(request.orderId())
+        .setAmountCents(request.amountCents())
+        .setCurrency(request.currency())
+        .build();
+  }
+
+  private static PaymentChargeResponseDto toDto(PaymentResult result) {
+    return new PaymentChargeResponseDto(result.getSuccess(),
+        result.getTransactionId().isEmpty() ? null : result.getTransactionId(),
+        result.getMessage().isEmpty() ? null : result.getMessage());
+  }
+}
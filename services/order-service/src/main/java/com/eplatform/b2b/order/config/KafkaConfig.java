@@ -1,13 +1,22 @@
 package com.eplatform.b2b.order.config;
 
+import com.eplatform.b2b.common.dedup.DedupConfiguration;
+import com.eplatform.b2b.common.messaging.EventPublisherConfiguration;
+import com.eplatform.b2b.common.messaging.ListenerRetryConfiguration;
+import com.eplatform.b2b.common.messaging.ListenerRetryTopics;
+import com.eplatform.b2b.common.outbox.OutboxConfiguration;
+import java.util.List;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.TopicBuilder;
 
 @Configuration
 @EnableKafka
+@Import({EventPublisherConfiguration.class, ListenerRetryConfiguration.class, OutboxConfiguration.class,
+    DedupConfiguration.class})
 public class KafkaConfig {
 
   @Bean
@@ -15,6 +24,16 @@ public class KafkaConfig {
     return TopicBuilder.name("order.placed").partitions(3).replicas(1).build();
   }
 
+  @Bean
+  public NewTopic topicOrderCancelled() {
+    return TopicBuilder.name("order.cancelled").partitions(3).replicas(1).build();
+  }
+
+  @Bean
+  public NewTopic topicOrderRefundRequested() {
+    return TopicBuilder.name("order.refund-requested").partitions(3).replicas(1).build();
+  }
+
   @Bean
   public NewTopic topicInventoryReserved() {
     return TopicBuilder.name("inventory.reserved").partitions(3).replicas(1).build();
@@ -34,4 +53,10 @@ public class KafkaConfig {
   public NewTopic topicPaymentFailed() {
     return TopicBuilder.name("payment.failed").partitions(3).replicas(1).build();
   }
+
+  @Bean
+  public ListenerRetryTopics listenerRetryTopics() {
+    return ListenerRetryTopics.of(
+        List.of("inventory.reserved", "inventory.rejected", "payment.succeeded", "payment.failed"));
+  }
 }
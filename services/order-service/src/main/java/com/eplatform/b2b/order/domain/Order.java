@@ -1,12 +1,19 @@
 package com.eplatform.b2b.order.domain;
 
 import jakarta.persistence.*;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import org.hibernate.annotations.CreationTimestamp;
 
+// Both indexes end in id so keyset pages over (created_at, id) are index range scans
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_status_created_at", columnList = "status, created_at, id"),
+    @Index(name = "idx_orders_created_at", columnList = "created_at, id")
+})
 public class Order {
+
   @Id
   @GeneratedValue(strategy = GenerationType.UUID)
   private String id;
@@ -14,26 +21,38 @@ public class Order {
   @Column(nullable = false)
   private String currency;
 
+  @Column(name = "buyer_id")
+  private String buyerId;
+
   @Column(nullable = false)
   private long totalAmountCents;
 
-  @Column(nullable = false)
-  private String status; // CREATED, RESERVED, PAID, FAILED
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private OrderStatus status;
 
   private String paymentTransactionId;
 
-  @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+
+  // Written once with the order; status updates never load them
+  @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
   private List<OrderItem> items = new ArrayList<>();
 
   public String getId() { return id; }
   public String getCurrency() { return currency; }
   public void setCurrency(String currency) { this.currency = currency; }
+  public String getBuyerId() { return buyerId; }
+  public void setBuyerId(String buyerId) { this.buyerId = buyerId; }
   public long getTotalAmountCents() { return totalAmountCents; }
   public void setTotalAmountCents(long totalAmountCents) { this.totalAmountCents = totalAmountCents; }
-  public String getStatus() { return status; }
-  public void setStatus(String status) { this.status = status; }
+  public OrderStatus getStatus() { return status; }
+  public void setStatus(OrderStatus status) { this.status = status; }
   public String getPaymentTransactionId() { return paymentTransactionId; }
   public void setPaymentTransactionId(String paymentTransactionId) { this.paymentTransactionId = paymentTransactionId; }
+  public Instant getCreatedAt() { return createdAt; }
   public List<OrderItem> getItems() { return items; }
 
   public void addItem(OrderItem item) {
@@ -6,8 +6,10 @@ import jakarta.persistence.*;
 @Entity
 @Table(name = "order_items")
 public class OrderItem {
+  // Pooled sequence: ids come from memory, so item inserts go out as JDBC batches
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+  @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 100)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
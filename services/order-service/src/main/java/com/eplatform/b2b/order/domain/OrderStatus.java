@@ -0,0 +1,13 @@
+package com.eplatform.b2b.order.domain;
+
+import java.util.List;
+
+public enum OrderStatus {
+  CREATED,
+  RESERVED,
+  PAID,
+  FAILED;
+
+  /** Statuses a payment outcome may still move the order out of. */
+  public static final List<OrderStatus> OPEN = List.of(CREATED, RESERVED);
+}
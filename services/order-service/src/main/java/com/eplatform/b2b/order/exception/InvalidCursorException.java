@@ -0,0 +1,8 @@
+package com.eplatform.b2b.order.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+  public InvalidCursorException(String cursor) {
+    super("Invalid page cursor: " + cursor);
+  }
+}
@@ -0,0 +1,8 @@
+package com.eplatform.b2b.order.exception;
+
+public class OrderNotFoundException extends RuntimeException {
+
+  public OrderNotFoundException(String orderId) {
+    super("Order not found: " + orderId);
+  }
+}
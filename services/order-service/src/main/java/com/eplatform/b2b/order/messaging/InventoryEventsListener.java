@@ -0,0 +1,50 @@
+package com.eplatform.b2b.order.messaging;
+
+import com.eplatform.b2b.common.events.InventoryRejectedEvent;
+import com.eplatform.b2b.common.events.InventoryReservedEvent;
+import com.eplatform.b2b.common.dedup.ProcessedEventStore;
+import com.eplatform.b2b.order.saga.OrderSagaOrchestrator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Component
+public class InventoryEventsListener {
+
+  private final OrderSagaOrchestrator sagas;
+  private final ProcessedEventStore processedEvents;
+
+  public InventoryEventsListener(OrderSagaOrchestrator sagas, ProcessedEventStore processedEvents) {
+    this.sagas = sagas;
+    this.processedEvents = processedEvents;
+  }
+
+  @KafkaListener(topics = "inventory.reserved")
+  @Transactional
+  public void onInventoryReserved(@Payload InventoryReservedEvent event) {
+    String eventType = event.getClass().getSimpleName();
+    if (processedEvents.isDuplicate("inventory.reserved", event.orderId(), eventType)) {
+      log.debug("Skipping duplicate inventory.reserved for order: {}", event.orderId());
+      return;
+    }
+    log.info("Inventory reserved for order: {}", event.orderId());
+    sagas.onInventoryReserved(event.orderId());
+    processedEvents.markProcessed("inventory.reserved", event.orderId(), eventType);
+  }
+
+  @KafkaListener(topics = "inventory.rejected")
+  @Transactional
+  public void onInventoryRejected(@Payload InventoryRejectedEvent event) {
+    String eventType = event.getClass().getSimpleName();
+    if (processedEvents.isDuplicate("inventory.rejected", event.orderId(), eventType)) {
+      log.debug("Skipping duplicate inventory.rejected for order: {}", event.orderId());
+      return;
+    }
+    log.info("Inventory rejected for order: {}", event.orderId());
+    sagas.onInventoryRejected(event.orderId(), event.reason());
+    processedEvents.markProcessed("inventory.rejected", event.orderId(), eventType);
+  }
+}
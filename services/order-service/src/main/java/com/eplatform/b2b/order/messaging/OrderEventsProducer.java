@@ -3,26 +3,40 @@ package com.eplatform.b2b.order.messaging;
 import com.eplatform.b2b.common.dto.OrderItemDto;
 import com.eplatform.b2b.common.dto.PlaceOrderRequestDto;
 import com.eplatform.b2b.common.dto.ReserveItemDto;
+import com.eplatform.b2b.common.events.OrderCancelledEvent;
 import com.eplatform.b2b.common.events.OrderPlacedEvent;
+import com.eplatform.b2b.common.events.OrderRefundRequestedEvent;
+import com.eplatform.b2b.common.outbox.OutboxPublisher;
 import java.util.List;
 import java.util.stream.Collectors;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 @Component
 public class OrderEventsProducer {
 
-  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final OutboxPublisher outbox;
 
-  public OrderEventsProducer(KafkaTemplate<String, Object> kafkaTemplate) {
-    this.kafkaTemplate = kafkaTemplate;
+  public OrderEventsProducer(OutboxPublisher outbox) {
+    this.outbox = outbox;
   }
 
+  /** Queues the event in the outbox; it is only published if the caller's transaction commits. */
   public void publishOrderPlaced(String orderId, PlaceOrderRequestDto req, long totalCents) {
     List<ReserveItemDto> items = req.items().stream()
         .map(i -> new ReserveItemDto(i.sku(), i.quantity()))
         .collect(Collectors.toList());
-    OrderPlacedEvent evt = new OrderPlacedEvent(orderId, items, totalCents, req.currency());
-    kafkaTemplate.send("order.placed", orderId, evt);
+    OrderPlacedEvent evt = new OrderPlacedEvent(orderId, items, totalCents, req.currency(), req.buyerId());
+    outbox.publish("order.placed", orderId, evt);
+  }
+
+  /** Compensation: inventory and payment release what they hold for the order. */
+  public void publishOrderCancelled(String orderId, String reason) {
+    outbox.publish("order.cancelled", orderId, new OrderCancelledEvent(orderId, reason));
+  }
+
+  /** Compensation for a charge that arrived after the order failed: payment refunds it. */
+  public void publishRefundRequested(String orderId, String transactionId, long amountCents, String reason) {
+    outbox.publish("order.refund-requested", orderId,
+        new OrderRefundRequestedEvent(orderId, transactionId, amountCents, reason));
   }
 }
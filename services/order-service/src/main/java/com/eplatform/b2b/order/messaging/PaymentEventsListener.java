@@ -2,8 +2,8 @@ package com.eplatform.b2b.order.messaging;
 
 import com.eplatform.b2b.common.events.PaymentFailedEvent;
 import com.eplatform.b2b.common.events.PaymentSucceededEvent;
-import com.eplatform.b2b.order.domain.Order;
-import com.eplatform.b2b.order.repo.OrderRepository;
+import com.eplatform.b2b.common.dedup.ProcessedEventStore;
+import com.eplatform.b2b.order.saga.OrderSagaOrchestrator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -14,40 +14,38 @@ import org.springframework.transaction.annotation.Transactional;
 @Component
 public class PaymentEventsListener {
 
-  private final OrderRepository orders;
+  private final OrderSagaOrchestrator sagas;
+  private final ProcessedEventStore processedEvents;
 
-  public PaymentEventsListener(OrderRepository orders) {
-    this.orders = orders;
+  public PaymentEventsListener(OrderSagaOrchestrator sagas, ProcessedEventStore processedEvents) {
+    this.sagas = sagas;
+    this.processedEvents = processedEvents;
   }
 
   @KafkaListener(topics = "payment.succeeded")
   @Transactional
   public void onPaymentSucceeded(@Payload PaymentSucceededEvent event) {
-    try {
-      log.info("Payment succeeded for order: {}", event.orderId());
-      orders.findById(event.orderId()).ifPresent(order -> {
-        order.setStatus("PAID");
-        order.setPaymentTransactionId(event.transactionId());
-        orders.save(order);
-        log.info("Updated order {} status to PAID", event.orderId());
-      });
-    } catch (Exception ex) {
-      log.error("Failed to update order status for payment success: " + event.orderId(), ex);
+    String eventType = event.getClass().getSimpleName();
+    if (processedEvents.isDuplicate("payment.succeeded", event.orderId(), eventType)) {
+      log.debug("Skipping duplicate payment.succeeded for order: {}", event.orderId());
+      return;
     }
+    // Failures propagate to the retry topics and finally payment.succeeded-dlt
+    log.info("Payment succeeded for order: {}", event.orderId());
+    sagas.onPaymentSucceeded(event.orderId(), event.transactionId());
+    processedEvents.markProcessed("payment.succeeded", event.orderId(), eventType);
   }
 
   @KafkaListener(topics = "payment.failed")
   @Transactional
   public void onPaymentFailed(@Payload PaymentFailedEvent event) {
-    try {
-      log.info("Payment failed for order: {}", event.orderId());
-      orders.findById(event.orderId()).ifPresent(order -> {
-        order.setStatus("FAILED");
-        orders.save(order);
-        log.info("Updated order {} status to FAILED", event.orderId());
-      });
-    } catch (Exception ex) {
-      log.error("Failed to update order status for payment failure: " + event.orderId(), ex);
+    String eventType = event.getClass().getSimpleName();
+    if (processedEvents.isDuplicate("payment.failed", event.orderId(), eventType)) {
+      log.debug("Skipping duplicate payment.failed for order: {}", event.orderId());
+      return;
     }
+    log.info("Payment failed for order: {}", event.orderId());
+    sagas.onPaymentFailed(event.orderId(), event.reason());
+    processedEvents.markProcessed("payment.failed", event.orderId(), eventType);
   }
 }
@@ -1,7 +1,59 @@
 package com.eplatform.b2b.order.repo;
 
 import com.eplatform.b2b.order.domain.Order;
+import com.eplatform.b2b.order.domain.OrderStatus;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrderRepository extends JpaRepository<Order, String> {
+
+  /**
+   * Single-statement status change that neither loads the order nor its items.
+   *
+   * @return 0 when the order does not exist or is no longer in one of {@code from}
+   */
+  @Modifying
+  @Query("update Order o set o.status = :status where o.id = :id and o.status in :from")
+  int transitionStatus(@Param("id") String id, @Param("from") Collection<OrderStatus> from,
+                       @Param("status") OrderStatus status);
+
+  @Modifying
+  @Query("update Order o set o.status = com.eplatform.b2b.order.domain.OrderStatus.PAID, " +
+         "o.paymentTransactionId = :transactionId " +
+         "where o.id = :id and o.status in :from")
+  int markPaid(@Param("id") String id, @Param("from") Collection<OrderStatus> from,
+               @Param("transactionId") String transactionId);
+
+  /**
+   * Order headers with the given status created after the keyset ({@code createdAt}, {@code id}),
+   * oldest first. Reads only the orders table; items are never loaded. {@code createdAt} is the
+   * insert time, so a row committed later with an earlier createdAt lands behind an existing cursor.
+   */
+  @Query("select new com.eplatform.b2b.order.repo.OrderSummary(o.id, o.status, o.totalAmountCents, o.currency, " +
+         "o.paymentTransactionId, o.createdAt) from Order o " +
+         "where o.status = :status and (o.createdAt > :createdAt or (o.createdAt = :createdAt and o.id > :id)) " +
+         "order by o.createdAt, o.id")
+  List<OrderSummary> findPageByStatus(@Param("status") OrderStatus status, @Param("createdAt") Instant createdAt,
+                                      @Param("id") String id, Limit limit);
+
+  /** As {@link #findPageByStatus} across all statuses. */
+  @Query("select new com.eplatform.b2b.order.repo.OrderSummary(o.id, o.status, o.totalAmountCents, o.currency, " +
+         "o.paymentTransactionId, o.createdAt) from Order o " +
+         "where o.createdAt > :createdAt or (o.createdAt = :createdAt and o.id > :id) " +
+         "order by o.createdAt, o.id")
+  List<OrderSummary> findPage(@Param("createdAt") Instant createdAt, @Param("id") String id, Limit limit);
+
+  @Query("select o.status from Order o where o.id = :id")
+  Optional<OrderStatus> findStatusById(@Param("id") String id);
+
+  /** The order with its items in one query. */
+  @Query("select o from Order o left join fetch o.items where o.id = :id")
+  Optional<Order> findWithItemsById(@Param("id") String id);
 }
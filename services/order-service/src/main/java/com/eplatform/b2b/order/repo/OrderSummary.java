@@ -0,0 +1,14 @@
+package com.eplatform.b2b.order.repo;
+
+import com.eplatform.b2b.order.domain.OrderStatus;
+import java.time.Instant;
+
+/** Read model of an order header: the columns of the orders table, without items. */
+public record OrderSummary(
+    String id,
+    OrderStatus status,
+    long totalAmountCents,
+    String currency,
+    String paymentTransactionId,
+    Instant createdAt
+) {}
@@ -0,0 +1,47 @@
+package com.eplatform.b2b.order.saga;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Progress of one async order through reservation and payment. One narrow row per
+ * order, rewritten in place by single UPDATEs; the order itself keeps its own status.
+ */
+@Entity
+@Table(name = "order_sagas", indexes = {
+    @Index(name = "idx_order_sagas_step", columnList = "step, order_id")
+})
+public class OrderSaga {
+  @Id
+  @Column(name = "order_id", length = 36)
+  private String orderId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 24)
+  private SagaStep step;
+
+  @Column(nullable = false, updatable = false)
+  private Instant startedAt;
+
+  @Column(nullable = false)
+  private Instant stepStartedAt;
+
+  /** When the current step times out; null once the saga has ended. */
+  private Instant deadline;
+
+  protected OrderSaga() {}
+
+  public OrderSaga(String orderId, Instant startedAt, Instant deadline) {
+    this.orderId = orderId;
+    this.step = SagaStep.AWAITING_RESERVATION;
+    this.startedAt = startedAt;
+    this.stepStartedAt = startedAt;
+    this.deadline = deadline;
+  }
+
+  public String getOrderId() { return orderId; }
+  public SagaStep getStep() { return step; }
+  public Instant getStartedAt() { return startedAt; }
+  public Instant getStepStartedAt() { return stepStartedAt; }
+  public Instant getDeadline() { return deadline; }
+}
@@ -0,0 +1,301 @@
+package com.eplatform.b2b.order.saga;
+
+import com.eplatform.b2b.order.domain.Order;
+import com.eplatform.b2b.order.domain.OrderStatus;
+import com.eplatform.b2b.order.messaging.OrderEventsProducer;
+import com.eplatform.b2b.order.repo.OrderRepository;
+import com.eplatform.b2b.order.stream.OrderStatusStream;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drives the async order pipeline order.placed → inventory.reserved → payment.succeeded
+ * as an explicit state machine. Each event moves the {@link OrderSaga} row and the
+ * order status in the listener's transaction, so a redelivered or out-of-date event
+ * changes nothing. Every open step has a deadline held by an in-memory timer; the
+ * timers are rebuilt from the table on startup. A saga that misses its deadline fails
+ * the order and publishes order.cancelled through the outbox, on which inventory
+ * releases the stock and payment voids the charge. A charge that still gets through for
+ * a failed order is refunded through order.refund-requested.
+ *
+ * <p>Orders placed synchronously have no saga; their events update the order directly.
+ */
+@Slf4j
+@Service
+public class OrderSagaOrchestrator {
+
+  private static final int REBUILD_PAGE_SIZE = 1000;
+
+  private final OrderSagaRepository sagas;
+  private final OrderRepository orders;
+  private final OrderEventsProducer events;
+  private final OrderStatusStream statusStream;
+  private final TransactionTemplate transactionTemplate;
+  private final MeterRegistry meterRegistry;
+  private final Duration reservationTimeout;
+  private final Duration paymentTimeout;
+  private final Duration timeoutRetryDelay;
+  private final Map<String, ScheduledFuture<?>> timers = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().name("order-saga-timer").daemon().factory());
+  private final ExecutorService timeouts = Executors.newVirtualThreadPerTaskExecutor();
+
+  public OrderSagaOrchestrator(OrderSagaRepository sagas, OrderRepository orders, OrderEventsProducer events,
+                               OrderStatusStream statusStream, TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${order.saga.reservation-timeout-ms:30000}") long reservationTimeoutMs,
+                               @Value("${order.saga.payment-timeout-ms:60000}") long paymentTimeoutMs,
+                               @Value("${order.saga.timeout-retry-ms:5000}") long timeoutRetryMs) {
+    this.sagas = sagas;
+    this.orders = orders;
+    this.events = events;
+    this.statusStream = statusStream;
+    this.transactionTemplate = transactionTemplate;
+    this.meterRegistry = meterRegistry;
+    this.reservationTimeout = Duration.ofMillis(reservationTimeoutMs);
+    this.paymentTimeout = Duration.ofMillis(paymentTimeoutMs);
+    this.timeoutRetryDelay = Duration.ofMillis(timeoutRetryMs);
+    Gauge.builder("orders.saga.timers", timers, Map::size).register(meterRegistry);
+  }
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /** Starts the saga in the transaction that creates the order and publishes order.placed. */
+  @Transactional
+  public void start(String orderId) {
+    Instant now = Instant.now();
+    Instant deadline = now.plus(reservationTimeout);
+    // persist, not save: the id is assigned, and save would SELECT it first to decide
+    entityManager.persist(new OrderSaga(orderId, now, deadline));
+    afterCommit(() -> schedule(orderId, SagaStep.AWAITING_RESERVATION, deadline));
+  }
+
+  @Transactional
+  public void onInventoryReserved(String orderId) {
+    OrderSaga saga = sagas.findById(orderId).orElse(null);
+    if (saga == null) {
+      return;
+    }
+    Instant now = Instant.now();
+    Instant deadline = now.plus(paymentTimeout);
+    if (sagas.advance(orderId, SagaStep.AWAITING_RESERVATION, SagaStep.AWAITING_PAYMENT, now, deadline) == 0) {
+      lateEvent(saga, "inventory.reserved");
+      return;
+    }
+    recordStep("reservation", "reserved", saga.getStepStartedAt(), now);
+    if (orders.transitionStatus(orderId, List.of(OrderStatus.CREATED), OrderStatus.RESERVED) > 0) {
+      statusStream.statusChanged(orderId, OrderStatus.RESERVED);
+    }
+    afterCommit(() -> schedule(orderId, SagaStep.AWAITING_PAYMENT, deadline));
+  }
+
+  @Transactional
+  public void onInventoryRejected(String orderId, String reason) {
+    OrderSaga saga = sagas.findById(orderId).orElse(null);
+    if (saga == null) {
+      return;
+    }
+    Instant now = Instant.now();
+    if (sagas.finish(orderId, List.of(SagaStep.AWAITING_RESERVATION), SagaStep.FAILED, now) == 0) {
+      lateEvent(saga, "inventory.rejected");
+      return;
+    }
+    log.info("Order {} failed: inventory rejected ({})", orderId, reason);
+    recordStep("reservation", "rejected", saga.getStepStartedAt(), now);
+    recordSaga("failed", saga.getStartedAt(), now);
+    failOrder(orderId);
+    afterCommit(() -> cancelTimer(orderId));
+  }
+
+  @Transactional
+  public void onPaymentSucceeded(String orderId, String transactionId) {
+    OrderSaga saga = sagas.findById(orderId).orElse(null);
+    if (saga != null) {
+      Instant now = Instant.now();
+      // inventory.reserved and payment.succeeded are different topics, so payment may arrive first
+      if (sagas.finish(orderId, SagaStep.OPEN, SagaStep.COMPLETED, now) == 0) {
+        lateEvent(saga, "payment.succeeded");
+      } else {
+        recordStep("payment", "succeeded", saga.getStepStartedAt(), now);
+        recordSaga("completed", saga.getStartedAt(), now);
+        afterCommit(() -> cancelTimer(orderId));
+      }
+    }
+    if (orders.markPaid(orderId, OrderStatus.OPEN, transactionId) > 0) {
+      log.info("Updated order {} status to PAID", orderId);
+      statusStream.statusChanged(orderId, OrderStatus.PAID);
+      return;
+    }
+    // Not a redelivery of the charge that paid the order: money was taken for a failed one
+    orders.findById(orderId)
+        .filter(order -> order.getStatus() == OrderStatus.FAILED)
+        .ifPresent(order -> refund(order, transactionId));
+  }
+
+  @Transactional
+  public void onPaymentFailed(String orderId, String reason) {
+    OrderSaga saga = sagas.findById(orderId).orElse(null);
+    if (saga != null) {
+      Instant now = Instant.now();
+      if (sagas.finish(orderId, SagaStep.OPEN, SagaStep.FAILED, now) == 0) {
+        // Also how a saga hears back about its own inventory.rejected, via payment
+        lateEvent(saga, "payment.failed");
+        return;
+      }
+      log.info("Order {} failed: payment failed ({})", orderId, reason);
+      recordStep("payment", "failed", saga.getStepStartedAt(), now);
+      recordSaga("failed", saga.getStartedAt(), now);
+      afterCommit(() -> cancelTimer(orderId));
+    }
+    failOrder(orderId);
+  }
+
+  /** Re-arms the timers of every open saga, e.g. those whose instance went down. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuildTimers() {
+    String after = "";
+    int rebuilt = 0;
+    while (true) {
+      List<SagaDeadline> page = sagas.findDeadlines(SagaStep.OPEN, after, Limit.of(REBUILD_PAGE_SIZE));
+      for (SagaDeadline saga : page) {
+        schedule(saga.orderId(), saga.step(), saga.deadline());
+      }
+      rebuilt += page.size();
+      if (page.size() < REBUILD_PAGE_SIZE) {
+        break;
+      }
+      after = page.get(page.size() - 1).orderId();
+    }
+    log.info("Rebuilt {} saga timers", rebuilt);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+    timeouts.close();
+  }
+
+  private void timeOut(String orderId, SagaStep step) {
+    timers.remove(orderId);
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        OrderSaga saga = sagas.findById(orderId).orElse(null);
+        Instant now = Instant.now();
+        if (saga == null || sagas.timeOut(orderId, step, now) == 0) {
+          return;
+        }
+        String reason = "TIMEOUT_" + step.name();
+        log.warn("Order {} timed out in {}; cancelling", orderId, step);
+        recordStep(step == SagaStep.AWAITING_RESERVATION ? "reservation" : "payment", "timeout",
+            saga.getStepStartedAt(), now);
+        recordSaga("timed_out", saga.getStartedAt(), now);
+        failOrder(orderId);
+        events.publishOrderCancelled(orderId, reason);
+        meterRegistry.counter("orders.saga.compensations", "reason", reason).increment();
+      });
+    } catch (RuntimeException ex) {
+      // The saga stays open and past its deadline; try again shortly. The retry is not put in
+      // timers: a timer that fired at once could still be on its way in and cancel it, and the
+      // timeOut guard already turns a retry for a saga that moved on into a no-op.
+      log.error("Failed to time out saga of order {}; retrying in {}", orderId, timeoutRetryDelay, ex);
+      if (!scheduler.isShutdown()) {
+        scheduler.schedule(() -> timeouts.execute(() -> timeOut(orderId, step)),
+            timeoutRetryDelay.toMillis(), TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  /** The order failed, so the saga compensated, and then the charge went through after all. */
+  private void refund(Order order, String transactionId) {
+    if (transactionId == null) {
+      log.error("Order {} was charged after it failed, without a transaction id to refund", order.getId());
+      return;
+    }
+    log.warn("Order {} was charged as {} after it failed; requesting a refund", order.getId(), transactionId);
+    events.publishRefundRequested(order.getId(), transactionId, order.getTotalAmountCents(), "LATE_PAYMENT");
+    meterRegistry.counter("orders.saga.compensations", "reason", "LATE_PAYMENT").increment();
+  }
+
+  private void failOrder(String orderId) {
+    if (orders.transitionStatus(orderId, OrderStatus.OPEN, OrderStatus.FAILED) > 0) {
+      log.info("Updated order {} status to FAILED", orderId);
+      statusStream.statusChanged(orderId, OrderStatus.FAILED);
+    }
+  }
+
+  private void schedule(String orderId, SagaStep step, Instant deadline) {
+    long delayMs = Math.max(0, Duration.between(Instant.now(), deadline).toMillis());
+    ScheduledFuture<?> timer = scheduler.schedule(() -> timeouts.execute(() -> timeOut(orderId, step)),
+        delayMs, TimeUnit.MILLISECONDS);
+    ScheduledFuture<?> previous = timers.put(orderId, timer);
+    if (previous != null) {
+      previous.cancel(false);
+    }
+  }
+
+  private void cancelTimer(String orderId) {
+    ScheduledFuture<?> timer = timers.remove(orderId);
+    if (timer != null) {
+      timer.cancel(false);
+    }
+  }
+
+  private void lateEvent(OrderSaga saga, String event) {
+    meterRegistry.counter("orders.saga.late_events", "event", event, "step", saga.getStep().name()).increment();
+  }
+
+  private void recordStep(String step, String outcome, Instant from, Instant to) {
+    Timer.builder("orders.saga.step")
+        .tag("step", step)
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(Duration.between(from, to));
+  }
+
+  private void recordSaga(String outcome, Instant from, Instant to) {
+    Timer.builder("orders.saga.duration")
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(Duration.between(from, to));
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
@@ -0,0 +1,47 @@
+package com.eplatform.b2b.order.saga;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderSagaRepository extends JpaRepository<OrderSaga, String> {
+
+  /** Open sagas after {@code afterOrderId}, for rebuilding timers page by page. */
+  @Query("select new com.eplatform.b2b.order.saga.SagaDeadline(s.orderId, s.step, s.deadline) " +
+         "from OrderSaga s where s.step in :steps and s.orderId > :afterOrderId order by s.orderId")
+  List<SagaDeadline> findDeadlines(@Param("steps") Collection<SagaStep> steps,
+                               @Param("afterOrderId") String afterOrderId, Limit limit);
+
+  /**
+   * Moves the saga to its next step.
+   *
+   * @return 0 when the saga is no longer in {@code from}, e.g. a redelivered or late event
+   */
+  @Modifying
+  @Query("update OrderSaga s set s.step = :to, s.stepStartedAt = :now, s.deadline = :deadline " +
+         "where s.orderId = :id and s.step = :from")
+  int advance(@Param("id") String id, @Param("from") SagaStep from, @Param("to") SagaStep to,
+              @Param("now") Instant now, @Param("deadline") Instant deadline);
+
+  /** Ends the saga if it is still open; see {@link #advance} for the return value. */
+  @Modifying
+  @Query("update OrderSaga s set s.step = :to, s.stepStartedAt = :now, s.deadline = null " +
+         "where s.orderId = :id and s.step in :from")
+  int finish(@Param("id") String id, @Param("from") Collection<SagaStep> from, @Param("to") SagaStep to,
+             @Param("now") Instant now);
+
+  /**
+   * Times the saga out if it is still in {@code step} past its deadline. Every instance
+   * schedules every open saga after a restart; this UPDATE lets exactly one of them win.
+   */
+  @Modifying
+  @Query("update OrderSaga s set s.step = com.eplatform.b2b.order.saga.SagaStep.TIMED_OUT, " +
+         "s.stepStartedAt = :now, s.deadline = null " +
+         "where s.orderId = :id and s.step = :step and s.deadline <= :now")
+  int timeOut(@Param("id") String id, @Param("step") SagaStep step, @Param("now") Instant now);
+}
@@ -0,0 +1,6 @@
+package com.eplatform.b2b.order.saga;
+
+import java.time.Instant;
+
+/** What the timeout scheduler needs of an open saga. */
+public record SagaDeadline(String orderId, SagaStep step, Instant deadline) {}
@@ -0,0 +1,14 @@
+package com.eplatform.b2b.order.saga;
+
+import java.util.List;
+
+public enum SagaStep {
+  AWAITING_RESERVATION,
+  AWAITING_PAYMENT,
+  COMPLETED,
+  FAILED,
+  TIMED_OUT;
+
+  /** Steps still waiting for an event, each with a deadline. */
+  public static final List<SagaStep> OPEN = List.of(AWAITING_RESERVATION, AWAITING_PAYMENT);
+}
@@ -0,0 +1,202 @@
+package com.eplatform.b2b.order.service;
+
+import com.eplatform.b2b.common.dto.BulkOrderResultDto;
+import com.eplatform.b2b.common.dto.PlaceOrderRequestDto;
+import com.eplatform.b2b.order.domain.Order;
+import com.eplatform.b2b.order.messaging.OrderEventsProducer;
+import com.eplatform.b2b.order.repo.OrderRepository;
+import com.eplatform.b2b.order.saga.OrderSagaOrchestrator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Places orders from an NDJSON upload (one {@link PlaceOrderRequestDto} per line) without
+ * holding the upload in memory. Lines are read and validated one at a time and written in
+ * chunks: each chunk is one transaction whose order, item and outbox rows go out as JDBC
+ * batches, and the relay publishes the chunk's order.placed events in producer batches
+ * once it commits. One {@link BulkOrderResultDto} per line is streamed back after each chunk.
+ * A line longer than {@code max-line-chars} is rejected without being buffered beyond the cap.
+ *
+ * <p>Bulk orders take the async path: they are created and announced, and inventory and
+ * payment progress them through events.
+ */
+@Slf4j
+@Service
+public class BulkOrderService {
+
+  /** A line waiting for its chunk to be written; rejected lines carry the reason instead of a request. */
+  private record Pending(long line, PlaceOrderRequestDto request, String error) {}
+
+  /** A line read up to the cap; {@code text} is null when the line was longer. */
+  private record Line(String text) {
+    boolean tooLong() {
+      return text == null;
+    }
+  }
+
+  private final ObjectReader requestReader;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final OrderRepository orders;
+  private final OrderEventsProducer events;
+  private final OrderSagaOrchestrator sagas;
+  private final TransactionTemplate transactionTemplate;
+  private final MeterRegistry meterRegistry;
+  private final int chunkSize;
+  private final int maxLineChars;
+
+  public BulkOrderService(ObjectMapper objectMapper, Validator validator, OrderRepository orders,
+                          OrderEventsProducer events, OrderSagaOrchestrator sagas,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${order.bulk.chunk-size:500}") int chunkSize,
+                          @Value("${order.bulk.max-line-chars:65536}") int maxLineChars) {
+    this.requestReader = objectMapper.readerFor(PlaceOrderRequestDto.class);
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.orders = orders;
+    this.events = events;
+    this.sagas = sagas;
+    this.transactionTemplate = transactionTemplate;
+    this.meterRegistry = meterRegistry;
+    this.chunkSize = chunkSize;
+    this.maxLineChars = maxLineChars;
+  }
+
+  /** Reads requests from {@code in} until it ends and writes one result line per request line to {@code out}. */
+  public void placeAll(InputStream in, OutputStream out) throws IOException {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    try (SequenceWriter results = objectMapper.writer()
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .withRootValueSeparator("\n")
+        .writeValues(out)) {
+      List<Pending> chunk = new ArrayList<>(chunkSize);
+      long lineNo = 0;
+      Line line;
+      while ((line = readLine(reader)) != null) {
+        lineNo++;
+        if (line.tooLong()) {
+          chunk.add(new Pending(lineNo, null, "Line longer than " + maxLineChars + " characters"));
+        } else if (line.text().isBlank()) {
+          continue;
+        } else {
+          chunk.add(parse(line.text(), lineNo));
+        }
+        if (chunk.size() == chunkSize) {
+          placeChunk(chunk, results);
+        }
+      }
+      if (!chunk.isEmpty()) {
+        placeChunk(chunk, results);
+      }
+      out.write('\n');
+    }
+  }
+
+  /**
+   * The next line without its terminator ({@code \n} or {@code \r\n}), or null at the end of
+   * the input. The rest of a line past {@code maxLineChars} is skipped, not kept.
+   */
+  private Line readLine(BufferedReader reader) throws IOException {
+    StringBuilder text = new StringBuilder();
+    boolean tooLong = false;
+    int c;
+    while ((c = reader.read()) != -1 && c != '\n') {
+      if (tooLong) {
+        continue;
+      }
+      if (text.length() == maxLineChars) {
+        tooLong = true;
+        text.setLength(0);
+        continue;
+      }
+      text.append((char) c);
+    }
+    if (c == -1 && text.isEmpty() && !tooLong) {
+      return null;
+    }
+    if (tooLong) {
+      return new Line(null);
+    }
+    int end = text.length();
+    if (end > 0 && text.charAt(end - 1) == '\r') {
+      text.setLength(end - 1);
+    }
+    return new Line(text.toString());
+  }
+
+  private Pending parse(String line, long lineNo) {
+    PlaceOrderRequestDto request;
+    try {
+      request = requestReader.readValue(line);
+    } catch (JsonProcessingException ex) {
+      return new Pending(lineNo, null, "Malformed JSON: " + ex.getOriginalMessage());
+    }
+    Set<ConstraintViolation<PlaceOrderRequestDto>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      return new Pending(lineNo, null, violations.stream()
+          .map(v -> v.getPropertyPath() + " " + v.getMessage())
+          .sorted()
+          .collect(Collectors.joining(", ")));
+    }
+    return new Pending(lineNo, request, null);
+  }
+
+  /**
+   * Writes the chunk's valid lines in one transaction and reports every line in upload
+   * order. The persistence context ends with the transaction, so entities do not
+   * accumulate across chunks.
+   */
+  private void placeChunk(List<Pending> chunk, SequenceWriter results) throws IOException {
+    List<BulkOrderResultDto> reported;
+    try {
+      reported = transactionTemplate.execute(status -> {
+        List<BulkOrderResultDto> lines = new ArrayList<>(chunk.size());
+        for (Pending pending : chunk) {
+          if (pending.error() != null) {
+            lines.add(new BulkOrderResultDto(pending.line(), null, "REJECTED", pending.error()));
+            continue;
+          }
+          Order order = orders.save(OrderPlacementService.newOrder(pending.request()));
+          events.publishOrderPlaced(order.getId(), pending.request(), order.getTotalAmountCents());
+          sagas.start(order.getId());
+          lines.add(new BulkOrderResultDto(pending.line(), order.getId(), order.getStatus().name(), null));
+        }
+        return lines;
+      });
+    } catch (RuntimeException ex) {
+      log.error("Bulk chunk of {} lines starting at line {} failed", chunk.size(), chunk.get(0).line(), ex);
+      reported = chunk.stream()
+          .map(p -> p.error() != null
+              ? new BulkOrderResultDto(p.line(), null, "REJECTED", p.error())
+              : new BulkOrderResultDto(p.line(), null, "FAILED", "Chunk could not be written: " + ex.getMessage()))
+          .toList();
+    }
+    for (BulkOrderResultDto result : reported) {
+      meterRegistry.counter("orders.bulk.lines", "status", result.status()).increment();
+      results.write(result);
+    }
+    chunk.clear();
+    results.flush();
+  }
+}
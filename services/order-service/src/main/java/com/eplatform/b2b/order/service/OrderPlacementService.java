@@ -6,81 +6,262 @@ import com.eplatform.b2b.order.client.PaymentClient;
 import com.eplatform.b2b.order.messaging.OrderEventsProducer;
 import com.eplatform.b2b.order.domain.Order;
 import com.eplatform.b2b.order.domain.OrderItem;
+import com.eplatform.b2b.order.domain.OrderStatus;
 import com.eplatform.b2b.order.repo.OrderRepository;
+import com.eplatform.b2b.order.saga.OrderSagaOrchestrator;
+import com.eplatform.b2b.order.stream.OrderStatusStream;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+@Slf4j
 @Service
 public class OrderPlacementService {
 
+  /** What the remote steps decided; written to the order in the closing transaction. */
+  private record Placement(OrderStatus status, String transactionId, String message) {}
+
+  /** A remote call's response, or the error that left its outcome unknown. */
+  private record Remote<T>(T value, Exception error) {
+    boolean unknown() {
+      return error != null;
+    }
+  }
+
   private final OrderRepository orders;
   private final InventoryClient inventoryClient;
   private final PaymentClient paymentClient;
   private final OrderEventsProducer events;
+  private final OrderSagaOrchestrator sagas;
+  private final TransactionTemplate transactionTemplate;
+  private final OrderStatusStream statusStream;
+  private final MeterRegistry meterRegistry;
+  private final boolean preAuthorize;
+  private final long remoteTimeoutMs;
+  private final int unknownOutcomeRetries;
+  private final ExecutorService remoteCalls = Executors.newVirtualThreadPerTaskExecutor();
 
-  public OrderPlacementService(OrderRepository orders, InventoryClient inventoryClient, PaymentClient paymentClient, OrderEventsProducer events) {
+  public OrderPlacementService(OrderRepository orders, InventoryClient inventoryClient, PaymentClient paymentClient,
+                               OrderEventsProducer events, OrderSagaOrchestrator sagas,
+                               TransactionTemplate transactionTemplate,
+                               OrderStatusStream statusStream, MeterRegistry meterRegistry,
+                               @Value("${order.placement.pre-authorize:true}") boolean preAuthorize,
+                               @Value("${order.placement.remote-timeout-ms:5000}") long remoteTimeoutMs,
+                               @Value("${order.placement.unknown-outcome-retries:2}") int unknownOutcomeRetries) {
     this.orders = orders;
     this.inventoryClient = inventoryClient;
     this.paymentClient = paymentClient;
     this.events = events;
+    this.sagas = sagas;
+    this.transactionTemplate = transactionTemplate;
+    this.statusStream = statusStream;
+    this.meterRegistry = meterRegistry;
+    this.preAuthorize = preAuthorize;
+    this.remoteTimeoutMs = remoteTimeoutMs;
+    this.unknownOutcomeRetries = unknownOutcomeRetries;
   }
 
-  @Transactional
+  /**
+   * Places an order synchronously. The order row is committed before any remote call and
+   * the outcome is written in a second short transaction, so no DB connection is held
+   * while inventory and payment respond. With pre-authorization the reservation and the
+   * payment authorization run concurrently on virtual threads and the payment is only
+   * captured once both succeeded; whichever step succeeded (or timed out) is compensated
+   * when the other fails. Capture and charge take the money, so an unknown outcome there
+   * is retried first, and if it stays unknown the payment is voided before the stock is
+   * released; the order ends PAID or FAILED either way.
+   */
   public OrderResponseDto placeOrder(PlaceOrderRequestDto req) {
-    // 1) Create Order aggregate
-    Order order = new Order();
-    order.setCurrency(req.currency());
-    order.setStatus("CREATED");
-    long total = 0L;
-    for (OrderItemDto i : req.items()) {
-      OrderItem oi = new OrderItem();
-      oi.setSku(i.sku());
-      oi.setQuantity(i.quantity());
-      oi.setPriceCents(i.priceCents());
-      order.addItem(oi);
-      total += (long) i.quantity() * i.priceCents();
-    }
-    order.setTotalAmountCents(total);
-    orders.save(order);
+    long start = System.nanoTime();
+    Order order = transactionTemplate.execute(status -> orders.save(newOrder(req)));
+    String orderId = order.getId();
+    ReserveRequestDto reserve = new ReserveRequestDto(reserveItems(req), orderId);
+    PaymentChargeRequestDto payment = new PaymentChargeRequestDto(orderId, order.getTotalAmountCents(), order.getCurrency());
 
-    // 2) Reserve inventory
-    List<ReserveItemDto> reserveItems = req.items().stream()
-        .map(i -> new ReserveItemDto(i.sku(), i.quantity()))
-        .collect(Collectors.toList());
-    ReserveResponseDto reserve = inventoryClient.reserve(new ReserveRequestDto(reserveItems));
-    if (!reserve.success()) {
-      order.setStatus("FAILED");
-      orders.save(order);
-      return new OrderResponseDto(order.getId(), order.getStatus(), order.getTotalAmountCents(), order.getCurrency(), null,
-          "Inventory reservation failed for: " + String.join(",", reserve.failedSkus()));
-    }
+    Placement placement = preAuthorize
+        ? reserveAndAuthorize(orderId, reserve, payment)
+        : reserveThenCharge(orderId, reserve, payment);
+    OrderResponseDto response = transactionTemplate.execute(status -> complete(order, placement));
 
-    order.setStatus("RESERVED");
-    orders.save(order);
-
-    // 3) Charge payment
-    PaymentChargeResponseDto charge = paymentClient.charge(new PaymentChargeRequestDto(order.getId(), order.getTotalAmountCents(), order.getCurrency()));
-    if (charge.success()) {
-      order.setStatus("PAID");
-      order.setPaymentTransactionId(charge.transactionId());
-      orders.save(order);
-      return new OrderResponseDto(order.getId(), order.getStatus(), order.getTotalAmountCents(), order.getCurrency(), order.getPaymentTransactionId(), "OK");
-    } else {
-      order.setStatus("FAILED");
-      orders.save(order);
-      return new OrderResponseDto(order.getId(), order.getStatus(), order.getTotalAmountCents(), order.getCurrency(), null,
-          charge.message() != null ? charge.message() : "Payment failed");
-    }
+    Timer.builder("orders.placement")
+        .tag("mode", preAuthorize ? "pre-authorize" : "sequential")
+        .tag("status", response.status())
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return response;
   }
 
   @Transactional
   public OrderResponseDto placeOrderAsync(PlaceOrderRequestDto req) {
     // Create order and publish event; downstream services will progress status
+    Order order = orders.save(newOrder(req));
+
+    // Publish event to Kafka for inventory → payment pipeline
+    events.publishOrderPlaced(order.getId(), req, order.getTotalAmountCents());
+    sagas.start(order.getId());
+
+    return new OrderResponseDto(order.getId(), order.getStatus().name(), order.getTotalAmountCents(), order.getCurrency(), null, "ORDER_PLACED_EVENT_PUBLISHED");
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    remoteCalls.close();
+  }
+
+  private Placement reserveAndAuthorize(String orderId, ReserveRequestDto reserve, PaymentChargeRequestDto payment) {
+    CompletableFuture<Remote<ReserveResponseDto>> reservation = call(() -> reserve(reserve));
+    CompletableFuture<Remote<PaymentChargeResponseDto>> authorization = call(() -> paymentClient.authorize(payment));
+    Remote<ReserveResponseDto> reserved = reservation.join();
+    Remote<PaymentChargeResponseDto> authorized = authorization.join();
+    boolean reserveOk = !reserved.unknown() && reserved.value().success();
+    boolean authorizeOk = !authorized.unknown() && authorized.value().success();
+
+    if (reserveOk && authorizeOk) {
+      Remote<PaymentChargeResponseDto> captured = takePayment(orderId, "capture", () -> paymentClient.capture(orderId));
+      if (captured.unknown()) {
+        return unresolved(orderId, "capture", captured);
+      }
+      if (captured.value().success()) {
+        return new Placement(OrderStatus.PAID, captured.value().transactionId(), "OK");
+      }
+      compensate(orderId, true, true);
+      return new Placement(OrderStatus.FAILED, null, paymentMessage(captured));
+    }
+    // An authorization whose outcome is unknown is voided; the void also stops a late one
+    compensate(orderId, reserveOk || reserved.unknown(), authorizeOk || authorized.unknown());
+    return new Placement(OrderStatus.FAILED, null, reserveOk ? paymentMessage(authorized) : inventoryMessage(reserved));
+  }
+
+  private Placement reserveThenCharge(String orderId, ReserveRequestDto reserve, PaymentChargeRequestDto payment) {
+    Remote<ReserveResponseDto> reserved = call(() -> reserve(reserve)).join();
+    if (reserved.unknown() || !reserved.value().success()) {
+      compensate(orderId, reserved.unknown(), false);
+      return new Placement(OrderStatus.FAILED, null, inventoryMessage(reserved));
+    }
+    Remote<PaymentChargeResponseDto> charged = takePayment(orderId, "charge", () -> paymentClient.charge(payment));
+    if (charged.unknown()) {
+      return unresolved(orderId, "charge", charged);
+    }
+    if (charged.value().success()) {
+      return new Placement(OrderStatus.PAID, charged.value().transactionId(), "OK");
+    }
+    compensate(orderId, true, false);
+    return new Placement(OrderStatus.FAILED, null, paymentMessage(charged));
+  }
+
+  /** Runs an idempotent payment step, repeating it while its outcome is unknown. */
+  private Remote<PaymentChargeResponseDto> takePayment(String orderId, String step,
+                                                       Supplier<PaymentChargeResponseDto> remote) {
+    Remote<PaymentChargeResponseDto> result = call(remote).join();
+    for (int retry = 1; retry <= unknownOutcomeRetries && result.unknown(); retry++) {
+      meterRegistry.counter("orders.placement.retries", "step", step).increment();
+      log.warn("Retrying {} for order {} ({}/{}): {}", step, orderId, retry, unknownOutcomeRetries,
+          result.error().getMessage());
+      result = call(remote).join();
+    }
+    return result;
+  }
+
+  /**
+   * The money may or may not have been taken; a void settles which. Payment-service runs
+   * one step of an order at a time, so the void either finds the authorization captured,
+   * and the order is paid, or drops it and refuses any capture or charge of the order that
+   * comes later. A charge has nothing to void, so one that went through at the gateway
+   * before the void is left to the gateway's reconciliation. If the void gets no answer
+   * either, the compensation is counted as failed and the order still fails.
+   */
+  private Placement unresolved(String orderId, String step, Remote<PaymentChargeResponseDto> result) {
+    meterRegistry.counter("orders.placement.unresolved", "step", step).increment();
+    log.warn("Outcome of {} unknown for order {}; voiding the payment", step, orderId, result.error());
+    Remote<PaymentChargeResponseDto> voided = takePayment(orderId, "void", () -> paymentClient.voidAuthorization(orderId));
+    if (!voided.unknown() && "captured".equals(voided.value().message())) {
+      return new Placement(OrderStatus.PAID, voided.value().transactionId(), "OK");
+    }
+    recordCompensation(orderId, "void", true, voided);
+    compensate(orderId, true, false);
+    return new Placement(OrderStatus.FAILED, null, paymentMessage(result));
+  }
+
+  private ReserveResponseDto reserve(ReserveRequestDto request) {
+    try {
+      return inventoryClient.reserve(request);
+    } catch (FeignException.BadRequest ex) {
+      // Insufficient stock is reported as 400 and nothing was reserved
+      return new ReserveResponseDto(false, List.of());
+    }
+  }
+
+  /** Releases the reservation and voids the authorization concurrently; both calls are idempotent. */
+  private void compensate(String orderId, boolean release, boolean voidPayment) {
+    CompletableFuture<Remote<Object>> released = release
+        ? call(() -> {
+          inventoryClient.release(orderId);
+          return null;
+        })
+        : CompletableFuture.completedFuture(new Remote<>(null, null));
+    CompletableFuture<Remote<Object>> voided = voidPayment
+        ? call(() -> paymentClient.voidAuthorization(orderId))
+        : CompletableFuture.completedFuture(new Remote<>(null, null));
+    recordCompensation(orderId, "release", release, released.join());
+    recordCompensation(orderId, "void", voidPayment, voided.join());
+  }
+
+  private void recordCompensation(String orderId, String action, boolean attempted, Remote<?> result) {
+    if (!attempted) {
+      return;
+    }
+    meterRegistry.counter("orders.placement.compensations", "action", action,
+        "outcome", result.unknown() ? "failed" : "done").increment();
+    if (result.unknown()) {
+      log.error("Compensation {} failed for order {}", action, orderId, result.error());
+    }
+  }
+
+  private <T> CompletableFuture<Remote<T>> call(Supplier<T> remote) {
+    return CompletableFuture.supplyAsync(() -> {
+          try {
+            return new Remote<>(remote.get(), null);
+          } catch (RuntimeException ex) {
+            return new Remote<T>(null, ex);
+          }
+        }, remoteCalls)
+        .completeOnTimeout(new Remote<>(null, new TimeoutException("No response within " + remoteTimeoutMs + " ms")),
+            remoteTimeoutMs, TimeUnit.MILLISECONDS);
+  }
+
+  /** One UPDATE of the order row; the items written with it are not touched again. */
+  private OrderResponseDto complete(Order order, Placement placement) {
+    boolean changed = switch (placement.status()) {
+      case PAID -> orders.markPaid(order.getId(), OrderStatus.OPEN, placement.transactionId()) > 0;
+      default -> orders.transitionStatus(order.getId(), OrderStatus.OPEN, OrderStatus.FAILED) > 0;
+    };
+    if (changed) {
+      statusStream.statusChanged(order.getId(), placement.status());
+    }
+    return new OrderResponseDto(order.getId(), placement.status().name(), order.getTotalAmountCents(),
+        order.getCurrency(), placement.transactionId(), placement.message());
+  }
+
+  static Order newOrder(PlaceOrderRequestDto req) {
     Order order = new Order();
     order.setCurrency(req.currency());
-    order.setStatus("CREATED");
+    order.setBuyerId(req.buyerId());
+    order.setStatus(OrderStatus.CREATED);
     long total = 0L;
     for (OrderItemDto i : req.items()) {
       OrderItem oi = new OrderItem();
@@ -91,11 +272,29 @@ public class OrderPlacementService {
       total += (long) i.quantity() * i.priceCents();
     }
     order.setTotalAmountCents(total);
-    orders.save(order);
+    return order;
+  }
 
-    // Publish event to Kafka for inventory → payment pipeline
-    events.publishOrderPlaced(order.getId(), req, total);
+  private static List<ReserveItemDto> reserveItems(PlaceOrderRequestDto req) {
+    return req.items().stream()
+        .map(i -> new ReserveItemDto(i.sku(), i.quantity()))
+        .collect(Collectors.toList());
+  }
 
-    return new OrderResponseDto(order.getId(), order.getStatus(), order.getTotalAmountCents(), order.getCurrency(), null, "ORDER_PLACED_EVENT_PUBLISHED");
+  private static String inventoryMessage(Remote<ReserveResponseDto> reserved) {
+    if (reserved.unknown()) {
+      return "Inventory reservation failed: " + reserved.error().getMessage();
+    }
+    List<String> failed = reserved.value().failedSkus();
+    return failed == null || failed.isEmpty()
+        ? "Inventory reservation failed"
+        : "Inventory reservation failed for: " + String.join(",", failed);
+  }
+
+  private static String paymentMessage(Remote<PaymentChargeResponseDto> payment) {
+    if (payment.unknown()) {
+      return "Payment failed: " + payment.error().getMessage();
+    }
+    return payment.value().message() != null ? payment.value().message() : "Payment failed";
   }
 }
@@ -0,0 +1,109 @@
+package com.eplatform.b2b.order.service;
+
+import com.eplatform.b2b.common.dto.OrderDetailsDto;
+import com.eplatform.b2b.common.dto.OrderItemDto;
+import com.eplatform.b2b.common.dto.OrderPageDto;
+import com.eplatform.b2b.common.dto.OrderSummaryDto;
+import com.eplatform.b2b.order.domain.Order;
+import com.eplatform.b2b.order.domain.OrderStatus;
+import com.eplatform.b2b.order.exception.InvalidCursorException;
+import com.eplatform.b2b.order.exception.OrderNotFoundException;
+import com.eplatform.b2b.order.repo.OrderRepository;
+import com.eplatform.b2b.order.repo.OrderSummary;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads orders for clients. Pages use keyset pagination over (createdAt, id): a page
+ * costs an index range scan however deep the client has paged, and inserts or deletes
+ * behind the cursor do not shift later pages, so committed orders are not repeated or
+ * skipped. createdAt is assigned at insert, not at commit, so an order whose transaction
+ * commits after a client paged past its createdAt is not returned to that client; only
+ * clients paging at the newest orders can hit this. Cursors are opaque to clients.
+ */
+@Service
+public class OrderQueryService {
+
+  /** Keyset position in front of every order. */
+  private static final Cursor START = new Cursor(Instant.EPOCH, "");
+
+  private record Cursor(Instant createdAt, String id) {}
+
+  private final OrderRepository orders;
+  private final int defaultPageSize;
+  private final int maxPageSize;
+
+  public OrderQueryService(OrderRepository orders,
+                           @Value("${order.query.default-page-size:50}") int defaultPageSize,
+                           @Value("${order.query.max-page-size:500}") int maxPageSize) {
+    this.orders = orders;
+    this.defaultPageSize = defaultPageSize;
+    this.maxPageSize = maxPageSize;
+  }
+
+  /**
+   * Order headers created after {@code after}, oldest first.
+   *
+   * @param status only orders in this status; null for all
+   * @param after {@link OrderPageDto#next()} of the previous page; null for the first page
+   * @param size page size; null for the default, capped at the maximum
+   * @throws InvalidCursorException if {@code after} is not a cursor issued by this service
+   */
+  @Transactional(readOnly = true)
+  public OrderPageDto page(OrderStatus status, String after, Integer size) {
+    Cursor cursor = after == null || after.isBlank() ? START : decode(after);
+    int limit = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+    List<OrderSummary> page = status == null
+        ? orders.findPage(cursor.createdAt(), cursor.id(), Limit.of(limit))
+        : orders.findPageByStatus(status, cursor.createdAt(), cursor.id(), Limit.of(limit));
+
+    List<OrderSummaryDto> dtos = page.stream().map(OrderQueryService::toDto).toList();
+    String next = null;
+    if (page.size() == limit) {
+      OrderSummary last = page.get(page.size() - 1);
+      next = encode(new Cursor(last.createdAt(), last.id()));
+    }
+    return new OrderPageDto(dtos, next);
+  }
+
+  /** The order with its items. */
+  @Transactional(readOnly = true)
+  public OrderDetailsDto get(String orderId) {
+    Order order = orders.findWithItemsById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
+    List<OrderItemDto> items = order.getItems().stream()
+        .map(i -> new OrderItemDto(i.getSku(), i.getQuantity(), i.getPriceCents()))
+        .toList();
+    return new OrderDetailsDto(order.getId(), order.getStatus().name(), order.getTotalAmountCents(),
+        order.getCurrency(), order.getPaymentTransactionId(), order.getCreatedAt(), items);
+  }
+
+  private static OrderSummaryDto toDto(OrderSummary o) {
+    return new OrderSummaryDto(o.id(), o.status().name(), o.totalAmountCents(), o.currency(),
+        o.paymentTransactionId(), o.createdAt());
+  }
+
+  private static String encode(Cursor cursor) {
+    String raw = cursor.createdAt() + "|" + cursor.id();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static Cursor decode(String after) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+      int sep = raw.indexOf('|');
+      if (sep < 0) {
+        throw new InvalidCursorException(after);
+      }
+      return new Cursor(Instant.parse(raw.substring(0, sep)), raw.substring(sep + 1));
+    } catch (IllegalArgumentException | DateTimeParseException ex) {
+      throw new InvalidCursorException(after);
+    }
+  }
+}
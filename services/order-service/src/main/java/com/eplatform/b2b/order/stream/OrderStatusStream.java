@@ -0,0 +1,191 @@
+package com.eplatform.b2b.order.stream;
+
+import com.eplatform.b2b.order.domain.OrderStatus;
+import com.eplatform.b2b.order.exception.OrderNotFoundException;
+import com.eplatform.b2b.order.repo.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes order status transitions to server-sent-event subscribers. Connections are
+ * async servlet responses, so an idle subscriber holds no thread; sends run on virtual
+ * threads so a slow client never stalls the Kafka listener that applied the change.
+ *
+ * <p>The event id is the status itself. Statuses only move forward, so a reconnecting
+ * client's {@code Last-Event-ID} says exactly what it has seen: it is sent the current
+ * status only if that differs. An open status is read from the database on every
+ * (re)subscribe, since another instance may have moved the order on; only final
+ * statuses of recently active orders are answered from memory, as they cannot change.
+ *
+ * <p>Transitions are pushed by the instance that applied them; a subscriber connected
+ * elsewhere sees the change on its next reconnect.
+ */
+@Slf4j
+@Component
+public class OrderStatusStream {
+
+  private static final String EVENT_NAME = "status";
+
+  private final OrderRepository orders;
+  private final long timeoutMs;
+  private final long reconnectMs;
+  private final Map<String, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+  private final Map<String, OrderStatus> recent;
+  private final AtomicInteger connections = new AtomicInteger();
+  private final ExecutorService sends = Executors.newVirtualThreadPerTaskExecutor();
+
+  public OrderStatusStream(OrderRepository orders, MeterRegistry meterRegistry,
+                           @Value("${order.stream.timeout-ms:300000}") long timeoutMs,
+                           @Value("${order.stream.reconnect-ms:3000}") long reconnectMs,
+                           @Value("${order.stream.recent-cache-size:100000}") int cacheSize) {
+    this.orders = orders;
+    this.timeoutMs = timeoutMs;
+    this.reconnectMs = reconnectMs;
+    this.recent = new LinkedHashMap<>(1024, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, OrderStatus> eldest) {
+        return size() > cacheSize;
+      }
+    };
+    Gauge.builder("orders.stream.subscribers", connections, AtomicInteger::get).register(meterRegistry);
+  }
+
+  /**
+   * Subscribes to one order's status. The current status is sent first unless it equals
+   * {@code lastEventId}; the stream completes once the order reaches PAID or FAILED.
+   *
+   * @throws OrderNotFoundException if the order does not exist
+   */
+  public SseEmitter subscribe(String orderId, String lastEventId) {
+    SseEmitter emitter = new SseEmitter(timeoutMs);
+    // Registered before the current status is read, so no transition slips in between
+    subscribers.computeIfAbsent(orderId, id -> new CopyOnWriteArraySet<>()).add(emitter);
+    connections.incrementAndGet();
+    emitter.onCompletion(() -> unsubscribe(orderId, emitter));
+    emitter.onTimeout(() -> unsubscribe(orderId, emitter));
+    emitter.onError(ex -> unsubscribe(orderId, emitter));
+
+    OrderStatus current;
+    try {
+      current = currentStatus(orderId);
+    } catch (RuntimeException ex) {
+      unsubscribe(orderId, emitter);
+      throw ex;
+    }
+
+    if (!current.name().equals(lastEventId)) {
+      send(emitter, current);
+    } else if (isFinal(current)) {
+      emitter.complete();
+    }
+    return emitter;
+  }
+
+  /**
+   * Records a transition and pushes it to the order's subscribers once the current
+   * transaction commits; without a transaction it is pushed right away.
+   */
+  public void statusChanged(String orderId, OrderStatus status) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          push(orderId, status);
+        }
+      });
+    } else {
+      push(orderId, status);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    subscribers.values().forEach(set -> set.forEach(SseEmitter::complete));
+    sends.close();
+  }
+
+  private void push(String orderId, OrderStatus status) {
+    synchronized (recent) {
+      recent.merge(orderId, status, OrderStatusStream::newer);
+    }
+    Set<SseEmitter> emitters = subscribers.get(orderId);
+    if (emitters == null) {
+      return;
+    }
+    for (SseEmitter emitter : emitters) {
+      // Sends may run out of order; each sends whatever is newest by then
+      sends.execute(() -> send(emitter, latest(orderId, status)));
+    }
+  }
+
+  private OrderStatus currentStatus(String orderId) {
+    synchronized (recent) {
+      OrderStatus cached = recent.get(orderId);
+      if (cached != null && isFinal(cached)) {
+        return cached;
+      }
+    }
+    OrderStatus status = orders.findStatusById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
+    synchronized (recent) {
+      // A transition pushed while we were reading may be newer than what we read
+      return recent.merge(orderId, status, OrderStatusStream::newer);
+    }
+  }
+
+  private OrderStatus latest(String orderId, OrderStatus fallback) {
+    synchronized (recent) {
+      return recent.getOrDefault(orderId, fallback);
+    }
+  }
+
+  private void send(SseEmitter emitter, OrderStatus status) {
+    try {
+      emitter.send(SseEmitter.event()
+          .id(status.name())
+          .name(EVENT_NAME)
+          .data(status.name())
+          .reconnectTime(reconnectMs));
+      if (isFinal(status)) {
+        emitter.complete();
+      }
+    } catch (IOException | IllegalStateException ex) {
+      // Client went away or the emitter already completed
+      log.debug("Dropping status subscriber: {}", ex.getMessage());
+      emitter.completeWithError(ex);
+    }
+  }
+
+  private void unsubscribe(String orderId, SseEmitter emitter) {
+    subscribers.computeIfPresent(orderId, (id, set) -> {
+      if (set.remove(emitter)) {
+        connections.decrementAndGet();
+      }
+      return set.isEmpty() ? null : set;
+    });
+  }
+
+  private static boolean isFinal(OrderStatus status) {
+    return !OrderStatus.OPEN.contains(status);
+  }
+
+  /** Statuses only move forward, and they are declared in that order. */
+  private static OrderStatus newer(OrderStatus a, OrderStatus b) {
+    return a.ordinal() >= b.ordinal() ? a : b;
+  }
+}
@@ -1,23 +1,70 @@
 package com.eplatform.b2b.order.web;
 
+import com.eplatform.b2b.common.dto.OrderDetailsDto;
+import com.eplatform.b2b.common.dto.OrderPageDto;
 import com.eplatform.b2b.common.dto.OrderResponseDto;
 import com.eplatform.b2b.common.dto.PlaceOrderRequestDto;
+import com.eplatform.b2b.order.domain.OrderStatus;
+import com.eplatform.b2b.order.service.BulkOrderService;
 import com.eplatform.b2b.order.service.OrderPlacementService;
+import com.eplatform.b2b.order.service.OrderQueryService;
+import com.eplatform.b2b.order.stream.OrderStatusStream;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/orders")
 public class OrderController {
 
+  private static final String NDJSON = "application/x-ndjson";
+
   private final OrderPlacementService service;
+  private final BulkOrderService bulkOrders;
+  private final OrderQueryService queries;
+  private final OrderStatusStream statusStream;
 
-  public OrderController(OrderPlacementService service) {
+  public OrderController(OrderPlacementService service, BulkOrderService bulkOrders, OrderQueryService queries,
+                         OrderStatusStream statusStream) {
     this.service = service;
+    this.bulkOrders = bulkOrders;
+    this.queries = queries;
+    this.statusStream = statusStream;
+  }
+
+  /** Order headers, oldest first; follow {@code next} as {@code after} for the following page. */
+  @GetMapping
+  public ResponseEntity<OrderPageDto> list(@RequestParam(required = false) OrderStatus status,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(required = false) Integer size) {
+    return ResponseEntity.ok(queries.page(status, after, size));
+  }
+
+  @GetMapping("/{orderId}")
+  public ResponseEntity<OrderDetailsDto> get(@PathVariable String orderId) {
+    return ResponseEntity.ok(queries.get(orderId));
+  }
+
+  /**
+   * Server-sent events with the order's status, pushed as it changes, until it is PAID or
+   * FAILED. Browsers resend the last status they saw as Last-Event-ID on reconnect.
+   */
+  @GetMapping(value = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter events(@PathVariable String orderId,
+                           @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+    return statusStream.subscribe(orderId, lastEventId);
   }
 
   @PostMapping
@@ -29,4 +76,14 @@ public class OrderController {
   public ResponseEntity<OrderResponseDto> placeAsync(@Valid @RequestBody PlaceOrderRequestDto request) {
     return ResponseEntity.accepted().body(service.placeOrderAsync(request));
   }
+
+  /**
+   * Places one order per NDJSON line of the request body. Results are streamed back as
+   * NDJSON, one line per request line, while the upload is still being read.
+   */
+  @PostMapping(value = "/bulk", consumes = NDJSON, produces = NDJSON)
+  public void placeBulk(InputStream body, HttpServletResponse response) throws IOException {
+    response.setContentType(NDJSON);
+    bulkOrders.placeAll(body, response.getOutputStream());
+  }
 }
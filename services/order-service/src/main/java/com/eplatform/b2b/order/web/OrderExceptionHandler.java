@@ -0,0 +1,33 @@
+package com.eplatform.b2b.order.web;
+
+import com.eplatform.b2b.common.dto.ErrorResponse;
+import com.eplatform.b2b.order.exception.InvalidCursorException;
+import com.eplatform.b2b.order.exception.OrderNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.OffsetDateTime;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+@RestControllerAdvice
+public class OrderExceptionHandler {
+
+  @ExceptionHandler(OrderNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleNotFound(OrderNotFoundException ex, HttpServletRequest request) {
+    return error(HttpStatus.NOT_FOUND, "ORDER_NOT_FOUND", ex.getMessage(), request);
+  }
+
+  /** Unknown status values and cursors that were not issued by this service. */
+  @ExceptionHandler({InvalidCursorException.class, MethodArgumentTypeMismatchException.class})
+  public ResponseEntity<ErrorResponse> handleBadQuery(RuntimeException ex, HttpServletRequest request) {
+    return error(HttpStatus.BAD_REQUEST, "INVALID_QUERY", ex.getMessage(), request);
+  }
+
+  private static ResponseEntity<ErrorResponse> error(HttpStatus status, String code, String message,
+                                                     HttpServletRequest request) {
+    return ResponseEntity.status(status)
+        .body(new ErrorResponse(code, message, OffsetDateTime.now(), request.getRequestURI()));
+  }
+}
@@ -0,0 +1,125 @@
+package com.eplatform.b2b.order.unit;
+
+import com.eplatform.b2b.common.dto.BulkOrderResultDto;
+import com.eplatform.b2b.order.domain.Order;
+import com.eplatform.b2b.order.messaging.OrderEventsProducer;
+import com.eplatform.b2b.order.repo.OrderRepository;
+import com.eplatform.b2b.order.saga.OrderSagaOrchestrator;
+import com.eplatform.b2b.order.service.BulkOrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BulkOrderServiceTest {
+
+    private static final String VALID = "{\"items\":[{\"sku\":\"SKU-A\",\"quantity\":2,\"priceCents\":500}],\"currency\":\"USD\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OrderRepository orders;
+    private OrderEventsProducer events;
+    private TransactionTemplate transactionTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        orders = mock(OrderRepository.class);
+        events = mock(OrderEventsProducer.class);
+        meterRegistry = new SimpleMeterRegistry();
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+            inv.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        AtomicInteger ids = new AtomicInteger();
+        when(orders.save(any(Order.class))).thenAnswer(inv -> {
+            Order order = inv.getArgument(0);
+            ReflectionTestUtils.setField(order, "id", "ORDER-" + ids.incrementAndGet());
+            return order;
+        });
+    }
+
+    @Test
+    void placeAll_ShouldPlaceValidLinesAndRejectTheRest() throws Exception {
+        // Given
+        String upload = VALID + "\n{not json\n\n{\"items\":[],\"currency\":\"USD\"}\r\n" + VALID;
+
+        // When
+        List<BulkOrderResultDto> results = placeAll(service(500, 1024), upload);
+
+        // Then - the blank line keeps its number but gets no result
+        assertThat(results).extracting(BulkOrderResultDto::line).containsExactly(1L, 2L, 4L, 5L);
+        assertThat(results).extracting(BulkOrderResultDto::status)
+            .containsExactly("CREATED", "REJECTED", "REJECTED", "CREATED");
+        assertThat(results.get(1).error()).startsWith("Malformed JSON");
+        assertThat(results.get(2).error()).contains("items");
+        verify(events, times(2)).publishOrderPlaced(anyString(), any(), eq(1000L));
+    }
+
+    @Test
+    void placeAll_ShouldRejectLinesOverTheCap() throws Exception {
+        // Given - the second line is far longer than the cap
+        String longLine = "{\"currency\":\"" + "X".repeat(10_000) + "\"}";
+        String upload = VALID + "\n" + longLine + "\n" + VALID + "\n";
+
+        // When
+        List<BulkOrderResultDto> results = placeAll(service(500, 256), upload);
+
+        // Then
+        assertThat(results).extracting(BulkOrderResultDto::status).containsExactly("CREATED", "REJECTED", "CREATED");
+        assertThat(results.get(1).error()).isEqualTo("Line longer than 256 characters");
+        assertThat(results.get(2).line()).isEqualTo(3L);
+    }
+
+    @Test
+    void placeAll_ShouldWriteOneTransactionPerChunk() throws Exception {
+        // Given
+        String upload = String.join("\n", VALID, VALID, VALID);
+
+        // When
+        List<BulkOrderResultDto> results = placeAll(service(2, 1024), upload);
+
+        // Then
+        assertThat(results).hasSize(3);
+        verify(transactionTemplate, times(2)).execute(any());
+        assertThat(meterRegistry.counter("orders.bulk.lines", "status", "CREATED").count()).isEqualTo(3);
+    }
+
+    @Test
+    void placeAll_ShouldReportChunkAsFailed_WhenItCannotBeWritten() throws Exception {
+        // Given
+        when(orders.save(any(Order.class))).thenThrow(new IllegalStateException("connection lost"));
+
+        // When
+        List<BulkOrderResultDto> results = placeAll(service(500, 1024), VALID + "\n{not json");
+
+        // Then - rejected lines keep their own reason
+        assertThat(results).extracting(BulkOrderResultDto::status).containsExactly("FAILED", "REJECTED");
+        assertThat(results.get(0).error()).contains("connection lost");
+    }
+
+    private BulkOrderService service(int chunkSize, int maxLineChars) {
+        return new BulkOrderService(objectMapper, Validation.buildDefaultValidatorFactory().getValidator(), orders,
+            events, mock(OrderSagaOrchestrator.class), transactionTemplate, meterRegistry, chunkSize, maxLineChars);
+    }
+
+    private List<BulkOrderResultDto> placeAll(BulkOrderService service, String upload) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.placeAll(new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)), out);
+        return objectMapper.readerFor(BulkOrderResultDto.class)
+            .<BulkOrderResultDto>readValues(out.toByteArray())
+            .readAll();
+    }
+}
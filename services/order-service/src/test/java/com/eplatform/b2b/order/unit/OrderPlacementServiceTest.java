@@ -1,96 +1,217 @@
-// package com.eplatform.b2b.order.unit;
-
-// import com.eplatform.b2b.common.dto.OrderItemDto;
-// import com.eplatform.b2b.common.dto.OrderResponseDto;
-// import com.eplatform.b2b.common.dto.PlaceOrderRequestDto;
-// import com.eplatform.b2b.order.domain.Order;
-// import com.eplatform.b2b.order.domain.OrderStatus;
-// import com.eplatform.b2b.order.repo.OrderRepository;
-// import com.eplatform.b2b.order.service.OrderPlacementService;
-// import org.junit.jupiter.api.BeforeEach;
-// import org.junit.jupiter.api.Test;
-// import org.junit.jupiter.api.extension.ExtendWith;
-// import org.mockito.InjectMocks;
-// import org.mockito.Mock;
-// import org.mockito.junit.jupiter.MockitoExtension;
-
-// import java.math.BigDecimal;
-// import java.util.List;
-
-// import static org.assertj.core.api.Assertions.*;
-// import static org.mockito.ArgumentMatchers.*;
-// import static org.mockito.Mockito.*;
-
-// @ExtendWith(MockitoExtension.class)
-// class OrderPlacementServiceTest {
-
-//     @Mock
-//     private OrderRepository orderRepository;
-
-//     @Mock
-//     private org.springframework.kafka.core.KafkaTemplate<String, Object> kafkaTemplate;
-
-//     @InjectMocks
-//     private OrderPlacementService orderPlacementService;
-
-//     private PlaceOrderRequestDto validRequest;
-
-//     @BeforeEach
-//     void setUp() {
-//         List<OrderItemDto> items = List.of(
-//             new OrderItemDto("PRODUCT-1", 2, 1000L),
-//             new OrderItemDto("PRODUCT-2", 1, 2000L)
-//         );
-//         validRequest = new PlaceOrderRequestDto(items, "USD");
-//     }
-
-//     @Test
-//     void placeOrder_ShouldSucceed_WithValidRequest() {
-//         // Given
-//         Order savedOrder = new Order();
-//         savedOrder.setId(1L);
-//         savedOrder.setOrderNumber("ORD-2024-001");
-//         savedOrder.setStatus(OrderStatus.PENDING);
-//         savedOrder.setTotalAmount(new BigDecimal("40.00"));
-
-//         when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
-
-//         // When
-//         OrderResponseDto response = orderPlacementService.placeOrder(validRequest);
-
-//         // Then
-//         assertThat(response).isNotNull();
-//         assertThat(response.orderNumber()).isEqualTo("ORD-2024-001");
-//         assertThat(response.status()).isEqualTo(OrderStatus.PENDING);
-
-//         verify(orderRepository).save(any(Order.class));
-//         verify(kafkaTemplate).send(eq("order.placed"), anyString(), any());
-//     }
-
-//     @Test
-//     void placeOrder_ShouldCalculateTotalCorrectly() {
-//         // When
-//         OrderResponseDto response = orderPlacementService.placeOrder(validRequest);
-
-//         // Then - (2 * 10.00) + (1 * 20.00) = 40.00
-//         assertThat(response.totalAmount()).isEqualTo(new BigDecimal("40.00"));
-//     }
-
-//     @Test
-//     void placeOrderAsync_ShouldReturnAccepted() {
-//         // Given
-//         Order savedOrder = new Order();
-//         savedOrder.setId(1L);
-//         savedOrder.setOrderNumber("ORD-2024-002");
-
-//         when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
-
-//         // When
-//         OrderResponseDto response = orderPlacementService.placeOrderAsync(validRequest);
-
-//         // Then
-//         assertThat(response).isNotNull();
-//         assertThat(response.orderNumber()).isEqualTo("ORD-2024-002");
-//         verify(kafkaTemplate).send(eq("order.placed"), anyString(), any());
-//     }
-// }
+package com.eplatform.b2b.order.unit;
+
+import com.eplatform.b2b.common.dto.OrderItemDto;
+import com.eplatform.b2b.common.dto.OrderResponseDto;
+import com.eplatform.b2b.common.dto.PaymentChargeRequestDto;
+import com.eplatform.b2b.common.dto.PaymentChargeResponseDto;
+import com.eplatform.b2b.common.dto.PlaceOrderRequestDto;
+import com.eplatform.b2b.common.dto.ReserveRequestDto;
+import com.eplatform.b2b.common.dto.ReserveResponseDto;
+import com.eplatform.b2b.order.client.InventoryClient;
+import com.eplatform.b2b.order.client.PaymentClient;
+import com.eplatform.b2b.order.domain.Order;
+import com.eplatform.b2b.order.domain.OrderStatus;
+import com.eplatform.b2b.order.messaging.OrderEventsProducer;
+import com.eplatform.b2b.order.repo.OrderRepository;
+import com.eplatform.b2b.order.saga.OrderSagaOrchestrator;
+import com.eplatform.b2b.order.service.OrderPlacementService;
+import com.eplatform.b2b.order.stream.OrderStatusStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OrderPlacementServiceTest {
+
+    private static final String ORDER_ID = "ORDER-1";
+
+    private OrderRepository orders;
+    private InventoryClient inventoryClient;
+    private PaymentClient paymentClient;
+    private SimpleMeterRegistry meterRegistry;
+    private PlaceOrderRequestDto request;
+    private OrderPlacementService service;
+
+    @BeforeEach
+    void setUp() {
+        orders = mock(OrderRepository.class);
+        inventoryClient = mock(InventoryClient.class);
+        paymentClient = mock(PaymentClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(orders.save(any(Order.class))).thenAnswer(inv -> {
+            Order order = inv.getArgument(0);
+            ReflectionTestUtils.setField(order, "id", ORDER_ID);
+            return order;
+        });
+        when(orders.markPaid(anyString(), any(), anyString())).thenReturn(1);
+        when(orders.transitionStatus(anyString(), any(), any())).thenReturn(1);
+        when(inventoryClient.reserve(any(ReserveRequestDto.class))).thenReturn(new ReserveResponseDto(true, List.of()));
+        when(paymentClient.authorize(any(PaymentChargeRequestDto.class)))
+            .thenReturn(new PaymentChargeResponseDto(true, "AUTH-1", "authorized"));
+
+        request = new PlaceOrderRequestDto(List.of(new OrderItemDto("SKU-A", 2, 1000L)), "USD");
+        service = newService(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void placeOrder_ShouldMarkPaid_WhenCaptureSucceeds() {
+        // Given
+        when(paymentClient.capture(ORDER_ID)).thenReturn(new PaymentChargeResponseDto(true, "TX-1", "captured"));
+
+        // When
+        OrderResponseDto response = service.placeOrder(request);
+
+        // Then
+        assertThat(response.status()).isEqualTo("PAID");
+        assertThat(response.paymentTransactionId()).isEqualTo("TX-1");
+        assertThat(response.totalAmountCents()).isEqualTo(2000L);
+        verify(orders).markPaid(ORDER_ID, OrderStatus.OPEN, "TX-1");
+        verify(inventoryClient, never()).release(anyString());
+    }
+
+    @Test
+    void placeOrder_ShouldRetryCapture_WhenOutcomeUnknown() {
+        // Given - the first capture times out on the wire, the retry gets the stored result
+        when(paymentClient.capture(ORDER_ID))
+            .thenThrow(new IllegalStateException("read timed out"))
+            .thenReturn(new PaymentChargeResponseDto(true, "TX-1", "captured"));
+
+        // When
+        OrderResponseDto response = service.placeOrder(request);
+
+        // Then
+        assertThat(response.status()).isEqualTo("PAID");
+        verify(paymentClient, times(2)).capture(ORDER_ID);
+        assertThat(meterRegistry.counter("orders.placement.retries", "step", "capture").count()).isEqualTo(1);
+    }
+
+    @Test
+    void placeOrder_ShouldVoidAndRelease_WhenCaptureOutcomeStaysUnknown() {
+        // Given
+        when(paymentClient.capture(ORDER_ID)).thenThrow(new IllegalStateException("read timed out"));
+        when(paymentClient.voidAuthorization(ORDER_ID)).thenReturn(new PaymentChargeResponseDto(true, "AUTH-1", "voided"));
+
+        // When
+        OrderResponseDto response = service.placeOrder(request);
+
+        // Then - the void got through first, so no money was taken
+        assertThat(response.status()).isEqualTo("FAILED");
+        verify(paymentClient, times(3)).capture(ORDER_ID);
+        verify(paymentClient).voidAuthorization(ORDER_ID);
+        verify(inventoryClient).release(ORDER_ID);
+        verify(orders).transitionStatus(ORDER_ID, OrderStatus.OPEN, OrderStatus.FAILED);
+        assertThat(meterRegistry.counter("orders.placement.unresolved", "step", "capture").count()).isEqualTo(1);
+    }
+
+    @Test
+    void placeOrder_ShouldMarkPaid_WhenVoidFindsCaptureWentThrough() {
+        // Given
+        when(paymentClient.capture(ORDER_ID)).thenThrow(new IllegalStateException("read timed out"));
+        when(paymentClient.voidAuthorization(ORDER_ID)).thenReturn(new PaymentChargeResponseDto(false, "AUTH-1", "captured"));
+
+        // When
+        OrderResponseDto response = service.placeOrder(request);
+
+        // Then
+        assertThat(response.status()).isEqualTo("PAID");
+        assertThat(response.paymentTransactionId()).isEqualTo("AUTH-1");
+        verify(orders).markPaid(ORDER_ID, OrderStatus.OPEN, "AUTH-1");
+        verify(inventoryClient, never()).release(anyString());
+    }
+
+    @Test
+    void placeOrder_ShouldCompensate_WhenCaptureDeclined() {
+        // Given
+        when(paymentClient.capture(ORDER_ID)).thenReturn(new PaymentChargeResponseDto(false, null, "expired"));
+        when(paymentClient.voidAuthorization(ORDER_ID)).thenReturn(new PaymentChargeResponseDto(true, "AUTH-1", "voided"));
+
+        // When
+        OrderResponseDto response = service.placeOrder(request);
+
+        // Then
+        assertThat(response.status()).isEqualTo("FAILED");
+        assertThat(response.message()).isEqualTo("expired");
+        verify(paymentClient).capture(ORDER_ID);
+        verify(inventoryClient).release(ORDER_ID);
+        verify(paymentClient).voidAuthorization(ORDER_ID);
+    }
+
+    @Test
+    void placeOrder_ShouldVoidAndRelease_WhenAuthorizationOutcomeUnknown() {
+        // Given - a void before capture is safe: it also blocks a late authorization
+        when(paymentClient.authorize(any(PaymentChargeRequestDto.class)))
+            .thenThrow(new IllegalStateException("connection reset"));
+        when(paymentClient.voidAuthorization(ORDER_ID)).thenReturn(new PaymentChargeResponseDto(true, null, "voided"));
+
+        // When
+        OrderResponseDto response = service.placeOrder(request);
+
+        // Then
+        assertThat(response.status()).isEqualTo("FAILED");
+        verify(paymentClient, never()).capture(anyString());
+        verify(inventoryClient).release(ORDER_ID);
+        verify(paymentClient).voidAuthorization(ORDER_ID);
+    }
+
+    @Test
+    void placeOrder_ShouldVoidAndRelease_WhenChargeOutcomeStaysUnknown() {
+        // Given
+        service.shutdown();
+        service = newService(false);
+        when(paymentClient.charge(any(PaymentChargeRequestDto.class)))
+            .thenThrow(new IllegalStateException("read timed out"));
+        when(paymentClient.voidAuthorization(ORDER_ID)).thenThrow(new IllegalStateException("read timed out"));
+
+        // When
+        OrderResponseDto response = service.placeOrder(request);
+
+        // Then - a void without an answer is a failed compensation, the order still fails
+        assertThat(response.status()).isEqualTo("FAILED");
+        verify(paymentClient, times(3)).charge(any(PaymentChargeRequestDto.class));
+        verify(paymentClient, times(3)).voidAuthorization(ORDER_ID);
+        verify(inventoryClient).release(ORDER_ID);
+        assertThat(meterRegistry.counter("orders.placement.unresolved", "step", "charge").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("orders.placement.compensations", "action", "void", "outcome", "failed").count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void placeOrder_ShouldReleaseStock_WhenChargeDeclined() {
+        // Given
+        service.shutdown();
+        service = newService(false);
+        when(paymentClient.charge(any(PaymentChargeRequestDto.class)))
+            .thenReturn(new PaymentChargeResponseDto(false, null, "insufficient_funds"));
+
+        // When
+        OrderResponseDto response = service.placeOrder(request);
+
+        // Then
+        assertThat(response.status()).isEqualTo("FAILED");
+        verify(inventoryClient).release(ORDER_ID);
+        verify(orders).transitionStatus(ORDER_ID, OrderStatus.OPEN, OrderStatus.FAILED);
+    }
+
+    private OrderPlacementService newService(boolean preAuthorize) {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+            inv.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        return new OrderPlacementService(orders, inventoryClient, paymentClient, mock(OrderEventsProducer.class),
+            mock(OrderSagaOrchestrator.class), transactionTemplate, mock(OrderStatusStream.class), meterRegistry,
+            preAuthorize, 1000, 2);
+    }
+}
@@ -0,0 +1,130 @@
+package com.eplatform.b2b.order.unit;
+
+import com.eplatform.b2b.order.domain.Order;
+import com.eplatform.b2b.order.domain.OrderStatus;
+import com.eplatform.b2b.order.messaging.OrderEventsProducer;
+import com.eplatform.b2b.order.repo.OrderRepository;
+import com.eplatform.b2b.order.saga.OrderSaga;
+import com.eplatform.b2b.order.saga.OrderSagaOrchestrator;
+import com.eplatform.b2b.order.saga.OrderSagaRepository;
+import com.eplatform.b2b.order.saga.SagaDeadline;
+import com.eplatform.b2b.order.saga.SagaStep;
+import com.eplatform.b2b.order.stream.OrderStatusStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OrderSagaOrchestratorTest {
+
+    private static final String ORDER_ID = "ORDER-1";
+
+    private OrderSagaRepository sagas;
+    private OrderRepository orders;
+    private OrderEventsProducer events;
+    private TransactionTemplate transactionTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderSagaOrchestrator orchestrator;
+
+    @BeforeEach
+    void setUp() {
+        sagas = mock(OrderSagaRepository.class);
+        orders = mock(OrderRepository.class);
+        events = mock(OrderEventsProducer.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        Instant now = Instant.now();
+        when(sagas.findById(ORDER_ID)).thenReturn(Optional.of(new OrderSaga(ORDER_ID, now, now)));
+        orchestrator = new OrderSagaOrchestrator(sagas, orders, events, mock(OrderStatusStream.class),
+            transactionTemplate, meterRegistry, 30_000, 60_000, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orchestrator.shutdown();
+    }
+
+    @Test
+    void onPaymentSucceeded_ShouldCompleteSagaAndMarkPaid() {
+        // Given
+        when(sagas.finish(eq(ORDER_ID), eq(SagaStep.OPEN), eq(SagaStep.COMPLETED), any())).thenReturn(1);
+        when(orders.markPaid(ORDER_ID, OrderStatus.OPEN, "TX-1")).thenReturn(1);
+
+        // When
+        orchestrator.onPaymentSucceeded(ORDER_ID, "TX-1");
+
+        // Then
+        verify(orders).markPaid(ORDER_ID, OrderStatus.OPEN, "TX-1");
+        verify(events, never()).publishRefundRequested(anyString(), anyString(), anyLong(), anyString());
+    }
+
+    @Test
+    void onPaymentSucceeded_ShouldRequestRefund_WhenOrderAlreadyFailed() {
+        // Given - the saga timed out and failed the order before the charge came back
+        when(sagas.finish(eq(ORDER_ID), eq(SagaStep.OPEN), eq(SagaStep.COMPLETED), any())).thenReturn(0);
+        when(orders.findById(ORDER_ID)).thenReturn(Optional.of(order(OrderStatus.FAILED)));
+
+        // When
+        orchestrator.onPaymentSucceeded(ORDER_ID, "TX-1");
+
+        // Then
+        verify(events).publishRefundRequested(ORDER_ID, "TX-1", 2000L, "LATE_PAYMENT");
+        assertThat(meterRegistry.counter("orders.saga.compensations", "reason", "LATE_PAYMENT").count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void onPaymentSucceeded_ShouldNotRefund_WhenOrderAlreadyPaid() {
+        // Given - a second delivery of the charge that completed the saga
+        when(sagas.finish(eq(ORDER_ID), eq(SagaStep.OPEN), eq(SagaStep.COMPLETED), any())).thenReturn(0);
+        when(orders.findById(ORDER_ID)).thenReturn(Optional.of(order(OrderStatus.PAID)));
+
+        // When
+        orchestrator.onPaymentSucceeded(ORDER_ID, "TX-1");
+
+        // Then
+        verify(events, never()).publishRefundRequested(anyString(), anyString(), anyLong(), anyString());
+    }
+
+    @Test
+    void rebuildTimers_ShouldRetryTimeout_WhenItFails() {
+        // Given - the first attempt loses its database connection
+        when(sagas.findDeadlines(eq(SagaStep.OPEN), eq(""), any()))
+            .thenReturn(List.of(new SagaDeadline(ORDER_ID, SagaStep.AWAITING_PAYMENT, Instant.now())));
+        when(sagas.timeOut(eq(ORDER_ID), eq(SagaStep.AWAITING_PAYMENT), any())).thenReturn(1);
+        when(orders.transitionStatus(ORDER_ID, OrderStatus.OPEN, OrderStatus.FAILED)).thenReturn(1);
+        doThrow(new IllegalStateException("connection lost"))
+            .doAnswer(inv -> {
+                inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+                return null;
+            })
+            .when(transactionTemplate).executeWithoutResult(any());
+
+        // When
+        orchestrator.rebuildTimers();
+
+        // Then
+        verify(events, timeout(5000)).publishOrderCancelled(ORDER_ID, "TIMEOUT_AWAITING_PAYMENT");
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    }
+
+    private static Order order(OrderStatus status) {
+        Order order = new Order();
+        ReflectionTestUtils.setField(order, "id", ORDER_ID);
+        order.setTotalAmountCents(2000L);
+        order.setStatus(status);
+        return order;
+    }
+}
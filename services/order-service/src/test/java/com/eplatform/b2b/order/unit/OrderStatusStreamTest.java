@@ -0,0 +1,58 @@
+package com.eplatform.b2b.order.unit;
+
+import com.eplatform.b2b.order.domain.OrderStatus;
+import com.eplatform.b2b.order.repo.OrderRepository;
+import com.eplatform.b2b.order.stream.OrderStatusStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+class OrderStatusStreamTest {
+
+    private OrderRepository orders;
+    private OrderStatusStream stream;
+
+    @BeforeEach
+    void setUp() {
+        orders = mock(OrderRepository.class);
+        stream = new OrderStatusStream(orders, new SimpleMeterRegistry(), 60_000, 3000, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void subscribe_ShouldReadOpenStatusFromDatabase_EvenWhenCached() {
+        // Given - this instance saw CREATED; another instance moved the order on since
+        stream.statusChanged("ORDER-1", OrderStatus.CREATED);
+        when(orders.findStatusById("ORDER-1"))
+            .thenReturn(Optional.of(OrderStatus.RESERVED), Optional.of(OrderStatus.PAID));
+
+        // When
+        stream.subscribe("ORDER-1", "CREATED");
+        stream.subscribe("ORDER-1", "RESERVED");
+        stream.subscribe("ORDER-1", "PAID");
+
+        // Then - the final status read on the second subscribe is kept
+        verify(orders, times(2)).findStatusById("ORDER-1");
+    }
+
+    @Test
+    void subscribe_ShouldAnswerFinalStatusFromMemory() {
+        // Given
+        stream.statusChanged("ORDER-1", OrderStatus.PAID);
+
+        // When
+        stream.subscribe("ORDER-1", null);
+
+        // Then
+        verify(orders, never()).findStatusById("ORDER-1");
+    }
+}
@@ -0,0 +1,84 @@
+package com.eplatform.b2b.order.unit;
+
+import com.eplatform.b2b.order.client.PaymentGrpcClient;
+import com.eplatform.b2b.payment.proto.AuthorizationRef;
+import com.eplatform.b2b.payment.proto.PaymentResult;
+import com.eplatform.b2b.payment.proto.PaymentServiceGrpc;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PaymentGrpcClientTest {
+
+    private final AtomicReference<Deadline> received = new AtomicReference<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private Server server;
+    private ManagedChannel channel;
+    private PaymentGrpcClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor()
+            .addService(new PaymentServiceGrpc.PaymentServiceImplBase() {
+                @Override
+                public void capture(AuthorizationRef request, StreamObserver<PaymentResult> responseObserver) {
+                    received.set(Context.current().getDeadline());
+                    responseObserver.onNext(PaymentResult.newBuilder().setSuccess(true).setTransactionId("TX-1").build());
+                    responseObserver.onCompleted();
+                }
+            })
+            .build()
+            .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        client = new PaymentGrpcClient(5_000);
+        ReflectionTestUtils.setField(client, "blockingStub", PaymentServiceGrpc.newBlockingStub(channel));
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void capture_ShouldSendConfiguredDeadline_WhenCallerHasNone() {
+        // When
+        client.capture("ORDER-1");
+
+        // Then
+        assertThat(received.get().timeRemaining(TimeUnit.MILLISECONDS)).isBetween(3_000L, 5_000L);
+    }
+
+    @Test
+    void capture_ShouldKeepCallersDeadline_WhenItIsSooner() throws Exception {
+        // Given
+        Context.CancellableContext caller = Context.current().withDeadlineAfter(500, TimeUnit.MILLISECONDS, scheduler);
+
+        // When
+        try {
+            caller.call(() -> client.capture("ORDER-1"));
+        } finally {
+            caller.cancel(null);
+        }
+
+        // Then
+        assertThat(received.get().timeRemaining(TimeUnit.MILLISECONDS)).isLessThanOrEqualTo(500L);
+    }
+}
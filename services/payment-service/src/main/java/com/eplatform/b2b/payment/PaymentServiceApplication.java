@@ -2,8 +2,10 @@ package com.eplatform.b2b.payment;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PaymentServiceApplication {
   public static void main(String[] args) {
     SpringApplication.run(PaymentServiceApplication.class, args);
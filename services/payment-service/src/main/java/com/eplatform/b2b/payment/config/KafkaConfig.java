@@ -1,9 +1,22 @@
 package com.eplatform.b2b.payment.config;
 
+import com.eplatform.b2b.common.messaging.EventPublisherConfiguration;
+import com.eplatform.b2b.common.messaging.ListenerRetryConfiguration;
+import com.eplatform.b2b.common.messaging.ListenerRetryTopics;
+import java.util.List;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.annotation.EnableKafka;
 
 @Configuration
 @EnableKafka
+@Import({EventPublisherConfiguration.class, ListenerRetryConfiguration.class})
 public class KafkaConfig {
+
+  @Bean
+  public ListenerRetryTopics listenerRetryTopics() {
+    return ListenerRetryTopics.of(
+        List.of("inventory.reserved", "inventory.rejected", "order.cancelled", "order.refund-requested"));
+  }
 }
@@ -0,0 +1,116 @@
+package com.eplatform.b2b.payment.gateway;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. CLOSED records the outcome of the last {@code windowSize}
+ * calls and opens once at least {@code minimumCalls} were recorded and the failure rate
+ * reaches the threshold. OPEN rejects calls for {@code openMs}, then HALF_OPEN lets
+ * {@code halfOpenCalls} trial calls through: all succeeding closes the circuit, any
+ * failure opens it again.
+ */
+public class CircuitBreaker {
+
+  public enum State { CLOSED, OPEN, HALF_OPEN }
+
+  private final double failureRateThreshold;
+  private final int minimumCalls;
+  private final long openMs;
+  private final int halfOpenCalls;
+  private final LongSupplier clock;
+
+  private final boolean[] window;
+  private int recorded;
+  private int next;
+  private int failures;
+
+  private State state = State.CLOSED;
+  private long openedAt;
+  private int trialsStarted;
+  private int trialsSucceeded;
+
+  public CircuitBreaker(double failureRateThreshold, int windowSize, int minimumCalls, long openMs,
+                        int halfOpenCalls, LongSupplier clock) {
+    this.failureRateThreshold = failureRateThreshold;
+    this.window = new boolean[windowSize];
+    this.minimumCalls = Math.min(minimumCalls, windowSize);
+    this.openMs = openMs;
+    this.halfOpenCalls = halfOpenCalls;
+    this.clock = clock;
+  }
+
+  /** Whether a call may go ahead; every permitted call must be followed by one of the record methods. */
+  public synchronized boolean tryAcquire() {
+    if (state == State.OPEN) {
+      if (clock.getAsLong() - openedAt < openMs) {
+        return false;
+      }
+      state = State.HALF_OPEN;
+      trialsStarted = 0;
+      trialsSucceeded = 0;
+    }
+    if (state == State.HALF_OPEN) {
+      if (trialsStarted >= halfOpenCalls) {
+        return false;
+      }
+      trialsStarted++;
+    }
+    return true;
+  }
+
+  public synchronized void recordSuccess() {
+    if (state == State.HALF_OPEN) {
+      if (++trialsSucceeded >= halfOpenCalls) {
+        close();
+      }
+      return;
+    }
+    record(false);
+  }
+
+  public synchronized void recordFailure() {
+    if (state == State.HALF_OPEN) {
+      open();
+      return;
+    }
+    record(true);
+    if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+      open();
+    }
+  }
+
+  public synchronized State state() {
+    return state;
+  }
+
+  private void record(boolean failure) {
+    if (state != State.CLOSED) {
+      // A call permitted before the circuit opened
+      return;
+    }
+    if (recorded == window.length) {
+      if (window[next]) {
+        failures--;
+      }
+    } else {
+      recorded++;
+    }
+    window[next] = failure;
+    if (failure) {
+      failures++;
+    }
+    next = (next + 1) % window.length;
+  }
+
+  private void open() {
+    state = State.OPEN;
+    openedAt = clock.getAsLong();
+  }
+
+  private void close() {
+    state = State.CLOSED;
+    recorded = 0;
+    next = 0;
+    failures = 0;
+  }
+}
@@ -0,0 +1,13 @@
+package com.eplatform.b2b.payment.gateway;
+
+/** The gateway call failed or timed out; whether it took effect is unknown. */
+public class GatewayException extends RuntimeException {
+
+  public GatewayException(String message) {
+    super(message);
+  }
+
+  public GatewayException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,8 @@
+package com.eplatform.b2b.payment.gateway;
+
+public record GatewayRequest(
+    String orderId,
+    long amountCents,
+    String currency,
+    String idempotencyKey
+) {}
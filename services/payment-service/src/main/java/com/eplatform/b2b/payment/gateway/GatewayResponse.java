@@ -0,0 +1,19 @@
+package com.eplatform.b2b.payment.gateway;
+
+/**
+ * @param approved false for a decline, with the gateway's reason
+ */
+public record GatewayResponse(
+    boolean approved,
+    String transactionId,
+    String declineReason
+) {
+
+  public static GatewayResponse approved(String transactionId) {
+    return new GatewayResponse(true, transactionId, null);
+  }
+
+  public static GatewayResponse declined(String reason) {
+    return new GatewayResponse(false, null, reason);
+  }
+}
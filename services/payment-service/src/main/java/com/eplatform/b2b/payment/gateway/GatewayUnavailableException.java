@@ -0,0 +1,12 @@
+package com.eplatform.b2b.payment.gateway;
+
+/**
+ * The call was not attempted: the circuit is open, the bulkhead is full, or another call
+ * for the same order is still running.
+ */
+public class GatewayUnavailableException extends GatewayException {
+
+  public GatewayUnavailableException(String message) {
+    super(message);
+  }
+}
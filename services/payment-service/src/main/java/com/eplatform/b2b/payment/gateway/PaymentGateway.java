@@ -0,0 +1,28 @@
+package com.eplatform.b2b.payment.gateway;
+
+/**
+ * A payment provider. Implementations are plain blocking clients; {@link PaymentGateways}
+ * wraps each one with a bulkhead, a timeout and a circuit breaker. Every call carries an
+ * idempotency key, so a call retried after a timeout is not applied twice.
+ *
+ * <p>A decline is a normal {@link GatewayResponse}; {@link GatewayException} means the
+ * outcome is unknown and the call may be retried.
+ */
+public interface PaymentGateway {
+
+  /** Name used in configuration ({@code payment.gateways.<name>.*}) and metrics. */
+  String name();
+
+  /** Authorizes and captures in one step. */
+  GatewayResponse charge(GatewayRequest request);
+
+  /** Holds the amount; {@link GatewayResponse#transactionId()} identifies the authorization. */
+  GatewayResponse authorize(GatewayRequest request);
+
+  GatewayResponse capture(String authorizationId, String idempotencyKey);
+
+  GatewayResponse voidAuthorization(String authorizationId, String idempotencyKey);
+
+  /** Returns {@code amountCents} of a charged or captured transaction. */
+  GatewayResponse refund(String transactionId, long amountCents, String idempotencyKey);
+}
@@ -0,0 +1,67 @@
+package com.eplatform.b2b.payment.gateway;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * The configured gateways, each wrapped in its own {@link ResilientPaymentGateway}, so
+ * one slow provider cannot take the threads or the circuit of another. Any
+ * {@link PaymentGateway} bean is picked up; settings come from
+ * {@code payment.gateways.<name>.*}.
+ */
+@Component
+public class PaymentGateways {
+
+  private final Map<String, ResilientPaymentGateway> byName = new LinkedHashMap<>();
+  private final String primary;
+  private final ExecutorService calls = Executors.newVirtualThreadPerTaskExecutor();
+
+  public PaymentGateways(List<PaymentGateway> gateways, Environment env, MeterRegistry meterRegistry,
+                         @Value("${payment.gateway.primary:simulator}") String primary) {
+    for (PaymentGateway gateway : gateways) {
+      String prefix = "payment.gateways." + gateway.name() + ".";
+      CircuitBreaker breaker = new CircuitBreaker(
+          env.getProperty(prefix + "circuit.failure-rate-threshold", Double.class, 0.5),
+          env.getProperty(prefix + "circuit.window-size", Integer.class, 50),
+          env.getProperty(prefix + "circuit.minimum-calls", Integer.class, 20),
+          env.getProperty(prefix + "circuit.open-ms", Long.class, 10_000L),
+          env.getProperty(prefix + "circuit.half-open-calls", Integer.class, 5),
+          System::currentTimeMillis);
+      byName.put(gateway.name(), new ResilientPaymentGateway(gateway,
+          env.getProperty(prefix + "max-concurrent", Integer.class, 100),
+          env.getProperty(prefix + "max-wait-ms", Long.class, 100L),
+          env.getProperty(prefix + "timeout-ms", Long.class, 2_000L),
+          breaker, calls, meterRegistry));
+    }
+    if (!byName.containsKey(primary)) {
+      throw new IllegalStateException("payment.gateway.primary=" + primary + " but gateways are " + byName.keySet());
+    }
+    this.primary = primary;
+  }
+
+  /** The gateway new payments go to. */
+  public PaymentGateway primary() {
+    return byName.get(primary);
+  }
+
+  public PaymentGateway get(String name) {
+    PaymentGateway gateway = byName.get(name);
+    if (gateway == null) {
+      throw new IllegalArgumentException("Unknown payment gateway " + name);
+    }
+    return gateway;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    calls.shutdownNow();
+  }
+}
@@ -0,0 +1,151 @@
+package com.eplatform.b2b.payment.gateway;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Guards one gateway. Each call runs on a virtual thread and the caller waits at most
+ * {@code timeoutMs} for it. The bulkhead caps the calls actually running against the
+ * gateway, including ones whose caller already gave up, so a slow gateway holds at most
+ * {@code maxConcurrent} threads. The circuit breaker opens on failures and timeouts;
+ * declines are answers, not failures. While it is open, or the bulkhead stays full for
+ * {@code maxWaitMs}, calls fail at once with {@link GatewayUnavailableException}.
+ */
+public class ResilientPaymentGateway implements PaymentGateway {
+
+  private final PaymentGateway delegate;
+  private final Semaphore bulkhead;
+  private final long maxWaitMs;
+  private final long timeoutMs;
+  private final CircuitBreaker breaker;
+  private final Executor calls;
+  private final MeterRegistry meterRegistry;
+
+  public ResilientPaymentGateway(PaymentGateway delegate, int maxConcurrent, long maxWaitMs, long timeoutMs,
+                                 CircuitBreaker breaker, Executor calls, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.bulkhead = new Semaphore(maxConcurrent);
+    this.maxWaitMs = maxWaitMs;
+    this.timeoutMs = timeoutMs;
+    this.breaker = breaker;
+    this.calls = calls;
+    this.meterRegistry = meterRegistry;
+    Gauge.builder("payments.gateway.in_flight", bulkhead, b -> maxConcurrent - b.availablePermits())
+        .tag("gateway", delegate.name())
+        .register(meterRegistry);
+    Gauge.builder("payments.gateway.circuit_state", breaker, b -> b.state().ordinal())
+        .tag("gateway", delegate.name())
+        .description("0 closed, 1 open, 2 half-open")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public String name() {
+    return delegate.name();
+  }
+
+  @Override
+  public GatewayResponse charge(GatewayRequest request) {
+    return call("charge", () -> delegate.charge(request));
+  }
+
+  @Override
+  public GatewayResponse authorize(GatewayRequest request) {
+    return call("authorize", () -> delegate.authorize(request));
+  }
+
+  @Override
+  public GatewayResponse capture(String authorizationId, String idempotencyKey) {
+    return call("capture", () -> delegate.capture(authorizationId, idempotencyKey));
+  }
+
+  @Override
+  public GatewayResponse voidAuthorization(String authorizationId, String idempotencyKey) {
+    return call("void", () -> delegate.voidAuthorization(authorizationId, idempotencyKey));
+  }
+
+  @Override
+  public GatewayResponse refund(String transactionId, long amountCents, String idempotencyKey) {
+    return call("refund", () -> delegate.refund(transactionId, amountCents, idempotencyKey));
+  }
+
+  public CircuitBreaker.State circuitState() {
+    return breaker.state();
+  }
+
+  private GatewayResponse call(String operation, Supplier<GatewayResponse> call) {
+    acquireBulkhead(operation);
+    if (!breaker.tryAcquire()) {
+      bulkhead.release();
+      throw rejected(operation, "circuit_open");
+    }
+    long start = System.nanoTime();
+    CompletableFuture<GatewayResponse> running;
+    try {
+      running = CompletableFuture.supplyAsync(call, calls);
+    } catch (RuntimeException ex) {
+      bulkhead.release();
+      breaker.recordFailure();
+      throw new GatewayException(name() + " " + operation + " could not be started", ex);
+    }
+    // The permit goes back when the call ends, not when the caller stops waiting. The
+    // future is never cancelled: that would complete it and free the permit while the
+    // call still runs
+    running.whenComplete((r, ex) -> bulkhead.release());
+    try {
+      GatewayResponse response = running.get(timeoutMs, TimeUnit.MILLISECONDS);
+      breaker.recordSuccess();
+      record(operation, response.approved() ? "approved" : "declined", start);
+      return response;
+    } catch (TimeoutException ex) {
+      breaker.recordFailure();
+      record(operation, "timeout", start);
+      throw new GatewayException(name() + " " + operation + " timed out after " + timeoutMs + " ms");
+    } catch (ExecutionException ex) {
+      breaker.recordFailure();
+      record(operation, "error", start);
+      if (ex.getCause() instanceof GatewayException gatewayException) {
+        throw gatewayException;
+      }
+      throw new GatewayException(name() + " " + operation + " failed", ex.getCause());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      breaker.recordFailure();
+      throw new GatewayException(name() + " " + operation + " interrupted", ex);
+    }
+  }
+
+  private void acquireBulkhead(String operation) {
+    try {
+      if (!bulkhead.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+        throw rejected(operation, "bulkhead_full");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw rejected(operation, "interrupted");
+    }
+  }
+
+  private GatewayUnavailableException rejected(String operation, String reason) {
+    meterRegistry.counter("payments.gateway.rejections", "gateway", name(), "reason", reason).increment();
+    return new GatewayUnavailableException(name() + " " + operation + " rejected: " + reason);
+  }
+
+  private void record(String operation, String outcome, long start) {
+    Timer.builder("payments.gateway.calls")
+        .tag("gateway", name())
+        .tag("operation", operation)
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+  }
+}
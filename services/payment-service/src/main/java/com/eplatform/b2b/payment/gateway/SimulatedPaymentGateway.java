@@ -0,0 +1,111 @@
+package com.eplatform.b2b.payment.gateway;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for a payment provider with configurable latency, decline and failure
+ * rates, for development and load tests. A share of calls is slow, to exercise timeouts
+ * and the circuit breaker. Answers are remembered per idempotency key like a real
+ * gateway's, so a retried call gets the first answer back.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway.simulator.enabled", havingValue = "true", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+  private final long latencyMs;
+  private final long latencyJitterMs;
+  private final double declineRate;
+  private final double failureRate;
+  private final double slowRate;
+  private final long slowLatencyMs;
+  private final Map<String, GatewayResponse> answered;
+
+  public SimulatedPaymentGateway(@Value("${payment.gateway.simulator.latency-ms:50}") long latencyMs,
+                                 @Value("${payment.gateway.simulator.latency-jitter-ms:50}") long latencyJitterMs,
+                                 @Value("${payment.gateway.simulator.decline-rate:0.0}") double declineRate,
+                                 @Value("${payment.gateway.simulator.failure-rate:0.0}") double failureRate,
+                                 @Value("${payment.gateway.simulator.slow-rate:0.0}") double slowRate,
+                                 @Value("${payment.gateway.simulator.slow-latency-ms:10000}") long slowLatencyMs,
+                                 @Value("${payment.gateway.simulator.idempotency-cache-size:100000}") int cacheSize) {
+    this.latencyMs = latencyMs;
+    this.latencyJitterMs = latencyJitterMs;
+    this.declineRate = declineRate;
+    this.failureRate = failureRate;
+    this.slowRate = slowRate;
+    this.slowLatencyMs = slowLatencyMs;
+    this.answered = new LinkedHashMap<>(1024, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, GatewayResponse> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  @Override
+  public String name() {
+    return "simulator";
+  }
+
+  @Override
+  public GatewayResponse charge(GatewayRequest request) {
+    return respond("charge:" + request.idempotencyKey(), true);
+  }
+
+  @Override
+  public GatewayResponse authorize(GatewayRequest request) {
+    return respond("authorize:" + request.idempotencyKey(), true);
+  }
+
+  @Override
+  public GatewayResponse capture(String authorizationId, String idempotencyKey) {
+    return respond("capture:" + idempotencyKey, false);
+  }
+
+  @Override
+  public GatewayResponse voidAuthorization(String authorizationId, String idempotencyKey) {
+    return respond("void:" + idempotencyKey, false);
+  }
+
+  @Override
+  public GatewayResponse refund(String transactionId, long amountCents, String idempotencyKey) {
+    return respond("refund:" + idempotencyKey, false);
+  }
+
+  private GatewayResponse respond(String key, boolean mayDecline) {
+    synchronized (answered) {
+      GatewayResponse previous = answered.get(key);
+      if (previous != null) {
+        return previous;
+      }
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    sleep(random.nextDouble() < slowRate
+        ? slowLatencyMs
+        : latencyMs + (latencyJitterMs > 0 ? random.nextLong(latencyJitterMs + 1) : 0));
+    if (random.nextDouble() < failureRate) {
+      throw new GatewayException("Simulated gateway error");
+    }
+    GatewayResponse response = mayDecline && random.nextDouble() < declineRate
+        ? GatewayResponse.declined("card_declined")
+        : GatewayResponse.approved(UUID.randomUUID().toString());
+    synchronized (answered) {
+      GatewayResponse raced = answered.putIfAbsent(key, response);
+      return raced != null ? raced : response;
+    }
+  }
+
+  private static void sleep(long ms) {
+    try {
+      Thread.sleep(ms);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new GatewayException("Simulated gateway call interrupted", ex);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.eplatform.b2b.payment.grpc;
+
+import java.util.concurrent.Executors;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GrpcServerConfig {
+
+  /**
+   * Runs every call on its own virtual thread instead of the default cached pool: handlers
+   * block on the gateway, and parking a virtual thread costs no platform thread.
+   */
+  @Bean
+  public GrpcServerConfigurer virtualThreadExecutor() {
+    return serverBuilder -> serverBuilder.executor(Executors.newVirtualThreadPerTaskExecutor());
+  }
+}
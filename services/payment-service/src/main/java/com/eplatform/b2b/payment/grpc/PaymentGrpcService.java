@@ -1,14 +1,40 @@
 package com.eplatform.b2b.payment.grpc;
 
+import com.eplatform.b2b.common.dto.PaymentChargeRequestDto;
+import com.eplatform.b2b.common.dto.PaymentChargeResponseDto;
+import com.eplatform.b2b.payment.gateway.GatewayException;
+import com.eplatform.b2b.payment.proto.AuthorizationRef;
+import com.eplatform.b2b.payment.proto.ChargeRequest;
+import com.eplatform.b2b.payment.proto.PaymentResult;
 import com.eplatform.b2b.payment.proto.PaymentServiceGrpc;
 import com.eplatform.b2b.payment.proto.PingRequest;
 import com.eplatform.b2b.payment.proto.PingResponse;
+import com.eplatform.b2b.payment.service.PaymentAuthorizationService;
+import com.eplatform.b2b.payment.service.PaymentProcessingService;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
+import java.util.function.Supplier;
 import net.devh.boot.grpc.server.service.GrpcService;
 
+/**
+ * gRPC front of the payment API, same semantics as {@code PaymentController}: declines
+ * are results, {@link GatewayException} becomes UNAVAILABLE. Calls whose deadline already
+ * passed are refused before the gateway is touched, so work the caller gave up on is not
+ * started.
+ */
 @GrpcService
 public class PaymentGrpcService extends PaymentServiceGrpc.PaymentServiceImplBase {
 
+  private final PaymentProcessingService payments;
+  private final PaymentAuthorizationService authorizations;
+
+  public PaymentGrpcService(PaymentProcessingService payments, PaymentAuthorizationService authorizations) {
+    this.payments = payments;
+    this.authorizations = authorizations;
+  }
+
   @Override
   public void ping(PingRequest request, StreamObserver<PingResponse> responseObserver) {
     String echo = request.getEcho().isBlank() ? "ping" : request.getEcho();
@@ -18,4 +44,71 @@ public class PaymentGrpcService extends PaymentServiceGrpc.PaymentServiceImplBas
     responseObserver.onNext(response);
     responseObserver.onCompleted();
   }
+
+  @Override
+  public void charge(ChargeRequest request, StreamObserver<PaymentResult> responseObserver) {
+    respond(responseObserver, invalid(request), () -> payments.charge(toDto(request)));
+  }
+
+  @Override
+  public void authorize(ChargeRequest request, StreamObserver<PaymentResult> responseObserver) {
+    respond(responseObserver, invalid(request), () -> authorizations.authorize(toDto(request)));
+  }
+
+  @Override
+  public void capture(AuthorizationRef request, StreamObserver<PaymentResult> responseObserver) {
+    respond(responseObserver, request.getOrderId().isBlank() ? "order_id is required" : null,
+        () -> authorizations.capture(request.getOrderId()));
+  }
+
+  @Override
+  public void voidAuthorization(AuthorizationRef request, StreamObserver<PaymentResult> responseObserver) {
+    respond(responseObserver, request.getOrderId().isBlank() ? "order_id is required" : null,
+        () -> authorizations.voidAuthorization(request.getOrderId()));
+  }
+
+  private static void respond(StreamObserver<PaymentResult> responseObserver, String invalid,
+                              Supplier<PaymentChargeResponseDto> call) {
+    if (invalid != null) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(invalid).asRuntimeException());
+      return;
+    }
+    Deadline deadline = Context.current().getDeadline();
+    if (deadline != null && deadline.isExpired()) {
+      responseObserver.onError(Status.DEADLINE_EXCEEDED
+          .withDescription("Deadline passed before the payment was attempted").asRuntimeException());
+      return;
+    }
+    PaymentResult result;
+    try {
+      result = toResult(call.get());
+    } catch (GatewayException ex) {
+      responseObserver.onError(Status.UNAVAILABLE.withDescription(ex.getMessage()).withCause(ex).asRuntimeException());
+      return;
+    }
+    responseObserver.onNext(result);
+    responseObserver.onCompleted();
+  }
+
+  private static String invalid(ChargeRequest request) {
+    if (request.getOrderId().isBlank() || request.getCurrency().isBlank()) {
+      return "order_id and currency are required";
+    }
+    return request.getAmountCents() < 0 ? "amount_cents must not be negative" : null;
+  }
+
+  private static PaymentChargeRequestDto toDto(ChargeRequest request) {
+    return new PaymentChargeRequestDto(request.getOrderId(), request.getAmountCents(), request.getCurrency());
+  }
+
+  private static PaymentResult toResult(PaymentChargeResponseDto response) {
+    PaymentResult.Builder result = PaymentResult.newBuilder().setSuccess(response.success());
+    if (response.transactionId() != null) {
+      result.setTransactionId(response.transactionId());
+    }
+    if (response.message() != null) {
+      result.setMessage(response.message());
+    }
+    return result.build();
+  }
 }
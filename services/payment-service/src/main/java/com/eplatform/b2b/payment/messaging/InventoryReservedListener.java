@@ -1,48 +1,111 @@
 package com.eplatform.b2b.payment.messaging;
 
+import com.eplatform.b2b.common.dto.PaymentChargeRequestDto;
+import com.eplatform.b2b.common.dto.PaymentChargeResponseDto;
 import com.eplatform.b2b.common.events.InventoryReservedEvent;
 import com.eplatform.b2b.common.events.InventoryRejectedEvent;
+import com.eplatform.b2b.common.events.OrderCancelledEvent;
+import com.eplatform.b2b.common.events.OrderRefundRequestedEvent;
 import com.eplatform.b2b.common.events.PaymentFailedEvent;
 import com.eplatform.b2b.common.events.PaymentSucceededEvent;
+import com.eplatform.b2b.common.messaging.EventPublisher;
+import com.eplatform.b2b.payment.service.PaymentAuthorizationService;
+import com.eplatform.b2b.payment.service.PaymentProcessingService;
+import com.eplatform.b2b.payment.settlement.SettlementEngine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
-
 @Slf4j
 @Component
 public class InventoryReservedListener {
 
-  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final EventPublisher eventPublisher;
+  private final PaymentProcessingService payments;
+  private final PaymentAuthorizationService authorizations;
+  private final SettlementEngine settlement;
 
-  public InventoryReservedListener(KafkaTemplate<String, Object> kafkaTemplate) {
-    this.kafkaTemplate = kafkaTemplate;
+  public InventoryReservedListener(EventPublisher eventPublisher, PaymentProcessingService payments,
+                                   PaymentAuthorizationService authorizations, SettlementEngine settlement) {
+    this.eventPublisher = eventPublisher;
+    this.payments = payments;
+    this.authorizations = authorizations;
+    this.settlement = settlement;
   }
 
-  @KafkaListener(topics = "inventory.reserved")
-  public void onInventoryReserved(@Payload InventoryReservedEvent event) {
-    try {
-      // Demo: always succeed. Here you would integrate payment gateway.
-      log.info("Processing payment for order: {}", event.orderId());
-      String txId = UUID.randomUUID().toString();
-      kafkaTemplate.send("payment.succeeded", event.orderId(), new PaymentSucceededEvent(event.orderId(), txId));
-    } catch (Exception ex) {
-      log.error("Payment failed for order: " + event.orderId(), ex);
-      kafkaTemplate.send("payment.failed", event.orderId(), new PaymentFailedEvent(event.orderId(), ex.getMessage()));
+  /**
+   * inventory.reserved and order.cancelled share one container. Both are keyed by orderId
+   * and have the same partition count, and the range assignor gives the same partition of
+   * both topics to the same consumer, so a cancellation is seen by the thread that would
+   * charge the order, on whichever replica that is. A cancellation that still comes after
+   * the charge, or whose void was lost with a restart, is settled by the refund order-service
+   * requests when the payment arrives for the failed order.
+   */
+  @KafkaListener(topics = {"inventory.reserved", "order.cancelled"},
+      properties = "partition.assignment.strategy=org.apache.kafka.clients.consumer.RangeAssignor")
+  public void onOrderEvent(@Payload Object event) {
+    if (event instanceof InventoryReservedEvent reserved) {
+      onInventoryReserved(reserved);
+    } else if (event instanceof OrderCancelledEvent cancelled) {
+      onOrderCancelled(cancelled);
+    } else {
+      throw new IllegalArgumentException("Unexpected event " + event.getClass().getName());
+    }
+  }
+
+  public void onInventoryReserved(InventoryReservedEvent event) {
+    if (authorizations.isVoided(event.orderId())) {
+      // The order saga gave up on this order before its reservation got here
+      log.info("Not charging cancelled order: {}", event.orderId());
+      return;
+    }
+    if (event.totalAmountCents() <= 0 || event.currency() == null) {
+      log.error("Not charging order {}: inventory.reserved carries no amount", event.orderId());
+      eventPublisher.publish("payment.failed", event.orderId(), new PaymentFailedEvent(event.orderId(), "missing_amount"));
+      return;
+    }
+    if (settlement.settles(event)) {
+      // Net terms: paid with the buyer's next settlement batch, which publishes the result
+      settlement.accrue(event);
+      return;
+    }
+    log.info("Processing payment for order: {}", event.orderId());
+    // A gateway error or timeout throws: the record is retried through inventory.reserved-retry-N
+    // (the charge is idempotent per order) and the DLT handler fails the order. The call is
+    // bounded by the gateway timeout, so a slow gateway never holds this thread for long.
+    PaymentChargeResponseDto result = payments.charge(
+        new PaymentChargeRequestDto(event.orderId(), event.totalAmountCents(), event.currency()));
+    if (result.success()) {
+      eventPublisher.publish("payment.succeeded", event.orderId(),
+          new PaymentSucceededEvent(event.orderId(), result.transactionId()));
+    } else {
+      eventPublisher.publish("payment.failed", event.orderId(), new PaymentFailedEvent(event.orderId(), result.message()));
     }
   }
 
   @KafkaListener(topics = "inventory.rejected")
   public void onInventoryRejected(@Payload InventoryRejectedEvent event) {
-    try {
-      log.info("Inventory rejected for order: {}", event.orderId());
-      kafkaTemplate.send("payment.failed", event.orderId(), new PaymentFailedEvent(event.orderId(), event.reason() != null ? event.reason() : "inventory_rejected"));
-    } catch (Exception ex) {
-      log.error("Failed to handle inventory rejection for order: " + event.orderId(), ex);
-      kafkaTemplate.send("payment.failed", event.orderId(), new PaymentFailedEvent(event.orderId(), ex.getMessage()));
+    log.info("Inventory rejected for order: {}", event.orderId());
+    eventPublisher.publish("payment.failed", event.orderId(), new PaymentFailedEvent(event.orderId(), event.reason() != null ? event.reason() : "inventory_rejected"));
+  }
+
+  /** Compensation from the order saga: the order's payment is voided, and a later charge refused. */
+  public void onOrderCancelled(OrderCancelledEvent event) {
+    log.info("Order cancelled: {} ({})", event.orderId(), event.reason());
+    settlement.cancel(event.orderId());
+    authorizations.voidAuthorization(event.orderId());
+  }
+
+  /** Compensation from the order saga for a charge that went through after the order failed. */
+  @KafkaListener(topics = "order.refund-requested")
+  public void onRefundRequested(@Payload OrderRefundRequestedEvent event) {
+    // A gateway error or timeout throws and the record is retried; one refund per order
+    PaymentChargeResponseDto result = payments.refund(event.orderId(), event.transactionId(), event.amountCents());
+    if (result.success()) {
+      log.info("Refunded {} of order {} ({})", event.transactionId(), event.orderId(), event.reason());
+    } else {
+      log.error("Refund of {} for order {} declined: {}", event.transactionId(), event.orderId(), result.message());
     }
   }
 }
@@ -0,0 +1,31 @@
+package com.eplatform.b2b.payment.messaging;
+
+import com.eplatform.b2b.common.events.InventoryRejectedEvent;
+import com.eplatform.b2b.common.events.InventoryReservedEvent;
+import com.eplatform.b2b.common.events.PaymentFailedEvent;
+import com.eplatform.b2b.common.messaging.DeadLetterAction;
+import com.eplatform.b2b.common.messaging.EventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * The order of a dead-lettered inventory event is failed so its reservation is released
+ * instead of waiting for expiry.
+ */
+@Component
+public class PaymentDeadLetterAction implements DeadLetterAction {
+
+  private final EventPublisher eventPublisher;
+
+  public PaymentDeadLetterAction(EventPublisher eventPublisher) {
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public void onDeadLetter(String topic, Object payload, String reason) {
+    String orderId = payload instanceof InventoryReservedEvent reserved ? reserved.orderId()
+        : payload instanceof InventoryRejectedEvent rejected ? rejected.orderId() : null;
+    if (orderId != null) {
+      eventPublisher.publish("payment.failed", orderId, new PaymentFailedEvent(orderId, reason));
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.eplatform.b2b.payment.service;
+
+import com.eplatform.b2b.common.dto.PaymentChargeRequestDto;
+import com.eplatform.b2b.common.dto.PaymentChargeResponseDto;
+import com.eplatform.b2b.payment.gateway.GatewayException;
+import com.eplatform.b2b.payment.gateway.GatewayRequest;
+import com.eplatform.b2b.payment.gateway.GatewayResponse;
+import com.eplatform.b2b.payment.gateway.GatewayUnavailableException;
+import com.eplatform.b2b.payment.gateway.PaymentGateways;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Two-step payments keyed by orderId: authorize holds the amount, then capture takes it
+ * or void drops it. Every step is idempotent so the order service can retry and
+ * compensate without knowing whether an earlier call got through. A void for an order
+ * that was never authorized is remembered, so an authorize arriving after it fails.
+ *
+ * <p>A step first claims the order by moving it to an in-flight state, then calls the
+ * gateway without holding anything, then records the result. Another step of the same
+ * order arriving meanwhile fails with {@link GatewayUnavailableException} and is retried
+ * by the caller; a decline or a {@link GatewayException} puts the order back as it was.
+ * Authorizations live in memory, bounded by {@code payment.authorizations.max-size} and
+ * {@code ttl-ms}, so one evicted or lost with a restart behaves like one never seen: a
+ * void remembered for it is gone, and a charge it would have refused is then refunded
+ * when order-service sees it arrive for the failed order.
+ */
+@Slf4j
+@Service
+public class PaymentAuthorizationService {
+
+  private enum State {
+    AUTHORIZING, AUTHORIZED, CAPTURING, CAPTURED, VOIDING, VOIDED;
+
+    boolean inFlight() {
+      return this == AUTHORIZING || this == CAPTURING || this == VOIDING;
+    }
+  }
+
+  private record Authorization(String transactionId, long amountCents, String currency, State state) {
+    Authorization with(State next) {
+      return new Authorization(transactionId, amountCents, currency, next);
+    }
+  }
+
+  private final PaymentGateways gateways;
+  private final ConcurrentMap<String, Authorization> byOrderId;
+
+  public PaymentAuthorizationService(PaymentGateways gateways,
+                                     @Value("${payment.authorizations.max-size:100000}") long maxSize,
+                                     @Value("${payment.authorizations.ttl-ms:604800000}") long ttlMs) {
+    this.gateways = gateways;
+    this.byOrderId = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofMillis(ttlMs))
+        .<String, Authorization>build()
+        .asMap();
+  }
+
+  public PaymentChargeResponseDto authorize(PaymentChargeRequestDto request) {
+    String orderId = request.orderId();
+    Authorization claimed = new Authorization(null, request.amountCents(), request.currency(), State.AUTHORIZING);
+    Authorization auth = byOrderId.compute(orderId, (id, current) -> settled(id, current) != null ? current : claimed);
+    if (auth == claimed) {
+      GatewayResponse response = callGateway(orderId, claimed, null,
+          () -> gateways.primary().authorize(new GatewayRequest(orderId, request.amountCents(), request.currency(), orderId)));
+      if (!response.approved()) {
+        return new PaymentChargeResponseDto(false, null, response.declineReason());
+      }
+      auth = new Authorization(response.transactionId(), request.amountCents(), request.currency(), State.AUTHORIZED);
+      byOrderId.put(orderId, auth);
+    }
+    if (auth.state() == State.VOIDED) {
+      return new PaymentChargeResponseDto(false, null, "voided");
+    }
+    return new PaymentChargeResponseDto(true, auth.transactionId(), "authorized");
+  }
+
+  public PaymentChargeResponseDto capture(String orderId) {
+    Authorization auth = byOrderId.computeIfPresent(orderId, (id, current) ->
+        settled(id, current).state() == State.AUTHORIZED ? current.with(State.CAPTURING) : current);
+    if (auth == null) {
+      return new PaymentChargeResponseDto(false, null, "not_authorized");
+    }
+    if (auth.state() == State.CAPTURING) {
+      Authorization claimed = auth;
+      GatewayResponse response = callGateway(orderId, claimed, claimed.with(State.AUTHORIZED),
+          () -> gateways.primary().capture(claimed.transactionId(), orderId));
+      if (!response.approved()) {
+        return new PaymentChargeResponseDto(false, claimed.transactionId(), response.declineReason());
+      }
+      auth = claimed.with(State.CAPTURED);
+      byOrderId.put(orderId, auth);
+    }
+    if (auth.state() != State.CAPTURED) {
+      return new PaymentChargeResponseDto(false, null, "voided");
+    }
+    return new PaymentChargeResponseDto(true, auth.transactionId(), "captured");
+  }
+
+  public PaymentChargeResponseDto voidAuthorization(String orderId) {
+    Authorization auth = byOrderId.compute(orderId, (id, current) -> {
+      if (settled(id, current) == null) {
+        return new Authorization(null, 0, null, State.VOIDED);
+      }
+      return current.state() == State.AUTHORIZED ? current.with(State.VOIDING) : current;
+    });
+    if (auth.state() == State.VOIDING) {
+      Authorization claimed = auth;
+      GatewayResponse response = callGateway(orderId, claimed, claimed.with(State.AUTHORIZED),
+          () -> gateways.primary().voidAuthorization(claimed.transactionId(), orderId));
+      if (!response.approved()) {
+        return new PaymentChargeResponseDto(false, claimed.transactionId(), response.declineReason());
+      }
+      auth = claimed.with(State.VOIDED);
+      byOrderId.put(orderId, auth);
+    }
+    if (auth.state() == State.CAPTURED) {
+      log.warn("Void for order {} ignored, already captured as {}", orderId, auth.transactionId());
+      return new PaymentChargeResponseDto(false, auth.transactionId(), "captured");
+    }
+    return new PaymentChargeResponseDto(true, auth.transactionId(), "voided");
+  }
+
+  /** True once the order's payment was voided, whether or not it had been authorized. */
+  public boolean isVoided(String orderId) {
+    Authorization auth = byOrderId.get(orderId);
+    return auth != null && auth.state() == State.VOIDED;
+  }
+
+  /**
+   * The order's authorization, or null if there is none yet.
+   *
+   * @throws GatewayUnavailableException if another step of the order is at the gateway
+   */
+  private static Authorization settled(String orderId, Authorization current) {
+    if (current != null && current.state().inFlight()) {
+      throw new GatewayUnavailableException("Payment of order " + orderId + " is busy");
+    }
+    return current;
+  }
+
+  /**
+   * Calls the gateway for a claimed order. Unless the call is approved, the order is put
+   * back to {@code before}, or dropped if it had no authorization.
+   */
+  private GatewayResponse callGateway(String orderId, Authorization claimed, Authorization before,
+                                      Supplier<GatewayResponse> call) {
+    boolean approved = false;
+    try {
+      GatewayResponse response = call.get();
+      approved = response.approved();
+      return response;
+    } finally {
+      if (!approved && before == null) {
+        byOrderId.remove(orderId, claimed);
+      } else if (!approved) {
+        byOrderId.replace(orderId, claimed, before);
+      }
+    }
+  }
+}
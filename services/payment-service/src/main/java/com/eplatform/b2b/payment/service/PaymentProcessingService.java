@@ -0,0 +1,54 @@
+package com.eplatform.b2b.payment.service;
+
+import com.eplatform.b2b.common.dto.PaymentChargeRequestDto;
+import com.eplatform.b2b.common.dto.PaymentChargeResponseDto;
+import com.eplatform.b2b.payment.gateway.GatewayException;
+import com.eplatform.b2b.payment.gateway.GatewayRequest;
+import com.eplatform.b2b.payment.gateway.GatewayResponse;
+import com.eplatform.b2b.payment.gateway.PaymentGateways;
+import org.springframework.stereotype.Service;
+
+/** One-step charges and refunds through the primary gateway. */
+@Service
+public class PaymentProcessingService {
+
+  private final PaymentGateways gateways;
+  private final PaymentAuthorizationService authorizations;
+
+  public PaymentProcessingService(PaymentGateways gateways, PaymentAuthorizationService authorizations) {
+    this.gateways = gateways;
+    this.authorizations = authorizations;
+  }
+
+  /**
+   * Charges the order's total. The orderId is the idempotency key, so charging an order
+   * again returns the first result instead of taking the money twice. An order whose
+   * payment was voided, which is how order-service gives up on a charge it got no answer
+   * for, is not charged.
+   *
+   * @throws GatewayException if the outcome is unknown; retrying is safe
+   */
+  public PaymentChargeResponseDto charge(PaymentChargeRequestDto request) {
+    if (authorizations.isVoided(request.orderId())) {
+      return new PaymentChargeResponseDto(false, null, "voided");
+    }
+    GatewayResponse response = gateways.primary().charge(
+        new GatewayRequest(request.orderId(), request.amountCents(), request.currency(), request.orderId()));
+    return response.approved()
+        ? new PaymentChargeResponseDto(true, response.transactionId(), "charged")
+        : new PaymentChargeResponseDto(false, null, response.declineReason());
+  }
+
+  /**
+   * Refunds part or all of a charged or captured transaction. One refund per order: a
+   * repeated call returns the first result.
+   *
+   * @throws GatewayException if the outcome is unknown; retrying is safe
+   */
+  public PaymentChargeResponseDto refund(String orderId, String transactionId, long amountCents) {
+    GatewayResponse response = gateways.primary().refund(transactionId, amountCents, orderId);
+    return response.approved()
+        ? new PaymentChargeResponseDto(true, response.transactionId(), "refunded")
+        : new PaymentChargeResponseDto(false, null, response.declineReason());
+  }
+}
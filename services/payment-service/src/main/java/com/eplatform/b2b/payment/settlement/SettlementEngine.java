@@ -0,0 +1,324 @@
+package com.eplatform.b2b.payment.settlement;
+
+import com.eplatform.b2b.common.events.InventoryReservedEvent;
+import com.eplatform.b2b.common.events.PaymentFailedEvent;
+import com.eplatform.b2b.common.events.PaymentSucceededEvent;
+import com.eplatform.b2b.common.messaging.EventPublisher;
+import com.eplatform.b2b.payment.gateway.GatewayException;
+import com.eplatform.b2b.payment.gateway.GatewayRequest;
+import com.eplatform.b2b.payment.gateway.GatewayResponse;
+import com.eplatform.b2b.payment.gateway.PaymentGateways;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Net-terms settlement: instead of one charge per order, reserved orders of buyers on net
+ * terms accrue per buyer and currency, and every window each group is charged with one
+ * gateway call. The result goes back out as the usual per-order payment.succeeded (with
+ * the batch's transaction id) or payment.failed events, so the order side does not
+ * change.
+ *
+ * <p>State lives in memory and every change is written to a {@link SettlementJournal}
+ * first. A batch is journaled before its charge and its batch id is the idempotency key,
+ * so a batch left open by a crash or a gateway error is charged again next window without
+ * being taken twice. A batch is closed only once all of its events were acknowledged
+ * within {@code publish-timeout-ms}; a failed or slow send leaves it open and re-publishes
+ * the whole batch next window, which the order side dedups.
+ *
+ * <p>Cancelling an order removes it while it is still accruing; once its batch is cut it
+ * is charged with the rest. The last {@code settled-cache-size} settled orderIds are kept,
+ * in the journal too, so a redelivered event is dropped even after a restart. The journal
+ * is compacted once it has had as many appends as it has live records.
+ */
+@Slf4j
+@Component
+public class SettlementEngine {
+
+  private record Accrual(String orderId, String buyerId, String currency, long amountCents) {}
+
+  private record Batch(String batchId, String buyerId, String currency, long totalCents, List<String> orderIds) {}
+
+  private final PaymentGateways gateways;
+  private final EventPublisher eventPublisher;
+  private final MeterRegistry meterRegistry;
+  private final boolean enabled;
+  private final Set<String> netTermsBuyers;
+  private final int maxBatchOrders;
+  private final long publishTimeoutMs;
+  private final SettlementJournal journal;
+  private final DistributionSummary batchOrders;
+
+  private final Map<String, Accrual> accruing = new LinkedHashMap<>();
+  private final Map<String, Batch> openBatches = new LinkedHashMap<>();
+  private final Set<String> batchedOrders = new HashSet<>();
+  private final Map<String, Boolean> settled;
+  private int appendedSinceCompaction;
+
+  public SettlementEngine(PaymentGateways gateways, EventPublisher eventPublisher, MeterRegistry meterRegistry,
+                          @Value("${payment.settlement.enabled:false}") boolean enabled,
+                          @Value("${payment.settlement.buyers:}") String buyers,
+                          @Value("${payment.settlement.max-batch-orders:1000}") int maxBatchOrders,
+                          @Value("${payment.settlement.journal-dir:${user.home}/.eplatform/settlement}") String journalDir,
+                          @Value("${payment.settlement.fsync:true}") boolean fsync,
+                          @Value("${payment.settlement.settled-cache-size:100000}") int settledCacheSize,
+                          @Value("${payment.settlement.publish-timeout-ms:30000}") long publishTimeoutMs) {
+    this.gateways = gateways;
+    this.eventPublisher = eventPublisher;
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.netTermsBuyers = Arrays.stream(buyers.split(","))
+        .map(String::trim)
+        .filter(buyer -> !buyer.isEmpty())
+        .collect(Collectors.toUnmodifiableSet());
+    this.maxBatchOrders = maxBatchOrders;
+    this.publishTimeoutMs = publishTimeoutMs;
+    this.settled = new LinkedHashMap<>(1024, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+        return size() > settledCacheSize;
+      }
+    };
+    this.batchOrders = DistributionSummary.builder("payments.settlement.batch_orders")
+        .description("Orders settled per gateway call")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+    Gauge.builder("payments.settlement.accruing", this, SettlementEngine::size)
+        .description("Orders waiting for the next settlement window")
+        .register(meterRegistry);
+    try {
+      this.journal = enabled ? new SettlementJournal(Path.of(journalDir), fsync) : null;
+      if (enabled) {
+        replay();
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Cannot open settlement journal in " + journalDir, ex);
+    }
+  }
+
+  /** Whether the order is paid through settlement rather than charged on its own. */
+  public boolean settles(InventoryReservedEvent event) {
+    return enabled && event.buyerId() != null && event.currency() != null
+        && (netTermsBuyers.isEmpty() || netTermsBuyers.contains(event.buyerId()));
+  }
+
+  /**
+   * Adds the order to its buyer's next batch. Repeats of an order that is accruing, being
+   * settled or recently settled are ignored.
+   *
+   * @throws UncheckedIOException if the journal write fails; nothing was recorded
+   */
+  public void accrue(InventoryReservedEvent event) {
+    synchronized (this) {
+      if (accruing.containsKey(event.orderId()) || batchedOrders.contains(event.orderId())
+          || settled.containsKey(event.orderId())) {
+        log.debug("Order {} already accrued for settlement", event.orderId());
+        return;
+      }
+      write("A", event.orderId(), event.buyerId(), event.currency(), Long.toString(event.totalAmountCents()));
+      accruing.put(event.orderId(), new Accrual(event.orderId(), event.buyerId(), event.currency(),
+          event.totalAmountCents()));
+    }
+    meterRegistry.counter("payments.settlement.accruals").increment();
+  }
+
+  /** Drops the order if it has not been cut into a batch yet; true if it was dropped. */
+  public synchronized boolean cancel(String orderId) {
+    if (!enabled || !accruing.containsKey(orderId)) {
+      return false;
+    }
+    write("C", orderId);
+    accruing.remove(orderId);
+    return true;
+  }
+
+  /**
+   * One settlement window: cuts the accrued orders into batches per buyer and currency,
+   * charges every open batch and publishes the per-order results. Batches the gateway
+   * did not answer for stay open for the next window.
+   */
+  @Scheduled(fixedDelayString = "${payment.settlement.window-ms:10000}",
+      initialDelayString = "${payment.settlement.window-ms:10000}")
+  public void settleWindow() {
+    if (!enabled) {
+      return;
+    }
+    List<Batch> batches;
+    synchronized (this) {
+      cutBatches();
+      batches = new ArrayList<>(openBatches.values());
+    }
+    for (Batch batch : batches) {
+      settle(batch);
+    }
+    synchronized (this) {
+      if (appendedSinceCompaction > 0
+          && appendedSinceCompaction >= openBatches.size() + accruing.size() + settled.size()) {
+        compact();
+      }
+    }
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
+  private void cutBatches() {
+    Map<List<String>, List<Accrual>> groups = accruing.values().stream()
+        .collect(Collectors.groupingBy(a -> List.of(a.buyerId(), a.currency()), LinkedHashMap::new,
+            Collectors.toList()));
+    for (List<Accrual> group : groups.values()) {
+      for (int from = 0; from < group.size(); from += maxBatchOrders) {
+        List<Accrual> chunk = group.subList(from, Math.min(from + maxBatchOrders, group.size()));
+        Batch batch = new Batch(UUID.randomUUID().toString(), chunk.get(0).buyerId(), chunk.get(0).currency(),
+            chunk.stream().mapToLong(Accrual::amountCents).sum(), chunk.stream().map(Accrual::orderId).toList());
+        write(batchRecord(batch));
+        open(batch);
+        batch.orderIds().forEach(accruing::remove);
+      }
+    }
+  }
+
+  private void settle(Batch batch) {
+    GatewayResponse response;
+    try {
+      response = gateways.primary().charge(new GatewayRequest("settlement:" + batch.batchId(), batch.totalCents(),
+          batch.currency(), batch.batchId()));
+    } catch (GatewayException ex) {
+      log.warn("Settlement batch {} for buyer {} not charged, retrying next window: {}", batch.batchId(),
+          batch.buyerId(), ex.getMessage());
+      meterRegistry.counter("payments.settlement.batches", "outcome", "unavailable").increment();
+      return;
+    }
+
+    List<CompletableFuture<?>> sends = new ArrayList<>(batch.orderIds().size());
+    try {
+      for (String orderId : batch.orderIds()) {
+        sends.add(response.approved()
+            ? eventPublisher.publish("payment.succeeded", orderId, new PaymentSucceededEvent(orderId,
+                response.transactionId()))
+            : eventPublisher.publish("payment.failed", orderId, new PaymentFailedEvent(orderId,
+                "settlement_declined: " + response.declineReason())));
+      }
+      CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      log.warn("Interrupted publishing results of settlement batch {}, retrying next window", batch.batchId());
+      return;
+    } catch (ExecutionException | TimeoutException | RuntimeException ex) {
+      log.warn("Results of settlement batch {} not all published, retrying next window", batch.batchId(), ex);
+      return;
+    }
+
+    synchronized (this) {
+      write("S", batch.batchId());
+      openBatches.remove(batch.batchId());
+      batch.orderIds().forEach(orderId -> {
+        batchedOrders.remove(orderId);
+        settled.put(orderId, Boolean.TRUE);
+      });
+    }
+    meterRegistry.counter("payments.settlement.batches", "outcome", response.approved() ? "approved" : "declined")
+        .increment();
+    batchOrders.record(batch.orderIds().size());
+    log.info("Settled batch {} for buyer {}: {} orders, {} {} {}", batch.batchId(), batch.buyerId(),
+        batch.orderIds().size(), batch.totalCents(), batch.currency(),
+        response.approved() ? "approved" : "declined (" + response.declineReason() + ")");
+  }
+
+  private void replay() throws IOException {
+    for (String[] record : journal.read()) {
+      switch (record[0]) {
+        case "A" -> {
+          if (!batchedOrders.contains(record[1])) {
+            accruing.put(record[1], new Accrual(record[1], record[2], record[3], Long.parseLong(record[4])));
+          }
+        }
+        case "C" -> accruing.remove(record[1]);
+        case "B" -> {
+          Batch batch = new Batch(record[1], record[2], record[3], Long.parseLong(record[4]),
+              List.of(Arrays.copyOfRange(record, 5, record.length)));
+          open(batch);
+          batch.orderIds().forEach(accruing::remove);
+        }
+        case "S" -> {
+          Batch batch = openBatches.remove(record[1]);
+          if (batch != null) {
+            batch.orderIds().forEach(batchedOrders::remove);
+            batch.orderIds().forEach(orderId -> settled.put(orderId, Boolean.TRUE));
+          }
+        }
+        case "D" -> settled.put(record[1], Boolean.TRUE);
+        default -> log.warn("Skipping unknown settlement journal record {}", record[0]);
+      }
+    }
+    compact();
+    log.info("Settlement journal replayed: {} orders accruing, {} batches open", accruing.size(), openBatches.size());
+  }
+
+  /** Rewrites the journal with the settled orderIds kept, the open batches and the accruing orders. */
+  private void compact() {
+    List<String[]> records = new ArrayList<>();
+    // Oldest first, so replay restores the eviction order
+    settled.keySet().forEach(orderId -> records.add(new String[] {"D", orderId}));
+    openBatches.values().forEach(batch -> records.add(batchRecord(batch)));
+    accruing.values().forEach(a -> records.add(new String[] {"A", a.orderId(), a.buyerId(), a.currency(),
+        Long.toString(a.amountCents())}));
+    try {
+      journal.rewrite(records);
+      appendedSinceCompaction = 0;
+    } catch (IOException ex) {
+      // The appended journal is still complete; compaction is retried next window
+      log.warn("Settlement journal compaction failed", ex);
+    }
+  }
+
+  private void open(Batch batch) {
+    openBatches.put(batch.batchId(), batch);
+    batchedOrders.addAll(batch.orderIds());
+  }
+
+  private void write(String... fields) {
+    try {
+      journal.append(fields);
+      appendedSinceCompaction++;
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Settlement journal write failed", ex);
+    }
+  }
+
+  private synchronized int size() {
+    return accruing.size();
+  }
+
+  private static String[] batchRecord(Batch batch) {
+    List<String> fields = new ArrayList<>(List.of("B", batch.batchId(), batch.buyerId(), batch.currency(),
+        Long.toString(batch.totalCents())));
+    fields.addAll(batch.orderIds());
+    return fields.toArray(String[]::new);
+  }
+}
@@ -0,0 +1,108 @@
+package com.eplatform.b2b.payment.settlement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only log of the settlement engine's state changes: one line per record,
+ * tab-separated URL-encoded fields, written (and with {@code fsync} forced to disk) before
+ * the change is applied in memory. A line cut short by a crash is ignored on replay.
+ * {@link #rewrite} replaces the whole file atomically with the current state, so the
+ * journal does not grow without bound. Not thread-safe; the engine serializes access.
+ */
+class SettlementJournal implements Closeable {
+
+  private static final String FILE_NAME = "settlement.journal";
+
+  private final Path file;
+  private final boolean fsync;
+  private FileChannel channel;
+
+  SettlementJournal(Path dir, boolean fsync) throws IOException {
+    Files.createDirectories(dir);
+    this.file = dir.resolve(FILE_NAME);
+    this.fsync = fsync;
+    this.channel = openForAppend();
+  }
+
+  /** Complete records in the order they were written. */
+  List<String[]> read() throws IOException {
+    String content = Files.readString(file, StandardCharsets.UTF_8);
+    List<String[]> records = new ArrayList<>();
+    int start = 0;
+    for (int end = content.indexOf('\n'); end >= 0; end = content.indexOf('\n', start)) {
+      if (end > start) {
+        records.add(Arrays.stream(content.substring(start, end).split("\t", -1))
+            .map(field -> URLDecoder.decode(field, StandardCharsets.UTF_8))
+            .toArray(String[]::new));
+      }
+      start = end + 1;
+    }
+    return records;
+  }
+
+  void append(String... fields) throws IOException {
+    write(channel, encode(fields));
+  }
+
+  /** On failure the journal is left as it was and stays open for appends. */
+  void rewrite(List<String[]> records) throws IOException {
+    Path tmp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+    try {
+      try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+        StringBuilder content = new StringBuilder();
+        records.forEach(record -> content.append(encode(record)));
+        write(out, content.toString());
+      }
+      channel.close();
+      Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tmp);
+      if (!channel.isOpen()) {
+        channel = openForAppend();
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private FileChannel openForAppend() throws IOException {
+    return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  private void write(FileChannel out, String content) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+    if (fsync) {
+      out.force(false);
+    }
+  }
+
+  private static String encode(String[] fields) {
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < fields.length; i++) {
+      if (i > 0) {
+        line.append('\t');
+      }
+      line.append(URLEncoder.encode(fields[i], StandardCharsets.UTF_8));
+    }
+    return line.append('\n').toString();
+  }
+}
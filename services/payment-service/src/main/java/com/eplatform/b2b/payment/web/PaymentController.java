@@ -2,9 +2,11 @@ package com.eplatform.b2b.payment.web;
 
 import com.eplatform.b2b.common.dto.PaymentChargeRequestDto;
 import com.eplatform.b2b.common.dto.PaymentChargeResponseDto;
+import com.eplatform.b2b.payment.service.PaymentAuthorizationService;
+import com.eplatform.b2b.payment.service.PaymentProcessingService;
 import jakarta.validation.Valid;
-import java.util.UUID;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -14,10 +16,31 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/payments")
 public class PaymentController {
 
+  private final PaymentProcessingService payments;
+  private final PaymentAuthorizationService authorizations;
+
+  public PaymentController(PaymentProcessingService payments, PaymentAuthorizationService authorizations) {
+    this.payments = payments;
+    this.authorizations = authorizations;
+  }
+
   @PostMapping("/charge")
   public ResponseEntity<PaymentChargeResponseDto> charge(@Valid @RequestBody PaymentChargeRequestDto req) {
-    // Demo: always succeed
-    String txId = UUID.randomUUID().toString();
-    return ResponseEntity.ok(new PaymentChargeResponseDto(true, txId, "charged"));
+    return ResponseEntity.ok(payments.charge(req));
+  }
+
+  @PostMapping("/authorize")
+  public ResponseEntity<PaymentChargeResponseDto> authorize(@Valid @RequestBody PaymentChargeRequestDto req) {
+    return ResponseEntity.ok(authorizations.authorize(req));
+  }
+
+  @PostMapping("/authorizations/{orderId}/capture")
+  public ResponseEntity<PaymentChargeResponseDto> capture(@PathVariable("orderId") String orderId) {
+    return ResponseEntity.ok(authorizations.capture(orderId));
+  }
+
+  @PostMapping("/authorizations/{orderId}/void")
+  public ResponseEntity<PaymentChargeResponseDto> voidAuthorization(@PathVariable("orderId") String orderId) {
+    return ResponseEntity.ok(authorizations.voidAuthorization(orderId));
   }
 }
@@ -0,0 +1,21 @@
+package com.eplatform.b2b.payment.web;
+
+import com.eplatform.b2b.common.dto.ErrorResponse;
+import com.eplatform.b2b.payment.gateway.GatewayException;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.OffsetDateTime;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class PaymentExceptionHandler {
+
+  /** The outcome is unknown, unlike a decline; callers retry or compensate. */
+  @ExceptionHandler(GatewayException.class)
+  public ResponseEntity<ErrorResponse> handleGateway(GatewayException ex, HttpServletRequest request) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .body(new ErrorResponse("GATEWAY_UNAVAILABLE", ex.getMessage(), OffsetDateTime.now(), request.getRequestURI()));
+  }
+}
@@ -0,0 +1,62 @@
+package com.eplatform.b2b.payment.settlement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SettlementJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void read_ShouldRoundTripFieldsAndSkipLineCutShort() throws Exception {
+        // Given - the last record was cut short by a crash
+        try (SettlementJournal journal = new SettlementJournal(dir, false)) {
+            journal.append("A", "ORDER-1", "BUYER\t1", "USD", "100");
+            journal.append("C", "ORDER-1");
+        }
+        Files.writeString(dir.resolve("settlement.journal"), "A\tORDER-2\tBUY", StandardCharsets.UTF_8,
+            StandardOpenOption.APPEND);
+
+        // When
+        List<String[]> records;
+        try (SettlementJournal journal = new SettlementJournal(dir, false)) {
+            records = journal.read();
+        }
+
+        // Then
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0)).containsExactly("A", "ORDER-1", "BUYER\t1", "USD", "100");
+        assertThat(records.get(1)).containsExactly("C", "ORDER-1");
+    }
+
+    @Test
+    void rewrite_ShouldReplaceContentAndKeepAppending() throws Exception {
+        try (SettlementJournal journal = new SettlementJournal(dir, true)) {
+            // Given
+            journal.append("A", "ORDER-1", "BUYER-1", "USD", "100");
+            journal.append("A", "ORDER-2", "BUYER-1", "USD", "200");
+            journal.append("C", "ORDER-1");
+
+            // When
+            journal.rewrite(List.<String[]>of(new String[] {"A", "ORDER-2", "BUYER-1", "USD", "200"}));
+            journal.append("C", "ORDER-2");
+
+            // Then
+            assertThat(journal.read()).extracting(record -> String.join(" ", record))
+                .containsExactly("A ORDER-2 BUYER-1 USD 200", "C ORDER-2");
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).extracting(path -> path.getFileName().toString()).containsExactly("settlement.journal");
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.eplatform.b2b.payment.unit;
+
+import com.eplatform.b2b.payment.gateway.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        // Opens at half of the last 4 calls failing, stays open 100 ms, then allows 2 trials
+        breaker = new CircuitBreaker(0.5, 4, 4, 100, 2, clock::get);
+    }
+
+    @Test
+    void recordFailure_ShouldNotOpen_BeforeMinimumCalls() {
+        // When
+        fail(3);
+
+        // Then
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void recordFailure_ShouldOpen_WhenFailureRateReachesThreshold() {
+        // When
+        succeed(2);
+        fail(2);
+
+        // Then
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void recordFailure_ShouldOnlyCountTheLastWindowOfCalls() {
+        // Given - the early failure slides out of the window of 4
+        fail(1);
+        succeed(3);
+
+        // When
+        fail(1);
+
+        // Then - 1 of the last 4 failed
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void tryAcquire_ShouldLetTrialsThroughAfterOpenMs_AndCloseWhenTheySucceed() {
+        // Given
+        fail(4);
+        clock.addAndGet(100);
+
+        // When
+        boolean first = breaker.tryAcquire();
+        boolean second = breaker.tryAcquire();
+        boolean third = breaker.tryAcquire();
+        breaker.recordSuccess();
+        breaker.recordSuccess();
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void recordFailure_ShouldReopen_WhenATrialFails() {
+        // Given
+        fail(4);
+        clock.addAndGet(100);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        // When
+        breaker.recordFailure();
+
+        // Then - open for another full period
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        clock.addAndGet(99);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.recordSuccess();
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.recordFailure();
+        }
+    }
+}
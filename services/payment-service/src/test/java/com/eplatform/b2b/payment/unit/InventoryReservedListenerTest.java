@@ -0,0 +1,68 @@
+package com.eplatform.b2b.payment.unit;
+
+import com.eplatform.b2b.common.dto.PaymentChargeRequestDto;
+import com.eplatform.b2b.common.dto.PaymentChargeResponseDto;
+import com.eplatform.b2b.common.events.InventoryReservedEvent;
+import com.eplatform.b2b.common.events.PaymentFailedEvent;
+import com.eplatform.b2b.common.events.PaymentSucceededEvent;
+import com.eplatform.b2b.common.messaging.EventPublisher;
+import com.eplatform.b2b.payment.messaging.InventoryReservedListener;
+import com.eplatform.b2b.payment.service.PaymentAuthorizationService;
+import com.eplatform.b2b.payment.service.PaymentProcessingService;
+import com.eplatform.b2b.payment.settlement.SettlementEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InventoryReservedListenerTest {
+
+    private EventPublisher eventPublisher;
+    private PaymentProcessingService payments;
+    private PaymentAuthorizationService authorizations;
+    private InventoryReservedListener listener;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(EventPublisher.class);
+        payments = mock(PaymentProcessingService.class);
+        authorizations = mock(PaymentAuthorizationService.class);
+        listener = new InventoryReservedListener(eventPublisher, payments, authorizations, mock(SettlementEngine.class));
+    }
+
+    @Test
+    void onInventoryReserved_ShouldChargeTheOrderTotal() {
+        // Given
+        when(payments.charge(any())).thenReturn(new PaymentChargeResponseDto(true, "TX-1", "charged"));
+
+        // When
+        listener.onInventoryReserved(new InventoryReservedEvent("ORDER-1", 2000L, "USD"));
+
+        // Then
+        verify(payments).charge(new PaymentChargeRequestDto("ORDER-1", 2000L, "USD"));
+        verify(eventPublisher).publish("payment.succeeded", "ORDER-1", new PaymentSucceededEvent("ORDER-1", "TX-1"));
+    }
+
+    @Test
+    void onInventoryReserved_ShouldFailOrder_WhenEventCarriesNoAmount() {
+        // When
+        listener.onInventoryReserved(new InventoryReservedEvent("ORDER-1", 0L, null));
+
+        // Then
+        verify(payments, never()).charge(any());
+        verify(eventPublisher).publish("payment.failed", "ORDER-1", new PaymentFailedEvent("ORDER-1", "missing_amount"));
+    }
+
+    @Test
+    void onInventoryReserved_ShouldNotCharge_WhenOrderWasCancelled() {
+        // Given
+        when(authorizations.isVoided("ORDER-1")).thenReturn(true);
+
+        // When
+        listener.onInventoryReserved(new InventoryReservedEvent("ORDER-1", 2000L, "USD"));
+
+        // Then
+        verifyNoInteractions(payments, eventPublisher);
+    }
+}
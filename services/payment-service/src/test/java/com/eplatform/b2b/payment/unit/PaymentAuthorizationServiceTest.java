@@ -0,0 +1,132 @@
+package com.eplatform.b2b.payment.unit;
+
+import com.eplatform.b2b.common.dto.PaymentChargeRequestDto;
+import com.eplatform.b2b.common.dto.PaymentChargeResponseDto;
+import com.eplatform.b2b.payment.gateway.GatewayException;
+import com.eplatform.b2b.payment.gateway.GatewayResponse;
+import com.eplatform.b2b.payment.gateway.GatewayUnavailableException;
+import com.eplatform.b2b.payment.gateway.PaymentGateway;
+import com.eplatform.b2b.payment.gateway.PaymentGateways;
+import com.eplatform.b2b.payment.service.PaymentAuthorizationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PaymentAuthorizationServiceTest {
+
+    private static final PaymentChargeRequestDto REQUEST = new PaymentChargeRequestDto("ORDER-1", 1000L, "USD");
+
+    private PaymentGateway gateway;
+    private PaymentAuthorizationService service;
+
+    @BeforeEach
+    void setUp() {
+        gateway = mock(PaymentGateway.class);
+        PaymentGateways gateways = mock(PaymentGateways.class);
+        when(gateways.primary()).thenReturn(gateway);
+        service = new PaymentAuthorizationService(gateways, 1000, 60_000);
+    }
+
+    @Test
+    void authorize_ShouldFail_WhenVoidedBefore() {
+        // When
+        service.voidAuthorization("ORDER-1");
+        PaymentChargeResponseDto response = service.authorize(REQUEST);
+
+        // Then
+        assertThat(response.success()).isFalse();
+        assertThat(response.message()).isEqualTo("voided");
+        assertThat(service.isVoided("ORDER-1")).isTrue();
+        verify(gateway, never()).authorize(any());
+    }
+
+    @Test
+    void capture_ShouldFailFast_WhenAnotherStepOfTheOrderIsStuck() throws Exception {
+        // Given - an authorization of the order is at the gateway, which hangs
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(gateway.authorize(any())).thenAnswer(inv -> {
+            entered.countDown();
+            release.await();
+            return GatewayResponse.approved("AUTH-1");
+        });
+        CompletableFuture<PaymentChargeResponseDto> authorizing = CompletableFuture.supplyAsync(
+            () -> service.authorize(REQUEST));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When / Then
+        assertThatThrownBy(() -> service.capture("ORDER-1"))
+            .isInstanceOf(GatewayUnavailableException.class)
+            .hasMessageContaining("busy");
+        release.countDown();
+        assertThat(authorizing.get(5, TimeUnit.SECONDS).transactionId()).isEqualTo("AUTH-1");
+    }
+
+    @Test
+    void authorize_ShouldClaimTheOrderAgain_WhenGatewayFailed() {
+        // Given
+        when(gateway.authorize(any()))
+            .thenThrow(new GatewayException("connection reset"))
+            .thenReturn(GatewayResponse.approved("AUTH-1"));
+        assertThatThrownBy(() -> service.authorize(REQUEST)).isInstanceOf(GatewayException.class);
+
+        // When
+        PaymentChargeResponseDto response = service.authorize(REQUEST);
+
+        // Then
+        assertThat(response.success()).isTrue();
+        assertThat(response.transactionId()).isEqualTo("AUTH-1");
+    }
+
+    @Test
+    void capture_ShouldNotWait_WhenAnotherOrderIsAtTheGateway() throws Exception {
+        // Given - ORDER-2 is authorized, ORDER-1's authorization hangs at the gateway
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(gateway.authorize(argThat(r -> r != null && r.orderId().equals("ORDER-1")))).thenAnswer(inv -> {
+            entered.countDown();
+            release.await();
+            return GatewayResponse.approved("AUTH-1");
+        });
+        when(gateway.authorize(argThat(r -> r != null && r.orderId().equals("ORDER-2"))))
+            .thenReturn(GatewayResponse.approved("AUTH-2"));
+        when(gateway.capture("AUTH-2", "ORDER-2")).thenReturn(GatewayResponse.approved("CAP-2"));
+        service.authorize(new PaymentChargeRequestDto("ORDER-2", 500L, "USD"));
+        CompletableFuture<PaymentChargeResponseDto> authorizing = CompletableFuture.supplyAsync(
+            () -> service.authorize(REQUEST));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        PaymentChargeResponseDto captured = service.capture("ORDER-2");
+
+        // Then
+        assertThat(captured.success()).isTrue();
+        release.countDown();
+        assertThat(authorizing.get(5, TimeUnit.SECONDS).success()).isTrue();
+    }
+
+    @Test
+    void voidAuthorization_ShouldReportCapture_WhenCapturedBefore() {
+        // Given
+        when(gateway.authorize(any())).thenReturn(GatewayResponse.approved("AUTH-1"));
+        when(gateway.capture("AUTH-1", "ORDER-1")).thenReturn(GatewayResponse.approved("CAP-1"));
+        service.authorize(REQUEST);
+        service.capture("ORDER-1");
+
+        // When
+        PaymentChargeResponseDto response = service.voidAuthorization("ORDER-1");
+
+        // Then
+        assertThat(response.success()).isFalse();
+        assertThat(response.message()).isEqualTo("captured");
+        assertThat(response.transactionId()).isEqualTo("AUTH-1");
+        verify(gateway, never()).voidAuthorization(any(), any());
+    }
+}
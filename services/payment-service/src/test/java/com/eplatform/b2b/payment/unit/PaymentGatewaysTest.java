@@ -0,0 +1,90 @@
+package com.eplatform.b2b.payment.unit;
+
+import com.eplatform.b2b.payment.gateway.GatewayException;
+import com.eplatform.b2b.payment.gateway.GatewayRequest;
+import com.eplatform.b2b.payment.gateway.GatewayResponse;
+import com.eplatform.b2b.payment.gateway.GatewayUnavailableException;
+import com.eplatform.b2b.payment.gateway.PaymentGateway;
+import com.eplatform.b2b.payment.gateway.PaymentGateways;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PaymentGatewaysTest {
+
+    private static final GatewayRequest REQUEST = new GatewayRequest("ORDER-1", 1000L, "USD", "ORDER-1");
+
+    private PaymentGateway failing;
+    private PaymentGateway healthy;
+    private MockEnvironment env;
+    private PaymentGateways gateways;
+
+    @BeforeEach
+    void setUp() {
+        failing = gateway("failing");
+        healthy = gateway("healthy");
+        when(failing.charge(any())).thenThrow(new GatewayException("connection refused"));
+        when(healthy.charge(any())).thenReturn(GatewayResponse.approved("TX-1"));
+        env = new MockEnvironment()
+            .withProperty("payment.gateways.failing.circuit.minimum-calls", "1")
+            .withProperty("payment.gateways.failing.max-wait-ms", "250");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (gateways != null) {
+            gateways.shutdown();
+        }
+    }
+
+    @Test
+    void get_ShouldKeepCircuitsApart_WhenOneGatewayFails() {
+        // Given
+        gateways = new PaymentGateways(List.of(failing, healthy), env, new SimpleMeterRegistry(), "failing");
+        assertThatThrownBy(() -> gateways.primary().charge(REQUEST)).hasMessageContaining("connection refused");
+
+        // When / Then - the primary's circuit is open, the other gateway is unaffected
+        assertThatThrownBy(() -> gateways.primary().charge(REQUEST))
+            .isInstanceOf(GatewayUnavailableException.class);
+        assertThat(gateways.get("healthy").charge(REQUEST).transactionId()).isEqualTo("TX-1");
+    }
+
+    @Test
+    void primary_ShouldUseItsOwnSettings() {
+        // When
+        gateways = new PaymentGateways(List.of(failing, healthy), env, new SimpleMeterRegistry(), "failing");
+
+        // Then
+        assertThat(gateways.primary().name()).isEqualTo("failing");
+    }
+
+    @Test
+    void constructor_ShouldReject_WhenPrimaryIsNotConfigured() {
+        assertThatThrownBy(() -> new PaymentGateways(List.of(healthy), env, new SimpleMeterRegistry(), "failing"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("payment.gateway.primary=failing");
+    }
+
+    @Test
+    void get_ShouldReject_WhenGatewayIsUnknown() {
+        // Given
+        gateways = new PaymentGateways(List.of(healthy), env, new SimpleMeterRegistry(), "healthy");
+
+        // When / Then
+        assertThatThrownBy(() -> gateways.get("other")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PaymentGateway gateway(String name) {
+        PaymentGateway gateway = mock(PaymentGateway.class);
+        when(gateway.name()).thenReturn(name);
+        return gateway;
+    }
+}
@@ -0,0 +1,142 @@
+package com.eplatform.b2b.payment.unit;
+
+import com.eplatform.b2b.payment.gateway.CircuitBreaker;
+import com.eplatform.b2b.payment.gateway.GatewayException;
+import com.eplatform.b2b.payment.gateway.GatewayRequest;
+import com.eplatform.b2b.payment.gateway.GatewayResponse;
+import com.eplatform.b2b.payment.gateway.GatewayUnavailableException;
+import com.eplatform.b2b.payment.gateway.PaymentGateway;
+import com.eplatform.b2b.payment.gateway.ResilientPaymentGateway;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ResilientPaymentGatewayTest {
+
+    private static final GatewayRequest REQUEST = new GatewayRequest("ORDER-1", 1000L, "USD", "ORDER-1");
+
+    private final ExecutorService calls = Executors.newVirtualThreadPerTaskExecutor();
+    private final CountDownLatch gatewayStuck = new CountDownLatch(1);
+    private PaymentGateway delegate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(PaymentGateway.class);
+        when(delegate.name()).thenReturn("test");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gatewayStuck.countDown();
+        calls.shutdownNow();
+    }
+
+    @Test
+    void charge_ShouldTimeOut_WhenGatewayIsSlow() {
+        // Given
+        stallCharges();
+        ResilientPaymentGateway gateway = gateway(2, 50, breaker(20));
+
+        // When / Then
+        assertThatThrownBy(() -> gateway.charge(REQUEST))
+            .isInstanceOf(GatewayException.class)
+            .isNotInstanceOf(GatewayUnavailableException.class)
+            .hasMessageContaining("timed out after 50 ms");
+        assertThat(meterRegistry.timer("payments.gateway.calls",
+            "gateway", "test", "operation", "charge", "outcome", "timeout").count()).isEqualTo(1);
+    }
+
+    @Test
+    void charge_ShouldHoldBulkheadSlot_UntilTimedOutCallEnds() {
+        // Given - the caller gave up, but the call still runs against the gateway
+        stallCharges();
+        ResilientPaymentGateway gateway = gateway(1, 50, breaker(20));
+        assertThatThrownBy(() -> gateway.charge(REQUEST)).isInstanceOf(GatewayException.class);
+
+        // When / Then
+        assertThatThrownBy(() -> gateway.charge(REQUEST))
+            .isInstanceOf(GatewayUnavailableException.class)
+            .hasMessageContaining("bulkhead_full");
+        assertThat(meterRegistry.counter("payments.gateway.rejections",
+            "gateway", "test", "reason", "bulkhead_full").count()).isEqualTo(1);
+
+        // When the stuck call ends, its slot is free again
+        gatewayStuck.countDown();
+        await(() -> {
+            assertThat(meterRegistry.get("payments.gateway.in_flight").gauge().value()).isZero();
+        });
+        assertThat(gateway.charge(REQUEST).approved()).isTrue();
+    }
+
+    @Test
+    void charge_ShouldFailFast_WhenCircuitOpen() {
+        // Given - one failure opens the circuit
+        when(delegate.charge(any())).thenThrow(new GatewayException("connection refused"));
+        ResilientPaymentGateway gateway = gateway(2, 1000, breaker(1));
+        assertThatThrownBy(() -> gateway.charge(REQUEST)).hasMessageContaining("connection refused");
+
+        // When / Then
+        assertThatThrownBy(() -> gateway.charge(REQUEST))
+            .isInstanceOf(GatewayUnavailableException.class)
+            .hasMessageContaining("circuit_open");
+        assertThat(gateway.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        verify(delegate, times(1)).charge(any());
+    }
+
+    @Test
+    void charge_ShouldNotCountDeclinesAsFailures() {
+        // Given
+        when(delegate.charge(any())).thenReturn(GatewayResponse.declined("card_declined"));
+        ResilientPaymentGateway gateway = gateway(2, 1000, breaker(1));
+
+        // When
+        GatewayResponse first = gateway.charge(REQUEST);
+        GatewayResponse second = gateway.charge(REQUEST);
+
+        // Then
+        assertThat(first.approved()).isFalse();
+        assertThat(second.declineReason()).isEqualTo("card_declined");
+        assertThat(gateway.circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private void stallCharges() {
+        when(delegate.charge(any())).thenAnswer(inv -> {
+            gatewayStuck.await();
+            return GatewayResponse.approved("TX-1");
+        });
+    }
+
+    private ResilientPaymentGateway gateway(int maxConcurrent, long timeoutMs, CircuitBreaker breaker) {
+        return new ResilientPaymentGateway(delegate, maxConcurrent, 20, timeoutMs, breaker, calls, meterRegistry);
+    }
+
+    private static CircuitBreaker breaker(int minimumCalls) {
+        return new CircuitBreaker(0.5, 20, minimumCalls, 60_000, 1, System::currentTimeMillis);
+    }
+
+    private static void await(Runnable assertion) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            try {
+                assertion.run();
+                return;
+            } catch (AssertionError ex) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw ex;
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.eplatform.b2b.payment.unit;
+
+import com.eplatform.b2b.common.events.InventoryReservedEvent;
+import com.eplatform.b2b.common.events.PaymentSucceededEvent;
+import com.eplatform.b2b.common.messaging.EventPublisher;
+import com.eplatform.b2b.payment.gateway.GatewayException;
+import com.eplatform.b2b.payment.gateway.GatewayRequest;
+import com.eplatform.b2b.payment.gateway.GatewayResponse;
+import com.eplatform.b2b.payment.gateway.PaymentGateway;
+import com.eplatform.b2b.payment.gateway.PaymentGateways;
+import com.eplatform.b2b.payment.settlement.SettlementEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SettlementEngineTest {
+
+    @TempDir
+    Path dir;
+
+    private PaymentGateway gateway;
+    private PaymentGateways gateways;
+    private EventPublisher eventPublisher;
+    private SettlementEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        gateway = mock(PaymentGateway.class);
+        gateways = mock(PaymentGateways.class);
+        when(gateways.primary()).thenReturn(gateway);
+        when(gateway.charge(any())).thenReturn(GatewayResponse.approved("TX-1"));
+        eventPublisher = mock(EventPublisher.class);
+        when(eventPublisher.publish(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (engine != null) {
+            engine.close();
+        }
+    }
+
+    @Test
+    void replay_ShouldRestoreAccruedOrdersAndOpenBatches() throws Exception {
+        // Given - ORDER-0 was settled, ORDER-1 is in an open batch, ORDER-2 accruing,
+        // ORDER-3 cancelled, and the write of ORDER-4 was cut short
+        Files.writeString(dir.resolve("settlement.journal"), String.join("\n",
+            "A\tORDER-0\tBUYER-1\tUSD\t50",
+            "B\tBATCH-0\tBUYER-1\tUSD\t50\tORDER-0",
+            "S\tBATCH-0",
+            "A\tORDER-1\tBUYER-1\tUSD\t100",
+            "A\tORDER-2\tBUYER-1\tUSD\t200",
+            "A\tORDER-3\tBUYER-1\tUSD\t300",
+            "C\tORDER-3",
+            "B\tBATCH-1\tBUYER-1\tUSD\t100\tORDER-1",
+            "A\tORDER-4\tBUY"), StandardCharsets.UTF_8);
+
+        // When
+        engine = newEngine(100);
+        engine.accrue(reserved("ORDER-0", 50));
+        engine.settleWindow();
+
+        // Then - the open batch is charged under its own key, the accruing order in a new batch
+        ArgumentCaptor<GatewayRequest> charges = ArgumentCaptor.forClass(GatewayRequest.class);
+        verify(gateway, times(2)).charge(charges.capture());
+        assertThat(charges.getAllValues()).extracting(GatewayRequest::amountCents).containsExactlyInAnyOrder(100L, 200L);
+        assertThat(charges.getAllValues()).extracting(GatewayRequest::idempotencyKey).contains("BATCH-1");
+        verify(eventPublisher).publish("payment.succeeded", "ORDER-1", new PaymentSucceededEvent("ORDER-1", "TX-1"));
+        verify(eventPublisher).publish("payment.succeeded", "ORDER-2", new PaymentSucceededEvent("ORDER-2", "TX-1"));
+        verify(eventPublisher, never()).publish(anyString(), eq("ORDER-0"), any());
+        verify(eventPublisher, never()).publish(anyString(), eq("ORDER-3"), any());
+        verify(eventPublisher, never()).publish(anyString(), eq("ORDER-4"), any());
+    }
+
+    @Test
+    void settleWindow_ShouldChargeBatchAgainUnderSameKey_WhenGatewayFails() throws Exception {
+        // Given
+        when(gateway.charge(any()))
+            .thenThrow(new GatewayException("timed out"))
+            .thenReturn(GatewayResponse.approved("TX-1"));
+        engine = newEngine(100);
+        engine.accrue(reserved("ORDER-1", 100));
+        engine.accrue(reserved("ORDER-2", 200));
+
+        // When
+        engine.settleWindow();
+        verify(eventPublisher, never()).publish(anyString(), anyString(), any());
+        engine.settleWindow();
+
+        // Then
+        ArgumentCaptor<GatewayRequest> charges = ArgumentCaptor.forClass(GatewayRequest.class);
+        verify(gateway, times(2)).charge(charges.capture());
+        assertThat(charges.getAllValues()).extracting(GatewayRequest::amountCents).containsExactly(300L, 300L);
+        assertThat(charges.getAllValues().get(1).idempotencyKey())
+            .isEqualTo(charges.getAllValues().get(0).idempotencyKey());
+        verify(eventPublisher, times(2)).publish(eq("payment.succeeded"), anyString(), any());
+    }
+
+    @Test
+    void accrue_ShouldDropRedelivery_AfterCompactionAndRestart() throws Exception {
+        // Given - ORDER-1 settled, and the journal compacted down to what is kept
+        engine = newEngine(100);
+        engine.accrue(reserved("ORDER-1", 100));
+        engine.settleWindow();
+        assertThat(Files.readAllLines(dir.resolve("settlement.journal"))).containsExactly("D\tORDER-1");
+        engine.close();
+
+        // When - inventory.reserved is redelivered to the restarted instance
+        engine = newEngine(100);
+        engine.accrue(reserved("ORDER-1", 100));
+        engine.settleWindow();
+
+        // Then
+        verify(gateway, times(1)).charge(any());
+    }
+
+    @Test
+    void replay_ShouldKeepOnlyTheNewestSettledOrders() throws Exception {
+        // Given
+        engine = newEngine(2);
+        for (String orderId : List.of("ORDER-1", "ORDER-2", "ORDER-3")) {
+            engine.accrue(reserved(orderId, 100));
+            engine.settleWindow();
+        }
+        engine.close();
+
+        // When
+        engine = newEngine(2);
+        engine.accrue(reserved("ORDER-1", 100));
+        engine.accrue(reserved("ORDER-3", 100));
+        engine.settleWindow();
+
+        // Then - ORDER-1 fell out of the dedup horizon, ORDER-3 did not
+        verify(gateway, times(4)).charge(any());
+        verify(eventPublisher, times(2)).publish(anyString(), eq("ORDER-1"), any());
+        verify(eventPublisher, times(1)).publish(anyString(), eq("ORDER-3"), any());
+    }
+
+    @Test
+    void settleWindow_ShouldKeepBatchOpen_WhenPublishingTimesOut() throws Exception {
+        // Given - the broker never acknowledges the first send
+        when(eventPublisher.publish(anyString(), anyString(), any()))
+            .thenReturn(new CompletableFuture<>())
+            .thenReturn(CompletableFuture.completedFuture(null));
+        engine = newEngine(100);
+        engine.accrue(reserved("ORDER-1", 100));
+
+        // When
+        engine.settleWindow();
+
+        // Then - not settled yet, so the next window publishes the batch again
+        assertThat(Files.readAllLines(dir.resolve("settlement.journal"))).noneMatch(line -> line.startsWith("S"));
+        engine.settleWindow();
+        verify(eventPublisher, times(2)).publish(eq("payment.succeeded"), eq("ORDER-1"), any());
+        assertThat(Files.readAllLines(dir.resolve("settlement.journal"))).containsExactly("D\tORDER-1");
+    }
+
+    private SettlementEngine newEngine(int settledCacheSize) {
+        return new SettlementEngine(gateways, eventPublisher, new SimpleMeterRegistry(), true, "", 1000,
+            dir.toString(), false, settledCacheSize, 200);
+    }
+
+    private static InventoryReservedEvent reserved(String orderId, long amountCents) {
+        return new InventoryReservedEvent(orderId, amountCents, "USD", "BUYER-1");
+    }
+}
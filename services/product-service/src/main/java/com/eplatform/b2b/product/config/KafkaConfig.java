@@ -0,0 +1,25 @@
+package com.eplatform.b2b.product.config;
+
+import com.eplatform.b2b.common.messaging.EventPublisherConfiguration;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+@EnableKafka
+@Import(EventPublisherConfiguration.class)
+public class KafkaConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "product.cache.broadcast.enabled", havingValue = "true", matchIfMissing = true)
+    public NewTopic topicProductCacheInvalidation(
+            @Value("${product.cache.broadcast.topic:product.cache-invalidation}") String topic) {
+        // Every replica reads every partition; one keeps invalidations in commit order
+        return TopicBuilder.name(topic).partitions(1).replicas(1).build();
+    }
+}
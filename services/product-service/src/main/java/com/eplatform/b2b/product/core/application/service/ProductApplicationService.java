@@ -3,6 +3,7 @@ package com.eplatform.b2b.product.core.application.service;
 import com.eplatform.b2b.product.core.application.commands.ProductDto;
 import com.eplatform.b2b.product.core.application.commands.CreateProductRequest;
 import com.eplatform.b2b.product.core.application.commands.UpdateProductRequest;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -40,6 +41,13 @@ public interface ProductApplicationService {
      */
     ProductDto getProductBySku(String sku);
 
+    /**
+     * Retrieves the products with the given SKUs in one lookup.
+     * @param skus the SKUs to look up
+     * @return the product DTOs found, in request order; unknown SKUs are left out
+     */
+    List<ProductDto> getProductsBySkus(Collection<String> skus);
+
     /**
      * Retrieves all products.
      * @return list of all product DTOs
@@ -8,9 +8,16 @@ import com.eplatform.b2b.product.core.application.service.ProductApplicationServ
 import com.eplatform.b2b.product.core.application.service.ProductDomainService;
 import com.eplatform.b2b.product.core.domain.model.Product;
 import com.eplatform.b2b.product.core.domain.repository.ProductRepository;
+import com.eplatform.b2b.product.infrastructure.cache.ProductCache;
+import com.eplatform.b2b.product.infrastructure.messaging.ProductCacheInvalidationBroadcaster;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 @Service
@@ -19,10 +26,18 @@ public class ProductServiceImpl implements ProductApplicationService {
 
     private final ProductRepository productRepository;
     private final ProductDomainService productDomainService;
+    private final ProductCache productCache;
+    private final ProductCacheInvalidationBroadcaster invalidationBroadcaster;
+    private final int maxLookupSkus;
 
-    public ProductServiceImpl(ProductRepository productRepository, ProductDomainService productDomainService) {
+    public ProductServiceImpl(ProductRepository productRepository, ProductDomainService productDomainService,
+                              ProductCache productCache, ProductCacheInvalidationBroadcaster invalidationBroadcaster,
+                              @Value("${product.lookup.max-skus:1000}") int maxLookupSkus) {
         this.productRepository = productRepository;
         this.productDomainService = productDomainService;
+        this.productCache = productCache;
+        this.invalidationBroadcaster = invalidationBroadcaster;
+        this.maxLookupSkus = maxLookupSkus;
     }
 
     @Override
@@ -48,6 +63,7 @@ public class ProductServiceImpl implements ProductApplicationService {
 
         // Save product
         Product savedProduct = productRepository.save(product);
+        invalidateAfterCommit(savedProduct.getId(), savedProduct.getSku());
 
         // Map to DTO and return
         return mapToDto(savedProduct);
@@ -67,39 +83,55 @@ public class ProductServiceImpl implements ProductApplicationService {
         return createProduct(basicRequest);
     }
 
+    // Cached reads join a caller's transaction but don't start one, so a hit takes no connection
+
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductDto getProductById(Long id) {
-        Product product = productRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Product not found with ID: " + id));
-        return mapToDto(product);
+        return productCache.getById(id, () -> mapToDto(productRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Product not found with ID: " + id))));
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductDto getProductBySku(String sku) {
-        Product product = productRepository.findBySku(sku)
-            .orElseThrow(() -> new IllegalArgumentException("Product not found with SKU: " + sku));
-        return mapToDto(product);
+        return productCache.getBySku(sku, () -> mapToDto(productRepository.findBySku(sku)
+            .orElseThrow(() -> new IllegalArgumentException("Product not found with SKU: " + sku))));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ProductDto> getProductsBySkus(Collection<String> skus) {
+        if (skus.size() > maxLookupSkus) {
+            throw new IllegalArgumentException("At most " + maxLookupSkus + " SKUs per lookup, got " + skus.size());
+        }
+        return productCache.getBySkus(skus, missing -> productRepository.findBySkuIn(missing).stream()
+            .map(this::mapToDto)
+            .collect(Collectors.toList()));
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductDto> getAllProducts() {
-        return productRepository.findAll().stream()
+        return productCache.getList("all", () -> productRepository.findAll().stream()
             .map(this::mapToDto)
-            .collect(Collectors.toList());
+            .collect(Collectors.toList()));
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductDto> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category).stream()
+        return productCache.getList("category:" + category, () -> productRepository.findByCategory(category).stream()
             .map(this::mapToDto)
-            .collect(Collectors.toList());
+            .collect(Collectors.toList()));
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductDto> getActiveProducts() {
-        return productRepository.findByActive(true).stream()
+        return productCache.getList("active", () -> productRepository.findByActive(true).stream()
             .map(this::mapToDto)
-            .collect(Collectors.toList());
+            .collect(Collectors.toList()));
     }
 
     @Override
@@ -132,20 +164,21 @@ public class ProductServiceImpl implements ProductApplicationService {
         productDomainService.validateProductUpdate(existingProduct, existingProduct);
 
         Product updatedProduct = productRepository.save(existingProduct);
+        invalidateAfterCommit(updatedProduct.getId(), updatedProduct.getSku());
         return mapToDto(updatedProduct);
     }
 
     @Override
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new IllegalArgumentException("Product not found with ID: " + id);
-        }
+        Product product = productRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Product not found with ID: " + id));
 
-        if (!productDomainService.canDeleteProduct(productRepository.findById(id).get())) {
+        if (!productDomainService.canDeleteProduct(product)) {
             throw new IllegalArgumentException("Cannot delete product with ID: " + id);
         }
 
         productRepository.deleteById(id);
+        invalidateAfterCommit(id, product.getSku());
     }
 
     @Override
@@ -154,6 +187,7 @@ public class ProductServiceImpl implements ProductApplicationService {
             .orElseThrow(() -> new IllegalArgumentException("Product not found with ID: " + id));
         product.setActive(false);
         productRepository.save(product);
+        invalidateAfterCommit(id, product.getSku());
     }
 
     @Override
@@ -162,20 +196,25 @@ public class ProductServiceImpl implements ProductApplicationService {
             .orElseThrow(() -> new IllegalArgumentException("Product not found with ID: " + id));
         product.setActive(true);
         productRepository.save(product);
+        invalidateAfterCommit(id, product.getSku());
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductDto> getProductsBySupplier(Long supplierId) {
-        return productRepository.findBySupplierId(supplierId).stream()
+        return productCache.getList("supplier:" + supplierId, () -> productRepository.findBySupplierId(supplierId)
+            .stream()
             .map(this::mapToDto)
-            .collect(Collectors.toList());
+            .collect(Collectors.toList()));
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductDto> getActiveProductsBySupplier(Long supplierId) {
-        return productRepository.findBySupplierIdAndActive(supplierId, true).stream()
+        return productCache.getList("supplier-active:" + supplierId, () -> productRepository
+            .findBySupplierIdAndActive(supplierId, true).stream()
             .map(this::mapToDto)
-            .collect(Collectors.toList());
+            .collect(Collectors.toList()));
     }
 
     @Override
@@ -185,6 +224,25 @@ public class ProductServiceImpl implements ProductApplicationService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Drops the product from this replica's cache and broadcasts the change once the
+     * transaction commits; dropping it earlier would let a concurrent read cache the old row.
+     */
+    private void invalidateAfterCommit(Long id, String sku) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productCache.invalidate(id, sku);
+            invalidationBroadcaster.publish(id, sku);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productCache.invalidate(id, sku);
+                invalidationBroadcaster.publish(id, sku);
+            }
+        });
+    }
+
     private ProductDto mapToDto(Product product) {
         return new ProductDto(
             product.getId(),
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 
 import com.eplatform.b2b.product.core.domain.model.Product;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +31,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     Optional<Product> findBySku(String sku);
 
+    /**
+     * Finds the products with any of the given SKUs in one query on the unique SKU index.
+     *
+     * @param skus the SKUs to look up
+     * @return the products found; SKUs without a product are left out
+     */
+    List<Product> findBySkuIn(Collection<String> skus);
+
     /**
      * Finds all products belonging to a specific category.
      *
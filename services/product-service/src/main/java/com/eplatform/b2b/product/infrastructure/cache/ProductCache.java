@@ -0,0 +1,260 @@
+package com.eplatform.b2b.product.infrastructure.cache;
+
+import com.eplatform.b2b.product.core.application.commands.ProductDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Near-cache of product reads: products by id, the SKU to id mapping, and the results of
+ * the list queries. Values are immutable {@link ProductDto}s and unmodifiable lists, so
+ * they are handed out as they are. Every region is a size-bounded Caffeine cache whose
+ * entries expire after a TTL, which also bounds the staleness left by a lost invalidation.
+ * Reads and writes take no lock shared across keys.
+ *
+ * <p>Any change to a product drops its entries and all cached lists, since a change of
+ * name, category, supplier or status can move it in or out of any list. An invalidation
+ * bumps a generation before it drops entries; a load puts its result, then takes it back
+ * out if the generation moved since the load started, so a read that saw the old row
+ * cannot leave it cached after the change committed.
+ *
+ * <p>Metrics follow Micrometer's cache names: {@code cache.gets} (result hit or miss),
+ * {@code cache.puts}, {@code cache.evictions} (cause size, expired or invalidated) and
+ * {@code cache.size}, each tagged with the region.
+ */
+@Component
+public class ProductCache {
+
+    private final boolean enabled;
+    private final Region<Long, ProductDto> byId;
+    private final Region<String, Long> idBySku;
+    private final Region<String, List<ProductDto>> lists;
+    /** Bumped on every invalidation, before entries are dropped. */
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductCache(MeterRegistry meterRegistry,
+                        @Value("${product.cache.enabled:true}") boolean enabled,
+                        @Value("${product.cache.max-products:50000}") int maxProducts,
+                        @Value("${product.cache.ttl-ms:60000}") long ttlMs,
+                        @Value("${product.cache.max-lists:1000}") int maxLists,
+                        @Value("${product.cache.list-ttl-ms:10000}") long listTtlMs) {
+        this.enabled = enabled;
+        this.byId = new Region<>("products.byId", maxProducts, ttlMs, meterRegistry);
+        this.idBySku = new Region<>("products.bySku", maxProducts, ttlMs, meterRegistry);
+        this.lists = new Region<>("products.lists", maxLists, listTtlMs, meterRegistry);
+    }
+
+    public ProductDto getById(Long id, Supplier<ProductDto> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        ProductDto cached = byId.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = generation.get();
+        ProductDto loaded = loader.get();
+        cacheProduct(loaded.sku(), loaded, seen);
+        return loaded;
+    }
+
+    public ProductDto getBySku(String sku, Supplier<ProductDto> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        ProductDto cached = cachedBySku(sku);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = generation.get();
+        ProductDto loaded = loader.get();
+        cacheProduct(sku, loaded, seen);
+        return loaded;
+    }
+
+    /**
+     * Products for many SKUs: those cached through the SKU to id mapping, the rest with a
+     * single call to the loader.
+     *
+     * @param loader loads the products for the SKUs not cached; unknown SKUs are left out
+     * @return the products found, in the order of {@code skus}
+     */
+    public List<ProductDto> getBySkus(Collection<String> skus, Function<Collection<String>, List<ProductDto>> loader) {
+        Set<String> wanted = new LinkedHashSet<>(skus);
+        if (!enabled) {
+            return ordered(wanted, loader.apply(wanted));
+        }
+        List<ProductDto> found = new ArrayList<>(wanted.size());
+        List<String> missing = new ArrayList<>();
+        long seen = generation.get();
+        for (String sku : wanted) {
+            ProductDto cached = cachedBySku(sku);
+            if (cached != null) {
+                found.add(cached);
+            } else {
+                missing.add(sku);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+        List<ProductDto> loaded = loader.apply(missing);
+        for (ProductDto product : loaded) {
+            cacheProduct(product.sku(), product, seen);
+        }
+        found.addAll(loaded);
+        return ordered(wanted, found);
+    }
+
+    /**
+     * Cached result of a list query.
+     *
+     * @param key identifies the query and its arguments, e.g. {@code "category:tools"}
+     */
+    public List<ProductDto> getList(String key, Supplier<List<ProductDto>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        List<ProductDto> cached = lists.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = generation.get();
+        List<ProductDto> loaded = List.copyOf(loader.get());
+        lists.put(key, loaded);
+        if (generation.get() != seen) {
+            lists.takeBack(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the product and every cached list.
+     *
+     * @param id the product id, or null if only the lists changed
+     * @param sku the product's SKU if known
+     */
+    public void invalidate(Long id, String sku) {
+        generation.incrementAndGet();
+        if (id != null) {
+            ProductDto removed = byId.invalidate(id);
+            if (removed != null && sku == null) {
+                sku = removed.sku();
+            }
+        }
+        if (sku != null) {
+            idBySku.invalidate(sku);
+        }
+        lists.invalidateAll();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        byId.invalidateAll();
+        idBySku.invalidateAll();
+        lists.invalidateAll();
+    }
+
+    private ProductDto cachedBySku(String sku) {
+        Long id = idBySku.get(sku);
+        return id != null ? byId.get(id) : null;
+    }
+
+    /** Caches a loaded product, unless an invalidation ran since generation {@code seen}. */
+    private void cacheProduct(String sku, ProductDto product, long seen) {
+        byId.put(product.id(), product);
+        idBySku.put(sku, product.id());
+        if (generation.get() != seen) {
+            byId.takeBack(product.id(), product);
+            idBySku.takeBack(sku, product.id());
+        }
+    }
+
+    private static List<ProductDto> ordered(Set<String> skus, List<ProductDto> products) {
+        Map<String, ProductDto> bySku = new HashMap<>();
+        products.forEach(product -> bySku.put(product.sku(), product));
+        return skus.stream().map(bySku::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * One region. Caffeine's maintenance, and with it the eviction counts, runs on the
+     * calling thread, amortized over reads and writes.
+     */
+    private static final class Region<K, V> {
+
+        private final Cache<K, V> entries;
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter puts;
+        private final Counter invalidations;
+
+        Region(String name, int maxSize, long ttlMs, MeterRegistry meterRegistry) {
+            this.hits = meterRegistry.counter("cache.gets", "cache", name, "result", "hit");
+            this.misses = meterRegistry.counter("cache.gets", "cache", name, "result", "miss");
+            this.puts = meterRegistry.counter("cache.puts", "cache", name);
+            this.invalidations = meterRegistry.counter("cache.evictions", "cache", name, "cause", "invalidated");
+            Counter sizeEvictions = meterRegistry.counter("cache.evictions", "cache", name, "cause", "size");
+            Counter expiredEvictions = meterRegistry.counter("cache.evictions", "cache", name, "cause", "expired");
+            this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .executor(Runnable::run)
+                .evictionListener((K key, V value, RemovalCause cause) ->
+                    (cause == RemovalCause.EXPIRED ? expiredEvictions : sizeEvictions).increment())
+                .build();
+            Gauge.builder("cache.size", entries, Cache::estimatedSize)
+                .tag("cache", name)
+                .description("Entries in the product near-cache")
+                .register(meterRegistry);
+        }
+
+        V get(K key) {
+            V value = entries.getIfPresent(key);
+            (value != null ? hits : misses).increment();
+            return value;
+        }
+
+        void put(K key, V value) {
+            entries.put(key, value);
+            puts.increment();
+        }
+
+        /** Removes the entry if it still holds the value this caller put. */
+        void takeBack(K key, V value) {
+            if (entries.asMap().remove(key, value)) {
+                invalidations.increment();
+            }
+        }
+
+        V invalidate(K key) {
+            V removed = entries.asMap().remove(key);
+            if (removed != null) {
+                invalidations.increment();
+            }
+            return removed;
+        }
+
+        void invalidateAll() {
+            invalidations.increment(entries.estimatedSize());
+            entries.invalidateAll();
+        }
+    }
+}
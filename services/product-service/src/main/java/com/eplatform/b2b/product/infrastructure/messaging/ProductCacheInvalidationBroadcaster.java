@@ -0,0 +1,75 @@
+package com.eplatform.b2b.product.infrastructure.messaging;
+
+import com.eplatform.b2b.common.messaging.EventPublisher;
+import com.eplatform.b2b.product.infrastructure.cache.ProductCache;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Keeps the {@link ProductCache} of every replica coherent. A committed product change is
+ * published with the product id as key and its SKU as value. Each replica assigns itself
+ * the topic's single partition without a consumer group, so every replica sees every
+ * message and no group is left behind when it goes away; it reads from the end and skips
+ * the messages it sent itself. Delivery is best effort: a lost message leaves a replica
+ * stale until the cache TTL expires.
+ */
+@Slf4j
+@Component
+public class ProductCacheInvalidationBroadcaster {
+
+    private static final String ORIGIN_HEADER = "origin";
+
+    private final ProductCache productCache;
+    private final EventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String topic;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public ProductCacheInvalidationBroadcaster(ProductCache productCache, EventPublisher eventPublisher,
+                                               @Value("${product.cache.broadcast.enabled:true}") boolean enabled,
+                                               @Value("${product.cache.broadcast.topic:product.cache-invalidation}") String topic) {
+        this.productCache = productCache;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.topic = topic;
+    }
+
+    /** Tells the other replicas to drop the product and their cached lists. */
+    public void publish(Long id, String sku) {
+        if (!enabled) {
+            return;
+        }
+        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, id != null ? id.toString() : null, sku);
+        record.headers().add(ORIGIN_HEADER, instanceId.getBytes(StandardCharsets.UTF_8));
+        try {
+            // Failed sends are logged and counted by the publisher
+            eventPublisher.publish(record);
+        } catch (RuntimeException ex) {
+            // The change is committed either way; other replicas catch up when their entries expire
+            log.warn("Cache invalidation for product {} not broadcast: {}", id, ex.getMessage());
+        }
+    }
+
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${product.cache.broadcast.topic:product.cache-invalidation}",
+        partitions = "0"),
+        autoStartup = "${product.cache.broadcast.enabled:true}",
+        properties = "auto.offset.reset=latest")
+    public void onInvalidation(ConsumerRecord<String, String> record) {
+        Header origin = record.headers().lastHeader(ORIGIN_HEADER);
+        if (origin != null && instanceId.equals(new String(origin.value(), StandardCharsets.UTF_8))) {
+            return;
+        }
+        Long id = record.key() != null ? Long.valueOf(record.key()) : null;
+        productCache.invalidate(id, record.value());
+        log.debug("Product {} invalidated by another replica", id);
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.repository.query.Param;
 import com.eplatform.b2b.product.core.domain.model.Product;
 import com.eplatform.b2b.product.core.domain.repository.ProductRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,9 +37,8 @@ public interface JpaProductRepositoryImp extends ProductRepository {
     boolean existsBySku(String sku);
 
     @Override
-    default Optional<Product> findBySku(String sku) {
-        return findAll().stream()
-                .filter(product -> sku.equals(product.getSku()))
-                .findFirst();
-    }
+    Optional<Product> findBySku(String sku);
+
+    @Override
+    List<Product> findBySkuIn(Collection<String> skus);
 }
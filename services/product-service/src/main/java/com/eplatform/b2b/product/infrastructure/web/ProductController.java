@@ -60,6 +60,12 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    @PostMapping("/sku/lookup")
+    public ResponseEntity<List<ProductDto>> getProductsBySkus(@RequestBody List<String> skus) {
+        List<ProductDto> products = productApplicationService.getProductsBySkus(skus);
+        return ResponseEntity.ok(products);
+    }
+
     @GetMapping
     public ResponseEntity<List<ProductDto>> getAllProducts() {
         List<ProductDto> products = productApplicationService.getAllProducts();
@@ -0,0 +1,89 @@
+package com.eplatform.b2b.product.unit;
+
+import com.eplatform.b2b.common.messaging.EventPublisher;
+import com.eplatform.b2b.product.infrastructure.cache.ProductCache;
+import com.eplatform.b2b.product.infrastructure.messaging.ProductCacheInvalidationBroadcaster;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductCacheInvalidationBroadcasterTest {
+
+    private static final String TOPIC = "product.cache-invalidation";
+
+    private ProductCache productCache;
+    private EventPublisher eventPublisher;
+    private ProductCacheInvalidationBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        productCache = mock(ProductCache.class);
+        eventPublisher = mock(EventPublisher.class);
+        broadcaster = new ProductCacheInvalidationBroadcaster(productCache, eventPublisher, true, TOPIC);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publish_ShouldSendIdAndSkuWithOrigin() {
+        // When
+        broadcaster.publish(1L, "SKU-1");
+
+        // Then
+        ArgumentCaptor<ProducerRecord<String, Object>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(eventPublisher).publish(sent.capture());
+        assertThat(sent.getValue().topic()).isEqualTo(TOPIC);
+        assertThat(sent.getValue().key()).isEqualTo("1");
+        assertThat(sent.getValue().value()).isEqualTo("SKU-1");
+        assertThat(sent.getValue().headers().lastHeader("origin")).isNotNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onInvalidation_ShouldSkipOwnMessages() {
+        // Given - the message this replica sent comes back to it
+        broadcaster.publish(1L, "SKU-1");
+        ArgumentCaptor<ProducerRecord<String, Object>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(eventPublisher).publish(sent.capture());
+        ConsumerRecord<String, String> echo = new ConsumerRecord<>(TOPIC, 0, 0L, "1", "SKU-1");
+        sent.getValue().headers().forEach(header -> echo.headers().add(header));
+
+        // When
+        broadcaster.onInvalidation(echo);
+
+        // Then
+        verify(productCache, never()).invalidate(any(), any());
+    }
+
+    @Test
+    void onInvalidation_ShouldInvalidate_WhenSentByAnotherReplica() {
+        // Given
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(TOPIC, 0, 0L, "1", "SKU-1");
+        record.headers().add("origin", "other-replica".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        broadcaster.onInvalidation(record);
+
+        // Then
+        verify(productCache).invalidate(1L, "SKU-1");
+    }
+
+    @Test
+    void publish_ShouldSendNothing_WhenDisabled() {
+        // Given
+        broadcaster = new ProductCacheInvalidationBroadcaster(productCache, eventPublisher, false, TOPIC);
+
+        // When
+        broadcaster.publish(1L, "SKU-1");
+
+        // Then
+        verifyNoInteractions(eventPublisher);
+    }
+}
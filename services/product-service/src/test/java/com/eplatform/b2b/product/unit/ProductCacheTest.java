@@ -0,0 +1,141 @@
+package com.eplatform.b2b.product.unit;
+
+import com.eplatform.b2b.product.core.application.commands.ProductDto;
+import com.eplatform.b2b.product.infrastructure.cache.ProductCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void getById_ShouldLoadOnce_WhenEntryIsFresh() {
+        // Given
+        ProductCache cache = cache(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        cache.getById(1L, counting(loads, product(1L)));
+        ProductDto cached = cache.getById(1L, counting(loads, product(1L)));
+
+        // Then
+        assertThat(cached.sku()).isEqualTo("SKU-1");
+        assertThat(loads).hasValue(1);
+        assertThat(evictions("products.byId", "expired")).isZero();
+    }
+
+    @Test
+    void getById_ShouldReload_WhenEntryExpired() throws InterruptedException {
+        // Given
+        ProductCache cache = cache(10, 50);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getById(1L, counting(loads, product(1L)));
+
+        // When
+        Thread.sleep(100);
+        cache.getById(1L, counting(loads, product(1L)));
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(evictions("products.byId", "expired")).isEqualTo(1);
+    }
+
+    @Test
+    void getById_ShouldEvictLeastUsed_WhenFull() {
+        // Given - product 1 is read again after 2 was loaded
+        ProductCache cache = cache(2, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getById(1L, counting(loads, product(1L)));
+        cache.getById(2L, counting(loads, product(2L)));
+        cache.getById(1L, counting(loads, product(1L)));
+
+        // When
+        cache.getById(3L, counting(loads, product(3L)));
+
+        // Then - 1 and 3 are still cached, 2 was evicted
+        cache.getById(1L, counting(loads, product(1L)));
+        cache.getById(3L, counting(loads, product(3L)));
+        assertThat(loads).hasValue(3);
+        assertThat(evictions("products.byId", "size")).isEqualTo(1);
+        cache.getById(2L, counting(loads, product(2L)));
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void getById_ShouldNotCache_WhenInvalidatedDuringLoad() {
+        // Given - the product changes while the old row is being read
+        ProductCache cache = cache(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<ProductDto> racingLoad = () -> {
+            loads.incrementAndGet();
+            cache.invalidate(1L, "SKU-1");
+            return product(1L);
+        };
+
+        // When
+        ProductDto loaded = cache.getById(1L, racingLoad);
+        cache.getById(1L, counting(loads, product(1L)));
+
+        // Then - the stale row was returned to its caller but not put back
+        assertThat(loaded.id()).isEqualTo(1L);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidate_ShouldDropProductAndLists() {
+        // Given
+        ProductCache cache = cache(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getById(1L, counting(loads, product(1L)));
+        cache.getList("category:tools", () -> {
+            loads.incrementAndGet();
+            return List.of(product(1L));
+        });
+
+        // When
+        cache.invalidate(1L, null);
+
+        // Then - the SKU mapping goes too, found through the dropped product
+        cache.getBySku("SKU-1", counting(loads, product(1L)));
+        cache.getList("category:tools", () -> {
+            loads.incrementAndGet();
+            return List.of(product(1L));
+        });
+        assertThat(loads).hasValue(4);
+        assertThat(evictions("products.bySku", "invalidated")).isEqualTo(1);
+    }
+
+    private ProductCache cache(int maxProducts, long ttlMs) {
+        return new ProductCache(meterRegistry, true, maxProducts, ttlMs, 10, ttlMs);
+    }
+
+    private double evictions(String region, String cause) {
+        return meterRegistry.counter("cache.evictions", "cache", region, "cause", cause).count();
+    }
+
+    private static Supplier<ProductDto> counting(AtomicInteger loads, ProductDto product) {
+        return () -> {
+            loads.incrementAndGet();
+            return product;
+        };
+    }
+
+    private static ProductDto product(Long id) {
+        return new ProductDto(id, "SKU-" + id, "Product " + id, null, new BigDecimal("9.99"), "tools",
+            null, null, null, true, null, null);
+    }
+}